@@ -26,16 +26,25 @@ import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
  */
 public class Channels<T> {
     private final QueueBuffer<T>[] bufferChannels;
+    private final IDataSavedListener[] savedListeners;
     private IDataPartitioner<T> dataPartitioner;
     private BufferStrategy strategy;
     private final long size;
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, BufferType.DEFAULT);
+    }
+
+    public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy,
+                    BufferType bufferType) {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
         bufferChannels = new QueueBuffer[channelSize];
+        savedListeners = new IDataSavedListener[channelSize];
         for (int i = 0; i < channelSize; i++) {
-            if (BufferStrategy.BLOCKING.equals(strategy)) {
+            if (BufferType.MPSC_RING.equals(bufferType)) {
+                bufferChannels[i] = new MpscRingBuffer<T>(bufferSize, strategy);
+            } else if (BufferStrategy.BLOCKING.equals(strategy)) {
                 bufferChannels[i] = new ArrayBlockingQueueBuffer<T>(bufferSize, strategy);
             } else {
                 bufferChannels[i] = new Buffer<T>(bufferSize, strategy);
@@ -55,6 +64,10 @@ public class Channels<T> {
         }
         for (; retryCountDown > 0; retryCountDown--) {
             if (bufferChannels[index].save(data)) {
+                IDataSavedListener listener = savedListeners[index];
+                if (listener != null) {
+                    listener.onSaved();
+                }
                 return true;
             }
         }
@@ -65,6 +78,13 @@ public class Channels<T> {
         this.dataPartitioner = dataPartitioner;
     }
 
+    /**
+     * Set the listener of the channel at the given index, which is notified after every data saved into this channel.
+     */
+    public void setSavedListener(int index, IDataSavedListener listener) {
+        this.savedListeners[index] = listener;
+    }
+
     /**
      * override the strategy at runtime. Notice, this will override several channels one by one. So, when running
      * setStrategy, each channel may use different BufferStrategy
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multiple producers, single consumer ring queue, based on sequence numbers.
+ * <p>
+ * Producers claim a sequence through CAS on the producer cursor, then publish the data into the slot of that sequence.
+ * The consumer drains the slots from its own cursor up to the claimed producer cursor, and stops at the first slot
+ * which has been claimed but not published yet. The two cursors are kept in separated cache lines, like {@link
+ * org.apache.skywalking.apm.commons.datacarrier.common.AtomicRangeInteger} does, to avoid false sharing between
+ * producers and the consumer.
+ * <p>
+ * Only one thread is allowed to call {@link #obtain(List)} at the same time, which is guaranteed by the consumer
+ * drivers, as one channel is always assigned to one consumer thread.
+ */
+public class MpscRingBuffer<T> implements QueueBuffer<T> {
+    private static final int PRODUCER_OFFSET = 15;
+    private static final int CONSUMER_OFFSET = 31;
+    private static final int CURSORS_LENGTH = 47;
+    private static final int SPIN_TRIES = 100;
+
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray cursors;
+    private final int mask;
+    private BufferStrategy strategy;
+
+    MpscRingBuffer(int bufferSize, BufferStrategy strategy) {
+        int capacity = 1;
+        while (capacity < bufferSize) {
+            capacity <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<T>(capacity);
+        this.cursors = new AtomicLongArray(CURSORS_LENGTH);
+        this.mask = capacity - 1;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public boolean save(T data) {
+        int tries = 0;
+        long sequence;
+        while (true) {
+            sequence = cursors.get(PRODUCER_OFFSET);
+            if (sequence - cursors.get(CONSUMER_OFFSET) > mask) {
+                if (BufferStrategy.IF_POSSIBLE.equals(strategy)) {
+                    return false;
+                }
+                tries = waitForConsumer(tries);
+                continue;
+            }
+            if (cursors.compareAndSet(PRODUCER_OFFSET, sequence, sequence + 1)) {
+                break;
+            }
+        }
+        slots.lazySet((int) sequence & mask, data);
+        return true;
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void obtain(List<T> consumeList) {
+        long sequence = cursors.get(CONSUMER_OFFSET);
+        final long published = cursors.get(PRODUCER_OFFSET);
+        while (sequence < published) {
+            int index = (int) sequence & mask;
+            T data = slots.get(index);
+            if (data == null) {
+                // Claimed by a producer, but not published yet. Take it in the next round.
+                break;
+            }
+            consumeList.add(data);
+            slots.lazySet(index, null);
+            sequence++;
+        }
+        cursors.lazySet(CONSUMER_OFFSET, sequence);
+    }
+
+    @Override
+    public int getBufferSize() {
+        return slots.length();
+    }
+
+    private static int waitForConsumer(int tries) {
+        if (tries < SPIN_TRIES) {
+            return tries + 1;
+        }
+        if (tries < SPIN_TRIES * 2) {
+            Thread.yield();
+            return tries + 1;
+        }
+        LockSupport.parkNanos(1000L);
+        return tries;
+    }
+}
@@ -35,10 +35,14 @@ public class BulkConsumePool implements ConsumerPool {
     private volatile boolean isStarted = false;
 
     public BulkConsumePool(String name, int size, long consumeCycle) {
+        this(name, size, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    public BulkConsumePool(String name, int size, long consumeCycle, WaitStrategy waitStrategy) {
         size = EnvUtil.getInt(name + "_THREAD", size);
         allConsumers = new ArrayList<MultipleChannelsConsumer>(size);
         for (int i = 0; i < size; i++) {
-            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
+            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle, waitStrategy);
             multipleChannelsConsumer.setDaemon(true);
             allConsumers.add(multipleChannelsConsumer);
         }
@@ -99,16 +103,26 @@ public class BulkConsumePool implements ConsumerPool {
         private String name;
         private int size;
         private long consumeCycle;
+        private WaitStrategy waitStrategy;
 
         public Creator(String name, int poolSize, long consumeCycle) {
+            this(name, poolSize, consumeCycle, WaitStrategy.SLEEP);
+        }
+
+        /**
+         * @param waitStrategy how the consumer threads wait when there is nothing to consume. See {@link
+         *                     WaitStrategy}
+         */
+        public Creator(String name, int poolSize, long consumeCycle, WaitStrategy waitStrategy) {
             this.name = name;
             this.size = poolSize;
             this.consumeCycle = consumeCycle;
+            this.waitStrategy = waitStrategy;
         }
 
         @Override
         public ConsumerPool call() {
-            return new BulkConsumePool(name, size, consumeCycle);
+            return new BulkConsumePool(name, size, consumeCycle, waitStrategy);
         }
 
         public static int recommendMaxSize() {
@@ -40,10 +40,15 @@ public class ConsumeDriver<T> implements IDriver {
     }
 
     public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle) {
+        this(name, channels, prototype, num, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle,
+        WaitStrategy waitStrategy) {
         this(channels, num);
         prototype.init();
         for (int i = 0; i < num; i++) {
-            consumerThreads[i] = new ConsumerThread("DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle);
+            consumerThreads[i] = new ConsumerThread("DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle, waitStrategy);
             consumerThreads[i].setDaemon(true);
         }
 
@@ -104,7 +109,7 @@ public class ConsumeDriver<T> implements IDriver {
          */
         for (int channelIndex = 0; channelIndex < channelSize; channelIndex++) {
             int consumerIndex = channelIndex % consumerThreads.length;
-            consumerThreads[consumerIndex].addDataSource(channels.getBuffer(channelIndex));
+            consumerThreads[consumerIndex].addDataSource(channels, channelIndex);
         }
 
     }
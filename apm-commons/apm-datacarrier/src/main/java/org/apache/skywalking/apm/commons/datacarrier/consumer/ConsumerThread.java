@@ -21,20 +21,25 @@ package org.apache.skywalking.apm.commons.datacarrier.consumer;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
 
 public class ConsumerThread<T> extends Thread {
     private volatile boolean running;
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
-    private long consumeCycle;
+    private final ConsumerWaiter waiter;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
+        this(threadName, consumer, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle, WaitStrategy waitStrategy) {
         super(threadName);
         this.consumer = consumer;
         running = false;
         dataSources = new ArrayList<DataSource>(1);
-        this.consumeCycle = consumeCycle;
+        this.waiter = new ConsumerWaiter(this, waitStrategy, consumeCycle);
     }
 
     /**
@@ -44,17 +49,24 @@ public class ConsumerThread<T> extends Thread {
         this.dataSources.add(new DataSource(sourceBuffer));
     }
 
+    /**
+     * add the channel at the given index to consume, and be waked up when data saved into it.
+     */
+    void addDataSource(Channels<T> channels, int channelIndex) {
+        addDataSource(channels.getBuffer(channelIndex));
+        channels.setSavedListener(channelIndex, waiter);
+    }
+
     @Override
     public void run() {
         running = true;
 
         final List<T> consumeList = new ArrayList<T>(1500);
         while (running) {
-            if (!consume(consumeList)) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (consume(consumeList)) {
+                waiter.busy();
+            } else {
+                waiter.idle();
             }
         }
 
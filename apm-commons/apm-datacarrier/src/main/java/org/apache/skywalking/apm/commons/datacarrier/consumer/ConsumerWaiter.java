@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.IDataSavedListener;
+
+/**
+ * ConsumerWaiter makes the consumer thread wait by the given {@link WaitStrategy} when there is nothing to consume.
+ * <p>
+ * In {@link WaitStrategy#ADAPTIVE}, the producers unpark the consumer thread through {@link #onSaved()}. The wakeup
+ * could be missed when the data is saved between the last empty round and the park, then the consumer thread is
+ * parked at most one consume cycle, which is the same as {@link WaitStrategy#SLEEP}.
+ */
+class ConsumerWaiter implements IDataSavedListener {
+    private static final int SPIN_ROUNDS = 10;
+    private static final int YIELD_ROUNDS = 20;
+
+    private final Thread consumerThread;
+    private final WaitStrategy strategy;
+    private final long consumeCycle;
+    private volatile boolean parked = false;
+    private int idleRounds = 0;
+
+    ConsumerWaiter(Thread consumerThread, WaitStrategy strategy, long consumeCycle) {
+        this.consumerThread = consumerThread;
+        this.strategy = strategy;
+        this.consumeCycle = consumeCycle;
+    }
+
+    /**
+     * Wait once as nothing consumed in the last round.
+     */
+    void idle() {
+        if (WaitStrategy.SLEEP.equals(strategy)) {
+            try {
+                Thread.sleep(consumeCycle);
+            } catch (InterruptedException e) {
+            }
+            return;
+        }
+        if (idleRounds < SPIN_ROUNDS) {
+            idleRounds++;
+        } else if (idleRounds < YIELD_ROUNDS) {
+            idleRounds++;
+            Thread.yield();
+        } else {
+            parked = true;
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(consumeCycle));
+            parked = false;
+        }
+    }
+
+    /**
+     * Data consumed in the last round, start from spinning in the next idle.
+     */
+    void busy() {
+        idleRounds = 0;
+    }
+
+    @Override
+    public void onSaved() {
+        if (parked) {
+            LockSupport.unpark(consumerThread);
+        }
+    }
+}
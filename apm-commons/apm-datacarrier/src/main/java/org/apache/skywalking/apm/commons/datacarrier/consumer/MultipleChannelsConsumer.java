@@ -31,12 +31,16 @@ public class MultipleChannelsConsumer extends Thread {
     private volatile boolean running;
     private volatile ArrayList<Group> consumeTargets;
     private volatile long size;
-    private final long consumeCycle;
+    private final ConsumerWaiter waiter;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        this(threadName, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    public MultipleChannelsConsumer(String threadName, long consumeCycle, WaitStrategy waitStrategy) {
         super(threadName);
         this.consumeTargets = new ArrayList<Group>();
-        this.consumeCycle = consumeCycle;
+        this.waiter = new ConsumerWaiter(this, waitStrategy, consumeCycle);
     }
 
     @Override
@@ -51,11 +55,10 @@ public class MultipleChannelsConsumer extends Thread {
                 hasData = hasData || consume;
             }
 
-            if (!hasData) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (hasData) {
+                waiter.busy();
+            } else {
+                waiter.idle();
             }
         }
 
@@ -100,6 +103,9 @@ public class MultipleChannelsConsumer extends Thread {
         newList.add(group);
         consumeTargets = newList;
         size += channels.size();
+        for (int i = 0; i < channels.getChannelSize(); i++) {
+            channels.setSavedListener(i, waiter);
+        }
     }
 
     public long size() {
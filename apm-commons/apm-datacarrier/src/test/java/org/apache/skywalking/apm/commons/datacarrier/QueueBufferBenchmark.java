@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the {@link BufferType#DEFAULT} buffers and the {@link BufferType#MPSC_RING} buffer, with 4 producers and 1
+ * consumer on the same channel, which is the way of the L1 aggregation in the OAP server.
+ */
+@BenchmarkMode({Mode.Throughput})
+public class QueueBufferBenchmark {
+    private static final SampleData DATA = new SampleData();
+
+    @State(Scope.Group)
+    public static class BufferState {
+        private QueueBuffer<SampleData> arrayBlockingQueueBuffer;
+        private QueueBuffer<SampleData> buffer;
+        private QueueBuffer<SampleData> mpscRingBuffer;
+
+        @Setup
+        public void setup() {
+            arrayBlockingQueueBuffer = create(BufferStrategy.BLOCKING, BufferType.DEFAULT);
+            buffer = create(BufferStrategy.IF_POSSIBLE, BufferType.DEFAULT);
+            mpscRingBuffer = create(BufferStrategy.IF_POSSIBLE, BufferType.MPSC_RING);
+        }
+
+        private QueueBuffer<SampleData> create(BufferStrategy strategy, BufferType type) {
+            return new Channels<SampleData>(1, 10000, new SimpleRollingPartitioner<SampleData>(), strategy, type)
+                .getBuffer(0);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ConsumerState {
+        private final List<SampleData> consumeList = new ArrayList<SampleData>(10000);
+    }
+
+    @Benchmark
+    @Group("arrayBlockingQueueBuffer")
+    @GroupThreads(4)
+    public boolean produceArrayBlockingQueueBuffer(BufferState state) {
+        return state.arrayBlockingQueueBuffer.save(DATA);
+    }
+
+    @Benchmark
+    @Group("arrayBlockingQueueBuffer")
+    @GroupThreads(1)
+    public int obtainArrayBlockingQueueBuffer(BufferState state, ConsumerState consumer) {
+        return obtain(state.arrayBlockingQueueBuffer, consumer);
+    }
+
+    @Benchmark
+    @Group("buffer")
+    @GroupThreads(4)
+    public boolean produceBuffer(BufferState state) {
+        return state.buffer.save(DATA);
+    }
+
+    @Benchmark
+    @Group("buffer")
+    @GroupThreads(1)
+    public int obtainBuffer(BufferState state, ConsumerState consumer) {
+        return obtain(state.buffer, consumer);
+    }
+
+    @Benchmark
+    @Group("mpscRingBuffer")
+    @GroupThreads(4)
+    public boolean produceMpscRingBuffer(BufferState state) {
+        return state.mpscRingBuffer.save(DATA);
+    }
+
+    @Benchmark
+    @Group("mpscRingBuffer")
+    @GroupThreads(1)
+    public int obtainMpscRingBuffer(BufferState state, ConsumerState consumer) {
+        return obtain(state.mpscRingBuffer, consumer);
+    }
+
+    private static int obtain(QueueBuffer<SampleData> buffer, ConsumerState consumer) {
+        buffer.obtain(consumer.consumeList);
+        int size = consumer.consumeList.size();
+        consumer.consumeList.clear();
+        return size;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(QueueBufferBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .jvmArgsAppend("-Xmx512m", "-Xms512m")
+                                          .forks(1)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MpscRingBufferTest {
+    @Test
+    public void testCapacity() {
+        Assert.assertEquals(128, new MpscRingBuffer<SampleData>(100, BufferStrategy.IF_POSSIBLE).getBufferSize());
+        Assert.assertEquals(64, new MpscRingBuffer<SampleData>(64, BufferStrategy.IF_POSSIBLE).getBufferSize());
+    }
+
+    @Test
+    public void testSaveAndObtainInOrder() {
+        MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<SampleData>(4, BufferStrategy.IF_POSSIBLE);
+        List<SampleData> result = new ArrayList<SampleData>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                Assert.assertTrue(buffer.save(new SampleData().setIntValue(i)));
+            }
+            Assert.assertFalse(buffer.save(new SampleData()));
+
+            buffer.obtain(result);
+            Assert.assertEquals(4, result.size());
+            for (int i = 0; i < 4; i++) {
+                Assert.assertEquals(i, result.get(i).getIntValue());
+            }
+            result.clear();
+        }
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<SampleData>(64, BufferStrategy.BLOCKING);
+        final int producers = 4;
+        final int dataPerProducer = 10000;
+        final CountDownLatch latch = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < dataPerProducer; i++) {
+                        buffer.save(new SampleData().setIntValue(i));
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+
+        List<SampleData> result = new ArrayList<SampleData>();
+        long sum = 0;
+        int count = 0;
+        while (count < producers * dataPerProducer) {
+            buffer.obtain(result);
+            for (SampleData data : result) {
+                sum += data.getIntValue();
+            }
+            count += result.size();
+            result.clear();
+        }
+        latch.await();
+
+        buffer.obtain(result);
+        Assert.assertEquals(0, result.size());
+        Assert.assertEquals((long) producers * dataPerProducer * (dataPerProducer - 1) / 2, sum);
+    }
+}
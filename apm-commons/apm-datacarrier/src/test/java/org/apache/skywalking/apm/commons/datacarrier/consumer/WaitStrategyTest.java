@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WaitStrategyTest {
+    /**
+     * The consume cycle is long enough, the data could only be consumed in time when the producer wakes up the parked
+     * consumer thread.
+     */
+    @Test
+    public void testAdaptiveWakeupInBulkConsumePool() throws Exception {
+        BulkConsumePool pool = new BulkConsumePool("adaptive-test-pool", 1, 60 * 1000, WaitStrategy.ADAPTIVE);
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>("adaptive-test", 2, 100);
+        LatchConsumer consumer = new LatchConsumer(2);
+        carrier.consume(pool, consumer);
+
+        // Let the consumer thread go into park.
+        Thread.sleep(500);
+        carrier.produce(new SampleData().setIntValue(1));
+        carrier.produce(new SampleData().setIntValue(2));
+
+        Assert.assertTrue(consumer.latch.await(10, TimeUnit.SECONDS));
+        carrier.shutdownConsumers();
+    }
+
+    @Test
+    public void testAdaptiveWakeupInConsumeDriver() throws Exception {
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>("adaptive-test", 2, 100);
+        LatchConsumer consumer = new LatchConsumer(2);
+        carrier.consume(consumer, 2, 60 * 1000, WaitStrategy.ADAPTIVE);
+
+        Thread.sleep(500);
+        carrier.produce(new SampleData().setIntValue(1));
+        carrier.produce(new SampleData().setIntValue(2));
+
+        Assert.assertTrue(consumer.latch.await(10, TimeUnit.SECONDS));
+        carrier.shutdownConsumers();
+    }
+
+    private static class LatchConsumer implements IConsumer<SampleData> {
+        private final CountDownLatch latch;
+
+        private LatchConsumer(int count) {
+            this.latch = new CountDownLatch(count);
+        }
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void consume(List<SampleData> data) {
+            for (SampleData ignored : data) {
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+        }
+
+        @Override
+        public void onExit() {
+        }
+    }
+}
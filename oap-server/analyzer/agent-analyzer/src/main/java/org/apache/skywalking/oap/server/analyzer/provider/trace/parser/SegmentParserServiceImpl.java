@@ -25,7 +25,8 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
 
 /**
- * The open service to the receivers.
+ * The open service to the receivers. Every thread has its own {@link TraceAnalyzer}, so the analysis listeners are
+ * reused in the thread rather than created for every segment.
  */
 @RequiredArgsConstructor
 public class SegmentParserServiceImpl implements ISegmentParserService {
@@ -33,10 +34,11 @@ public class SegmentParserServiceImpl implements ISegmentParserService {
     private final AnalyzerModuleConfig config;
     @Setter
     private SegmentParserListenerManager listenerManager;
+    private final ThreadLocal<TraceAnalyzer> traceAnalyzers = ThreadLocal.withInitial(
+        () -> new TraceAnalyzer(moduleManager, listenerManager, config));
 
     @Override
     public void send(SegmentObject segment) {
-        final TraceAnalyzer traceAnalyzer = new TraceAnalyzer(moduleManager, listenerManager, config);
-        traceAnalyzer.doAnalysis(segment);
+        traceAnalyzers.get().doAnalysis(segment);
     }
 }
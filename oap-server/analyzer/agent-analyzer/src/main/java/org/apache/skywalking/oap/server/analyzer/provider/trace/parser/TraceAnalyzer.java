@@ -24,105 +24,175 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
-import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.AnalysisListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.AnalysisListenerFactory;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.EntryAnalysisListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.ExitAnalysisListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.FirstAnalysisListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.LocalAnalysisListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.SegmentListener;
 
+/**
+ * TraceAnalyzer drives the analysis listeners through the spans of the segment.
+ * <p>
+ * The listeners are created at the first analysis and reused for the following segments, as long as they could be
+ * {@link AnalysisListener#reset()}. So a TraceAnalyzer is not thread safe, it should be confined to one thread.
+ */
 @Slf4j
 @RequiredArgsConstructor
 public class TraceAnalyzer {
     private final ModuleManager moduleManager;
     private final SegmentParserListenerManager listenerManager;
     private final AnalyzerModuleConfig config;
-    private List<AnalysisListener> analysisListeners = new ArrayList<>();
+    private AnalysisListenerFactory[] listenerFactories;
+    private AnalysisListener[] analysisListeners;
+    private SegmentListener[] segmentListeners;
+    private FirstAnalysisListener[] firstListeners;
+    private EntryAnalysisListener[] entryListeners;
+    private ExitAnalysisListener[] exitListeners;
+    private LocalAnalysisListener[] localListeners;
 
     public void doAnalysis(SegmentObject segmentObject) {
-        if (segmentObject.getSpansList().size() == 0) {
+        final int spansCount = segmentObject.getSpansCount();
+        if (spansCount == 0) {
             return;
         }
 
-        createSpanListeners();
+        if (analysisListeners == null) {
+            createSpanListeners();
+        }
 
         try {
             notifySegmentListener(segmentObject);
 
-            segmentObject.getSpansList().forEach(spanObject -> {
+            for (int i = 0; i < spansCount; i++) {
+                final SpanObject spanObject = segmentObject.getSpans(i);
                 if (spanObject.getSpanId() == 0) {
                     notifyFirstListener(spanObject, segmentObject);
                 }
 
-                if (SpanType.Exit.equals(spanObject.getSpanType())) {
-                    notifyExitListener(spanObject, segmentObject);
-                } else if (SpanType.Entry.equals(spanObject.getSpanType())) {
-                    notifyEntryListener(spanObject, segmentObject);
-                } else if (SpanType.Local.equals(spanObject.getSpanType())) {
-                    notifyLocalListener(spanObject, segmentObject);
-                } else {
-                    log.error("span type value was unexpected, span type name: {}", spanObject.getSpanType()
-                                                                                              .name());
+                switch (spanObject.getSpanType()) {
+                    case Exit:
+                        notifyExitListener(spanObject, segmentObject);
+                        break;
+                    case Entry:
+                        notifyEntryListener(spanObject, segmentObject);
+                        break;
+                    case Local:
+                        notifyLocalListener(spanObject, segmentObject);
+                        break;
+                    default:
+                        log.error("span type value was unexpected, span type name: {}", spanObject.getSpanType()
+                                                                                                  .name());
                 }
-            });
+            }
 
             notifyListenerToBuild();
         } catch (Throwable e) {
             log.error(e.getMessage(), e);
+        } finally {
+            resetListeners();
         }
     }
 
     private void notifyListenerToBuild() {
-        analysisListeners.forEach(AnalysisListener::build);
+        for (AnalysisListener listener : analysisListeners) {
+            listener.build();
+        }
     }
 
     private void notifyExitListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Exit)) {
-                ((ExitAnalysisListener) listener).parseExit(span, segmentObject);
-            }
-        });
+        for (ExitAnalysisListener listener : exitListeners) {
+            listener.parseExit(span, segmentObject);
+        }
     }
 
     private void notifyEntryListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Entry)) {
-                ((EntryAnalysisListener) listener).parseEntry(span, segmentObject);
-            }
-        });
+        for (EntryAnalysisListener listener : entryListeners) {
+            listener.parseEntry(span, segmentObject);
+        }
     }
 
     private void notifyLocalListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Local)) {
-                ((LocalAnalysisListener) listener).parseLocal(span, segmentObject);
-            }
-        });
+        for (LocalAnalysisListener listener : localListeners) {
+            listener.parseLocal(span, segmentObject);
+        }
     }
 
     private void notifyFirstListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.First)) {
-                ((FirstAnalysisListener) listener).parseFirst(span, segmentObject);
-            }
-        });
+        for (FirstAnalysisListener listener : firstListeners) {
+            listener.parseFirst(span, segmentObject);
+        }
     }
 
     private void notifySegmentListener(SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Segment)) {
-                ((SegmentListener) listener).parseSegment(segmentObject);
-            }
-        });
+        for (SegmentListener listener : segmentListeners) {
+            listener.parseSegment(segmentObject);
+        }
     }
 
     private void createSpanListeners() {
-        listenerManager.getSpanListenerFactories()
-                       .forEach(
-                           spanListenerFactory -> analysisListeners.add(
-                               spanListenerFactory.create(moduleManager, config)));
+        listenerFactories = listenerManager.getSpanListenerFactories().toArray(new AnalysisListenerFactory[0]);
+        analysisListeners = new AnalysisListener[listenerFactories.length];
+        for (int i = 0; i < listenerFactories.length; i++) {
+            analysisListeners[i] = listenerFactories[i].create(moduleManager, config);
+        }
+        groupListenersByPoint();
+    }
+
+    /**
+     * Reset the listeners for the next segment, the listeners which don't support to be reused are replaced by new
+     * ones.
+     */
+    private void resetListeners() {
+        boolean replaced = false;
+        for (int i = 0; i < analysisListeners.length; i++) {
+            boolean reused;
+            try {
+                reused = analysisListeners[i].reset();
+            } catch (Throwable e) {
+                log.error(e.getMessage(), e);
+                reused = false;
+            }
+            if (!reused) {
+                analysisListeners[i] = listenerFactories[i].create(moduleManager, config);
+                replaced = true;
+            }
+        }
+        if (replaced) {
+            groupListenersByPoint();
+        }
+    }
+
+    private void groupListenersByPoint() {
+        final List<SegmentListener> segment = new ArrayList<>();
+        final List<FirstAnalysisListener> first = new ArrayList<>();
+        final List<EntryAnalysisListener> entry = new ArrayList<>();
+        final List<ExitAnalysisListener> exit = new ArrayList<>();
+        final List<LocalAnalysisListener> local = new ArrayList<>();
+        for (AnalysisListener listener : analysisListeners) {
+            if (listener.containsPoint(AnalysisListener.Point.Segment)) {
+                segment.add((SegmentListener) listener);
+            }
+            if (listener.containsPoint(AnalysisListener.Point.First)) {
+                first.add((FirstAnalysisListener) listener);
+            }
+            if (listener.containsPoint(AnalysisListener.Point.Entry)) {
+                entry.add((EntryAnalysisListener) listener);
+            }
+            if (listener.containsPoint(AnalysisListener.Point.Exit)) {
+                exit.add((ExitAnalysisListener) listener);
+            }
+            if (listener.containsPoint(AnalysisListener.Point.Local)) {
+                local.add((LocalAnalysisListener) listener);
+            }
+        }
+        segmentListeners = segment.toArray(new SegmentListener[0]);
+        firstListeners = first.toArray(new FirstAnalysisListener[0]);
+        entryListeners = entry.toArray(new EntryAnalysisListener[0]);
+        exitListeners = exit.toArray(new ExitAnalysisListener[0]);
+        localListeners = local.toArray(new LocalAnalysisListener[0]);
     }
 }
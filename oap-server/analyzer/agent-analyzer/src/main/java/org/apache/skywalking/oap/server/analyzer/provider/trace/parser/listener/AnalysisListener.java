@@ -33,6 +33,17 @@ public interface AnalysisListener {
      */
     boolean containsPoint(Point point);
 
+    /**
+     * Clear the states of the analysed segment after {@link #build()}, so the listener could be reused to analyse the
+     * next segment in the same thread.
+     *
+     * @return false if the listener doesn't support to be reused, then a new listener is created by the factory for
+     * every segment.
+     */
+    default boolean reset() {
+        return false;
+    }
+
     /**
      * Analysis point when the analysis core traverses the segment
      */
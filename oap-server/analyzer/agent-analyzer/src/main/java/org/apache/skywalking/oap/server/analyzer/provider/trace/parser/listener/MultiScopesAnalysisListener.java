@@ -60,10 +60,17 @@ import static org.apache.skywalking.oap.server.analyzer.provider.trace.parser.Sp
 @Slf4j
 @RequiredArgsConstructor
 public class MultiScopesAnalysisListener implements EntryAnalysisListener, ExitAnalysisListener, LocalAnalysisListener {
+    /**
+     * The max number of the source builders kept for the next segment.
+     */
+    private static final int MAX_POOLED_SOURCE_BUILDERS = 100;
+
     private final List<SourceBuilder> entrySourceBuilders = new ArrayList<>(10);
     private final List<SourceBuilder> exitSourceBuilders = new ArrayList<>(10);
     private final List<DatabaseSlowStatement> slowDatabaseAccesses = new ArrayList<>(10);
     private final List<SourceBuilder> logicEndpointBuilders = new ArrayList<>(10);
+    private final List<SourceBuilder> sourceBuilderPool = new ArrayList<>(10);
+    private int usedSourceBuilders = 0;
     private final Gson gson = new Gson();
     private final SourceReceiver sourceReceiver;
     private final AnalyzerModuleConfig config;
@@ -94,7 +101,7 @@ public class MultiScopesAnalysisListener implements EntryAnalysisListener, ExitA
         if (span.getRefsCount() > 0) {
             for (int i = 0; i < span.getRefsCount(); i++) {
                 SegmentReference reference = span.getRefs(i);
-                SourceBuilder sourceBuilder = new SourceBuilder(namingControl);
+                SourceBuilder sourceBuilder = obtainSourceBuilder();
 
                 if (StringUtil.isEmpty(reference.getParentEndpoint())) {
                     sourceBuilder.setSourceEndpointName(Const.USER_ENDPOINT_NAME);
@@ -125,7 +132,7 @@ public class MultiScopesAnalysisListener implements EntryAnalysisListener, ExitA
                 entrySourceBuilders.add(sourceBuilder);
             }
         } else {
-            SourceBuilder sourceBuilder = new SourceBuilder(namingControl);
+            SourceBuilder sourceBuilder = obtainSourceBuilder();
             sourceBuilder.setSourceServiceName(Const.USER_SERVICE_NAME);
             sourceBuilder.setSourceServiceInstanceName(Const.USER_INSTANCE_NAME);
             sourceBuilder.setSourceEndpointName(Const.USER_ENDPOINT_NAME);
@@ -154,13 +161,13 @@ public class MultiScopesAnalysisListener implements EntryAnalysisListener, ExitA
             return;
         }
 
-        SourceBuilder sourceBuilder = new SourceBuilder(namingControl);
-
         final String networkAddress = span.getPeer();
         if (StringUtil.isEmpty(networkAddress)) {
             return;
         }
 
+        SourceBuilder sourceBuilder = obtainSourceBuilder();
+
         sourceBuilder.setSourceServiceName(segmentObject.getService());
         sourceBuilder.setSourceNodeType(NodeType.Normal);
         sourceBuilder.setSourceServiceInstanceName(segmentObject.getServiceInstance());
@@ -313,6 +320,36 @@ public class MultiScopesAnalysisListener implements EntryAnalysisListener, ExitA
         });
     }
 
+    /**
+     * The source builders are only used in the analysis of one segment, and the sources built from them have been
+     * forwarded in {@link #build()}, so they are taken back to the pool.
+     */
+    @Override
+    public boolean reset() {
+        entrySourceBuilders.clear();
+        exitSourceBuilders.clear();
+        slowDatabaseAccesses.clear();
+        logicEndpointBuilders.clear();
+        if (sourceBuilderPool.size() > MAX_POOLED_SOURCE_BUILDERS) {
+            sourceBuilderPool.subList(MAX_POOLED_SOURCE_BUILDERS, sourceBuilderPool.size()).clear();
+        }
+        usedSourceBuilders = 0;
+        return true;
+    }
+
+    private SourceBuilder obtainSourceBuilder() {
+        final SourceBuilder sourceBuilder;
+        if (usedSourceBuilders < sourceBuilderPool.size()) {
+            sourceBuilder = sourceBuilderPool.get(usedSourceBuilders);
+            sourceBuilder.reset();
+        } else {
+            sourceBuilder = new SourceBuilder(namingControl);
+            sourceBuilderPool.add(sourceBuilder);
+        }
+        usedSourceBuilders++;
+        return sourceBuilder;
+    }
+
     /**
      * Logic endpoint could be represent through an entry span or local span. It has special meaning from API
      * perspective. But it is an actual RPC call.
@@ -337,7 +374,7 @@ public class MultiScopesAnalysisListener implements EntryAnalysisListener, ExitA
                     } else {
                         break;
                     }
-                    SourceBuilder sourceBuilder = new SourceBuilder(namingControl);
+                    SourceBuilder sourceBuilder = obtainSourceBuilder();
                     sourceBuilder.setTimeBucket(TimeBucket.getMinuteTimeBucket(span.getStartTime()));
                     sourceBuilder.setDestServiceName(segmentObject.getService());
                     sourceBuilder.setDestServiceInstanceName(segmentObject.getServiceInstance());
@@ -95,6 +95,11 @@ public class NetworkAddressAliasMappingListener implements EntryAnalysisListener
         return Point.Entry.equals(point);
     }
 
+    @Override
+    public boolean reset() {
+        return true;
+    }
+
     public static class Factory implements AnalysisListenerFactory {
         private final SourceReceiver sourceReceiver;
         private final NamingControl namingControl;
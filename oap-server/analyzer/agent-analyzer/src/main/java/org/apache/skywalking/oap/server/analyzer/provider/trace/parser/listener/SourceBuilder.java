@@ -121,6 +121,28 @@ class SourceBuilder {
     @Setter
     private long timeBucket;
 
+    /**
+     * Clear all the values, for reusing this builder in the next span.
+     */
+    void reset() {
+        sourceServiceName = null;
+        sourceNodeType = null;
+        sourceServiceInstanceName = null;
+        sourceEndpointOwnerServiceName = null;
+        sourceEndpointName = null;
+        destServiceName = null;
+        destNodeType = null;
+        destServiceInstanceName = null;
+        destEndpointName = null;
+        componentId = 0;
+        latency = 0;
+        status = false;
+        responseCode = 0;
+        type = null;
+        detectPoint = null;
+        timeBucket = 0;
+    }
+
     /**
      * The global level metrics source
      */
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.parser;
+
+import java.util.Arrays;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+import org.apache.skywalking.apm.network.language.agent.v3.RefType;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentReference;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanLayer;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleProvider;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.DBLatencyThresholdsAndWatcher;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.TraceSampleRateWatcher;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.UninstrumentedGatewaysConfig;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.MultiScopesAnalysisListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.NetworkAddressAliasMappingListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.SegmentAnalysisListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.TraceSegmentSampler;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherDetectorListener;
+import org.apache.skywalking.oap.server.core.cache.NetworkAddressAliasCache;
+import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
+import org.apache.skywalking.oap.server.core.source.Source;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the analysis with new listeners for every segment, which was the way before the listeners could be reset,
+ * and the analysis reusing the listeners of the thread confined {@link TraceAnalyzer}. Run with the {@link
+ * GCProfiler} to see the allocation rate per segment.
+ */
+@BenchmarkMode({Mode.Throughput})
+@State(Scope.Thread)
+public class TraceAnalyzerBenchmark {
+    private SegmentParserListenerManager listenerManager;
+    private AnalyzerModuleConfig config;
+    private TraceAnalyzer reusedAnalyzer;
+    private CountingReceiver receiver;
+    private SegmentObject segment;
+
+    @Setup
+    public void setup() {
+        AnalyzerModuleProvider provider = new AnalyzerModuleProvider();
+        config = (AnalyzerModuleConfig) provider.createConfigBeanIfAbsent();
+        config.setDbLatencyThresholdsAndWatcher(
+            new DBLatencyThresholdsAndWatcher(config.getSlowDBAccessThreshold(), provider));
+        config.setUninstrumentedGatewaysConfig(new UninstrumentedGatewaysConfig(provider));
+        config.setTraceSampleRateWatcher(new TraceSampleRateWatcher(provider));
+
+        receiver = new CountingReceiver();
+        NamingControl namingControl = new NamingControl(70, 100, 100, new EndpointNameGrouping());
+        NetworkAddressAliasCache aliasCache = new NetworkAddressAliasCache(new CoreModuleConfig());
+        TraceSegmentSampler sampler = new TraceSegmentSampler(config.getTraceSampleRateWatcher());
+
+        listenerManager = new SegmentParserListenerManager();
+        listenerManager.add((moduleManager, moduleConfig) -> new MultiScopesAnalysisListener(
+            receiver, moduleConfig, aliasCache, namingControl));
+        listenerManager.add((moduleManager, moduleConfig) -> new NetworkAddressAliasMappingListener(
+            receiver, moduleConfig, namingControl));
+        listenerManager.add((moduleManager, moduleConfig) -> new SegmentAnalysisListener(
+            receiver, sampler, namingControl, Arrays.asList("http.method", "status_code")));
+
+        reusedAnalyzer = new TraceAnalyzer(null, listenerManager, config);
+        segment = buildSegment();
+    }
+
+    @Benchmark
+    public long newListenersPerSegment() {
+        new TraceAnalyzer(null, listenerManager, config).doAnalysis(segment);
+        return receiver.count;
+    }
+
+    @Benchmark
+    public long reusedListeners() {
+        reusedAnalyzer.doAnalysis(segment);
+        return receiver.count;
+    }
+
+    /**
+     * A typical segment of a web service: an entry span called by an upstream service, a local span, an RPC exit span
+     * and a database exit span.
+     */
+    private static SegmentObject buildSegment() {
+        long startTime = System.currentTimeMillis();
+        SpanObject entry = SpanObject.newBuilder()
+                                     .setSpanId(0)
+                                     .setParentSpanId(-1)
+                                     .setSpanType(SpanType.Entry)
+                                     .setSpanLayer(SpanLayer.Http)
+                                     .setOperationName("/orders/{id}")
+                                     .setComponentId(14)
+                                     .setStartTime(startTime)
+                                     .setEndTime(startTime + 120)
+                                     .addRefs(SegmentReference.newBuilder()
+                                                              .setRefType(RefType.CrossProcess)
+                                                              .setTraceId("trace-id-1")
+                                                              .setParentTraceSegmentId("parent-segment-id")
+                                                              .setParentSpanId(2)
+                                                              .setParentService("gateway")
+                                                              .setParentServiceInstance("gateway-instance-1")
+                                                              .setParentEndpoint("/api/orders")
+                                                              .setNetworkAddressUsedAtPeer("10.0.0.2:8080"))
+                                     .addTags(tag("http.method", "GET"))
+                                     .addTags(tag(SpanTags.STATUS_CODE, "200"))
+                                     .build();
+        SpanObject local = SpanObject.newBuilder()
+                                     .setSpanId(1)
+                                     .setParentSpanId(0)
+                                     .setSpanType(SpanType.Local)
+                                     .setOperationName("OrderService.load")
+                                     .setStartTime(startTime + 2)
+                                     .setEndTime(startTime + 110)
+                                     .build();
+        SpanObject rpcExit = SpanObject.newBuilder()
+                                       .setSpanId(2)
+                                       .setParentSpanId(1)
+                                       .setSpanType(SpanType.Exit)
+                                       .setSpanLayer(SpanLayer.RPCFramework)
+                                       .setOperationName("UserService.get")
+                                       .setPeer("10.0.0.3:20880")
+                                       .setComponentId(3)
+                                       .setStartTime(startTime + 5)
+                                       .setEndTime(startTime + 40)
+                                       .build();
+        SpanObject dbExit = SpanObject.newBuilder()
+                                      .setSpanId(3)
+                                      .setParentSpanId(1)
+                                      .setSpanType(SpanType.Exit)
+                                      .setSpanLayer(SpanLayer.Database)
+                                      .setOperationName("Mysql/JDBI/PreparedStatement/executeQuery")
+                                      .setPeer("10.0.0.4:3306")
+                                      .setComponentId(33)
+                                      .setStartTime(startTime + 45)
+                                      .setEndTime(startTime + 100)
+                                      .addTags(tag(SpanTags.DB_TYPE, "sql"))
+                                      .addTags(tag(SpanTags.DB_STATEMENT, "select * from orders where id = ?"))
+                                      .build();
+        return SegmentObject.newBuilder()
+                            .setTraceId("trace-id-1")
+                            .setTraceSegmentId("segment-id-1")
+                            .setService("order-service")
+                            .setServiceInstance("order-service-instance-1")
+                            .addSpans(entry)
+                            .addSpans(local)
+                            .addSpans(rpcExit)
+                            .addSpans(dbExit)
+                            .build();
+    }
+
+    private static KeyStringValuePair tag(String key, String value) {
+        return KeyStringValuePair.newBuilder().setKey(key).setValue(value).build();
+    }
+
+    private static class CountingReceiver implements SourceReceiver {
+        private long count;
+
+        @Override
+        public void receive(Source source) {
+            count++;
+        }
+
+        @Override
+        public DispatcherDetectorListener getDispatcherDetectorListener() {
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(TraceAnalyzerBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .jvmArgsAppend("-Xmx512m", "-Xms512m")
+                                          .forks(1)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.parser;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.EntryAnalysisListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.ExitAnalysisListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TraceAnalyzerTest {
+    private static final SegmentObject SEGMENT = SegmentObject.newBuilder()
+                                                              .setTraceId("trace-id")
+                                                              .setTraceSegmentId("segment-id")
+                                                              .addSpans(SpanObject.newBuilder()
+                                                                                  .setSpanId(0)
+                                                                                  .setSpanType(SpanType.Entry))
+                                                              .addSpans(SpanObject.newBuilder()
+                                                                                  .setSpanId(1)
+                                                                                  .setSpanType(SpanType.Exit))
+                                                              .addSpans(SpanObject.newBuilder()
+                                                                                  .setSpanId(2)
+                                                                                  .setSpanType(SpanType.Exit))
+                                                              .build();
+
+    @Test
+    public void testReuseListeners() {
+        AtomicInteger created = new AtomicInteger();
+        SegmentParserListenerManager listenerManager = new SegmentParserListenerManager();
+        listenerManager.add((moduleManager, config) -> {
+            created.incrementAndGet();
+            return new CountingListener(true);
+        });
+
+        TraceAnalyzer analyzer = new TraceAnalyzer(null, listenerManager, new AnalyzerModuleConfig());
+        for (int i = 0; i < 3; i++) {
+            analyzer.doAnalysis(SEGMENT);
+        }
+
+        Assert.assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testReplaceListenersNotReusable() {
+        AtomicInteger created = new AtomicInteger();
+        SegmentParserListenerManager listenerManager = new SegmentParserListenerManager();
+        listenerManager.add((moduleManager, config) -> {
+            created.incrementAndGet();
+            return new CountingListener(false);
+        });
+
+        TraceAnalyzer analyzer = new TraceAnalyzer(null, listenerManager, new AnalyzerModuleConfig());
+        for (int i = 0; i < 3; i++) {
+            analyzer.doAnalysis(SEGMENT);
+        }
+
+        // One for the first segment, and a new one after every segment.
+        Assert.assertEquals(4, created.get());
+    }
+
+    @Test
+    public void testDispatchByPoint() {
+        CountingListener listener = new CountingListener(true);
+        SegmentParserListenerManager listenerManager = new SegmentParserListenerManager();
+        listenerManager.add((moduleManager, config) -> listener);
+
+        TraceAnalyzer analyzer = new TraceAnalyzer(null, listenerManager, new AnalyzerModuleConfig());
+        analyzer.doAnalysis(SEGMENT);
+        analyzer.doAnalysis(SEGMENT);
+
+        Assert.assertEquals(2, listener.entries);
+        Assert.assertEquals(4, listener.exits);
+        Assert.assertEquals(2, listener.builds);
+        Assert.assertEquals(2, listener.resets);
+    }
+
+    private static class CountingListener implements EntryAnalysisListener, ExitAnalysisListener {
+        private final boolean reusable;
+        private int entries;
+        private int exits;
+        private int builds;
+        private int resets;
+
+        private CountingListener(boolean reusable) {
+            this.reusable = reusable;
+        }
+
+        @Override
+        public void parseEntry(SpanObject span, SegmentObject segmentObject) {
+            entries++;
+        }
+
+        @Override
+        public void parseExit(SpanObject span, SegmentObject segmentObject) {
+            exits++;
+        }
+
+        @Override
+        public void build() {
+            builds++;
+        }
+
+        @Override
+        public boolean containsPoint(Point point) {
+            return Point.Entry.equals(point) || Point.Exit.equals(point);
+        }
+
+        @Override
+        public boolean reset() {
+            resets++;
+            return reusable;
+        }
+    }
+}
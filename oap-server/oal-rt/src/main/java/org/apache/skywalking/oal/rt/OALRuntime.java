@@ -31,6 +31,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import javassist.CannotCompileException;
 import javassist.ClassPool;
 import javassist.CtClass;
@@ -53,6 +55,7 @@ import org.apache.skywalking.apm.util.StringUtil;
 import org.apache.skywalking.oal.rt.output.AllDispatcherContext;
 import org.apache.skywalking.oal.rt.output.DispatcherContext;
 import org.apache.skywalking.oal.rt.parser.AnalysisResult;
+import org.apache.skywalking.oal.rt.parser.Expression;
 import org.apache.skywalking.oal.rt.parser.OALScripts;
 import org.apache.skywalking.oal.rt.parser.ScriptParser;
 import org.apache.skywalking.oal.rt.parser.SourceColumn;
@@ -400,6 +403,22 @@ public class OALRuntime implements OALEngine {
             throw new OALCompileException(e.getMessage(), e);
         }
 
+        /**
+         * Add the stateless matchers as static fields, rather than creating them for every source.
+         *
+         * private static final ${matcherClass} ${matcherField} = new ${matcherClass}();
+         */
+        for (String matcherClass : matcherClasses(dispatcherContext)) {
+            try {
+                dispatcherClass.addField(CtField.make(
+                    "private static final " + matcherClass + " " + Expression.matcherField(matcherClass)
+                        + " = new " + matcherClass + "();", dispatcherClass));
+            } catch (CannotCompileException e) {
+                log.error("Can't add matcher field of " + matcherClass + " in " + className + ".", e);
+                throw new OALCompileException(e.getMessage(), e);
+            }
+        }
+
         /**
          * Generate methods
          */
@@ -439,6 +458,22 @@ public class OALRuntime implements OALEngine {
         return targetClass;
     }
 
+    private Set<String> matcherClasses(DispatcherContext dispatcherContext) {
+        Set<String> matcherClasses = new TreeSet<>();
+        for (AnalysisResult metricsStmt : dispatcherContext.getMetrics()) {
+            if (metricsStmt.getFilterExpressions() != null) {
+                metricsStmt.getFilterExpressions()
+                           .forEach(expression -> matcherClasses.add(expression.getExpressionObject()));
+            }
+            for (Object arg : metricsStmt.getEntryMethod().getArgsExpressions()) {
+                if (arg instanceof Expression) {
+                    matcherClasses.add(((Expression) arg).getExpressionObject());
+                }
+            }
+        }
+        return matcherClasses;
+    }
+
     private String metricsClassName(AnalysisResult metricsStmt, boolean fullName) {
         return (fullName ? oalDefine.getDynamicMetricsClassPackage() : "") + metricsStmt.getMetricsName() + "Metrics";
     }
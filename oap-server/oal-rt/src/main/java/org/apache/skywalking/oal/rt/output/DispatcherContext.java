@@ -19,17 +19,54 @@
 package org.apache.skywalking.oal.rt.output;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.skywalking.oal.rt.parser.AnalysisResult;
+import org.apache.skywalking.oal.rt.parser.Expression;
 
 @Getter
 @Setter
 public class DispatcherContext {
-
     private String sourcePackage;
     private String source;
     private String packageName;
     private List<AnalysisResult> metrics = new ArrayList<>();
+
+    /**
+     * @return the metrics grouped by the same filter expressions, in the order of their first definitions. The
+     * dispatcher evaluates the filters of every group once for all the metrics in the group.
+     */
+    public List<FilterGroup> getFilterGroups() {
+        Map<String, FilterGroup> groups = new LinkedHashMap<>();
+        for (AnalysisResult metric : metrics) {
+            StringBuilder key = new StringBuilder();
+            if (metric.getFilterExpressions() != null) {
+                for (Expression expression : metric.getFilterExpressions()) {
+                    key.append(expression.getExpressionObject())
+                       .append('(')
+                       .append(expression.getLeft())
+                       .append(',')
+                       .append(expression.getRight())
+                       .append(");");
+                }
+            }
+            groups.computeIfAbsent(key.toString(), k -> new FilterGroup(metric.getFilterExpressions()))
+                  .getMetrics()
+                  .add(metric);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    @Getter
+    public static class FilterGroup {
+        private final List<Expression> filterExpressions;
+        private final List<AnalysisResult> metrics = new ArrayList<>();
+
+        private FilterGroup(List<Expression> filterExpressions) {
+            this.filterExpressions = filterExpressions;
+        }
+    }
 }
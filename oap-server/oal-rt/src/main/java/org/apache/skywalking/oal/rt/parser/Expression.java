@@ -35,4 +35,27 @@ public class Expression {
     public void setRight(String right) {
         this.right = right;
     }
+
+    /**
+     * @return the name of the static field holding the matcher instance in the generated dispatcher.
+     */
+    public String getMatcherField() {
+        return matcherField(expressionObject);
+    }
+
+    /**
+     * @return the field name of the matcher class, such as EQUAL_MATCH for the EqualMatch class.
+     */
+    public static String matcherField(String matcherClassName) {
+        final String simpleName = matcherClassName.substring(matcherClassName.lastIndexOf('.') + 1);
+        final StringBuilder fieldName = new StringBuilder(simpleName.length() + 4);
+        for (int i = 0; i < simpleName.length(); i++) {
+            final char c = simpleName.charAt(i);
+            if (i > 0 && Character.isUpperCase(c)) {
+                fieldName.append('_');
+            }
+            fieldName.append(Character.toUpperCase(c));
+        }
+        return fieldName.toString();
+    }
 }
@@ -1,6 +1,16 @@
-public void dispatch(org.apache.skywalking.oap.server.core.source.Source source) {
-${sourcePackage}${source} _source = (${sourcePackage}${source})source;
-<#list metrics as metrics>
-    do${metrics.metricsName}(_source);
+public void dispatch(org.apache.skywalking.oap.server.core.source.Source input) {
+${sourcePackage}${source} source = (${sourcePackage}${source})input;
+<#list filterGroups as group>
+    <#if group.filterExpressions?? && group.filterExpressions?has_content>
+        if (<#list group.filterExpressions as filterExpression>${filterExpression.matcherField}.match(${filterExpression.left}, ${filterExpression.right})<#if filterExpression_has_next> && </#if></#list>) {
+        <#list group.metrics as metrics>
+            do${metrics.metricsName}(source);
+        </#list>
+        }
+    <#else>
+        <#list group.metrics as metrics>
+            do${metrics.metricsName}(source);
+        </#list>
+    </#if>
 </#list>
-}
\ No newline at end of file
+}
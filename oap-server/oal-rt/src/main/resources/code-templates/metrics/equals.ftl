@@ -10,7 +10,7 @@ ${metricsClassPackage}${metricsName}Metrics metrics = (${metricsClassPackage}${m
 <#list fieldsFromSource as sourceField>
     <#if sourceField.isID()>
         <#if sourceField.getTypeName() == "java.lang.String">
-            if (!${sourceField.fieldName}.equals(metrics.${sourceField.fieldName}))
+            if (!java.util.Objects.equals(${sourceField.fieldName}, metrics.${sourceField.fieldName}))
         <#else>
             if (${sourceField.fieldName} != metrics.${sourceField.fieldName})
         </#if>
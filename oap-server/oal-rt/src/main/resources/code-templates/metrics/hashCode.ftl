@@ -3,9 +3,9 @@ int result = 17;
 <#list fieldsFromSource as sourceField>
     <#if sourceField.isID()>
         <#if sourceField.getTypeName() == "java.lang.String">
-            result = 31 * result + ${sourceField.fieldName}.hashCode();
+            result = 31 * result + (${sourceField.fieldName} == null ? 0 : ${sourceField.fieldName}.hashCode());
         <#else>
-            result += Const.ID_CONNECTOR + ${sourceField.fieldName};
+            result = 31 * result + String.valueOf(${sourceField.fieldName}).hashCode();
         </#if>
     </#if>
 </#list>
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oal.rt.output;
+
+import java.util.List;
+import org.apache.skywalking.oal.rt.parser.AnalysisResult;
+import org.apache.skywalking.oal.rt.parser.Expression;
+import org.apache.skywalking.oap.server.core.analysis.metrics.expression.EqualMatch;
+import org.apache.skywalking.oap.server.core.analysis.metrics.expression.NotEqualMatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DispatcherContextTest {
+
+    @Test
+    public void testGroupMetricsBySameFilters() {
+        DispatcherContext context = new DispatcherContext();
+        context.getMetrics().add(metrics("EndpointCpm"));
+        context.getMetrics().add(metrics("EndpointHttpCpm", expression(EqualMatch.class, "\"HTTP\"")));
+        context.getMetrics().add(metrics("EndpointSla"));
+        context.getMetrics().add(metrics("EndpointHttpSla", expression(EqualMatch.class, "\"HTTP\"")));
+        context.getMetrics().add(metrics("EndpointRpcCpm", expression(EqualMatch.class, "\"RPC\"")));
+        context.getMetrics().add(metrics("EndpointNotHttpCpm", expression(NotEqualMatch.class, "\"HTTP\"")));
+
+        List<DispatcherContext.FilterGroup> groups = context.getFilterGroups();
+
+        Assert.assertEquals(4, groups.size());
+        Assert.assertNull(groups.get(0).getFilterExpressions());
+        Assert.assertEquals(2, groups.get(0).getMetrics().size());
+        Assert.assertEquals("EndpointHttpCpm", groups.get(1).getMetrics().get(0).getMetricsName());
+        Assert.assertEquals("EndpointHttpSla", groups.get(1).getMetrics().get(1).getMetricsName());
+        Assert.assertEquals("EndpointRpcCpm", groups.get(2).getMetrics().get(0).getMetricsName());
+        Assert.assertEquals("EndpointNotHttpCpm", groups.get(3).getMetrics().get(0).getMetricsName());
+    }
+
+    @Test
+    public void testMatcherField() {
+        Assert.assertEquals("EQUAL_MATCH", Expression.matcherField(EqualMatch.class.getName()));
+        Assert.assertEquals("NOT_EQUAL_MATCH", expression(NotEqualMatch.class, "\"HTTP\"").getMatcherField());
+    }
+
+    private static AnalysisResult metrics(String metricsName, Expression... filters) {
+        AnalysisResult result = new AnalysisResult();
+        result.setMetricsName(metricsName);
+        for (Expression filter : filters) {
+            result.addFilterExpressions(filter);
+        }
+        return result;
+    }
+
+    private static Expression expression(Class<?> matcher, String right) {
+        Expression expression = new Expression();
+        expression.setExpressionObject(matcher.getName());
+        expression.setLeft("source.getType()");
+        expression.setRight(right);
+        return expression;
+    }
+}
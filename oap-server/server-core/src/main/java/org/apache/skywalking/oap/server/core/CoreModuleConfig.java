@@ -47,6 +47,36 @@ public class CoreModuleConfig extends ModuleConfig {
     private int maxConcurrentCallsPerConnection;
     private int maxMessageSize;
     private boolean enableDatabaseSession;
+    /**
+     * The max number of the metrics cached in the database session of each model, 0 means unlimited. The least
+     * recently used metrics are evicted first.
+     */
+    private int databaseSessionMaxSize = 0;
+    /**
+     * The max estimated bytes of the metrics cached in the database sessions of all models, 0 means unlimited. When it
+     * is exceeded, the models using more than their fair share are trimmed.
+     */
+    private long databaseSessionMaxBytes = 0;
+    /**
+     * Insert the metrics directly without reading them from the storage, if they are never persisted by this OAP node
+     * in the recent time buckets, which are tracked since the node started and the cluster changed last time.
+     * <p>
+     * It is unsafe during the changes of the cluster membership. Every OAP node refreshes the membership by its own
+     * timer, so around a change, two nodes could both take the same metrics as new, and the later insert overrides the
+     * earlier one. Keep it disabled unless the cluster is stable, or losing some values during the changes is
+     * acceptable.
+     */
+    private boolean skipReadForNewMetrics = false;
+    /**
+     * Merge the metrics into the sharded concurrent map directly in the receiver threads as the L1 aggregation,
+     * rather than through the queue and the consumer thread of every metrics.
+     */
+    private boolean enableShardedL1Aggregation = false;
+    /**
+     * The period of draining the sharded L1 aggregation map to the L2 aggregation. Unit is millisecond. Only work
+     * when {@link #enableShardedL1Aggregation} == true.
+     */
+    private long l1AggregationFlushPeriod = 100;
     private int topNReportPeriod;
     private final List<String> downsampling;
     /**
@@ -54,10 +84,26 @@ public class CoreModuleConfig extends ModuleConfig {
      */
 
     private long persistentPeriod = 3;
+    /**
+     * Prepare the batch requests of the models in parallel, and execute them in the background, so the next round is
+     * scheduled without waiting for the storage. A round is prepared while the last one is executing, except the
+     * metrics models still in the last execution, as they read the storage.
+     */
+    private boolean enablePipelinedPersistence = false;
+    /**
+     * The number of threads preparing the batch requests of the models. Only work when {@link
+     * #enablePipelinedPersistence} == true.
+     */
+    private int persistentPrepareThreads = 4;
 
     private boolean enableDataKeeperExecutor = true;
 
     private int dataKeeperExecutePeriod = 5;
+    /**
+     * The number of the models removing their expired data in parallel in one execution of the data keeper. Each
+     * model is still removed by one thread.
+     */
+    private int dataKeeperExecuteThreads = 4;
     /**
      * The time to live of all metrics data. Unit is day.
      */
@@ -68,6 +114,33 @@ public class CoreModuleConfig extends ModuleConfig {
      */
 
     private int recordDataTTL = 7;
+    /**
+     * The max number of the time-series values cached for the metrics queries, 0 means the query cache is disabled.
+     */
+    private long metricsQueryCacheMaxSize = 0;
+    /**
+     * The time buckets ended longer than this ago are cached for the metrics queries. It should be longer than the
+     * {@link #persistentPeriod} plus the refresh interval of the storage, such as the `flushInterval` of the
+     * ElasticSearch storage, plus the delay of the agents' reports, or the incomplete values are cached. Unit is
+     * second.
+     */
+    private long metricsQueryCacheClosedDelay = 60;
+    /**
+     * The number of the latest time buckets of each downsampling kept in the in-memory service topology snapshots, 0
+     * means the snapshots are disabled. In the cluster mode, the relations are persisted by the node selected by the
+     * hash code, the global topology query merges the snapshots of all nodes, which should enable it consistently.
+     */
+    private int topologySnapshotBuckets = 0;
+    /**
+     * The max number of the spans returned in one trace query, the earlier segments are kept if the trace is
+     * truncated. 0 means no limit.
+     */
+    private int maxSpansOfTraceQuery = 20000;
+    /**
+     * The number of the threads decoding the segments of the trace queries in parallel, 0 or 1 means the segments
+     * are decoded in the query thread.
+     */
+    private int traceQueryDecodeThreads = 4;
 
     private int gRPCThreadPoolSize;
 
@@ -77,6 +150,22 @@ public class CoreModuleConfig extends ModuleConfig {
      */
 
     private int remoteTimeout = 20;
+    /**
+     * Negotiate the compact binary codec for cluster internal communication. The legacy codec is used when the other
+     * OAP node doesn't support it, such as during the rolling upgrade. It is disabled by default, as the object
+     * strings, such as the DataTable of the percentile and histogram, are parsed again to be packed.
+     */
+    private boolean enableRemoteBinaryCodec = false;
+    /**
+     * The max number of the streams to each other OAP node, which are sent but not acknowledged yet. The stream data
+     * are sent through long-lived streams, which are renewed every {@link #remoteTimeout} seconds.
+     */
+    private int remoteMaxInFlightStreams = 10;
+    /**
+     * The way of routing the metrics to the L2 aggregation OAP nodes, `HashCode` or `ConsistentHash`. `ConsistentHash`
+     * only remaps a small part of the metrics when the OAP cluster scales.
+     */
+    private String metricsRemoteSelector = "HashCode";
     /**
      * The size of network address alias.
      */
@@ -125,6 +214,12 @@ public class CoreModuleConfig extends ModuleConfig {
     @Setter
     @Getter
     private String searchableTracesTags = DEFAULT_SEARCHABLE_TAG_KEYS;
+    /**
+     * Compress the segment data before persistence. The segments persisted before, without compression, keep readable.
+     */
+    @Setter
+    @Getter
+    private boolean compressSegmentData = false;
 
     public CoreModuleConfig() {
         this.downsampling = new ArrayList<>();
@@ -26,6 +26,7 @@ import org.apache.skywalking.oap.server.configuration.api.DynamicConfigurationSe
 import org.apache.skywalking.oap.server.core.analysis.ApdexThresholdConfig;
 import org.apache.skywalking.oap.server.core.analysis.DisableRegister;
 import org.apache.skywalking.oap.server.core.analysis.StreamAnnotationListener;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentDataCodec;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
 import org.apache.skywalking.oap.server.core.analysis.metrics.ApdexMetrics;
 import org.apache.skywalking.oap.server.core.analysis.worker.ManagementStreamProcessor;
@@ -57,6 +58,7 @@ import org.apache.skywalking.oap.server.core.query.MetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsMetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsQueryService;
 import org.apache.skywalking.oap.server.core.query.ProfileTaskQueryService;
+import org.apache.skywalking.oap.server.core.query.ServiceTopologySnapshots;
 import org.apache.skywalking.oap.server.core.query.TopNRecordsQueryService;
 import org.apache.skywalking.oap.server.core.query.TopologyQueryService;
 import org.apache.skywalking.oap.server.core.query.TraceQueryService;
@@ -65,6 +67,7 @@ import org.apache.skywalking.oap.server.core.remote.RemoteServiceHandler;
 import org.apache.skywalking.oap.server.core.remote.client.Address;
 import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
 import org.apache.skywalking.oap.server.core.remote.health.HealthCheckServiceHandler;
+import org.apache.skywalking.oap.server.core.remote.selector.Selector;
 import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegister;
 import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegisterImpl;
 import org.apache.skywalking.oap.server.core.server.JettyHandlerRegister;
@@ -240,8 +243,16 @@ public class CoreModuleProvider extends ModuleProvider {
 
         this.registerServiceImplementation(TopologyQueryService.class, new TopologyQueryService(getManager()));
         this.registerServiceImplementation(MetricsMetadataQueryService.class, new MetricsMetadataQueryService());
-        this.registerServiceImplementation(MetricsQueryService.class, new MetricsQueryService(getManager()));
-        this.registerServiceImplementation(TraceQueryService.class, new TraceQueryService(getManager()));
+        this.registerServiceImplementation(
+            MetricsQueryService.class,
+            new MetricsQueryService(
+                getManager(), moduleConfig.getMetricsQueryCacheMaxSize(), moduleConfig.getMetricsQueryCacheClosedDelay())
+        );
+        this.registerServiceImplementation(
+            TraceQueryService.class,
+            new TraceQueryService(
+                getManager(), moduleConfig.getMaxSpansOfTraceQuery(), moduleConfig.getTraceQueryDecodeThreads())
+        );
         this.registerServiceImplementation(LogQueryService.class, new LogQueryService(getManager()));
         this.registerServiceImplementation(MetadataQueryService.class, new MetadataQueryService(getManager()));
         this.registerServiceImplementation(AggregationQueryService.class, new AggregationQueryService(getManager()));
@@ -270,13 +281,24 @@ public class CoreModuleProvider extends ModuleProvider {
         } else {
             this.remoteClientManager = new RemoteClientManager(getManager(), moduleConfig.getRemoteTimeout());
         }
+        this.remoteClientManager.setBinaryCodecEnabled(moduleConfig.isEnableRemoteBinaryCodec());
+        this.remoteClientManager.setMaxInFlightStreams(moduleConfig.getRemoteMaxInFlightStreams());
         this.registerServiceImplementation(RemoteClientManager.class, remoteClientManager);
 
         // Management
         this.registerServiceImplementation(UITemplateManagementService.class, new UITemplateManagementService(getManager()));
 
         MetricsStreamProcessor.getInstance().setEnableDatabaseSession(moduleConfig.isEnableDatabaseSession());
+        MetricsStreamProcessor.getInstance().setDatabaseSessionMaxSize(moduleConfig.getDatabaseSessionMaxSize());
+        MetricsStreamProcessor.getInstance().setDatabaseSessionMaxBytes(moduleConfig.getDatabaseSessionMaxBytes());
+        MetricsStreamProcessor.getInstance().setSkipReadForNewMetrics(moduleConfig.isSkipReadForNewMetrics());
+        MetricsStreamProcessor.getInstance().setEnableShardedL1Aggregation(moduleConfig.isEnableShardedL1Aggregation());
+        MetricsStreamProcessor.getInstance().setL1AggregationFlushPeriod(moduleConfig.getL1AggregationFlushPeriod());
+        MetricsStreamProcessor.getInstance()
+                              .setMetricsRemoteSelector(Selector.valueOf(moduleConfig.getMetricsRemoteSelector()));
         TopNStreamProcessor.getInstance().setTopNWorkerReportCycle(moduleConfig.getTopNReportPeriod());
+        ServiceTopologySnapshots.INSTANCE.start(moduleConfig.getTopologySnapshotBuckets());
+        SegmentDataCodec.setCOMPRESS(moduleConfig.isCompressSegmentData());
         apdexThresholdConfig = new ApdexThresholdConfig(this);
         ApdexMetrics.setDICT(apdexThresholdConfig);
     }
@@ -26,12 +26,14 @@ import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 
 /**
  * MergableBufferedData is a thread no safe implementation of {@link BufferedData}. {@link Metrics} in this cache would
- * be {@link Metrics#combine(Metrics)} if their {@link Metrics#id()}s are same.
+ * be {@link Metrics#combine(Metrics)} if they are equal. The metrics themselves are the keys of the cache, so the merging
+ * relies on {@link Metrics#hashCode()} and {@link Metrics#equals(Object)} rather than building the {@link Metrics#id()}
+ * string for every accepted metrics.
  *
  * Concurrency {@link #accept(Metrics)}s and {@link #read()} while {@link #accept(Metrics)} are both not recommended.
  */
 public class MergableBufferedData<METRICS extends Metrics> implements BufferedData<METRICS> {
-    private Map<String, METRICS> buffer;
+    private Map<METRICS, METRICS> buffer;
 
     public MergableBufferedData() {
         buffer = new HashMap<>();
@@ -46,10 +48,9 @@ public class MergableBufferedData<METRICS extends Metrics> implements BufferedDa
      */
     @Override
     public void accept(final METRICS data) {
-        final String id = data.id();
-        final METRICS existed = buffer.get(id);
+        final METRICS existed = buffer.get(data);
         if (existed == null) {
-            buffer.put(id, data);
+            buffer.put(data, data);
         } else {
             existed.combine(data);
         }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+
+/**
+ * ShardedMergableBufferedData is a thread safe implementation of {@link BufferedData}. {@link Metrics} in this cache
+ * would be {@link Metrics#combine(Metrics)} if they are equal, like {@link MergableBufferedData}.
+ *
+ * The data is striped into several shards by the hash code of the {@link Metrics}, every shard has its own lock,
+ * so the concurrency {@link #accept(Metrics)}s only block each other when they hit the same shard. {@link #read()}
+ * swaps every shard with an empty one, and drains the swapped out shards without holding any lock.
+ */
+public class ShardedMergableBufferedData<METRICS extends Metrics> implements BufferedData<METRICS> {
+    private final Shard<METRICS>[] shards;
+    private final int mask;
+
+    /**
+     * @param shardNum the expected number of shards, it is rounded up to the power of 2.
+     */
+    @SuppressWarnings("unchecked")
+    public ShardedMergableBufferedData(int shardNum) {
+        int size = 1;
+        while (size < shardNum) {
+            size <<= 1;
+        }
+        shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard<>();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Accept the data into the shard of its id, and merge with the existing value. This method is thread safe.
+     *
+     * @param data to be added potentially.
+     */
+    @Override
+    public void accept(final METRICS data) {
+        int hash = data.hashCode();
+        shards[(hash ^ (hash >>> 16)) & mask].accept(data);
+    }
+
+    @Override
+    public List<METRICS> read() {
+        List<METRICS> collection = new ArrayList<>();
+        for (Shard<METRICS> shard : shards) {
+            collection.addAll(shard.swap().values());
+        }
+        return collection;
+    }
+
+    private static class Shard<METRICS extends Metrics> {
+        private Map<METRICS, METRICS> buffer = new HashMap<>();
+
+        private synchronized void accept(METRICS data) {
+            final METRICS existed = buffer.get(data);
+            if (existed == null) {
+                buffer.put(data, data);
+            } else {
+                existed.combine(data);
+            }
+        }
+
+        private synchronized Map<METRICS, METRICS> swap() {
+            Map<METRICS, METRICS> swapped = buffer;
+            buffer = new HashMap<>(Math.max(16, swapped.size()));
+            return swapped;
+        }
+    }
+}
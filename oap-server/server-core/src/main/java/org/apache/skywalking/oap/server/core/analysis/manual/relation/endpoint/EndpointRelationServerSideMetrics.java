@@ -20,7 +20,7 @@ package org.apache.skywalking.oap.server.core.analysis.manual.relation.endpoint;
 
 import java.util.HashMap;
 import java.util.Map;
-import lombok.EqualsAndHashCode;
+import java.util.Objects;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.skywalking.oap.server.core.Const;
@@ -34,10 +34,6 @@ import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
 @Stream(name = EndpointRelationServerSideMetrics.INDEX_NAME, scopeId = DefaultScopeDefine.ENDPOINT_RELATION,
     builder = EndpointRelationServerSideMetrics.Builder.class, processor = MetricsStreamProcessor.class)
-@EqualsAndHashCode(of = {
-    "entityId",
-    "timeBucket"
-})
 public class EndpointRelationServerSideMetrics extends Metrics {
 
     public static final String INDEX_NAME = "endpoint_relation_server_side";
@@ -134,6 +130,26 @@ public class EndpointRelationServerSideMetrics extends Metrics {
         return remoteBuilder;
     }
 
+    /**
+     * Same as {@link #id()}, the metrics are identified by the entity id and the time bucket.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EndpointRelationServerSideMetrics)) {
+            return false;
+        }
+        EndpointRelationServerSideMetrics metrics = (EndpointRelationServerSideMetrics) o;
+        return getTimeBucket() == metrics.getTimeBucket() && Objects.equals(entityId, metrics.entityId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(entityId) + Long.hashCode(getTimeBucket());
+    }
+
     public static class Builder implements StorageBuilder<EndpointRelationServerSideMetrics> {
 
         @Override
@@ -20,7 +20,7 @@ package org.apache.skywalking.oap.server.core.analysis.manual.relation.instance;
 
 import java.util.HashMap;
 import java.util.Map;
-import lombok.EqualsAndHashCode;
+import java.util.Objects;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.skywalking.oap.server.core.Const;
@@ -34,10 +34,6 @@ import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
 @Stream(name = ServiceInstanceRelationServerSideMetrics.INDEX_NAME, scopeId = DefaultScopeDefine.SERVICE_INSTANCE_RELATION,
     builder = ServiceInstanceRelationServerSideMetrics.Builder.class, processor = MetricsStreamProcessor.class)
-@EqualsAndHashCode(of = {
-    "entityId",
-    "timeBucket"
-})
 public class ServiceInstanceRelationServerSideMetrics extends Metrics {
 
     public static final String INDEX_NAME = "service_instance_relation_server_side";
@@ -147,6 +143,26 @@ public class ServiceInstanceRelationServerSideMetrics extends Metrics {
         return remoteBuilder;
     }
 
+    /**
+     * Same as {@link #id()}, the metrics are identified by the entity id and the time bucket.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ServiceInstanceRelationServerSideMetrics)) {
+            return false;
+        }
+        ServiceInstanceRelationServerSideMetrics metrics = (ServiceInstanceRelationServerSideMetrics) o;
+        return getTimeBucket() == metrics.getTimeBucket() && Objects.equals(entityId, metrics.entityId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(entityId) + Long.hashCode(getTimeBucket());
+    }
+
     public static class Builder implements StorageBuilder<ServiceInstanceRelationServerSideMetrics> {
 
         @Override
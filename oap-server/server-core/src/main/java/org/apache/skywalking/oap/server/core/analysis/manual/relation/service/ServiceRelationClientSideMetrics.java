@@ -20,7 +20,7 @@ package org.apache.skywalking.oap.server.core.analysis.manual.relation.service;
 
 import java.util.HashMap;
 import java.util.Map;
-import lombok.EqualsAndHashCode;
+import java.util.Objects;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.skywalking.oap.server.core.Const;
@@ -34,10 +34,6 @@ import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
 @Stream(name = ServiceRelationClientSideMetrics.INDEX_NAME, scopeId = DefaultScopeDefine.SERVICE_RELATION,
     builder = ServiceRelationClientSideMetrics.Builder.class, processor = MetricsStreamProcessor.class)
-@EqualsAndHashCode(of = {
-    "entityId",
-    "timeBucket"
-})
 public class ServiceRelationClientSideMetrics extends Metrics {
 
     public static final String INDEX_NAME = "service_relation_client_side";
@@ -128,6 +124,26 @@ public class ServiceRelationClientSideMetrics extends Metrics {
         return remoteBuilder;
     }
 
+    /**
+     * Same as {@link #id()}, the metrics are identified by the entity id and the time bucket.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ServiceRelationClientSideMetrics)) {
+            return false;
+        }
+        ServiceRelationClientSideMetrics metrics = (ServiceRelationClientSideMetrics) o;
+        return getTimeBucket() == metrics.getTimeBucket() && Objects.equals(entityId, metrics.entityId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(entityId) + Long.hashCode(getTimeBucket());
+    }
+
     public static class Builder implements StorageBuilder<ServiceRelationClientSideMetrics> {
 
         @Override
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.segment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import lombok.Setter;
+
+/**
+ * SegmentDataCodec compresses the {@link SegmentRecord#DATA_BINARY} before persistence, and restores it before the
+ * segment object is parsed.
+ * <p>
+ * The compressed data start with a 2 bytes header, a zero byte and the codec version. A serialized segment object never
+ * starts with a zero byte, as 0 is not a valid protobuf field number, so the data without the header, persisted when
+ * the compression is off or by the older OAP, are read as they are.
+ */
+public class SegmentDataCodec {
+    private static final byte MARKER = 0;
+    private static final byte DEFLATE_V1 = 1;
+    private static final int HEADER_LENGTH = 2;
+
+    @Setter
+    private static volatile boolean COMPRESS = false;
+
+    /**
+     * @return the data to persist, compressed if {@link #COMPRESS} is activated.
+     */
+    public static byte[] encode(byte[] data) {
+        if (!COMPRESS || data == null || data.length == 0) {
+            return data;
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 2 + HEADER_LENGTH);
+            output.write(MARKER);
+            output.write(DEFLATE_V1);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @return the serialized segment object, decompressed if the data are compressed.
+     * @throws IOException if the data are compressed by an unknown codec version, or corrupted.
+     */
+    public static byte[] decode(byte[] data) throws IOException {
+        if (data == null || data.length < HEADER_LENGTH || data[0] != MARKER) {
+            return data;
+        }
+        if (data[1] != DEFLATE_V1) {
+            throw new IOException("Unknown segment data codec version: " + data[1]);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated segment data");
+                }
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted segment data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -149,7 +149,10 @@ public class SegmentRecord extends Record {
             if (CollectionUtils.isEmpty(storageData.getDataBinary())) {
                 map.put(DATA_BINARY, Const.EMPTY_STRING);
             } else {
-                map.put(DATA_BINARY, new String(Base64.getEncoder().encode(storageData.getDataBinary())));
+                map.put(
+                    DATA_BINARY,
+                    new String(Base64.getEncoder().encode(SegmentDataCodec.encode(storageData.getDataBinary())))
+                );
             }
             map.put(VERSION, storageData.getVersion());
             map.put(TAGS, storageData.getTags());
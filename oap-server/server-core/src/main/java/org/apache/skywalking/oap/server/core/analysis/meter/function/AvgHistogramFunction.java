@@ -113,6 +113,11 @@ public abstract class AvgHistogramFunction extends Metrics implements Acceptable
         }
     }
 
+    @Override
+    public long estimatedBytes() {
+        return BASE_ESTIMATED_BYTES + summation.estimatedBytes() + count.estimatedBytes() + dataset.estimatedBytes();
+    }
+
     @Override
     public Metrics toHour() {
         AvgHistogramFunction metrics = (AvgHistogramFunction) createNew();
@@ -203,6 +203,12 @@ public abstract class AvgHistogramPercentileFunction extends Metrics implements
         }
     }
 
+    @Override
+    public long estimatedBytes() {
+        return BASE_ESTIMATED_BYTES + percentileValues.estimatedBytes() + summation.estimatedBytes()
+            + count.estimatedBytes() + dataset.estimatedBytes();
+    }
+
     @Override
     public Metrics toHour() {
         AvgHistogramPercentileFunction metrics = (AvgHistogramPercentileFunction) createNew();
@@ -96,6 +96,11 @@ public abstract class AvgLabeledFunction extends Metrics implements AcceptableVa
         }
     }
 
+    @Override
+    public long estimatedBytes() {
+        return BASE_ESTIMATED_BYTES + summation.estimatedBytes() + count.estimatedBytes() + value.estimatedBytes();
+    }
+
     @Override
     public Metrics toHour() {
         AvgLabeledFunction metrics = (AvgLabeledFunction) createNew();
@@ -92,6 +92,11 @@ public abstract class HistogramFunction extends Metrics implements AcceptableVal
 
     }
 
+    @Override
+    public long estimatedBytes() {
+        return BASE_ESTIMATED_BYTES + dataset.estimatedBytes();
+    }
+
     @Override
     public Metrics toHour() {
         HistogramFunction metrics = (HistogramFunction) createNew();
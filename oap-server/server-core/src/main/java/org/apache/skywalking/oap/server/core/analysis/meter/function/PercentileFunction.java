@@ -184,6 +184,11 @@ public abstract class PercentileFunction extends Metrics implements AcceptableVa
         }
     }
 
+    @Override
+    public long estimatedBytes() {
+        return BASE_ESTIMATED_BYTES + percentileValues.estimatedBytes() + dataset.estimatedBytes();
+    }
+
     @Override
     public Metrics toHour() {
         PercentileFunction metrics = (PercentileFunction) createNew();
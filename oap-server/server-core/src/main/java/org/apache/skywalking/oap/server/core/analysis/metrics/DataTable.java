@@ -34,6 +34,11 @@ import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObje
 @ToString
 @EqualsAndHashCode
 public class DataTable implements StorageDataComplexObject<DataTable> {
+    /**
+     * The estimated heap bytes of one entry, including the hash map node, the string key and the boxed value.
+     */
+    private static final int ENTRY_ESTIMATED_BYTES = 96;
+
     private HashMap<String, Long> data;
 
     public DataTable() {
@@ -111,6 +116,13 @@ public class DataTable implements StorageDataComplexObject<DataTable> {
         return data.size();
     }
 
+    /**
+     * @return the estimated heap bytes of the entries.
+     */
+    public long estimatedBytes() {
+        return (long) data.size() * ENTRY_ESTIMATED_BYTES;
+    }
+
     @Override
     public String toStorageData() {
         StringBuilder builder = new StringBuilder();
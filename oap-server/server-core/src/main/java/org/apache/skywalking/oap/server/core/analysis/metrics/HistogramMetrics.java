@@ -18,8 +18,6 @@
 
 package org.apache.skywalking.oap.server.core.analysis.metrics;
 
-import lombok.Getter;
-import lombok.Setter;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Arg;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
@@ -39,10 +37,18 @@ public abstract class HistogramMetrics extends Metrics {
 
     public static final String DATASET = "dataset";
 
-    @Getter
-    @Setter
     @Column(columnName = DATASET, dataType = Column.ValueDataType.HISTOGRAM, storageOnly = true, defaultValue = 0)
     private DataTable dataset = new DataTable(30);
+    /**
+     * The buckets combined in the current OAP node, which haven't been merged into the {@link #dataset} yet. They are
+     * only folded into the dataset by {@link #calculate()}, so no string key is created for every single value.
+     */
+    private final IntKeyLongValueHashMap combinedDataset = new IntKeyLongValueHashMap(30);
+    /**
+     * The step and the max number of steps of the combined buckets, used to initialize all keys of the dataset.
+     */
+    private int step;
+    private int maxNumOfSteps;
 
     /**
      * Data will be grouped in
@@ -58,32 +64,78 @@ public abstract class HistogramMetrics extends Metrics {
      */
     @Entrance
     public final void combine(@SourceFrom int value, @Arg int step, @Arg int maxNumOfSteps) {
-        if (!dataset.hasData()) {
-            for (int i = 0; i <= maxNumOfSteps; i++) {
-                String key = String.valueOf(i * step);
-                dataset.put(key, 0L);
-            }
-        }
+        this.step = step;
+        this.maxNumOfSteps = maxNumOfSteps;
 
         int index = value / step;
         if (index > maxNumOfSteps) {
             index = maxNumOfSteps;
         }
-        String idx = String.valueOf(index * step);
 
-        dataset.valueAccumulation(idx, 1L);
+        combinedDataset.valueAccumulation(index * step, 1L);
     }
 
     @Override
     public void combine(Metrics metrics) {
         HistogramMetrics histogramMetrics = (HistogramMetrics) metrics;
-        this.dataset.append(histogramMetrics.dataset);
+        if (histogramMetrics.combinedDataset.hasData()) {
+            this.step = histogramMetrics.step;
+            this.maxNumOfSteps = histogramMetrics.maxNumOfSteps;
+            this.combinedDataset.append(histogramMetrics.combinedDataset);
+        }
+        if (histogramMetrics.dataset.hasData()) {
+            this.dataset.append(histogramMetrics.dataset);
+        }
+    }
+
+    /**
+     * @return the dataset including the buckets not folded by {@link #calculate()} yet. The metrics is not changed, a
+     * merged copy is returned if there are such buckets.
+     */
+    public DataTable getDataset() {
+        if (!combinedDataset.hasData()) {
+            return dataset;
+        }
+        DataTable merged = new DataTable(Math.max(dataset.size(), maxNumOfSteps + 1));
+        fold(merged);
+        return merged;
     }
 
     /**
-     * For Thermodynamic metrics, no single value field. Need to do nothing here.
+     * Merge the {@link #dataset} and the {@link #combinedDataset} into the target. All keys of the steps are
+     * initialized if the dataset is empty.
+     */
+    private void fold(DataTable target) {
+        if (dataset.hasData()) {
+            if (target != dataset) {
+                target.append(dataset);
+            }
+        } else {
+            for (int i = 0; i <= maxNumOfSteps; i++) {
+                target.put(String.valueOf(i * step), 0L);
+            }
+        }
+        combinedDataset.forEach((key, value) -> target.valueAccumulation(String.valueOf(key), value));
+    }
+
+    public void setDataset(DataTable dataset) {
+        this.combinedDataset.clear();
+        this.dataset = dataset;
+    }
+
+    /**
+     * For Thermodynamic metrics, no single value field. Only fold the combined buckets into the dataset.
      */
     @Override
     public final void calculate() {
+        if (combinedDataset.hasData()) {
+            fold(dataset);
+            combinedDataset.clear();
+        }
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return BASE_ESTIMATED_BYTES + dataset.estimatedBytes() + combinedDataset.estimatedBytes();
     }
 }
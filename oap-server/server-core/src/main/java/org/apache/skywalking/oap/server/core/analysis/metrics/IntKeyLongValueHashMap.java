@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Arrays;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
+
+/**
+ * IntKeyLongValueHashMap is an open addressing hash map of primitive int keys and long values, for the buckets of
+ * percentile and histogram, which are accumulated for every single value. Comparing to {@link DataTable}, there is no
+ * string key or boxed value created in the accumulation. The storage data is in the same format as {@link DataTable}.
+ */
+public class IntKeyLongValueHashMap implements StorageDataComplexObject<IntKeyLongValueHashMap> {
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    public IntKeyLongValueHashMap() {
+        this(16);
+    }
+
+    public IntKeyLongValueHashMap(int initialCapacity) {
+        int capacity = 4;
+        // Keep the load factor under 0.5.
+        while (capacity < initialCapacity * 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    public IntKeyLongValueHashMap(String data) {
+        this();
+        toObject(data);
+    }
+
+    /**
+     * @return the value of the key, or 0 if the key doesn't exist.
+     */
+    public long get(int key) {
+        int index = indexOf(key);
+        return used[index] ? values[index] : 0;
+    }
+
+    public boolean hasKey(int key) {
+        return used[indexOf(key)];
+    }
+
+    /**
+     * Accumulate the value with existing value in the same given key.
+     */
+    public void valueAccumulation(int key, long value) {
+        int index = indexOf(key);
+        if (used[index]) {
+            values[index] += value;
+            return;
+        }
+        used[index] = true;
+        keys[index] = key;
+        values[index] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    public void append(IntKeyLongValueHashMap source) {
+        for (int i = 0; i < source.keys.length; i++) {
+            if (source.used[i]) {
+                valueAccumulation(source.keys[i], source.values[i]);
+            }
+        }
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the keys in ascending order.
+     */
+    public int[] sortedKeys() {
+        int[] sortedKeys = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                sortedKeys[n++] = keys[i];
+            }
+        }
+        Arrays.sort(sortedKeys);
+        return sortedKeys;
+    }
+
+    /**
+     * @return the sum of all values.
+     */
+    public long sumOfValues() {
+        long sum = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    public boolean hasData() {
+        return size > 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the estimated heap bytes of the slots, 13 bytes per slot for the key, the value and the used flag.
+     */
+    public long estimatedBytes() {
+        return keys.length * 13L;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(used, false);
+            size = 0;
+        }
+    }
+
+    @Override
+    public String toStorageData() {
+        StringBuilder builder = new StringBuilder();
+        forEach((key, value) -> {
+            if (builder.length() != 0) {
+                // For the first element.
+                builder.append(Const.ARRAY_SPLIT);
+            }
+            builder.append(key).append(Const.KEY_VALUE_SPLIT).append(value);
+        });
+        return builder.toString();
+    }
+
+    @Override
+    public void toObject(String data) {
+        String[] keyValues = data.split(Const.ARRAY_PARSER_SPLIT);
+        for (String keyValue : keyValues) {
+            final String[] keyValuePair = keyValue.split(Const.KEY_VALUE_SPLIT);
+            if (keyValuePair.length == 2) {
+                valueAccumulation(Integer.parseInt(keyValuePair[0]), Long.parseLong(keyValuePair[1]));
+            }
+        }
+    }
+
+    @Override
+    public void copyFrom(final IntKeyLongValueHashMap source) {
+        this.append(source);
+    }
+
+    /**
+     * @return the slot of the key, or the empty slot for it if the key doesn't exist.
+     */
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (used[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int index = indexOf(oldKeys[i]);
+                used[index] = true;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * The bucket keys are continuous integers, spread them to avoid the long probing sequences.
+     */
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, long value);
+    }
+}
@@ -28,11 +28,19 @@ import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 /**
  * Metrics represents the statistic data, which analysis by OAL script or hard code. It has the lifecycle controlled by
  * TTL(time to live).
+ *
+ * The implementations must override {@link Object#hashCode()} and {@link Object#equals(Object)} to be consistent with
+ * {@link #id()}, as the metrics are merged in the buffers by equality, and the id is only built for the storage.
  */
 public abstract class Metrics extends StreamData implements StorageData {
 
     public static final String TIME_BUCKET = "time_bucket";
     public static final String ENTITY_ID = "entity_id";
+    /**
+     * The estimated heap bytes of a metrics without any labeled or bucketed value, including the object header, the
+     * entity id and the scalar values.
+     */
+    protected static final long BASE_ESTIMATED_BYTES = 256;
 
     /**
      * Time attribute
@@ -74,6 +82,15 @@ public abstract class Metrics extends StreamData implements StorageData {
      */
     public abstract Metrics toDay();
 
+    /**
+     * @return the estimated heap bytes of this metrics, used to bound the memory of the caches. It should be cheap
+     * rather than exact, and must not change the metrics. The metrics holding the labeled or bucketed values override
+     * it to include them.
+     */
+    public long estimatedBytes() {
+        return BASE_ESTIMATED_BYTES;
+    }
+
     /**
      * Extend the {@link #survivalTime}
      *
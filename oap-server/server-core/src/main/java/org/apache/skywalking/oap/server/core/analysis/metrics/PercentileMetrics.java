@@ -19,7 +19,6 @@
 package org.apache.skywalking.oap.server.core.analysis.metrics;
 
 import java.util.Comparator;
-import java.util.List;
 import java.util.stream.IntStream;
 import lombok.Getter;
 import lombok.Setter;
@@ -55,16 +54,20 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
     @Setter
     @Column(columnName = PRECISION, storageOnly = true)
     private int precision;
-    @Getter
-    @Setter
     @Column(columnName = DATASET, storageOnly = true)
     private DataTable dataset;
+    /**
+     * The buckets combined in the current OAP node, which haven't been merged into the {@link #dataset} yet. They are
+     * only folded into the dataset by {@link #calculate()}, so no string key is created for every single value.
+     */
+    private final IntKeyLongValueHashMap combinedDataset;
 
     private boolean isCalculated;
 
     public PercentileMetrics() {
         percentileValues = new DataTable(RANKS.length);
         dataset = new DataTable(30);
+        combinedDataset = new IntKeyLongValueHashMap(30);
     }
 
     @Entrance
@@ -72,8 +75,7 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
         this.isCalculated = false;
         this.precision = precision;
 
-        String index = String.valueOf(value / precision);
-        dataset.valueAccumulation(index, 1L);
+        combinedDataset.valueAccumulation(value / precision, 1L);
     }
 
     @Override
@@ -81,13 +83,23 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
         this.isCalculated = false;
 
         PercentileMetrics percentileMetrics = (PercentileMetrics) metrics;
-        this.dataset.append(percentileMetrics.dataset);
+        this.combinedDataset.append(percentileMetrics.combinedDataset);
+        if (percentileMetrics.dataset.hasData()) {
+            this.dataset.append(percentileMetrics.dataset);
+        }
     }
 
     @Override
     public final void calculate() {
         if (!isCalculated) {
-            long total = dataset.sumOfValues();
+            foldCombinedDataset();
+
+            IntKeyLongValueHashMap buckets = new IntKeyLongValueHashMap(dataset.size());
+            for (String key : dataset.keys()) {
+                buckets.valueAccumulation(Integer.parseInt(key), dataset.get(key));
+            }
+
+            long total = buckets.sumOfValues();
 
             int[] roofs = new int[RANKS.length];
             for (int i = 0; i < RANKS.length; i++) {
@@ -95,18 +107,16 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
             }
 
             int count = 0;
-            final List<String> sortedKeys = dataset.sortedKeys(Comparator.comparingInt(Integer::parseInt));
+            final int[] sortedKeys = buckets.sortedKeys();
 
             int loopIndex = 0;
-            for (String key : sortedKeys) {
-                final Long value = dataset.get(key);
-
-                count += value;
+            for (int key : sortedKeys) {
+                count += buckets.get(key);
                 for (int rankIdx = loopIndex; rankIdx < roofs.length; rankIdx++) {
                     int roof = roofs[rankIdx];
 
                     if (count >= roof) {
-                        percentileValues.put(String.valueOf(rankIdx), Long.parseLong(key) * precision);
+                        percentileValues.put(String.valueOf(rankIdx), (long) key * precision);
                         loopIndex++;
                     } else {
                         break;
@@ -116,6 +126,38 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
         }
     }
 
+    @Override
+    public long estimatedBytes() {
+        return BASE_ESTIMATED_BYTES + percentileValues.estimatedBytes() + dataset.estimatedBytes()
+            + combinedDataset.estimatedBytes();
+    }
+
+    private void foldCombinedDataset() {
+        if (combinedDataset.hasData()) {
+            combinedDataset.forEach((key, value) -> dataset.valueAccumulation(String.valueOf(key), value));
+            combinedDataset.clear();
+        }
+    }
+
+    /**
+     * @return the dataset including the buckets not folded by {@link #calculate()} yet. The metrics is not changed, a
+     * merged copy is returned if there are such buckets.
+     */
+    public DataTable getDataset() {
+        if (!combinedDataset.hasData()) {
+            return dataset;
+        }
+        DataTable merged = new DataTable(dataset.size() + combinedDataset.size());
+        merged.append(dataset);
+        combinedDataset.forEach((key, value) -> merged.valueAccumulation(String.valueOf(key), value));
+        return merged;
+    }
+
+    public void setDataset(DataTable dataset) {
+        this.combinedDataset.clear();
+        this.dataset = dataset;
+    }
+
     public int[] getValues() {
         return percentileValues.sortedValues(Comparator.comparingInt(Integer::parseInt))
                                .stream()
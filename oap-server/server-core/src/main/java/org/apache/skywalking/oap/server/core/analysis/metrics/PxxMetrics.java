@@ -105,4 +105,9 @@ public abstract class PxxMetrics extends Metrics implements IntValueHolder {
             }
         }
     }
+
+    @Override
+    public long estimatedBytes() {
+        return BASE_ESTIMATED_BYTES + detailGroup.estimatedBytes();
+    }
 }
@@ -21,21 +21,23 @@ package org.apache.skywalking.oap.server.core.analysis.worker;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPoolFactory;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.WaitStrategy;
+import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.data.MergableBufferedData;
 import org.apache.skywalking.oap.server.core.analysis.data.ReadWriteSafeCache;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.exporter.ExportEvent;
+import org.apache.skywalking.oap.server.core.query.ServiceTopologySnapshots;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
@@ -51,8 +53,9 @@ import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
  */
 @Slf4j
 public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
+    @Getter
     private final Model model;
-    private final Map<Metrics, Metrics> context;
+    private final MetricsSessionCache context;
     private final IMetricsDAO metricsDAO;
     private final Optional<AbstractWorker<Metrics>> nextAlarmWorker;
     private final Optional<AbstractWorker<ExportEvent>> nextExportWorker;
@@ -60,27 +63,53 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     private final Optional<MetricsTransWorker> transWorker;
     private final boolean enableDatabaseSession;
     private final boolean supportUpdate;
+    /**
+     * Present only if CoreModuleConfig#skipReadForNewMetrics is enabled.
+     */
+    private final Optional<PersistedIdsTracker> persistedIds;
+    /**
+     * True if the flushed metrics are recorded in the {@link ServiceTopologySnapshots}.
+     */
+    private final boolean recordTopologySnapshot;
+    /**
+     * The metrics inserted and updated in the current round. They are held in the session and tracked as persisted only
+     * after the round is confirmed by the storage, otherwise the next rounds would update the rows which don't exist.
+     */
+    private final List<Metrics> pendingInserts = new ArrayList<>();
+    private final List<Metrics> pendingUpdates = new ArrayList<>();
     private CounterMetrics aggregationCounter;
 
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
                             AbstractWorker<Metrics> nextAlarmWorker, AbstractWorker<ExportEvent> nextExportWorker,
-                            MetricsTransWorker transWorker, boolean enableDatabaseSession, boolean supportUpdate) {
+                            MetricsTransWorker transWorker, boolean enableDatabaseSession, boolean supportUpdate,
+                            int sessionCacheMaxSize, MetricsSessionCache.Budget sessionCacheBudget,
+                            boolean skipReadForNewMetrics) {
         super(moduleDefineHolder, new ReadWriteSafeCache<>(new MergableBufferedData(), new MergableBufferedData()));
         this.model = model;
-        this.context = new HashMap<>(100);
+        this.context = new MetricsSessionCache(moduleDefineHolder, model, sessionCacheMaxSize, sessionCacheBudget);
         this.enableDatabaseSession = enableDatabaseSession;
         this.metricsDAO = metricsDAO;
         this.nextAlarmWorker = Optional.ofNullable(nextAlarmWorker);
         this.nextExportWorker = Optional.ofNullable(nextExportWorker);
         this.transWorker = Optional.ofNullable(transWorker);
         this.supportUpdate = supportUpdate;
+        if (skipReadForNewMetrics) {
+            RemoteClientManager remoteClientManager = moduleDefineHolder.find(CoreModule.NAME)
+                                                                        .provider()
+                                                                        .getService(RemoteClientManager.class);
+            this.persistedIds = Optional.of(
+                new PersistedIdsTracker(model.getDownsampling(), remoteClientManager::getClientsRebuiltTime));
+        } else {
+            this.persistedIds = Optional.empty();
+        }
+        this.recordTopologySnapshot = ServiceTopologySnapshots.INSTANCE.accept(model);
 
         String name = "METRICS_L2_AGGREGATION";
         int size = BulkConsumePool.Creator.recommendMaxSize() / 8;
         if (size == 0) {
             size = 1;
         }
-        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, 20);
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, 20, WaitStrategy.ADAPTIVE);
         try {
             ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
         } catch (Exception e) {
@@ -103,10 +132,12 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
      * Create the leaf MetricsPersistentWorker, no next step.
      */
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
-                            boolean enableDatabaseSession, boolean supportUpdate) {
+                            boolean enableDatabaseSession, boolean supportUpdate,
+                            int sessionCacheMaxSize, MetricsSessionCache.Budget sessionCacheBudget,
+                            boolean skipReadForNewMetrics) {
         this(moduleDefineHolder, model, metricsDAO,
              null, null, null,
-             enableDatabaseSession, supportUpdate
+             enableDatabaseSession, supportUpdate, sessionCacheMaxSize, sessionCacheBudget, skipReadForNewMetrics
         );
     }
 
@@ -160,6 +191,9 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
             loadFromStorage(metricsList);
 
             for (Metrics metrics : metricsList) {
+                if (recordTopologySnapshot) {
+                    ServiceTopologySnapshots.INSTANCE.record(model, metrics);
+                }
                 Metrics cachedMetrics = context.get(metrics);
                 if (cachedMetrics != null) {
                     /*
@@ -174,11 +208,20 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
                      */
                     cachedMetrics.combine(metrics);
                     cachedMetrics.calculate();
+                    if (enableDatabaseSession) {
+                        context.updated(cachedMetrics);
+                    }
                     prepareRequests.add(metricsDAO.prepareBatchUpdate(model, cachedMetrics));
+                    if (persistedIds.isPresent()) {
+                        pendingUpdates.add(cachedMetrics);
+                    }
                     nextWorker(cachedMetrics);
                 } else {
                     metrics.calculate();
                     prepareRequests.add(metricsDAO.prepareBatchInsert(model, metrics));
+                    if (enableDatabaseSession || persistedIds.isPresent()) {
+                        pendingInserts.add(metrics);
+                    }
                     nextWorker(metrics);
                 }
 
@@ -192,6 +235,9 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
             log.error(t.getMessage(), t);
         } finally {
             metricsList.clear();
+            if (enableDatabaseSession) {
+                context.evictIfNecessary();
+            }
         }
     }
 
@@ -203,6 +249,7 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
 
     /**
      * Load data from the storage, if {@link #enableDatabaseSession} == true, only load data when the id doesn't exist.
+     * The metrics tracked as new by {@link #persistedIds} are never read, they are inserted directly.
      */
     private void loadFromStorage(List<Metrics> metrics) throws IOException {
         if (!enableDatabaseSession) {
@@ -210,16 +257,22 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
         }
 
         List<String> notInCacheIds = new ArrayList<>();
+        int hits = 0;
         for (Metrics metric : metrics) {
-            if (!context.containsKey(metric)) {
+            if (context.containsKey(metric)) {
+                hits++;
+            } else if (!persistedIds.isPresent() || !persistedIds.get().isNew(metric)) {
                 notInCacheIds.add(metric.id());
             }
         }
+        if (enableDatabaseSession) {
+            context.recordAccess(hits, metrics.size() - hits);
+        }
 
         if (notInCacheIds.size() > 0) {
             List<Metrics> metricsList = metricsDAO.multiGet(model, notInCacheIds);
             for (Metrics metric : metricsList) {
-                context.put(metric, metric);
+                context.put(metric);
             }
         }
     }
@@ -227,16 +280,46 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     @Override
     public void endOfRound(long tookTime) {
         if (enableDatabaseSession) {
-            Iterator<Metrics> iterator = context.values().iterator();
-            while (iterator.hasNext()) {
-                Metrics metrics = iterator.next();
-                metrics.extendSurvivalTime(tookTime);
-                // 70,000ms means more than one minute.
-                if (metrics.getSurvivalTime() > 70000) {
-                    iterator.remove();
+            context.expire(tookTime);
+        }
+    }
+
+    @Override
+    public boolean readsStorage() {
+        return true;
+    }
+
+    /**
+     * Hold the inserted metrics in the session and track the persisted ones once the round is confirmed, so the next
+     * round updates them without reading from the storage. If the round failed, they are dropped and read from the
+     * storage again when needed. The failed round could be executed partially, so the time buckets of them are not
+     * tracked any more, or the persisted ones would be inserted as new, overriding the values in the storage.
+     */
+    @Override
+    public void afterRoundExecuted(boolean success) {
+        if (success) {
+            for (Metrics metrics : pendingInserts) {
+                if (enableDatabaseSession) {
+                    context.put(metrics);
                 }
+                persistedIds.ifPresent(tracker -> tracker.persisted(metrics));
+            }
+            for (Metrics metrics : pendingUpdates) {
+                persistedIds.ifPresent(tracker -> tracker.persisted(metrics));
+            }
+            if (enableDatabaseSession && !pendingInserts.isEmpty()) {
+                context.evictIfNecessary();
+            }
+        } else if (persistedIds.isPresent()) {
+            for (Metrics metrics : pendingInserts) {
+                persistedIds.get().untrack(metrics);
+            }
+            for (Metrics metrics : pendingUpdates) {
+                persistedIds.get().untrack(metrics);
             }
         }
+        pendingInserts.clear();
+        pendingUpdates.clear();
     }
 
     /**
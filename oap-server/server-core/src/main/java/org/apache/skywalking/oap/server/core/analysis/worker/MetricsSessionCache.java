@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * MetricsSessionCache holds the metrics of one model read from or written into the storage, which are merged with
+ * the metrics of the next rounds in {@link MetricsPersistentWorker}, instead of reading them from the storage again.
+ * <p>
+ * The cache is bounded by the number of metrics of the model, and by the estimated bytes of the metrics of all
+ * models through the shared {@link Budget}. A model could use more than its fair share of the budget while the budget
+ * isn't exceeded, otherwise it is trimmed back to the share. The least recently used metrics are evicted by {@link
+ * #evictIfNecessary()}, and every metrics expires after surviving {@link #SURVIVAL_TIME} ms in the cache.
+ * <p>
+ * The cache is not thread safe, as the persistence of one model is never executed concurrently.
+ */
+class MetricsSessionCache {
+    /**
+     * 70,000ms means more than one minute.
+     */
+    static final long SURVIVAL_TIME = 70000;
+    /**
+     * The estimated overhead of the map entry of a cached metrics, in bytes.
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final LinkedHashMap<Metrics, Entry> cache;
+    private final int maxSize;
+    private final Budget budget;
+    /**
+     * The estimated bytes of the metrics in this cache.
+     */
+    private long usedBytes;
+    private final CounterMetrics hitCounter;
+    private final CounterMetrics missCounter;
+    private final CounterMetrics evictionCounter;
+
+    /**
+     * @param maxSize the max number of the cached metrics, 0 means unlimited.
+     * @param budget  the bytes limit shared by the caches of all models.
+     */
+    MetricsSessionCache(ModuleDefineHolder moduleDefineHolder, Model model, int maxSize, Budget budget) {
+        this.cache = new LinkedHashMap<>(100, 0.75f, true);
+        this.maxSize = maxSize;
+        this.budget = budget;
+        budget.register();
+
+        MetricsCreator metricsCreator = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class);
+        MetricsTag.Keys keys = new MetricsTag.Keys("metricName", "dimensionality");
+        MetricsTag.Values values = new MetricsTag.Values(model.getName(), model.getDownsampling().getName());
+        hitCounter = metricsCreator.createCounter(
+            "metrics_persistent_cache_hit_count", "The number of metrics found in the session cache", keys, values);
+        missCounter = metricsCreator.createCounter(
+            "metrics_persistent_cache_miss_count", "The number of metrics not found in the session cache", keys,
+            values
+        );
+        evictionCounter = metricsCreator.createCounter(
+            "metrics_persistent_cache_eviction_count",
+            "The number of metrics evicted from the session cache because of the size limits", keys, values
+        );
+    }
+
+    boolean containsKey(Metrics metrics) {
+        return cache.containsKey(metrics);
+    }
+
+    Metrics get(Metrics metrics) {
+        Entry entry = cache.get(metrics);
+        return entry == null ? null : entry.metrics;
+    }
+
+    void put(Metrics metrics) {
+        long bytes = budget.isLimited() ? estimateBytes(metrics) : 0;
+        Entry previous = cache.put(metrics, new Entry(metrics, bytes));
+        if (previous != null) {
+            release(previous.bytes);
+        }
+        acquire(bytes);
+    }
+
+    /**
+     * Count the bytes of the cached metrics again, after it is changed by the combination.
+     */
+    void updated(Metrics cachedMetrics) {
+        if (!budget.isLimited()) {
+            return;
+        }
+        Entry entry = cache.get(cachedMetrics);
+        if (entry != null) {
+            long bytes = estimateBytes(entry.metrics);
+            acquire(bytes - entry.bytes);
+            entry.bytes = bytes;
+        }
+    }
+
+    /**
+     * Record the lookups of one batch in the telemetry.
+     */
+    void recordAccess(int hits, int misses) {
+        hitCounter.inc(hits);
+        missCounter.inc(misses);
+    }
+
+    /**
+     * Extend the survival time of all cached metrics, and remove the expired ones.
+     */
+    void expire(long tookTime) {
+        Iterator<Entry> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            entry.metrics.extendSurvivalTime(tookTime);
+            if (entry.metrics.getSurvivalTime() > SURVIVAL_TIME) {
+                iterator.remove();
+                release(entry.bytes);
+            }
+        }
+    }
+
+    void clear() {
+        release(usedBytes);
+        cache.clear();
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Evict the least recently used metrics, but always keep the latest one. When the bytes budget is exceeded, only
+     * the models using more than their fair share are trimmed, so one busy model doesn't evict the others, and isn't
+     * evicted because of the others. This should be called after a batch is processed, as the metrics of the batch must
+     * stay in the cache before being merged.
+     */
+    void evictIfNecessary() {
+        Iterator<Entry> iterator = cache.values().iterator();
+        while (cache.size() > 1 && ((maxSize > 0 && cache.size() > maxSize) || isOverBudget())) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            release(eldest.bytes);
+            evictionCounter.inc();
+        }
+    }
+
+    private boolean isOverBudget() {
+        return budget.isExceeded() && usedBytes > budget.fairShare();
+    }
+
+    private void acquire(long bytes) {
+        usedBytes += bytes;
+        budget.acquire(bytes);
+    }
+
+    private void release(long bytes) {
+        usedBytes -= bytes;
+        budget.release(bytes);
+    }
+
+    /**
+     * {@link Metrics#estimatedBytes()} is used rather than serializing the metrics, which is cheap and doesn't touch
+     * the values being combined.
+     */
+    private static long estimateBytes(Metrics metrics) {
+        return ENTRY_OVERHEAD + metrics.estimatedBytes();
+    }
+
+    private static class Entry {
+        private final Metrics metrics;
+        private long bytes;
+
+        private Entry(Metrics metrics, long bytes) {
+            this.metrics = metrics;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * The bytes limit shared by the session caches of all models.
+     */
+    static class Budget {
+        private final long maxBytes;
+        private final AtomicLong usedBytes = new AtomicLong(0);
+        private final AtomicInteger caches = new AtomicInteger(0);
+        private final GaugeMetrics usedBytesGauge;
+
+        /**
+         * @param maxBytes the max estimated bytes of all cached metrics, 0 means unlimited.
+         */
+        Budget(ModuleDefineHolder moduleDefineHolder, long maxBytes) {
+            this.maxBytes = maxBytes;
+            this.usedBytesGauge = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                    .provider()
+                                                    .getService(MetricsCreator.class)
+                                                    .createGauge(
+                                                        "metrics_persistent_cache_bytes",
+                                                        "The estimated bytes of the metrics in the session caches",
+                                                        MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+                                                    );
+        }
+
+        boolean isLimited() {
+            return maxBytes > 0;
+        }
+
+        boolean isExceeded() {
+            return maxBytes > 0 && usedBytes.get() > maxBytes;
+        }
+
+        /**
+         * @return the bytes each model could use when the budget is exceeded.
+         */
+        long fairShare() {
+            return maxBytes / Math.max(1, caches.get());
+        }
+
+        private void register() {
+            caches.incrementAndGet();
+        }
+
+        private void acquire(long bytes) {
+            if (bytes != 0) {
+                usedBytesGauge.setValue(usedBytes.addAndGet(bytes));
+            }
+        }
+
+        private void release(long bytes) {
+            if (bytes != 0) {
+                usedBytesGauge.setValue(usedBytes.addAndGet(-bytes));
+            }
+        }
+    }
+}
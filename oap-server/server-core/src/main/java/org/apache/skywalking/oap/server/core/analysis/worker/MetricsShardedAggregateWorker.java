@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.core.analysis.data.ShardedMergableBufferedData;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * MetricsShardedAggregateWorker is the alternative of {@link MetricsAggregateWorker}, it provides the L1 aggregation
+ * without the queue. The receiver threads merge the metrics into the {@link ShardedMergableBufferedData} directly, and
+ * the shared flush thread drains the merged metrics to the next worker periodically.
+ *
+ * Comparing to {@link MetricsAggregateWorker}, the metrics of one model are not bounded by one consumer thread, and
+ * the metrics are merged in a whole flush period rather than in one consuming batch.
+ */
+@Slf4j
+public class MetricsShardedAggregateWorker extends AbstractWorker<Metrics> {
+    private static final ScheduledExecutorService FLUSH_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("MetricsShardedAggregateWorker-flush-%d").setDaemon(true).build());
+
+    private final AbstractWorker<Metrics> nextWorker;
+    private final ShardedMergableBufferedData<Metrics> mergeDataCache;
+    private final CounterMetrics aggregationCounter;
+
+    MetricsShardedAggregateWorker(ModuleDefineHolder moduleDefineHolder, AbstractWorker<Metrics> nextWorker,
+                                  String modelName, long flushPeriod) {
+        super(moduleDefineHolder);
+        this.nextWorker = nextWorker;
+        this.mergeDataCache = new ShardedMergableBufferedData<>(Runtime.getRuntime().availableProcessors() * 2);
+
+        MetricsCreator metricsCreator = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class);
+        aggregationCounter = metricsCreator.createCounter(
+            "metrics_aggregation", "The number of rows in aggregation",
+            new MetricsTag.Keys("metricName", "level", "dimensionality"), new MetricsTag.Values(modelName, "1", "minute")
+        );
+
+        FLUSH_EXECUTOR.scheduleWithFixedDelay(
+            new RunnableWithExceptionProtection(
+                this::flush, t -> log.error("Flush L1 aggregation of {} failure.", modelName, t)),
+            flushPeriod, flushPeriod, TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Merge the metrics in the caller thread.
+     */
+    @Override
+    public final void in(Metrics metrics) {
+        aggregationCounter.inc();
+        mergeDataCache.accept(metrics);
+    }
+
+    private void flush() {
+        mergeDataCache.read().forEach(
+            data -> {
+                if (log.isDebugEnabled()) {
+                    log.debug(data.toString());
+                }
+                nextWorker.in(data);
+            }
+        );
+    }
+}
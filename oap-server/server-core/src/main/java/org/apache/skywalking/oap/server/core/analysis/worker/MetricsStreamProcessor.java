@@ -33,6 +33,7 @@ import org.apache.skywalking.oap.server.core.analysis.Stream;
 import org.apache.skywalking.oap.server.core.analysis.StreamDefinition;
 import org.apache.skywalking.oap.server.core.analysis.StreamProcessor;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.selector.Selector;
 import org.apache.skywalking.oap.server.core.config.DownSamplingConfigService;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageDAO;
@@ -41,6 +42,7 @@ import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.annotation.Storage;
 import org.apache.skywalking.oap.server.core.storage.model.ModelCreator;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceSetter;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 
@@ -60,7 +62,7 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
     /**
      * Worker table hosts all entrance workers.
      */
-    private Map<Class<? extends Metrics>, MetricsAggregateWorker> entryWorkers = new HashMap<>();
+    private Map<Class<? extends Metrics>, AbstractWorker<Metrics>> entryWorkers = new HashMap<>();
 
     /**
      * Worker table hosts all persistent workers.
@@ -75,12 +77,59 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
     @Getter
     private boolean enableDatabaseSession;
 
+    /**
+     * Hold and forward CoreModuleConfig#databaseSessionMaxSize to the persistent worker.
+     */
+    @Setter
+    @Getter
+    private int databaseSessionMaxSize;
+
+    /**
+     * Hold and forward CoreModuleConfig#databaseSessionMaxBytes to the persistent worker.
+     */
+    @Setter
+    @Getter
+    private long databaseSessionMaxBytes;
+
+    /**
+     * Hold and forward CoreModuleConfig#skipReadForNewMetrics to the persistent worker.
+     */
+    @Setter
+    @Getter
+    private boolean skipReadForNewMetrics;
+
+    /**
+     * The bytes limit shared by the session caches of all persistent workers.
+     */
+    private MetricsSessionCache.Budget sessionCacheBudget;
+
+    /**
+     * Hold and forward CoreModuleConfig#enableShardedL1Aggregation to choose the L1 aggregation worker.
+     */
+    @Setter
+    @Getter
+    private boolean enableShardedL1Aggregation;
+
+    /**
+     * Hold and forward CoreModuleConfig#l1AggregationFlushPeriod to the {@link MetricsShardedAggregateWorker}.
+     */
+    @Setter
+    @Getter
+    private long l1AggregationFlushPeriod;
+
+    /**
+     * Hold and forward CoreModuleConfig#metricsRemoteSelector to the {@link MetricsRemoteWorker}.
+     */
+    @Setter
+    @Getter
+    private Selector metricsRemoteSelector = Selector.HashCode;
+
     public static MetricsStreamProcessor getInstance() {
         return PROCESSOR;
     }
 
     public void in(Metrics metrics) {
-        MetricsAggregateWorker worker = entryWorkers.get(metrics.getClass());
+        AbstractWorker<Metrics> worker = entryWorkers.get(metrics.getClass());
         if (worker != null) {
             worker.in(metrics);
         }
@@ -160,9 +209,15 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
                                                                        .getService(IWorkerInstanceSetter.class);
         workerInstanceSetter.put(remoteReceiverWorkerName, minutePersistentWorker, metricsClass);
 
-        MetricsRemoteWorker remoteWorker = new MetricsRemoteWorker(moduleDefineHolder, remoteReceiverWorkerName);
-        MetricsAggregateWorker aggregateWorker = new MetricsAggregateWorker(
-            moduleDefineHolder, remoteWorker, stream.getName());
+        MetricsRemoteWorker remoteWorker = new MetricsRemoteWorker(
+            moduleDefineHolder, remoteReceiverWorkerName, metricsRemoteSelector);
+        AbstractWorker<Metrics> aggregateWorker;
+        if (enableShardedL1Aggregation) {
+            aggregateWorker = new MetricsShardedAggregateWorker(
+                moduleDefineHolder, remoteWorker, stream.getName(), l1AggregationFlushPeriod);
+        } else {
+            aggregateWorker = new MetricsAggregateWorker(moduleDefineHolder, remoteWorker, stream.getName());
+        }
 
         entryWorkers.put(metricsClass, aggregateWorker);
     }
@@ -177,7 +232,7 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
 
         MetricsPersistentWorker minutePersistentWorker = new MetricsPersistentWorker(
             moduleDefineHolder, model, metricsDAO, alarmNotifyWorker, exportWorker, transWorker, enableDatabaseSession,
-            supportUpdate
+            supportUpdate, databaseSessionMaxSize, sessionCacheBudget(moduleDefineHolder), skipReadForNewMetrics
         );
         persistentWorkers.add(minutePersistentWorker);
 
@@ -189,9 +244,20 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
                                                        Model model,
                                                        boolean supportUpdate) {
         MetricsPersistentWorker persistentWorker = new MetricsPersistentWorker(
-            moduleDefineHolder, model, metricsDAO, enableDatabaseSession, supportUpdate);
+            moduleDefineHolder, model, metricsDAO, enableDatabaseSession, supportUpdate, databaseSessionMaxSize,
+            sessionCacheBudget(moduleDefineHolder), skipReadForNewMetrics
+        );
         persistentWorkers.add(persistentWorker);
 
         return persistentWorker;
     }
+
+    private MetricsSessionCache.Budget sessionCacheBudget(ModuleDefineHolder moduleDefineHolder) {
+        if (sessionCacheBudget == null) {
+            // The session is cleared in every batch when it is disabled, no limit is necessary.
+            sessionCacheBudget = new MetricsSessionCache.Budget(
+                moduleDefineHolder, enableDatabaseSession ? databaseSessionMaxBytes : 0);
+        }
+        return sessionCacheBudget;
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+
+/**
+ * PersistedIdsTracker tracks the ids of the metrics persisted by the current OAP node, per time bucket of one model.
+ * When a time bucket is tracked from its beginning, the metrics not tracked in it are new for the storage, so {@link
+ * MetricsPersistentWorker} inserts them directly, without reading them from the storage.
+ * <p>
+ * A time bucket is tracked only if it starts after the tracker is created and after the latest change of the OAP
+ * cluster, as the metrics could be persisted by the previous process or by the other OAP nodes before that. Only the
+ * latest {@link #RETAINED_BUCKETS} time buckets are tracked, the metrics of the older ones are always read from the
+ * storage.
+ * <p>
+ * The cluster change is observed by this node only, when it refreshes the membership. The other nodes refresh on their
+ * own timers, so around a change the same metrics could be taken as new by two nodes. That is why the tracker is only
+ * used when CoreModuleConfig#skipReadForNewMetrics is enabled explicitly.
+ * <p>
+ * The tracker is not thread safe, as the persistence of one model is never executed concurrently.
+ */
+class PersistedIdsTracker {
+    static final int RETAINED_BUCKETS = 3;
+    /**
+     * The marker of the time bucket which is not tracked any more, see {@link #untrack(Metrics)}.
+     */
+    private static final Set<String> UNTRACKED = Collections.emptySet();
+
+    private final DownSampling downsampling;
+    private final LongSupplier clusterChangedTime;
+    private final TreeMap<Long, Set<String>> persistedIds = new TreeMap<>();
+    /**
+     * The time buckets less than or equal to this one are not tracked.
+     */
+    private long untrackedBucket;
+    private long lastClusterChangedTime;
+
+    /**
+     * @param clusterChangedTime the supplier of the latest time when the OAP cluster changed.
+     */
+    PersistedIdsTracker(DownSampling downsampling, LongSupplier clusterChangedTime) {
+        this.downsampling = downsampling;
+        this.clusterChangedTime = clusterChangedTime;
+        this.untrackedBucket = TimeBucket.getTimeBucket(System.currentTimeMillis(), downsampling);
+    }
+
+    /**
+     * @return true if the metrics is never persisted, which doesn't need to be read from the storage.
+     */
+    boolean isNew(Metrics metrics) {
+        Set<String> ids = trackedIds(metrics.getTimeBucket());
+        return ids != null && !ids.contains(metrics.id());
+    }
+
+    /**
+     * Track the metrics whose persistence is confirmed by the storage.
+     */
+    void persisted(Metrics metrics) {
+        Set<String> ids = trackedIds(metrics.getTimeBucket());
+        if (ids != null) {
+            ids.add(metrics.id());
+        }
+    }
+
+    /**
+     * Stop tracking the time bucket of the metrics, as the failed round could be executed partially, and the metrics
+     * could be persisted or not. The metrics of the time bucket are read from the storage since then.
+     */
+    void untrack(Metrics metrics) {
+        if (trackedIds(metrics.getTimeBucket()) != null) {
+            persistedIds.put(metrics.getTimeBucket(), UNTRACKED);
+        }
+    }
+
+    /**
+     * @return the persisted ids of the time bucket, or null if the time bucket is not tracked.
+     */
+    private Set<String> trackedIds(long timeBucket) {
+        long changedTime = clusterChangedTime.getAsLong();
+        if (changedTime != lastClusterChangedTime) {
+            // The metrics could be persisted by the other OAP nodes before the change.
+            lastClusterChangedTime = changedTime;
+            untrackedBucket = Math.max(untrackedBucket, TimeBucket.getTimeBucket(changedTime, downsampling));
+            persistedIds.clear();
+        }
+
+        if (timeBucket <= untrackedBucket) {
+            return null;
+        }
+        Set<String> ids = persistedIds.get(timeBucket);
+        if (ids == UNTRACKED) {
+            return null;
+        }
+        if (ids == null) {
+            ids = new HashSet<>();
+            persistedIds.put(timeBucket, ids);
+            while (persistedIds.size() > RETAINED_BUCKETS) {
+                Map.Entry<Long, Set<String>> oldest = persistedIds.pollFirstEntry();
+                untrackedBucket = Math.max(untrackedBucket, oldest.getKey());
+            }
+            if (timeBucket <= untrackedBucket) {
+                // The time bucket is older than all retained ones.
+                return null;
+            }
+        }
+        return ids;
+    }
+}
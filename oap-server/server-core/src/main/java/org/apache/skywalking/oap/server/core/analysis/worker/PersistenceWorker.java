@@ -25,6 +25,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.analysis.data.ReadWriteSafeCache;
 import org.apache.skywalking.oap.server.core.storage.StorageData;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
@@ -45,6 +46,11 @@ public abstract class PersistenceWorker<INPUT extends StorageData> extends Abstr
         this.cache = cache;
     }
 
+    /**
+     * @return the model persisted by this worker.
+     */
+    public abstract Model getModel();
+
     /**
      * Accept the input, and push the data into the cache.
      */
@@ -60,6 +66,23 @@ public abstract class PersistenceWorker<INPUT extends StorageData> extends Abstr
      */
     public abstract void endOfRound(long tookTime);
 
+    /**
+     * Notify the worker that the batch requests built in the last round have been executed. The worker should not
+     * assume anything of the round persisted before this notification.
+     *
+     * @param success false if any request of the round is not confirmed by the storage.
+     */
+    public void afterRoundExecuted(boolean success) {
+    }
+
+    /**
+     * @return true if the batch requests are built on the data read from the storage. Then the next round of the worker
+     * is prepared only after the requests of its last round executed, otherwise it could read the stale data.
+     */
+    public boolean readsStorage() {
+        return false;
+    }
+
     /**
      * Prepare the batch persistence, transfer all prepared data to the executable data format based on the storage
      * implementations.
@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core.analysis.worker;
 
 import java.util.Collection;
 import java.util.List;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
@@ -37,6 +38,7 @@ import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 @Slf4j
 public class TopNWorker extends PersistenceWorker<TopN> {
     private final IRecordDAO recordDAO;
+    @Getter
     private final Model model;
     private final DataCarrier<TopN> dataCarrier;
     private long reportPeriod;
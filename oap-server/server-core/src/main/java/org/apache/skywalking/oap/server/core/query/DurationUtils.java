@@ -157,6 +157,42 @@ public enum DurationUtils {
         throw new UnexpectedException("Unsupported step " + step.name());
     }
 
+    /**
+     * Convert the time bucket to the date in `yyyy-MM-dd HHmmss` style based on the step, which is the reverse of
+     * {@link #convertToTimeBucket(String)}.
+     */
+    public String convertToDateStr(Step step, long timeBucket) {
+        DateTime dateTime = parseToDateTime(step, timeBucket);
+        switch (step) {
+            case DAY:
+                return YYYY_MM_DD.print(dateTime);
+            case HOUR:
+                return YYYY_MM_DD_HH.print(dateTime);
+            case MINUTE:
+                return YYYY_MM_DD_HHMM.print(dateTime);
+            case SECOND:
+                return YYYY_MM_DD_HHMMSS.print(dateTime);
+        }
+        throw new UnexpectedException("Unsupported step " + step.name());
+    }
+
+    /**
+     * @return the time bucket in the precision of the step, which includes the timestamp.
+     */
+    public long timestampToTimeBucket(Step step, long timestamp) {
+        switch (step) {
+            case DAY:
+                return Long.parseLong(YYYYMMDD.print(timestamp));
+            case HOUR:
+                return Long.parseLong(YYYYMMDDHH.print(timestamp));
+            case MINUTE:
+                return Long.parseLong(YYYYMMDDHHMM.print(timestamp));
+            case SECOND:
+                return Long.parseLong(YYYYMMDDHHMMSS.print(timestamp));
+        }
+        throw new UnexpectedException("Unsupported step " + step.name());
+    }
+
     private DateTime parseToDateTime(Step step, long time) {
         switch (step) {
             case DAY:
@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.type.Bucket;
+import org.apache.skywalking.oap.server.core.query.type.HeatMap;
+import org.apache.skywalking.oap.server.core.query.type.KVInt;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnMetadata;
+import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * MetricsQueryCache caches the values of the closed time buckets for {@link MetricsQueryService}. A time bucket is
+ * closed when it ended longer than {@link #closedDelay} ago, its metrics are expected to be persisted and not changed
+ * anymore. The leading cached time buckets of the query duration are read from the cache, only the rest are read from
+ * the storage.
+ * <p>
+ * The values absent from the storage, or equal to the default value, are never cached, as the rows could be persisted
+ * later, because of the late reports of the agents or the persistence backlog. The cached values expire after {@link
+ * #EXPIRY_MINUTES}, so the values corrected later are visible eventually.
+ */
+class MetricsQueryCache {
+    static final long EXPIRY_MINUTES = 10;
+
+    private final ModuleDefineHolder moduleDefineHolder;
+    private final long closedDelay;
+    /**
+     * The value is a Long for the time-series values, a List of Long for the heatmap column, or a List of {@link
+     * Bucket} for the heatmap buckets.
+     */
+    private final Cache<Key, Object> cache;
+    private volatile CounterMetrics hitCounter;
+    private volatile CounterMetrics missCounter;
+
+    /**
+     * @param maxSize     the max number of the cached values.
+     * @param closedDelay in seconds.
+     */
+    MetricsQueryCache(ModuleDefineHolder moduleDefineHolder, long maxSize, long closedDelay) {
+        this.moduleDefineHolder = moduleDefineHolder;
+        this.closedDelay = closedDelay * 1000;
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumSize(maxSize)
+                                 .expireAfterWrite(EXPIRY_MINUTES, TimeUnit.MINUTES)
+                                 .build();
+    }
+
+    MetricsValues readMetricsValues(MetricsCondition condition,
+                                    Duration duration,
+                                    Reader<MetricsValues> reader) throws IOException {
+        final String name = condition.getName();
+        final List<PointOfTime> points = duration.assembleDurationPoints();
+        final List<String> ids = ids(condition, points);
+        final long closedTimeBucket = closedTimeBucket(duration);
+        final int defaultValue = ValueColumnMetadata.INSTANCE.getDefaultValue(name);
+
+        final List<Object> cachedValues = readCachedHead(points, ids, closedTimeBucket, id -> new Key(name, null, id));
+        recordAccess(cachedValues.size(), points.size() - cachedValues.size());
+
+        MetricsValues metricsValues = new MetricsValues();
+        for (int i = 0; i < cachedValues.size(); i++) {
+            metricsValues.getValues().addKVInt(kvInt(ids.get(i), (Long) cachedValues.get(i)));
+        }
+        if (cachedValues.size() < points.size()) {
+            MetricsValues fetched = reader.read(tail(duration, points.get(cachedValues.size())));
+            for (int i = cachedValues.size(); i < points.size(); i++) {
+                final String id = ids.get(i);
+                long value = fetched.getValues().findValue(id, defaultValue);
+                metricsValues.getValues().addKVInt(kvInt(id, value));
+                if (value != defaultValue && points.get(i).getPoint() < closedTimeBucket) {
+                    cache.put(new Key(name, null, id), value);
+                }
+            }
+        }
+        return metricsValues;
+    }
+
+    /**
+     * Only the labeled values with the given labels are cached, otherwise the labels are decided by the data in the
+     * storage, read them from the {@link Reader} directly.
+     */
+    List<MetricsValues> readLabeledMetricsValues(MetricsCondition condition,
+                                                 List<String> labels,
+                                                 Duration duration,
+                                                 Reader<List<MetricsValues>> reader) throws IOException {
+        if (labels == null || labels.isEmpty() || labels.stream().anyMatch(label -> label == null || label.isEmpty())) {
+            return reader.read(duration);
+        }
+
+        final String name = condition.getName();
+        final List<PointOfTime> points = duration.assembleDurationPoints();
+        final List<String> ids = ids(condition, points);
+        final long closedTimeBucket = closedTimeBucket(duration);
+        final int defaultValue = ValueColumnMetadata.INSTANCE.getDefaultValue(name);
+        final TreeSet<String> sortedLabels = new TreeSet<>(labels);
+
+        // The head is cached only if all labels are cached.
+        int cachedSize = points.size();
+        Map<String, List<Object>> cachedValuesOfLabels = new HashMap<>();
+        for (String label : sortedLabels) {
+            List<Object> cachedValues = readCachedHead(
+                points.subList(0, cachedSize), ids, closedTimeBucket, id -> new Key(name, label, id));
+            cachedSize = Math.min(cachedSize, cachedValues.size());
+            cachedValuesOfLabels.put(label, cachedValues);
+        }
+        recordAccess(cachedSize, points.size() - cachedSize);
+
+        Map<String, MetricsValues> fetched = new HashMap<>();
+        if (cachedSize < points.size()) {
+            for (MetricsValues metricsValues : reader.read(tail(duration, points.get(cachedSize)))) {
+                fetched.put(metricsValues.getLabel(), metricsValues);
+            }
+        }
+
+        List<MetricsValues> result = new ArrayList<>(sortedLabels.size());
+        for (String label : sortedLabels) {
+            MetricsValues metricsValues = new MetricsValues();
+            metricsValues.setLabel(label);
+            List<Object> cachedValues = cachedValuesOfLabels.get(label);
+            for (int i = 0; i < cachedSize; i++) {
+                metricsValues.getValues().addKVInt(kvInt(ids.get(i), (Long) cachedValues.get(i)));
+            }
+            MetricsValues fetchedValues = fetched.get(label);
+            for (int i = cachedSize; i < points.size(); i++) {
+                final String id = ids.get(i);
+                long value = fetchedValues == null
+                    ? defaultValue
+                    : fetchedValues.getValues().findValue(id, defaultValue);
+                metricsValues.getValues().addKVInt(kvInt(id, value));
+                if (value != defaultValue && points.get(i).getPoint() < closedTimeBucket) {
+                    cache.put(new Key(name, label, id), value);
+                }
+            }
+            result.add(metricsValues);
+        }
+        return result;
+    }
+
+    /**
+     * The cached columns are available only if the buckets of the heatmap have been cached.
+     */
+    @SuppressWarnings("unchecked")
+    HeatMap readHeatMap(MetricsCondition condition, Duration duration, Reader<HeatMap> reader) throws IOException {
+        final String name = condition.getName();
+        final List<PointOfTime> points = duration.assembleDurationPoints();
+        final List<String> ids = ids(condition, points);
+        final long closedTimeBucket = closedTimeBucket(duration);
+        final int defaultValue = ValueColumnMetadata.INSTANCE.getDefaultValue(name);
+        final Key bucketsKey = new Key(name, null, null);
+
+        List<Bucket> buckets = (List<Bucket>) cache.getIfPresent(bucketsKey);
+        final List<Object> cachedColumns = buckets == null
+            ? new ArrayList<>()
+            : readCachedHead(points, ids, closedTimeBucket, id -> new Key(name, null, id));
+        recordAccess(cachedColumns.size(), points.size() - cachedColumns.size());
+
+        Map<String, HeatMap.HeatMapColumn> fetchedColumns = new HashMap<>();
+        if (cachedColumns.size() < points.size()) {
+            HeatMap fetched = reader.read(tail(duration, points.get(cachedColumns.size())));
+            if (!fetched.getBuckets().isEmpty()) {
+                buckets = fetched.getBuckets();
+                cache.put(bucketsKey, buckets);
+            }
+            fetched.getValues().forEach(column -> fetchedColumns.put(column.getId(), column));
+        }
+
+        HeatMap heatMap = new HeatMap();
+        if (buckets != null) {
+            buckets.forEach(heatMap::addBucket);
+        }
+        for (int i = 0; i < points.size(); i++) {
+            final String id = ids.get(i);
+            HeatMap.HeatMapColumn column = new HeatMap.HeatMapColumn();
+            column.setId(id);
+            if (i < cachedColumns.size()) {
+                ((List<Long>) cachedColumns.get(i)).forEach(column::addValue);
+            } else {
+                HeatMap.HeatMapColumn fetchedColumn = fetchedColumns.get(id);
+                if (fetchedColumn != null && !fetchedColumn.getValues().isEmpty()) {
+                    fetchedColumn.getValues().forEach(column::addValue);
+                    if (buckets != null && points.get(i).getPoint() < closedTimeBucket) {
+                        cache.put(new Key(name, null, id), column.getValues());
+                    }
+                } else if (buckets != null) {
+                    // The absent column is not cached, it could be persisted later.
+                    buckets.forEach(bucket -> column.addValue((long) defaultValue));
+                }
+            }
+            heatMap.getValues().add(column);
+        }
+        return heatMap;
+    }
+
+    /**
+     * @return the cached values of the leading closed time buckets, stop at the first one not cached.
+     */
+    private List<Object> readCachedHead(List<PointOfTime> points,
+                                        List<String> ids,
+                                        long closedTimeBucket,
+                                        Function<String, Key> keyOfId) {
+        List<Object> cachedValues = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            if (points.get(i).getPoint() >= closedTimeBucket) {
+                break;
+            }
+            Object value = cache.getIfPresent(keyOfId.apply(ids.get(i)));
+            if (value == null) {
+                break;
+            }
+            cachedValues.add(value);
+        }
+        return cachedValues;
+    }
+
+    private List<String> ids(MetricsCondition condition, List<PointOfTime> points) {
+        final String entityId = condition.getEntity().buildId();
+        List<String> ids = new ArrayList<>(points.size());
+        points.forEach(pointOfTime -> ids.add(pointOfTime.id(entityId)));
+        return ids;
+    }
+
+    /**
+     * @return the time bucket of the given duration step, the time buckets before it are closed.
+     */
+    private long closedTimeBucket(Duration duration) {
+        return DurationUtils.INSTANCE.timestampToTimeBucket(
+            duration.getStep(), System.currentTimeMillis() - closedDelay);
+    }
+
+    /**
+     * @return the duration from the given point to the end of the original duration.
+     */
+    private Duration tail(Duration duration, PointOfTime start) {
+        Duration tail = new Duration();
+        tail.setStart(DurationUtils.INSTANCE.convertToDateStr(duration.getStep(), start.getPoint()));
+        tail.setEnd(duration.getEnd());
+        tail.setStep(duration.getStep());
+        return tail;
+    }
+
+    private KVInt kvInt(String id, long value) {
+        KVInt kvInt = new KVInt();
+        kvInt.setId(id);
+        kvInt.setValue(value);
+        return kvInt;
+    }
+
+    private void recordAccess(int hits, int misses) {
+        if (hitCounter == null) {
+            createCounters();
+        }
+        hitCounter.inc(hits);
+        missCounter.inc(misses);
+    }
+
+    private synchronized void createCounters() {
+        if (hitCounter != null) {
+            return;
+        }
+        MetricsCreator metricsCreator = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class);
+        missCounter = metricsCreator.createCounter(
+            "metrics_query_cache_miss_count", "The number of the time buckets read from the storage",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        hitCounter = metricsCreator.createCounter(
+            "metrics_query_cache_hit_count", "The number of the time buckets read from the query cache",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+    }
+
+    /**
+     * Read the values of the duration from the storage.
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(Duration duration) throws IOException;
+    }
+
+    /**
+     * The label is null for the non-labeled values, and the id is null for the heatmap buckets.
+     */
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String metricsName;
+        private final String label;
+        private final String id;
+    }
+}
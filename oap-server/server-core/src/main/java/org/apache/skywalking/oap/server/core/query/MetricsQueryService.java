@@ -35,9 +35,24 @@ import org.apache.skywalking.oap.server.library.module.Service;
 public class MetricsQueryService implements Service {
     private final ModuleManager moduleManager;
     private IMetricsQueryDAO metricQueryDAO;
+    /**
+     * Null if the query cache is disabled.
+     */
+    private final MetricsQueryCache queryCache;
 
     public MetricsQueryService(ModuleManager moduleManager) {
+        this(moduleManager, 0, 0);
+    }
+
+    /**
+     * @param queryCacheMaxSize     the max number of the cached values, 0 means the query cache is disabled.
+     * @param queryCacheClosedDelay the seconds after which an ended time bucket is cached.
+     */
+    public MetricsQueryService(ModuleManager moduleManager, long queryCacheMaxSize, long queryCacheClosedDelay) {
         this.moduleManager = moduleManager;
+        this.queryCache = queryCacheMaxSize > 0
+            ? new MetricsQueryCache(moduleManager, queryCacheMaxSize, queryCacheClosedDelay)
+            : null;
     }
 
     private IMetricsQueryDAO getMetricQueryDAO() {
@@ -59,8 +74,12 @@ public class MetricsQueryService implements Service {
      * Read time-series values in the duration of required metrics
      */
     public MetricsValues readMetricsValues(MetricsCondition condition, Duration duration) throws IOException {
-        return getMetricQueryDAO().readMetricsValues(
-            condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), duration);
+        final String valueCName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
+        if (queryCache != null) {
+            return queryCache.readMetricsValues(
+                condition, duration, d -> getMetricQueryDAO().readMetricsValues(condition, valueCName, d));
+        }
+        return getMetricQueryDAO().readMetricsValues(condition, valueCName, duration);
     }
 
     /**
@@ -71,15 +90,25 @@ public class MetricsQueryService implements Service {
     public List<MetricsValues> readLabeledMetricsValues(MetricsCondition condition,
                                                         List<String> labels,
                                                         Duration duration) throws IOException {
-        return getMetricQueryDAO().readLabeledMetricsValues(
-            condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), labels, duration);
+        final String valueCName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
+        if (queryCache != null) {
+            return queryCache.readLabeledMetricsValues(
+                condition, labels, duration,
+                d -> getMetricQueryDAO().readLabeledMetricsValues(condition, valueCName, labels, d)
+            );
+        }
+        return getMetricQueryDAO().readLabeledMetricsValues(condition, valueCName, labels, duration);
     }
 
     /**
      * Heatmap is bucket based value statistic result.
      */
     public HeatMap readHeatMap(MetricsCondition condition, Duration duration) throws IOException {
-        return getMetricQueryDAO().readHeatMap(
-            condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), duration);
+        final String valueCName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
+        if (queryCache != null) {
+            return queryCache.readHeatMap(
+                condition, duration, d -> getMetricQueryDAO().readHeatMap(condition, valueCName, d));
+        }
+        return getMetricQueryDAO().readHeatMap(condition, valueCName, duration);
     }
 }
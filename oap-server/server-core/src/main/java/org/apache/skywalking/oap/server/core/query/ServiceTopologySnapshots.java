@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationClientSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationServerSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.query.type.Call;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.ServiceRelation;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.TopologySnapshots;
+import org.apache.skywalking.oap.server.core.source.DetectPoint;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+
+/**
+ * ServiceTopologySnapshots materializes the service relations in memory, time bucket by time bucket. The relations are
+ * recorded when the {@link org.apache.skywalking.oap.server.core.analysis.worker.MetricsPersistentWorker}s of {@link
+ * ServiceRelationServerSideMetrics} and {@link ServiceRelationClientSideMetrics} flush them into the storage, so the
+ * global topology of the recent time buckets could be merged from the snapshots, rather than aggregated by the
+ * storage.
+ * <p>
+ * The snapshots of each downsampling cover the time buckets since this OAP started, or the cluster changed, and only
+ * the latest {@link #maxBuckets} time buckets are kept. The relations of the earlier time buckets should be read from
+ * the storage, see {@link #coveredFrom(long)}.
+ * <p>
+ * In the cluster mode, the relations are persisted by the OAP node selected by the hash code, the snapshots of each
+ * node only hold a part of the relations. The global topology is merged from the snapshots of all nodes, read through
+ * {@link #read(long, long)} by the remote clients.
+ */
+public enum ServiceTopologySnapshots {
+    INSTANCE;
+
+    private volatile int maxBuckets;
+    private volatile Map<DownSampling, Snapshots> serverSide = new EnumMap<>(DownSampling.class);
+    private volatile Map<DownSampling, Snapshots> clientSide = new EnumMap<>(DownSampling.class);
+
+    /**
+     * Start to record the snapshots, all recorded snapshots are discarded.
+     *
+     * @param maxBuckets the max number of the time buckets kept for each downsampling, 0 means disabled.
+     */
+    public void start(int maxBuckets) {
+        long startTime = System.currentTimeMillis();
+        Map<DownSampling, Snapshots> serverSide = new EnumMap<>(DownSampling.class);
+        Map<DownSampling, Snapshots> clientSide = new EnumMap<>(DownSampling.class);
+        for (DownSampling downSampling : new DownSampling[] {
+            DownSampling.Minute,
+            DownSampling.Hour,
+            DownSampling.Day
+        }) {
+            long startBucket = TimeBucket.getTimeBucket(startTime, downSampling);
+            serverSide.put(downSampling, new Snapshots(startBucket));
+            clientSide.put(downSampling, new Snapshots(startBucket));
+        }
+        this.serverSide = serverSide;
+        this.clientSide = clientSide;
+        this.maxBuckets = maxBuckets;
+    }
+
+    public boolean isEnabled() {
+        return maxBuckets > 0;
+    }
+
+    /**
+     * @return true if the metrics of the model should be {@link #record(Model, Metrics)}ed.
+     */
+    public boolean accept(Model model) {
+        return isEnabled()
+            && (ServiceRelationServerSideMetrics.INDEX_NAME.equals(model.getName())
+            || ServiceRelationClientSideMetrics.INDEX_NAME.equals(model.getName()));
+    }
+
+    public void record(Model model, Metrics metrics) {
+        if (metrics instanceof ServiceRelationServerSideMetrics) {
+            ServiceRelationServerSideMetrics relation = (ServiceRelationServerSideMetrics) metrics;
+            Snapshots snapshots = serverSide.get(model.getDownsampling());
+            if (snapshots != null) {
+                snapshots.put(relation.getTimeBucket(), relation.getEntityId(), relation.getComponentId());
+            }
+        } else if (metrics instanceof ServiceRelationClientSideMetrics) {
+            ServiceRelationClientSideMetrics relation = (ServiceRelationClientSideMetrics) metrics;
+            Snapshots snapshots = clientSide.get(model.getDownsampling());
+            if (snapshots != null) {
+                snapshots.put(relation.getTimeBucket(), relation.getEntityId(), relation.getComponentId());
+            }
+        }
+    }
+
+    /**
+     * @param timeBucket any time bucket of the query, which decides the downsampling.
+     * @return the first time bucket covered by the snapshots. This time bucket itself could be covered partially, it
+     * should be read from the storage too. {@link Long#MAX_VALUE} if the snapshots are not available.
+     */
+    public long coveredFrom(long timeBucket) {
+        DownSampling downSampling = downSampling(timeBucket);
+        if (!isEnabled() || downSampling == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(serverSide.get(downSampling).coveredFrom, clientSide.get(downSampling).coveredFrom);
+    }
+
+    /**
+     * The relations persisted by other OAP nodes could be missed, since the cluster changed. The time buckets before
+     * the change are not covered anymore.
+     *
+     * @param changedTime the time of the cluster change.
+     */
+    public void clusterChanged(long changedTime) {
+        if (!isEnabled()) {
+            return;
+        }
+        serverSide.forEach((downSampling, snapshots) -> snapshots.invalidateBefore(
+            TimeBucket.getTimeBucket(changedTime, downSampling)));
+        clientSide.forEach((downSampling, snapshots) -> snapshots.invalidateBefore(
+            TimeBucket.getTimeBucket(changedTime, downSampling)));
+    }
+
+    /**
+     * @return the relations of the time buckets between the given ones, and covered by the snapshots of this OAP node.
+     */
+    public TopologySnapshots read(long startTB, long endTB) {
+        final long coveredFrom = coveredFrom(startTB);
+        TopologySnapshots.Builder builder = TopologySnapshots.newBuilder().setCoveredFrom(coveredFrom);
+        if (coveredFrom <= endTB) {
+            final long fromTB = Math.max(startTB, coveredFrom);
+            relations(serverSide, fromTB, endTB).forEach((entityId, componentId) -> builder.addServerSide(
+                ServiceRelation.newBuilder().setEntityId(entityId).setComponentId(componentId)));
+            relations(clientSide, fromTB, endTB).forEach((entityId, componentId) -> builder.addClientSide(
+                ServiceRelation.newBuilder().setEntityId(entityId).setComponentId(componentId)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the calls of the relations, merged by the relation id.
+     */
+    public static List<Call.CallDetail> toCalls(List<ServiceRelation> relations, DetectPoint detectPoint) {
+        Map<String, Integer> merged = new HashMap<>();
+        relations.forEach(relation -> merged.put(relation.getEntityId(), relation.getComponentId()));
+
+        List<Call.CallDetail> calls = new ArrayList<>(merged.size());
+        merged.forEach((entityId, componentId) -> {
+            Call.CallDetail call = new Call.CallDetail();
+            call.buildFromServiceRelation(entityId, componentId, detectPoint);
+            calls.add(call);
+        });
+        return calls;
+    }
+
+    private Map<String, Integer> relations(Map<DownSampling, Snapshots> snapshotsMap, long startTB, long endTB) {
+        Map<String, Integer> relations = new HashMap<>();
+        Snapshots snapshots = snapshotsMap.get(downSampling(startTB));
+        if (snapshots != null && startTB <= endTB) {
+            snapshots.buckets.subMap(startTB, true, endTB, true).values().forEach(relations::putAll);
+        }
+        return relations;
+    }
+
+    private static DownSampling downSampling(long timeBucket) {
+        if (TimeBucket.isMinuteBucket(timeBucket)) {
+            return DownSampling.Minute;
+        } else if (TimeBucket.isHourBucket(timeBucket)) {
+            return DownSampling.Hour;
+        } else if (TimeBucket.isDayBucket(timeBucket)) {
+            return DownSampling.Day;
+        }
+        return null;
+    }
+
+    /**
+     * The relations of one downsampling and detect point, entity id to component id, grouped by time bucket.
+     */
+    private class Snapshots {
+        private final ConcurrentSkipListMap<Long, Map<String, Integer>> buckets = new ConcurrentSkipListMap<>();
+        /**
+         * The time bucket this OAP started in, or the latest evicted time bucket.
+         */
+        private volatile long coveredFrom;
+
+        private Snapshots(long startBucket) {
+            this.coveredFrom = startBucket;
+        }
+
+        private void put(long timeBucket, String entityId, int componentId) {
+            if (timeBucket < coveredFrom) {
+                return;
+            }
+            Map<String, Integer> relations = buckets.get(timeBucket);
+            if (relations == null) {
+                relations = buckets.computeIfAbsent(timeBucket, key -> new ConcurrentHashMap<>());
+                evictIfNecessary();
+            }
+            relations.put(entityId, componentId);
+        }
+
+        private void invalidateBefore(long timeBucket) {
+            if (timeBucket > coveredFrom) {
+                coveredFrom = timeBucket;
+            }
+            buckets.headMap(timeBucket).clear();
+        }
+
+        private void evictIfNecessary() {
+            while (buckets.size() > maxBuckets) {
+                Map.Entry<Long, Map<String, Integer>> eldest = buckets.pollFirstEntry();
+                if (eldest == null) {
+                    return;
+                }
+                coveredFrom = Math.max(coveredFrom, eldest.getKey());
+            }
+        }
+    }
+}
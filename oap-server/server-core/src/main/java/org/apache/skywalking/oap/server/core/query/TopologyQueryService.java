@@ -21,9 +21,13 @@ package org.apache.skywalking.oap.server.core.query;
 import com.google.common.base.Strings;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.CoreModule;
@@ -35,6 +39,10 @@ import org.apache.skywalking.oap.server.core.query.type.EndpointTopology;
 import org.apache.skywalking.oap.server.core.query.type.Node;
 import org.apache.skywalking.oap.server.core.query.type.ServiceInstanceTopology;
 import org.apache.skywalking.oap.server.core.query.type.Topology;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.ServiceRelation;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.TopologySnapshots;
 import org.apache.skywalking.oap.server.core.source.DetectPoint;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.query.ITopologyQueryDAO;
@@ -47,6 +55,7 @@ public class TopologyQueryService implements Service {
     private final ModuleManager moduleManager;
     private ITopologyQueryDAO topologyQueryDAO;
     private IComponentLibraryCatalogService componentLibraryCatalogService;
+    private RemoteClientManager remoteClientManager;
 
     public TopologyQueryService(ModuleManager moduleManager) {
         this.moduleManager = moduleManager;
@@ -68,17 +77,101 @@ public class TopologyQueryService implements Service {
         return componentLibraryCatalogService;
     }
 
+    private RemoteClientManager getRemoteClientManager() {
+        if (remoteClientManager == null) {
+            remoteClientManager = moduleManager.find(CoreModule.NAME).provider().getService(RemoteClientManager.class);
+        }
+        return remoteClientManager;
+    }
+
+    /**
+     * The relations of the time buckets covered by the {@link ServiceTopologySnapshots} of all OAP nodes are merged
+     * from the snapshots, only the earlier time buckets are aggregated by the storage.
+     */
     public Topology getGlobalTopology(final long startTB,
                                       final long endTB) throws IOException {
-        List<Call.CallDetail> serviceRelationServerCalls = getTopologyQueryDAO().loadServiceRelationsDetectedAtServerSide(
-            startTB, endTB);
-        List<Call.CallDetail> serviceRelationClientCalls = getTopologyQueryDAO().loadServiceRelationDetectedAtClientSide(
-            startTB, endTB);
+        List<Call.CallDetail> serviceRelationServerCalls;
+        List<Call.CallDetail> serviceRelationClientCalls;
+        final List<TopologySnapshots> snapshots = readSnapshots(startTB, endTB);
+        final long coveredFrom = snapshots.stream()
+                                          .mapToLong(TopologySnapshots::getCoveredFrom)
+                                          .max()
+                                          .orElse(Long.MAX_VALUE);
+        if (coveredFrom <= endTB) {
+            List<ServiceRelation> serverSide = new ArrayList<>();
+            List<ServiceRelation> clientSide = new ArrayList<>();
+            snapshots.forEach(snapshot -> {
+                serverSide.addAll(snapshot.getServerSideList());
+                clientSide.addAll(snapshot.getClientSideList());
+            });
+            serviceRelationServerCalls = ServiceTopologySnapshots.toCalls(serverSide, DetectPoint.SERVER);
+            serviceRelationClientCalls = ServiceTopologySnapshots.toCalls(clientSide, DetectPoint.CLIENT);
+            if (startTB <= coveredFrom) {
+                serviceRelationServerCalls = merge(
+                    serviceRelationServerCalls,
+                    getTopologyQueryDAO().loadServiceRelationsDetectedAtServerSide(startTB, coveredFrom)
+                );
+                serviceRelationClientCalls = merge(
+                    serviceRelationClientCalls,
+                    getTopologyQueryDAO().loadServiceRelationDetectedAtClientSide(startTB, coveredFrom)
+                );
+            }
+        } else {
+            serviceRelationServerCalls = getTopologyQueryDAO().loadServiceRelationsDetectedAtServerSide(
+                startTB, endTB);
+            serviceRelationClientCalls = getTopologyQueryDAO().loadServiceRelationDetectedAtClientSide(
+                startTB, endTB);
+        }
 
         ServiceTopologyBuilder builder = new ServiceTopologyBuilder(moduleManager);
         return builder.build(serviceRelationClientCalls, serviceRelationServerCalls);
     }
 
+    /**
+     * The relations are persisted by the OAP node selected by the hash code, read the snapshots of all nodes in the
+     * cluster in parallel. Each remote read fails in the remote timeout. The snapshots cover the time buckets since the
+     * latest one of the nodes started, or the cluster changed.
+     *
+     * @return the snapshots of all nodes, or empty if the snapshots are disabled, or any node can't respond, then all
+     * relations should be read from the storage.
+     */
+    private List<TopologySnapshots> readSnapshots(long startTB, long endTB) {
+        if (!ServiceTopologySnapshots.INSTANCE.isEnabled()) {
+            return Collections.emptyList();
+        }
+        List<RemoteClient> remoteClients = getRemoteClientManager().getRemoteClient();
+        List<Future<TopologySnapshots>> futures = new ArrayList<>(remoteClients.size());
+        List<TopologySnapshots> snapshots = new ArrayList<>(remoteClients.size());
+        RemoteClient remoteClient = null;
+        try {
+            for (RemoteClient client : remoteClients) {
+                remoteClient = client;
+                futures.add(client.readTopologySnapshots(startTB, endTB));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                remoteClient = remoteClients.get(i);
+                snapshots.add(futures.get(i).get());
+            }
+            return snapshots;
+        } catch (Throwable t) {
+            if (t instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Read the topology snapshots of {} failure, read from the storage. {}",
+                     remoteClient.getAddress(), t.getMessage()
+            );
+            futures.forEach(future -> future.cancel(true));
+            return Collections.emptyList();
+        }
+    }
+
+    private static List<Call.CallDetail> merge(List<Call.CallDetail> calls, List<Call.CallDetail> storedCalls) {
+        Map<String, Call.CallDetail> merged = new LinkedHashMap<>();
+        calls.forEach(call -> merged.put(call.getId(), call));
+        storedCalls.forEach(call -> merged.putIfAbsent(call.getId(), call));
+        return new ArrayList<>(merged.values());
+    }
+
     public Topology getServiceTopology(final long startTB, final long endTB,
                                        final List<String> serviceIds) throws IOException {
         List<Call.CallDetail> serviceRelationClientCalls = getTopologyQueryDAO().loadServiceRelationDetectedAtClientSide(
@@ -18,14 +18,26 @@
 
 package org.apache.skywalking.oap.server.core.query;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentDataCodec;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SpanTag;
 import org.apache.skywalking.oap.server.core.config.IComponentLibraryCatalogService;
@@ -47,14 +59,40 @@ import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 
 import static java.util.Objects.nonNull;
 
+@Slf4j
 public class TraceQueryService implements Service {
+    /**
+     * The tag added to the first root span, if the spans of the trace are more than {@link #maxSpansOfTrace}.
+     */
+    public static final String TRUNCATED_TAG_KEY = "trace.truncated";
 
     private final ModuleManager moduleManager;
+    /**
+     * The max number of the spans returned in one trace, 0 means no limit.
+     */
+    private final int maxSpansOfTrace;
+    /**
+     * Decode the segments of one trace in parallel, absent if the segments are decoded in the query thread.
+     */
+    private final ExecutorService decodeExecutor;
     private ITraceQueryDAO traceQueryDAO;
     private IComponentLibraryCatalogService componentLibraryCatalogService;
 
     public TraceQueryService(ModuleManager moduleManager) {
+        this(moduleManager, 0, 1);
+    }
+
+    public TraceQueryService(ModuleManager moduleManager, int maxSpansOfTrace, int traceDecodeThreads) {
         this.moduleManager = moduleManager;
+        this.maxSpansOfTrace = maxSpansOfTrace;
+        if (traceDecodeThreads > 1) {
+            this.decodeExecutor = Executors.newFixedThreadPool(
+                traceDecodeThreads,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("trace-query-decode-%d").build()
+            );
+        } else {
+            this.decodeExecutor = null;
+        }
     }
 
     private ITraceQueryDAO getTraceQueryDAO() {
@@ -87,6 +125,12 @@ public class TraceQueryService implements Service {
                                        final long endTB,
                                        final List<SpanTag> tags) throws IOException {
         PaginationUtils.Page page = PaginationUtils.INSTANCE.exchange(paging);
+        if (paging.getCursor() != null) {
+            return getTraceQueryDAO().queryBasicTracesAfter(
+                startTB, endTB, minTraceDuration, maxTraceDuration, endpointName, serviceId, serviceInstanceId,
+                endpointId, traceId, page.getLimit(), paging.getCursor(), traceState, queryOrder, tags
+            );
+        }
 
         return getTraceQueryDAO().queryBasicTraces(
             startTB, endTB, minTraceDuration, maxTraceDuration, endpointName, serviceId, serviceInstanceId, endpointId,
@@ -98,30 +142,44 @@ public class TraceQueryService implements Service {
         Trace trace = new Trace();
 
         List<SegmentRecord> segmentRecords = getTraceQueryDAO().queryByTraceId(traceId);
+        boolean truncated = false;
         if (segmentRecords.isEmpty()) {
             trace.getSpans().addAll(getTraceQueryDAO().doFlexibleTraceQuery(traceId));
         } else {
+            /*
+             * Keep the earlier segments if the trace is truncated, the later segments are more likely to be the
+             * fan-out leaves.
+             */
+            List<SegmentRecord> segments = new ArrayList<>(segmentRecords.size());
             for (SegmentRecord segment : segmentRecords) {
                 if (nonNull(segment)) {
-                    SegmentObject segmentObject = SegmentObject.parseFrom(segment.getDataBinary());
-                    trace.getSpans()
-                         .addAll(buildSpanList(segmentObject));
+                    segments.add(segment);
                 }
             }
+            segments.sort(Comparator.comparingLong(SegmentRecord::getStartTime));
+            List<FutureTask<List<Span>>> decodedSegments = new ArrayList<>(segments.size());
+            segments.forEach(segment -> decodedSegments.add(decode(segment)));
+            int index = 0;
+            for (; index < decodedSegments.size() && !isFull(trace.getSpans().size()); index++) {
+                trace.getSpans().addAll(getDecoded(decodedSegments.get(index)));
+            }
+            truncated = index < decodedSegments.size();
+            for (; index < decodedSegments.size(); index++) {
+                decodedSegments.get(index).cancel(false);
+            }
+        }
+        if (maxSpansOfTrace > 0 && trace.getSpans().size() > maxSpansOfTrace) {
+            trace.getSpans().subList(maxSpansOfTrace, trace.getSpans().size()).clear();
+            truncated = true;
         }
 
-        List<Span> sortedSpans = new LinkedList<>();
-        if (CollectionUtils.isNotEmpty(trace.getSpans())) {
-            List<Span> rootSpans = findRoot(trace.getSpans());
-
-            if (CollectionUtils.isNotEmpty(rootSpans)) {
-                rootSpans.forEach(span -> {
-                    List<Span> childrenSpan = new ArrayList<>();
-                    childrenSpan.add(span);
-                    findChildren(trace.getSpans(), span, childrenSpan);
-                    sortedSpans.addAll(childrenSpan);
-                });
-            }
+        List<Span> sortedSpans = sortSpans(trace.getSpans());
+        if (truncated && !sortedSpans.isEmpty()) {
+            log.warn("Trace {} is truncated, only {} spans are returned.", traceId, sortedSpans.size());
+            KeyValue truncatedTag = new KeyValue();
+            truncatedTag.setKey(TRUNCATED_TAG_KEY);
+            truncatedTag.setValue(String.valueOf(sortedSpans.size()));
+            sortedSpans.get(0).getTags().add(truncatedTag);
         }
 
         trace.getSpans().clear();
@@ -129,6 +187,65 @@ public class TraceQueryService implements Service {
         return trace;
     }
 
+    private boolean isFull(int spans) {
+        return maxSpansOfTrace > 0 && spans >= maxSpansOfTrace;
+    }
+
+    /**
+     * Decode the segment in the {@link #decodeExecutor}. The task is run by the query thread if it is absent, or the
+     * task has not been started when its result is required, see {@link #getDecoded(FutureTask)}.
+     */
+    private FutureTask<List<Span>> decode(SegmentRecord segment) {
+        FutureTask<List<Span>> task = new FutureTask<>(() -> buildSpanList(
+            SegmentObject.parseFrom(SegmentDataCodec.decode(segment.getDataBinary()))));
+        if (decodeExecutor != null) {
+            decodeExecutor.execute(task);
+        }
+        return task;
+    }
+
+    private static List<Span> getDecoded(FutureTask<List<Span>> decodedSegment) throws IOException {
+        // No-op if the task has been started by the decode executor.
+        decodedSegment.run();
+        try {
+            return decodedSegment.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Sort the spans by the tree, each root span is followed by its descendants in the depth-first order.
+     */
+    private List<Span> sortSpans(List<Span> spans) {
+        List<Span> sortedSpans = new ArrayList<>(spans.size());
+        if (CollectionUtils.isEmpty(spans)) {
+            return sortedSpans;
+        }
+        Map<String, List<Span>> childrenOfSpans = new HashMap<>();
+        spans.forEach(span -> childrenOfSpans.computeIfAbsent(span.getSegmentParentSpanId(), id -> new ArrayList<>())
+                                             .add(span));
+
+        Deque<Span> stack = new ArrayDeque<>();
+        for (Span rootSpan : findRoot(spans)) {
+            stack.push(rootSpan);
+            while (!stack.isEmpty()) {
+                Span span = stack.pop();
+                sortedSpans.add(span);
+                List<Span> children = childrenOfSpans.get(span.getSegmentSpanId());
+                if (children != null) {
+                    for (int i = children.size() - 1; i >= 0; i--) {
+                        stack.push(children.get(i));
+                    }
+                }
+            }
+        }
+        return sortedSpans;
+    }
+
     private List<Span> buildSpanList(SegmentObject segmentObject) {
         List<Span> spans = new ArrayList<>();
 
@@ -208,20 +325,12 @@ public class TraceQueryService implements Service {
     }
 
     private List<Span> findRoot(List<Span> spans) {
+        Set<String> segmentSpanIds = new HashSet<>(spans.size());
+        spans.forEach(span -> segmentSpanIds.add(span.getSegmentSpanId()));
+
         List<Span> rootSpans = new ArrayList<>();
         spans.forEach(span -> {
-            String segmentParentSpanId = span.getSegmentParentSpanId();
-
-            boolean hasParent = false;
-            for (Span subSpan : spans) {
-                if (segmentParentSpanId.equals(subSpan.getSegmentSpanId())) {
-                    hasParent = true;
-                    // if find parent, quick exit
-                    break;
-                }
-            }
-
-            if (!hasParent) {
+            if (!segmentSpanIds.contains(span.getSegmentParentSpanId())) {
                 span.setRoot(true);
                 rootSpans.add(span);
             }
@@ -236,13 +345,4 @@ public class TraceQueryService implements Service {
         rootSpans.sort(Comparator.comparing(Span::getStartTime));
         return rootSpans;
     }
-
-    private void findChildren(List<Span> spans, Span parentSpan, List<Span> childrenSpan) {
-        spans.forEach(span -> {
-            if (span.getSegmentParentSpanId().equals(parentSpan.getSegmentSpanId())) {
-                childrenSpan.add(span);
-                findChildren(spans, span, childrenSpan);
-            }
-        });
-    }
 }
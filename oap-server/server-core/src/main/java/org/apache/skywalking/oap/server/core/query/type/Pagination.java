@@ -27,4 +27,10 @@ public class Pagination {
     private int pageNum;
     private int pageSize;
     private boolean needTotal;
+    /**
+     * The opaque cursor returned by {@link TraceBrief#getCursor()} of the previous page, set by the cursor argument of
+     * the queryBasicTracesByCursor query. The pages are queried by the cursor rather than {@link #pageNum} when it is
+     * not null, an empty cursor means the first page.
+     */
+    private String cursor;
 }
@@ -28,6 +28,12 @@ public class TraceBrief {
     private final List<BasicTrace> traces;
     @Setter
     private int total;
+    /**
+     * The opaque cursor of the next page, only returned when the page is queried by {@link Pagination#getCursor()}.
+     * Null if there are no more traces.
+     */
+    @Setter
+    private String cursor;
 
     public TraceBrief() {
         this.traces = new ArrayList<>();
@@ -23,6 +23,7 @@ import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
 import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.selector.ConsistentHashSelector;
 import org.apache.skywalking.oap.server.core.remote.selector.ForeverFirstSelector;
 import org.apache.skywalking.oap.server.core.remote.selector.HashCodeSelector;
 import org.apache.skywalking.oap.server.core.remote.selector.RollingSelector;
@@ -43,12 +44,14 @@ public class RemoteSenderService implements Service {
     private final HashCodeSelector hashCodeSelector;
     private final ForeverFirstSelector foreverFirstSelector;
     private final RollingSelector rollingSelector;
+    private final ConsistentHashSelector consistentHashSelector;
 
     public RemoteSenderService(ModuleManager moduleManager) {
         this.moduleManager = moduleManager;
         this.hashCodeSelector = new HashCodeSelector();
         this.foreverFirstSelector = new ForeverFirstSelector();
         this.rollingSelector = new RollingSelector();
+        this.consistentHashSelector = new ConsistentHashSelector();
     }
 
     /**
@@ -80,6 +83,9 @@ public class RemoteSenderService implements Service {
             case ForeverFirst:
                 remoteClient = foreverFirstSelector.select(clientList, streamData);
                 break;
+            case ConsistentHash:
+                remoteClient = consistentHashSelector.select(clientList, streamData);
+                break;
         }
         remoteClient.push(nextWorkName, streamData);
     }
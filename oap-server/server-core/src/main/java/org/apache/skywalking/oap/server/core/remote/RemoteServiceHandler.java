@@ -18,14 +18,22 @@
 
 package org.apache.skywalking.oap.server.core.remote;
 
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import java.util.Objects;
 import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.query.ServiceTopologySnapshots;
+import org.apache.skywalking.oap.server.core.remote.codec.RemoteCodecVersion;
+import org.apache.skywalking.oap.server.core.remote.codec.RemoteMessageDecoder;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteBinaryMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteCodec;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.TopologySnapshots;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.TopologySnapshotsRequest;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
 import org.apache.skywalking.oap.server.core.worker.RemoteHandleWorker;
@@ -97,15 +105,7 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
      */
     @Override
     public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
-        if (Objects.isNull(workerInstanceGetter)) {
-            synchronized (RemoteServiceHandler.class) {
-                if (Objects.isNull(workerInstanceGetter)) {
-                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
-                                                             .provider()
-                                                             .getService(IWorkerInstanceGetter.class);
-                }
-            }
-        }
+        initWorkerInstanceGetter();
 
         return new StreamObserver<RemoteMessage>() {
             @Override
@@ -113,27 +113,72 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
                 remoteInCounter.inc();
                 HistogramMetrics.Timer timer = remoteInHistogram.createTimer();
                 try {
-                    String nextWorkerName = message.getNextWorkerName();
-                    RemoteData remoteData = message.getRemoteData();
+                    handle(message);
+                } finally {
+                    timer.finish();
+                }
+            }
 
+            @Override
+            public void onError(Throwable throwable) {
+                LOGGER.error(throwable.getMessage(), throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(Empty.newBuilder().build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    /**
+     * gRPC handler of {@link RemoteServiceGrpc}. Respond the codec version supported by both sides.
+     */
+    @Override
+    public void negotiate(RemoteCodec request, StreamObserver<RemoteCodec> responseObserver) {
+        responseObserver.onNext(
+            RemoteCodec.newBuilder().setVersion(RemoteCodecVersion.negotiate(request.getVersion())).build());
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * gRPC handler of {@link RemoteServiceGrpc}. Same as {@link #call(StreamObserver)}, but the messages are encoded
+     * by the binary codec, which are decoded by one decoder in the whole stream.
+     * <p>
+     * The decoder is stateful, the messages after a failed one can't be decoded correctly. Once a message fails to be
+     * decoded, the stream fails, and the rest messages are discarded. The client starts a new stream with a new encoder
+     * for the next batch.
+     */
+    @Override
+    public StreamObserver<RemoteBinaryMessage> callBinary(StreamObserver<Empty> responseObserver) {
+        initWorkerInstanceGetter();
+
+        final RemoteMessageDecoder decoder = new RemoteMessageDecoder();
+        return new StreamObserver<RemoteBinaryMessage>() {
+            private boolean failed;
+
+            @Override
+            public void onNext(RemoteBinaryMessage message) {
+                if (failed) {
+                    return;
+                }
+                remoteInCounter.inc();
+                HistogramMetrics.Timer timer = remoteInHistogram.createTimer();
+                try {
+                    RemoteMessage remoteMessage;
                     try {
-                        RemoteHandleWorker handleWorker = workerInstanceGetter.get(nextWorkerName);
-                        if (handleWorker != null) {
-                            AbstractWorker nextWorker = handleWorker.getWorker();
-                            StreamData streamData = handleWorker.getStreamDataClass().newInstance();
-                            streamData.deserialize(remoteData);
-                            nextWorker.in(streamData);
-                        } else {
-                            remoteInTargetNotFoundCounter.inc();
-                            LOGGER.warn(
-                                "Work name [{}] not found. Check OAL script, make sure they are same in the whole cluster.",
-                                nextWorkerName
-                            );
-                        }
+                        remoteMessage = decoder.decode(message.getData());
                     } catch (Throwable t) {
+                        failed = true;
                         remoteInErrorCounter.inc();
-                        LOGGER.error(t.getMessage(), t);
+                        LOGGER.error("Decode the remote message failure, fail the stream. " + t.getMessage(), t);
+                        responseObserver.onError(
+                            Status.INVALID_ARGUMENT.withDescription("Undecodable message: " + t.getMessage())
+                                                   .asRuntimeException());
+                        return;
                     }
+                    handle(remoteMessage);
                 } finally {
                     timer.finish();
                 }
@@ -146,9 +191,63 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
 
             @Override
             public void onCompleted() {
+                if (failed) {
+                    return;
+                }
                 responseObserver.onNext(Empty.newBuilder().build());
                 responseObserver.onCompleted();
             }
         };
     }
+
+    /**
+     * gRPC handler of {@link RemoteServiceGrpc}. Respond the service relations in the topology snapshots of the
+     * current OAP node.
+     */
+    @Override
+    public void readTopologySnapshots(TopologySnapshotsRequest request,
+                                      StreamObserver<TopologySnapshots> responseObserver) {
+        responseObserver.onNext(
+            ServiceTopologySnapshots.INSTANCE.read(request.getStartTimeBucket(), request.getEndTimeBucket()));
+        responseObserver.onCompleted();
+    }
+
+    private void initWorkerInstanceGetter() {
+        if (Objects.isNull(workerInstanceGetter)) {
+            synchronized (RemoteServiceHandler.class) {
+                if (Objects.isNull(workerInstanceGetter)) {
+                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
+                                                             .provider()
+                                                             .getService(IWorkerInstanceGetter.class);
+                }
+            }
+        }
+    }
+
+    /**
+     * Continue the distributed aggregation of the message at the current OAP node.
+     */
+    private void handle(RemoteMessage message) {
+        String nextWorkerName = message.getNextWorkerName();
+        RemoteData remoteData = message.getRemoteData();
+
+        try {
+            RemoteHandleWorker handleWorker = workerInstanceGetter.get(nextWorkerName);
+            if (handleWorker != null) {
+                AbstractWorker nextWorker = handleWorker.getWorker();
+                StreamData streamData = handleWorker.getStreamDataClass().newInstance();
+                streamData.deserialize(remoteData);
+                nextWorker.in(streamData);
+            } else {
+                remoteInTargetNotFoundCounter.inc();
+                LOGGER.warn(
+                    "Work name [{}] not found. Check OAL script, make sure they are same in the whole cluster.",
+                    nextWorkerName
+                );
+            }
+        } catch (Throwable t) {
+            remoteInErrorCounter.inc();
+            LOGGER.error(t.getMessage(), t);
+        }
+    }
 }
@@ -19,22 +19,40 @@
 package org.apache.skywalking.oap.server.core.remote.client;
 
 import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import io.grpc.stub.StreamObserver;
 import io.netty.handler.ssl.SslContext;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.oap.server.core.remote.codec.RemoteCodecVersion;
+import org.apache.skywalking.oap.server.core.remote.codec.RemoteMessageEncoder;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteBinaryMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteCodec;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.TopologySnapshots;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.TopologySnapshotsRequest;
 import org.apache.skywalking.oap.server.library.client.grpc.GRPCClient;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 import org.slf4j.Logger;
@@ -43,22 +61,52 @@ import org.slf4j.LoggerFactory;
 /**
  * This is a wrapper of the gRPC client for sending message to each other OAP server. It contains a block queue to
  * buffering the message and sending the message by batch.
+ * <p>
+ * The messages are sent through a long-lived stream, which is shared by the batches and renewed every {@link
+ * #remoteTimeout} seconds. The consumer thread waits for the flow control of gRPC when the peer can't catch up, and
+ * the number of streams which are not acknowledged by the peer yet is limited by the in-flight window. Every stream
+ * has a deadline of twice the {@link #remoteTimeout}, one for sending and one for the acknowledgement, so the stream
+ * left open when no more data comes, or stalled in the peer, releases its permit at last.
  */
 public class GRPCRemoteClient implements RemoteClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GRPCRemoteClient.class);
+    private static final int MAX_DICTIONARY_SIZE = 10000;
+    static final int DEFAULT_MAX_IN_FLIGHT_STREAMS = 10;
+    private static final long MIN_NEGOTIATE_BACKOFF = TimeUnit.SECONDS.toMillis(5);
+    private static final long MAX_NEGOTIATE_BACKOFF = TimeUnit.MINUTES.toMillis(5);
 
     private final int channelSize;
     private final int bufferSize;
     private final Address address;
-    private final AtomicInteger concurrentStreamObserverNumber = new AtomicInteger(0);
     private SslContext sslContext;
     private GRPCClient client;
     private DataCarrier<RemoteMessage> carrier;
     private boolean isConnect;
     private CounterMetrics remoteOutCounter;
     private CounterMetrics remoteOutErrorCounter;
+    private GaugeMetrics remoteOutQueueDepth;
+    private HistogramMetrics remoteOutHistogram;
     private int remoteTimeout;
+    /**
+     * Try to negotiate the binary codec with the peer, or use the legacy codec only.
+     */
+    private final boolean binaryCodecEnabled;
+    /**
+     * The codec version negotiated with the peer, -1 means not negotiated yet.
+     */
+    private volatile int codecVersion = -1;
+    private final AtomicBoolean negotiating = new AtomicBoolean();
+    /**
+     * The legacy codec is used before this time, after the negotiation failed.
+     */
+    private volatile long nextNegotiateTime;
+    private volatile long negotiateBackoff = MIN_NEGOTIATE_BACKOFF;
+    /**
+     * The permits of the streams, which are opened and not acknowledged by the peer yet.
+     */
+    private final Semaphore inFlightWindow;
+    private final Set<RemoteStream<?>> inFlightStreams = ConcurrentHashMap.newKeySet();
 
     public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
                             final Address address,
@@ -66,12 +114,38 @@ public class GRPCRemoteClient implements RemoteClient {
                             final int bufferSize,
                             final int remoteTimeout,
                             final SslContext sslContext) {
+        this(moduleDefineHolder, address, channelSize, bufferSize, remoteTimeout, sslContext, false);
+    }
+
+    public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
+                            final Address address,
+                            final int channelSize,
+                            final int bufferSize,
+                            final int remoteTimeout,
+                            final SslContext sslContext,
+                            final boolean binaryCodecEnabled) {
+        this(
+            moduleDefineHolder, address, channelSize, bufferSize, remoteTimeout, sslContext, binaryCodecEnabled,
+            DEFAULT_MAX_IN_FLIGHT_STREAMS
+        );
+    }
+
+    public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
+                            final Address address,
+                            final int channelSize,
+                            final int bufferSize,
+                            final int remoteTimeout,
+                            final SslContext sslContext,
+                            final boolean binaryCodecEnabled,
+                            final int maxInFlightStreams) {
 
         this.address = address;
         this.channelSize = channelSize;
         this.bufferSize = bufferSize;
         this.remoteTimeout = remoteTimeout;
         this.sslContext = sslContext;
+        this.binaryCodecEnabled = binaryCodecEnabled;
+        this.inFlightWindow = new Semaphore(Math.max(maxInFlightStreams, 1));
 
         remoteOutCounter = moduleDefineHolder.find(TelemetryModule.NAME)
                                              .provider()
@@ -83,6 +157,24 @@ public class GRPCRemoteClient implements RemoteClient {
                                                   .getService(MetricsCreator.class)
                                                   .createCounter("remote_out_error_count", "The error number(client side) of inside remote inside aggregate rpc.", new MetricsTag.Keys("dest", "self"), new MetricsTag.Values(address
                                                                                                                                                                                                                                   .toString(), "N"));
+        remoteOutQueueDepth = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                .provider()
+                                                .getService(MetricsCreator.class)
+                                                .createGauge(
+                                                    "remote_out_queue_depth",
+                                                    "The number(client side) of the messages waiting to be sent to the remote.",
+                                                    new MetricsTag.Keys("dest", "self"),
+                                                    new MetricsTag.Values(address.toString(), "N")
+                                                );
+        remoteOutHistogram = moduleDefineHolder.find(TelemetryModule.NAME)
+                                               .provider()
+                                               .getService(MetricsCreator.class)
+                                               .createHistogramMetric(
+                                                   "remote_out_latency",
+                                                   "The latency(client side) of sending a batch of messages to the remote, including the flow control.",
+                                                   new MetricsTag.Keys("dest", "self"),
+                                                   new MetricsTag.Values(address.toString(), "N")
+                                               );
     }
 
     @Override
@@ -141,26 +233,77 @@ public class GRPCRemoteClient implements RemoteClient {
         builder.setNextWorkerName(nextWorkerName);
         builder.setRemoteData(streamData.serialize());
 
-        this.getDataCarrier().produce(builder.build());
+        if (this.getDataCarrier().produce(builder.build())) {
+            remoteOutQueueDepth.inc();
+        }
+    }
+
+    /**
+     * Read the topology snapshots of the peer asynchronously, failed in {@link #remoteTimeout} seconds. The future
+     * fails with {@link StatusRuntimeException} if the peer failed, or doesn't support the topology snapshots.
+     */
+    @Override
+    public Future<TopologySnapshots> readTopologySnapshots(long startTB, long endTB) {
+        return RemoteServiceGrpc.newFutureStub(getChannel())
+                                .withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS)
+                                .readTopologySnapshots(TopologySnapshotsRequest.newBuilder()
+                                                                               .setStartTimeBucket(startTB)
+                                                                               .setEndTimeBucket(endTB)
+                                                                               .build());
     }
 
     class RemoteMessageConsumer implements IConsumer<RemoteMessage> {
+        private RemoteStream<RemoteMessage> stream;
+        private RemoteStream<RemoteBinaryMessage> binaryStream;
+        private RemoteMessageEncoder encoder;
+
         @Override
         public void init() {
         }
 
         @Override
         public void consume(List<RemoteMessage> remoteMessages) {
+            remoteOutQueueDepth.dec(remoteMessages.size());
+            HistogramMetrics.Timer timer = remoteOutHistogram.createTimer();
             try {
-                StreamObserver<RemoteMessage> streamObserver = createStreamObserver();
-                for (RemoteMessage remoteMessage : remoteMessages) {
-                    remoteOutCounter.inc();
-                    streamObserver.onNext(remoteMessage);
+                if (negotiateCodecVersion() == RemoteCodecVersion.BINARY) {
+                    complete(stream);
+                    stream = null;
+                    if (binaryStream == null || !binaryStream.isWritable()) {
+                        complete(binaryStream);
+                        binaryStream = null;
+                        binaryStream = openBinaryStream();
+                        // The dictionary of the encoder is bound to the stream.
+                        encoder = new RemoteMessageEncoder(MAX_DICTIONARY_SIZE);
+                    }
+                    for (RemoteMessage remoteMessage : remoteMessages) {
+                        remoteOutCounter.inc();
+                        binaryStream.send(
+                            RemoteBinaryMessage.newBuilder().setData(encoder.encode(remoteMessage)).build());
+                    }
+                } else {
+                    complete(binaryStream);
+                    binaryStream = null;
+                    if (stream == null || !stream.isWritable()) {
+                        complete(stream);
+                        stream = null;
+                        stream = openStream();
+                    }
+                    for (RemoteMessage remoteMessage : remoteMessages) {
+                        remoteOutCounter.inc();
+                        stream.send(remoteMessage);
+                    }
                 }
-                streamObserver.onCompleted();
             } catch (Throwable t) {
                 remoteOutErrorCounter.inc();
                 LOGGER.error(t.getMessage(), t);
+                // The rest messages of the batch are dropped, start with new streams in the next round.
+                cancel(stream, t.getMessage());
+                stream = null;
+                cancel(binaryStream, t.getMessage());
+                binaryStream = null;
+            } finally {
+                timer.finish();
             }
         }
 
@@ -171,50 +314,275 @@ public class GRPCRemoteClient implements RemoteClient {
 
         @Override
         public void onExit() {
+            complete(stream);
+            stream = null;
+            complete(binaryStream);
+            binaryStream = null;
+        }
+
+        private void complete(RemoteStream<?> remoteStream) {
+            if (remoteStream != null) {
+                remoteStream.complete();
+            }
+        }
+
+        private void cancel(RemoteStream<?> remoteStream, String reason) {
+            if (remoteStream != null) {
+                remoteStream.cancel(reason);
+            }
+        }
+    }
+
+    /**
+     * Negotiate the codec version with the peer at the first time. The negotiation is asynchronous, the consumer thread
+     * doesn't wait for it, and uses the legacy codec until it is done. The failed negotiation is retried after the
+     * backoff. The peers without the negotiate method are the OAP nodes in the older versions, they only support the
+     * legacy codec.
+     *
+     * @return the codec version used in this round.
+     */
+    private int negotiateCodecVersion() {
+        if (!binaryCodecEnabled) {
+            return RemoteCodecVersion.LEGACY;
+        }
+        final int version = codecVersion;
+        if (version >= 0) {
+            return version;
+        }
+        if (System.currentTimeMillis() >= nextNegotiateTime && negotiating.compareAndSet(false, true)) {
+            negotiateAsync();
+        }
+        return RemoteCodecVersion.LEGACY;
+    }
+
+    private void negotiateAsync() {
+        try {
+            getStub().withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS)
+                     .negotiate(
+                         RemoteCodec.newBuilder().setVersion(RemoteCodecVersion.CURRENT).build(),
+                         new StreamObserver<RemoteCodec>() {
+                             @Override
+                             public void onNext(RemoteCodec response) {
+                                 negotiated(RemoteCodecVersion.negotiate(response.getVersion()));
+                             }
+
+                             @Override
+                             public void onError(Throwable throwable) {
+                                 if (Status.Code.UNIMPLEMENTED.equals(Status.fromThrowable(throwable).getCode())) {
+                                     negotiated(RemoteCodecVersion.LEGACY);
+                                 } else {
+                                     negotiateFailed(throwable);
+                                 }
+                             }
+
+                             @Override
+                             public void onCompleted() {
+                                 negotiating.set(false);
+                             }
+                         }
+                     );
+        } catch (RuntimeException e) {
+            negotiateFailed(e);
+        }
+    }
+
+    private void negotiated(int version) {
+        codecVersion = version;
+        negotiateBackoff = MIN_NEGOTIATE_BACKOFF;
+        negotiating.set(false);
+        LOGGER.info("Use the codec version {} to communicate with {}", version, address);
+    }
+
+    private void negotiateFailed(Throwable t) {
+        LOGGER.warn(
+            "Negotiate the codec with {} failure, use the legacy codec in {} ms. {}", address, negotiateBackoff,
+            t.getMessage()
+        );
+        nextNegotiateTime = System.currentTimeMillis() + negotiateBackoff;
+        negotiateBackoff = Math.min(negotiateBackoff * 2, MAX_NEGOTIATE_BACKOFF);
+        negotiating.set(false);
+    }
+
+    /**
+     * Open a long-lived gRPC stream to send the stream data of multiple consumes.
+     *
+     * @return stream
+     */
+    private RemoteStream<RemoteMessage> openStream() throws InterruptedException {
+        acquireInFlightWindow();
+        RemoteStream<RemoteMessage> remoteStream = new RemoteStream<>();
+        try {
+            streamStub().call(remoteStream);
+        } catch (RuntimeException e) {
+            remoteStream.terminate();
+            throw e;
         }
+        return remoteStream;
     }
 
     /**
-     * Create a gRPC stream observer to sending stream data, one stream observer could send multiple stream data by a
-     * single consume. The max number of concurrency allowed at the same time is 10.
+     * Open a long-lived gRPC stream to send the binary encoded stream data, same as {@link #openStream()}.
      *
-     * @return stream observer
+     * @return stream
+     */
+    private RemoteStream<RemoteBinaryMessage> openBinaryStream() throws InterruptedException {
+        acquireInFlightWindow();
+        RemoteStream<RemoteBinaryMessage> remoteStream = new RemoteStream<>();
+        try {
+            streamStub().callBinary(remoteStream);
+        } catch (RuntimeException e) {
+            remoteStream.terminate();
+            throw e;
+        }
+        return remoteStream;
+    }
+
+    private RemoteServiceGrpc.RemoteServiceStub streamStub() {
+        return getStub().withDeadlineAfter(2L * remoteTimeout, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Wait for a permit of the in-flight window. When the peer doesn't acknowledge the completed streams in time, those
+     * streams are cancelled to release their permits.
      */
-    private StreamObserver<RemoteMessage> createStreamObserver() {
-        int sleepTotalMillis = 0;
-        int sleepMillis = 10;
-        while (concurrentStreamObserverNumber.incrementAndGet() > 10) {
-            concurrentStreamObserverNumber.addAndGet(-1);
+    private void acquireInFlightWindow() throws InterruptedException {
+        if (inFlightWindow.tryAcquire(remoteTimeout, TimeUnit.SECONDS)) {
+            return;
+        }
+        LOGGER.warn("The in-flight window of {} is full over {} seconds.", address, remoteTimeout);
+        long expiredTime = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(remoteTimeout);
+        for (RemoteStream<?> inFlightStream : inFlightStreams) {
+            if (inFlightStream.isCompletedBefore(expiredTime)) {
+                inFlightStream.cancel("No acknowledgement in " + remoteTimeout + " seconds.");
+            }
+        }
+        if (!inFlightWindow.tryAcquire(remoteTimeout, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("No in-flight window to " + address + " available.");
+        }
+    }
+
+    /**
+     * A long-lived client stream holding one permit of the in-flight window, until it is acknowledged or failed. The
+     * stream data are written only when the transport is ready, otherwise the writer waits for the onReady signal of
+     * gRPC, rather than buffering the data unlimitedly in the transport.
+     */
+    private class RemoteStream<T> implements ClientResponseObserver<T, Empty> {
+        private final long createTime = System.currentTimeMillis();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+        private final AtomicBoolean terminated = new AtomicBoolean(false);
+        private volatile ClientCallStreamObserver<T> requestStream;
+        private volatile long completeTime = -1;
+
+        private RemoteStream() {
+            inFlightStreams.add(this);
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<T> requestStream) {
+            this.requestStream = requestStream;
+            requestStream.setOnReadyHandler(this::signalReady);
+        }
 
+        /**
+         * @return true if the stream could be used by the next batch.
+         */
+        private boolean isWritable() {
+            return completeTime < 0 && !terminated.get()
+                && System.currentTimeMillis() - createTime < TimeUnit.SECONDS.toMillis(remoteTimeout);
+        }
+
+        private boolean isCompletedBefore(long time) {
+            return completeTime >= 0 && completeTime < time;
+        }
+
+        private void send(T message) throws InterruptedException {
+            if (terminated.get()) {
+                throw new IllegalStateException("The stream to " + address + " has been terminated.");
+            }
+            if (!requestStream.isReady()) {
+                awaitReady();
+            }
+            requestStream.onNext(message);
+        }
+
+        private void awaitReady() throws InterruptedException {
+            long remainingNanos = TimeUnit.SECONDS.toNanos(remoteTimeout);
+            lock.lock();
+            try {
+                while (!requestStream.isReady()) {
+                    if (terminated.get()) {
+                        throw new IllegalStateException("The stream to " + address + " has been terminated.");
+                    }
+                    if (remainingNanos <= 0) {
+                        throw new IllegalStateException(
+                            "The stream to " + address + " is not ready over " + remoteTimeout + " seconds.");
+                    }
+                    remainingNanos = ready.awaitNanos(remainingNanos);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void signalReady() {
+            lock.lock();
             try {
-                Thread.sleep(sleepMillis);
-            } catch (InterruptedException e) {
-                LOGGER.error(e.getMessage(), e);
+                ready.signalAll();
+            } finally {
+                lock.unlock();
             }
+        }
 
-            sleepTotalMillis += sleepMillis;
+        private void complete() {
+            if (completeTime < 0 && !terminated.get()) {
+                completeTime = System.currentTimeMillis();
+                requestStream.onCompleted();
+            }
+        }
 
-            if (sleepTotalMillis > 60000) {
-                LOGGER.warn("Remote client block times over 60 seconds.");
+        private void cancel(String reason) {
+            if (!terminated.get()) {
+                requestStream.cancel(reason, null);
             }
         }
 
-        return getStub().withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS).call(new StreamObserver<Empty>() {
-            @Override
-            public void onNext(Empty empty) {
+        /**
+         * Release the permit once the stream is acknowledged or failed.
+         */
+        private void terminate() {
+            if (terminated.compareAndSet(false, true)) {
+                inFlightStreams.remove(this);
+                inFlightWindow.release();
+                signalReady();
             }
+        }
+
+        @Override
+        public void onNext(Empty empty) {
+        }
 
-            @Override
-            public void onError(Throwable throwable) {
-                concurrentStreamObserverNumber.addAndGet(-1);
+        @Override
+        public void onError(Throwable throwable) {
+            terminate();
+            Status status = Status.fromThrowable(throwable);
+            if (Status.Code.UNIMPLEMENTED.equals(status.getCode())) {
+                // The peer could be replaced by an older version OAP node in the same address.
+                codecVersion = -1;
+            }
+            if (Status.Code.CANCELLED.equals(status.getCode())) {
+                LOGGER.warn("The stream to {} is cancelled, {}", address, status.getDescription());
+            } else if (Status.Code.DEADLINE_EXCEEDED.equals(status.getCode())) {
+                LOGGER.warn("The stream to {} is over the deadline, {}", address, status.getDescription());
+            } else {
                 LOGGER.error(throwable.getMessage(), throwable);
             }
+        }
 
-            @Override
-            public void onCompleted() {
-                concurrentStreamObserverNumber.addAndGet(-1);
-            }
-        });
+        @Override
+        public void onCompleted() {
+            terminate();
+        }
     }
 
     @Override
@@ -18,7 +18,9 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import java.util.concurrent.Future;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.TopologySnapshots;
 
 public interface RemoteClient extends Comparable<RemoteClient> {
 
@@ -29,4 +31,11 @@ public interface RemoteClient extends Comparable<RemoteClient> {
     void close();
 
     void push(String nextWorkerName, StreamData streamData);
+
+    /**
+     * Read the service relations in the topology snapshots of the OAP node, see {@link
+     * org.apache.skywalking.oap.server.core.query.ServiceTopologySnapshots#read(long, long)}. The snapshots are read
+     * asynchronously, so the snapshots of all nodes are read in parallel.
+     */
+    Future<TopologySnapshots> readTopologySnapshots(long startTB, long endTB);
 }
@@ -41,6 +41,7 @@ import lombok.Setter;
 import org.apache.skywalking.oap.server.core.cluster.ClusterModule;
 import org.apache.skywalking.oap.server.core.cluster.ClusterNodesQuery;
 import org.apache.skywalking.oap.server.core.cluster.RemoteInstance;
+import org.apache.skywalking.oap.server.core.query.ServiceTopologySnapshots;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.library.module.Service;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
@@ -64,6 +65,21 @@ public class RemoteClientManager implements Service {
     private volatile List<RemoteClient> usingClients;
     private GaugeMetrics gauge;
     private int remoteTimeout;
+    /**
+     * Negotiate the binary codec with the other OAP nodes.
+     */
+    @Setter
+    private boolean binaryCodecEnabled;
+    /**
+     * The max number of the streams to each OAP node, which are not acknowledged yet.
+     */
+    @Setter
+    private int maxInFlightStreams = GRPCRemoteClient.DEFAULT_MAX_IN_FLIGHT_STREAMS;
+    /**
+     * The latest time when the remote clients were rebuilt, which means the OAP cluster changed.
+     */
+    @Getter
+    private volatile long clientsRebuiltTime;
 
     /**
      * Initial the manager for all remote communication clients.
@@ -221,7 +237,10 @@ public class RemoteClientManager implements Service {
                         newRemoteClients.add(client);
                     } else {
                         RemoteClient client;
-                        client = new GRPCRemoteClient(moduleDefineHolder, address, 1, 3000, remoteTimeout, sslContext);
+                        client = new GRPCRemoteClient(
+                            moduleDefineHolder, address, 1, 3000, remoteTimeout, sslContext, binaryCodecEnabled,
+                            maxInFlightStreams
+                        );
                         client.connect();
                         newRemoteClients.add(client);
                     }
@@ -232,6 +251,8 @@ public class RemoteClientManager implements Service {
         //for stable ordering for rolling selector
         Collections.sort(newRemoteClients);
         this.usingClients = ImmutableList.copyOf(newRemoteClients);
+        this.clientsRebuiltTime = System.currentTimeMillis();
+        ServiceTopologySnapshots.INSTANCE.clusterChanged(clientsRebuiltTime);
 
         remoteClientCollection.values()
                               .stream()
@@ -18,9 +18,13 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.query.ServiceTopologySnapshots;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.TopologySnapshots;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
@@ -65,6 +69,11 @@ public class SelfRemoteClient implements RemoteClient {
         workerInstanceGetter.get(nextWorkerName).getWorker().in(streamData);
     }
 
+    @Override
+    public Future<TopologySnapshots> readTopologySnapshots(long startTB, long endTB) {
+        return CompletableFuture.completedFuture(ServiceTopologySnapshots.INSTANCE.read(startTB, endTB));
+    }
+
     @Override
     public int compareTo(RemoteClient o) {
         return address.compareTo(o.getAddress());
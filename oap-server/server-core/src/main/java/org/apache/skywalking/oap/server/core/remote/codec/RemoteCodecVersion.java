@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.codec;
+
+/**
+ * The versions of the codec used in the communication between OAP nodes.
+ */
+public final class RemoteCodecVersion {
+    /**
+     * The RemoteMessage protobuf, supported by all OAP nodes.
+     */
+    public static final int LEGACY = 0;
+    /**
+     * The binary codec implemented by {@link RemoteMessageEncoder} and {@link RemoteMessageDecoder}.
+     */
+    public static final int BINARY = 1;
+    /**
+     * The highest version supported by this OAP node.
+     */
+    public static final int CURRENT = BINARY;
+
+    private RemoteCodecVersion() {
+    }
+
+    /**
+     * @param requested the highest version supported by the peer.
+     * @return the version supported by both of this node and the peer.
+     */
+    public static int negotiate(int requested) {
+        return Math.max(LEGACY, Math.min(requested, CURRENT));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.codec;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
+
+import static org.apache.skywalking.oap.server.core.remote.codec.RemoteMessageEncoder.LITERAL_STRING;
+import static org.apache.skywalking.oap.server.core.remote.codec.RemoteMessageEncoder.NEW_STRING;
+import static org.apache.skywalking.oap.server.core.remote.codec.RemoteMessageEncoder.NUMBERS_OBJECT;
+import static org.apache.skywalking.oap.server.core.remote.codec.RemoteMessageEncoder.STRING_INDEX_OFFSET;
+
+/**
+ * RemoteMessageDecoder decodes the messages encoded by one {@link RemoteMessageEncoder}, in the same order of
+ * encoding. Read {@link RemoteMessageEncoder} for the format.
+ */
+public class RemoteMessageDecoder {
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, long[]> lastLongs = new HashMap<>();
+
+    public RemoteMessage decode(ByteString data) throws IOException {
+        CodedInputStream stream = data.newCodedInput();
+
+        final String workerName = readString(stream);
+        RemoteData.Builder builder = RemoteData.newBuilder();
+
+        int count = stream.readUInt32();
+        for (int i = 0; i < count; i++) {
+            builder.addDataStrings(readString(stream));
+        }
+
+        count = stream.readUInt32();
+        if (count > 0) {
+            long[] last = lastLongs.get(workerName);
+            if (last == null || last.length != count) {
+                last = new long[count];
+                lastLongs.put(workerName, last);
+            }
+            for (int i = 0; i < count; i++) {
+                last[i] += stream.readSInt64();
+                builder.addDataLongs(last[i]);
+            }
+        }
+
+        count = stream.readUInt32();
+        for (int i = 0; i < count; i++) {
+            builder.addDataDoubles(stream.readDouble());
+        }
+
+        count = stream.readUInt32();
+        for (int i = 0; i < count; i++) {
+            builder.addDataIntegers(stream.readSInt32());
+        }
+
+        count = stream.readUInt32();
+        for (int i = 0; i < count; i++) {
+            builder.addDataObjectStrings(readObject(stream));
+        }
+
+        return RemoteMessage.newBuilder().setNextWorkerName(workerName).setRemoteData(builder).build();
+    }
+
+    private String readString(CodedInputStream stream) throws IOException {
+        final int prefix = stream.readUInt32();
+        if (prefix == NEW_STRING) {
+            String value = stream.readStringRequireUtf8();
+            dictionary.add(value);
+            return value;
+        } else if (prefix == LITERAL_STRING) {
+            return stream.readStringRequireUtf8();
+        }
+        return dictionary.get(prefix - STRING_INDEX_OFFSET);
+    }
+
+    private String readObject(CodedInputStream stream) throws IOException {
+        if (stream.readUInt32() != NUMBERS_OBJECT) {
+            return readString(stream);
+        }
+        final int rows = stream.readUInt32();
+        final int columns = stream.readUInt32();
+        StringBuilder builder = new StringBuilder(rows * columns * 4);
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                builder.append(Const.ARRAY_SPLIT);
+            }
+            for (int column = 0; column < columns; column++) {
+                if (column > 0) {
+                    builder.append(Const.KEY_VALUE_SPLIT);
+                }
+                builder.append(stream.readSInt64());
+            }
+        }
+        return builder.toString();
+    }
+}
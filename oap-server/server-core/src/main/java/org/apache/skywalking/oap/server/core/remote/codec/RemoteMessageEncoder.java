@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.codec;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
+
+/**
+ * RemoteMessageEncoder encodes the {@link RemoteMessage}s of one stream into the compact binary format, {@link
+ * RemoteCodecVersion#BINARY}. The encoder is stateful, the messages must be decoded by one {@link
+ * RemoteMessageDecoder} in the same order.
+ * <p>
+ * The format of one message is
+ * <pre>
+ * worker name (string)
+ * strings: size (varint), values (string)
+ * longs: size (varint), delta to the long in the same position of the last message to the same worker (zigzag varint)
+ * doubles: size (varint), values (fixed 64)
+ * integers: size (varint), values (zigzag varint)
+ * object strings: size (varint), values (object)
+ * </pre>
+ * The strings are dictionary encoded per stream, as the entity ids and worker names repeat in most messages. The
+ * object strings, such as the {@link org.apache.skywalking.oap.server.core.analysis.metrics.DataTable} of the
+ * percentile and histogram, are packed as the numbers when they only contain the numbers in the same shape.
+ */
+public class RemoteMessageEncoder {
+    /**
+     * The prefix of the string, which is not in the dictionary and is added into it.
+     */
+    static final int NEW_STRING = 0;
+    /**
+     * The prefix of the string, which is not in the dictionary and is not added, as the dictionary is full.
+     */
+    static final int LITERAL_STRING = 1;
+    /**
+     * The offset of the string index in the dictionary.
+     */
+    static final int STRING_INDEX_OFFSET = 2;
+    /**
+     * The prefix of the object, which is encoded as a string.
+     */
+    static final int STRING_OBJECT = 0;
+    /**
+     * The prefix of the object, which is encoded as the packed numbers.
+     */
+    static final int NUMBERS_OBJECT = 1;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final Map<String, long[]> lastLongs = new HashMap<>();
+    private final int maxDictionarySize;
+
+    public RemoteMessageEncoder(int maxDictionarySize) {
+        this.maxDictionarySize = maxDictionarySize;
+    }
+
+    public ByteString encode(RemoteMessage message) throws IOException {
+        ByteString.Output output = ByteString.newOutput(256);
+        CodedOutputStream stream = CodedOutputStream.newInstance(output);
+
+        final String workerName = message.getNextWorkerName();
+        writeString(stream, workerName);
+
+        final RemoteData data = message.getRemoteData();
+        stream.writeUInt32NoTag(data.getDataStringsCount());
+        for (int i = 0; i < data.getDataStringsCount(); i++) {
+            writeString(stream, data.getDataStrings(i));
+        }
+
+        final int longsCount = data.getDataLongsCount();
+        stream.writeUInt32NoTag(longsCount);
+        if (longsCount > 0) {
+            long[] last = lastLongs.get(workerName);
+            if (last == null || last.length != longsCount) {
+                last = new long[longsCount];
+                lastLongs.put(workerName, last);
+            }
+            for (int i = 0; i < longsCount; i++) {
+                final long value = data.getDataLongs(i);
+                stream.writeSInt64NoTag(value - last[i]);
+                last[i] = value;
+            }
+        }
+
+        stream.writeUInt32NoTag(data.getDataDoublesCount());
+        for (int i = 0; i < data.getDataDoublesCount(); i++) {
+            stream.writeDoubleNoTag(data.getDataDoubles(i));
+        }
+
+        stream.writeUInt32NoTag(data.getDataIntegersCount());
+        for (int i = 0; i < data.getDataIntegersCount(); i++) {
+            stream.writeSInt32NoTag(data.getDataIntegers(i));
+        }
+
+        stream.writeUInt32NoTag(data.getDataObjectStringsCount());
+        for (int i = 0; i < data.getDataObjectStringsCount(); i++) {
+            writeObject(stream, data.getDataObjectStrings(i));
+        }
+
+        stream.flush();
+        return output.toByteString();
+    }
+
+    private void writeString(CodedOutputStream stream, String value) throws IOException {
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            stream.writeUInt32NoTag(index + STRING_INDEX_OFFSET);
+        } else if (dictionary.size() < maxDictionarySize) {
+            dictionary.put(value, dictionary.size());
+            stream.writeUInt32NoTag(NEW_STRING);
+            stream.writeStringNoTag(value);
+        } else {
+            stream.writeUInt32NoTag(LITERAL_STRING);
+            stream.writeStringNoTag(value);
+        }
+    }
+
+    /**
+     * Write the object string in the format of `n,n|n,n|...` or `n|n|...` as the packed numbers, others as the
+     * string.
+     */
+    private void writeObject(CodedOutputStream stream, String value) throws IOException {
+        List<long[]> rows = parseNumbers(value);
+        if (rows == null) {
+            stream.writeUInt32NoTag(STRING_OBJECT);
+            writeString(stream, value);
+            return;
+        }
+        stream.writeUInt32NoTag(NUMBERS_OBJECT);
+        stream.writeUInt32NoTag(rows.size());
+        stream.writeUInt32NoTag(rows.get(0).length);
+        for (long[] row : rows) {
+            for (long number : row) {
+                stream.writeSInt64NoTag(number);
+            }
+        }
+    }
+
+    /**
+     * @return the rows of numbers, or null if the value can't be restored from the numbers exactly.
+     */
+    static List<long[]> parseNumbers(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        List<long[]> rows = new ArrayList<>();
+        int columns = -1;
+        int rowStart = 0;
+        while (rowStart <= value.length()) {
+            int rowEnd = value.indexOf(Const.ARRAY_SPLIT, rowStart);
+            if (rowEnd < 0) {
+                rowEnd = value.length();
+            }
+            long[] row = parseRow(value, rowStart, rowEnd);
+            if (row == null || (columns >= 0 && row.length != columns)) {
+                return null;
+            }
+            columns = row.length;
+            rows.add(row);
+            rowStart = rowEnd + 1;
+        }
+        return rows;
+    }
+
+    private static long[] parseRow(String value, int start, int end) {
+        int columns = 1;
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == Const.KEY_VALUE_SPLIT.charAt(0)) {
+                columns++;
+            }
+        }
+        long[] row = new long[columns];
+        int column = 0;
+        int numberStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || value.charAt(i) == Const.KEY_VALUE_SPLIT.charAt(0)) {
+                Long number = parseCanonicalLong(value, numberStart, i);
+                if (number == null) {
+                    return null;
+                }
+                row[column++] = number;
+                numberStart = i + 1;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * @return the number if the text is exactly the same as {@link Long#toString(long)} of it, otherwise null.
+     */
+    private static Long parseCanonicalLong(String value, int start, int end) {
+        boolean negative = start < end && value.charAt(start) == '-';
+        int digitsStart = negative ? start + 1 : start;
+        int digits = end - digitsStart;
+        // 18 digits never overflow.
+        if (digits <= 0 || digits > 18) {
+            return null;
+        }
+        if (value.charAt(digitsStart) == '0' && (digits > 1 || negative)) {
+            return null;
+        }
+        long number = 0;
+        for (int i = digitsStart; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return negative ? -number : number;
+    }
+}
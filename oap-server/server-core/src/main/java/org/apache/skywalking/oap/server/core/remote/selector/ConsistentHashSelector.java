@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.selector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+
+/**
+ * ConsistentHashSelector selects the client through a hash ring with virtual nodes. Comparing to {@link
+ * HashCodeSelector}, only about 1/n of the stream data are routed to different clients when one OAP node joins or
+ * leaves the cluster, so the metrics of the same entity keep being aggregated in the same OAP node mostly.
+ * <p>
+ * The ring is built by the address of clients, which makes all OAP nodes build the same ring from the same cluster
+ * members. It is rebuilt only when the client list changes, which {@link org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager}
+ * replaces as a whole.
+ */
+public class ConsistentHashSelector implements RemoteClientSelector {
+    private static final int VIRTUAL_NODES_PER_CLIENT = 160;
+
+    private volatile Ring ring;
+
+    @Override
+    public RemoteClient select(List<RemoteClient> clients, StreamData streamData) {
+        Ring current = ring;
+        if (current == null || current.clients != clients) {
+            current = new Ring(clients);
+            ring = current;
+        }
+        return current.select(mix(streamData.remoteHashCode()));
+    }
+
+    /**
+     * Spread the bits of the hash code, as the remote hash codes of the similar entities are close to each other.
+     */
+    static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static class Ring {
+        private final List<RemoteClient> clients;
+        private final int[] hashes;
+        private final RemoteClient[] nodes;
+
+        private Ring(List<RemoteClient> clients) {
+            this.clients = clients;
+            List<long[]> points = new ArrayList<>(clients.size() * VIRTUAL_NODES_PER_CLIENT);
+            for (int i = 0; i < clients.size(); i++) {
+                String address = clients.get(i).getAddress().toString();
+                for (int v = 0; v < VIRTUAL_NODES_PER_CLIENT; v++) {
+                    int hash = mix((address + "#" + v).hashCode());
+                    points.add(new long[] {hash, i});
+                }
+            }
+            // Sort by the hash, then by the address for the same hash, to keep the ring the same in all OAP nodes.
+            points.sort((p1, p2) -> {
+                int result = Long.compare(p1[0], p2[0]);
+                if (result != 0) {
+                    return result;
+                }
+                return clients.get((int) p1[1]).compareTo(clients.get((int) p2[1]));
+            });
+            this.hashes = new int[points.size()];
+            this.nodes = new RemoteClient[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                hashes[i] = (int) points.get(i)[0];
+                nodes[i] = clients.get((int) points.get(i)[1]);
+            }
+        }
+
+        /**
+         * @return the first node clockwise from the hash on the ring.
+         */
+        private RemoteClient select(int hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            if (index >= hashes.length) {
+                index = 0;
+            }
+            return nodes[index];
+        }
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core.source;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.skywalking.apm.util.StringUtil;
 import org.apache.skywalking.oap.server.core.analysis.IDManager;
 import org.apache.skywalking.oap.server.core.analysis.NodeType;
 
@@ -29,6 +30,8 @@ import static org.apache.skywalking.oap.server.core.source.DefaultScopeDefine.SE
 @ScopeDeclaration(id = SERVICE_INSTANCE, name = "ServiceInstance", catalog = SERVICE_INSTANCE_CATALOG_NAME)
 @ScopeDefaultColumn.VirtualColumnDefinition(fieldName = "entityId", columnName = "entity_id", isID = true, type = String.class)
 public class ServiceInstance extends Source {
+    private String entityId;
+
     @Override
     public int scope() {
         return DefaultScopeDefine.SERVICE_INSTANCE;
@@ -36,7 +39,10 @@ public class ServiceInstance extends Source {
 
     @Override
     public String getEntityId() {
-        return IDManager.ServiceInstanceID.buildId(serviceId, name);
+        if (StringUtil.isEmpty(entityId)) {
+            entityId = IDManager.ServiceInstanceID.buildId(serviceId, name);
+        }
+        return entityId;
     }
 
     @Getter
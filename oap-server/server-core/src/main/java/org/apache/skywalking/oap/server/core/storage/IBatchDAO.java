@@ -42,6 +42,8 @@ public interface IBatchDAO extends DAO {
      * changes are required queryable after method returns.
      *
      * @param prepareRequests data to insert or update. No delete happens in streaming mode.
+     * @throws StorageException if any request is not confirmed by the database. The other requests are still
+     *                          executed, but the caller can't assume any of them persisted.
      */
-    void synchronous(List<PrepareRequest> prepareRequests);
+    void synchronous(List<PrepareRequest> prepareRequests) throws StorageException;
 }
@@ -32,7 +32,9 @@ public interface IHistoryDeleteDAO extends DAO {
      * @param model                data entity.
      * @param timeBucketColumnName column name represents the time. Right now, always {@link Metrics#TIME_BUCKET}
      * @param ttl                 the number of days should be kept
+     * @return the amount of the removed data, the rows for the row deletion, or the partitions(such as indices) for
+     * the storage removing the whole partitions. 0 if nothing is removed or the amount is unknown.
      * @throws IOException when error happens in the deletion process.
      */
-    void deleteHistory(Model model, String timeBucketColumnName, int ttl) throws IOException;
+    long deleteHistory(Model model, String timeBucketColumnName, int ttl) throws IOException;
 }
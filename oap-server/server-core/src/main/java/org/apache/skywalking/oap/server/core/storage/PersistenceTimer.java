@@ -18,9 +18,19 @@
 
 package org.apache.skywalking.oap.server.core.storage;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
@@ -45,8 +55,21 @@ public enum PersistenceTimer {
     private CounterMetrics errorCounter;
     private HistogramMetrics prepareLatency;
     private HistogramMetrics executeLatency;
-    private long lastTime = System.currentTimeMillis();
+    private MetricsCreator metricsCreator;
+    private final Map<String, HistogramMetrics> modelPrepareLatencies = new ConcurrentHashMap<>();
+    private volatile long lastTime = System.currentTimeMillis();
     private final List<PrepareRequest> prepareRequests = new ArrayList<>(50000);
+    /**
+     * The pool of preparing the batch requests of the persistence workers in parallel, and the single thread of
+     * executing the batch requests round by round. Only work when the pipelined persistence is enabled.
+     */
+    private ExecutorService prepareExecutor;
+    private ExecutorService executeExecutor;
+    private Future<?> lastExecution;
+    /**
+     * The workers whose requests are in the last execution. Only they are notified when it finished.
+     */
+    private Set<PersistenceWorker> executingWorkers = Collections.emptySet();
 
     PersistenceTimer() {
         this.debug = System.getProperty("debug") != null;
@@ -56,9 +79,9 @@ public enum PersistenceTimer {
         log.info("persistence timer start");
         IBatchDAO batchDAO = moduleManager.find(StorageModule.NAME).provider().getService(IBatchDAO.class);
 
-        MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
-                                                     .provider()
-                                                     .getService(MetricsCreator.class);
+        metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                      .provider()
+                                      .getService(MetricsCreator.class);
         errorCounter = metricsCreator.createCounter(
             "persistence_timer_bulk_error_count", "Error execution of the prepare stage in persistence timer",
             MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
@@ -73,9 +96,19 @@ public enum PersistenceTimer {
         );
 
         if (!isStarted) {
+            Runnable extractDataAndSave = () -> extractDataAndSave(batchDAO);
+            if (moduleConfig.isEnablePipelinedPersistence()) {
+                prepareExecutor = Executors.newFixedThreadPool(
+                    Math.max(moduleConfig.getPersistentPrepareThreads(), 1),
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("persistence-prepare-%d").build()
+                );
+                executeExecutor = Executors.newSingleThreadExecutor(
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("persistence-execute-%d").build());
+                extractDataAndSave = () -> extractDataAndSaveInPipeline(batchDAO);
+            }
             Executors.newSingleThreadScheduledExecutor()
                      .scheduleWithFixedDelay(
-                         new RunnableWithExceptionProtection(() -> extractDataAndSave(batchDAO), t -> log
+                         new RunnableWithExceptionProtection(extractDataAndSave, t -> log
                              .error("Extract data and save failure.", t)), 5, moduleConfig.getPersistentPeriod(),
                          TimeUnit.SECONDS
                      );
@@ -91,14 +124,12 @@ public enum PersistenceTimer {
 
         long startTime = System.currentTimeMillis();
 
+        List<PersistenceWorker> persistenceWorkers = persistenceWorkers();
+        boolean success = false;
         try {
             HistogramMetrics.Timer timer = prepareLatency.createTimer();
 
             try {
-                List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
-                persistenceWorkers.addAll(TopNStreamProcessor.getInstance().getPersistentWorkers());
-                persistenceWorkers.addAll(MetricsStreamProcessor.getInstance().getPersistentWorkers());
-
                 persistenceWorkers.forEach(worker -> {
                     if (log.isDebugEnabled()) {
                         log.debug("extract {} worker data and save", worker.getClass().getName());
@@ -121,6 +152,7 @@ public enum PersistenceTimer {
                 if (CollectionUtils.isNotEmpty(prepareRequests)) {
                     batchDAO.synchronous(prepareRequests);
                 }
+                success = true;
             } finally {
                 executeLatencyTimer.finish();
             }
@@ -128,6 +160,7 @@ public enum PersistenceTimer {
             errorCounter.inc();
             log.error(e.getMessage(), e);
         } finally {
+            afterRoundExecuted(persistenceWorkers, success);
             if (log.isDebugEnabled()) {
                 log.debug("Persistence data save finish");
             }
@@ -140,4 +173,162 @@ public enum PersistenceTimer {
             log.info("Batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
         }
     }
+
+    /**
+     * Prepare the batch requests of all persistence workers in parallel, then execute them in the execute thread, so
+     * the delay of the next round starts without waiting for the storage. The next round is prepared while the last one
+     * is executing, except the workers reading the storage whose requests are still in the last execution, as they
+     * would read the stale data. A round is executed only after the last one executed.
+     */
+    private void extractDataAndSaveInPipeline(IBatchDAO batchDAO) {
+        if (log.isDebugEnabled()) {
+            log.debug("Extract data and save in pipeline");
+        }
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            List<PersistenceWorker> independentWorkers = new ArrayList<>();
+            List<PersistenceWorker> dependentWorkers = new ArrayList<>();
+            for (PersistenceWorker worker : persistenceWorkers()) {
+                if (worker.readsStorage() && executingWorkers.contains(worker)) {
+                    dependentWorkers.add(worker);
+                } else {
+                    independentWorkers.add(worker);
+                }
+            }
+
+            Map<PersistenceWorker, List<PrepareRequest>> workerRequests = new LinkedHashMap<>();
+            HistogramMetrics.Timer timer = prepareLatency.createTimer();
+            try {
+                List<Future<List<PrepareRequest>>> independentFutures = submitBuildBatchRequests(independentWorkers);
+                if (!dependentWorkers.isEmpty()) {
+                    awaitLastExecution();
+                }
+                List<Future<List<PrepareRequest>>> dependentFutures = submitBuildBatchRequests(dependentWorkers);
+                collectBatchRequests(independentWorkers, independentFutures, workerRequests);
+                collectBatchRequests(dependentWorkers, dependentFutures, workerRequests);
+
+                if (debug) {
+                    log.info("build batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
+                }
+            } finally {
+                timer.finish();
+            }
+
+            awaitLastExecution();
+
+            List<PersistenceWorker> preparedWorkers = new ArrayList<>(workerRequests.size());
+            List<PrepareRequest> requests = new ArrayList<>(50000);
+            workerRequests.forEach((worker, workerRequest) -> {
+                if (!workerRequest.isEmpty()) {
+                    preparedWorkers.add(worker);
+                    requests.addAll(workerRequest);
+                }
+            });
+            executingWorkers = new HashSet<>(preparedWorkers);
+            lastExecution = executeExecutor.submit(() -> execute(batchDAO, preparedWorkers, requests));
+        } catch (Throwable e) {
+            errorCounter.inc();
+            log.error(e.getMessage(), e);
+        } finally {
+            lastTime = System.currentTimeMillis();
+        }
+    }
+
+    private List<PersistenceWorker> persistenceWorkers() {
+        List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
+        persistenceWorkers.addAll(TopNStreamProcessor.getInstance().getPersistentWorkers());
+        persistenceWorkers.addAll(MetricsStreamProcessor.getInstance().getPersistentWorkers());
+        return persistenceWorkers;
+    }
+
+    private List<Future<List<PrepareRequest>>> submitBuildBatchRequests(List<PersistenceWorker> persistenceWorkers) {
+        List<Future<List<PrepareRequest>>> futures = new ArrayList<>(persistenceWorkers.size());
+        for (PersistenceWorker worker : persistenceWorkers) {
+            futures.add(prepareExecutor.submit(() -> buildBatchRequests(worker)));
+        }
+        return futures;
+    }
+
+    /**
+     * Put the requests of the workers prepared successfully into the given map. The others are notified as failed.
+     */
+    private void collectBatchRequests(List<PersistenceWorker> persistenceWorkers,
+                                      List<Future<List<PrepareRequest>>> futures,
+                                      Map<PersistenceWorker, List<PrepareRequest>> workerRequests) {
+        for (int i = 0; i < futures.size(); i++) {
+            PersistenceWorker worker = persistenceWorkers.get(i);
+            try {
+                workerRequests.put(worker, futures.get(i).get());
+            } catch (InterruptedException | ExecutionException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                errorCounter.inc();
+                log.error(e.getMessage(), e);
+                worker.afterRoundExecuted(false);
+            }
+        }
+    }
+
+    private List<PrepareRequest> buildBatchRequests(PersistenceWorker worker) {
+        if (log.isDebugEnabled()) {
+            log.debug("extract {} worker data and save", worker.getClass().getName());
+        }
+
+        List<PrepareRequest> requests = new ArrayList<>();
+        HistogramMetrics.Timer timer = modelPrepareLatency(worker.getModel().getName()).createTimer();
+        try {
+            worker.buildBatchRequests(requests);
+
+            worker.endOfRound(System.currentTimeMillis() - lastTime);
+        } finally {
+            timer.finish();
+        }
+        return requests;
+    }
+
+    private HistogramMetrics modelPrepareLatency(String modelName) {
+        return modelPrepareLatencies.computeIfAbsent(modelName, name -> metricsCreator.createHistogramMetric(
+            "persistence_timer_model_prepare_latency",
+            "Latency of the prepare stage of each model in persistence timer",
+            new MetricsTag.Keys("model"), new MetricsTag.Values(name)
+        ));
+    }
+
+    private void execute(IBatchDAO batchDAO, List<PersistenceWorker> persistenceWorkers,
+                         List<PrepareRequest> requests) {
+        boolean success = false;
+        HistogramMetrics.Timer executeLatencyTimer = executeLatency.createTimer();
+        try {
+            if (CollectionUtils.isNotEmpty(requests)) {
+                batchDAO.synchronous(requests);
+            }
+            success = true;
+        } catch (Throwable e) {
+            errorCounter.inc();
+            log.error(e.getMessage(), e);
+        } finally {
+            executeLatencyTimer.finish();
+            afterRoundExecuted(persistenceWorkers, success);
+        }
+    }
+
+    private void afterRoundExecuted(List<PersistenceWorker> persistenceWorkers, boolean success) {
+        for (PersistenceWorker worker : persistenceWorkers) {
+            try {
+                worker.afterRoundExecuted(success);
+            } catch (Throwable e) {
+                log.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void awaitLastExecution() throws InterruptedException, ExecutionException {
+        if (lastExecution != null) {
+            lastExecution.get();
+            lastExecution = null;
+        }
+    }
 }
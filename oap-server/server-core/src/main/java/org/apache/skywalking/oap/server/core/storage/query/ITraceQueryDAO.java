@@ -45,6 +45,39 @@ public interface ITraceQueryDAO extends Service {
                                 QueryOrder queryOrder,
                                 final List<SpanTag> tags) throws IOException;
 
+    /**
+     * Query the page of the basic traces after the cursor. The cursor is created by the implementation, and returned
+     * through {@link TraceBrief#getCursor()} for the next page. The default implementation takes the cursor as the
+     * offset of {@link #queryBasicTraces}, the storage supporting the cursor natively should override it, rather than
+     * skipping the offset again for every page.
+     *
+     * @param cursor null or empty for the first page.
+     */
+    default TraceBrief queryBasicTracesAfter(long startSecondTB,
+                                             long endSecondTB,
+                                             long minDuration,
+                                             long maxDuration,
+                                             String endpointName,
+                                             String serviceId,
+                                             String serviceInstanceId,
+                                             String endpointId,
+                                             String traceId,
+                                             int limit,
+                                             String cursor,
+                                             TraceState traceState,
+                                             QueryOrder queryOrder,
+                                             final List<SpanTag> tags) throws IOException {
+        final int from = cursor == null || cursor.isEmpty() ? 0 : Integer.parseInt(cursor);
+        TraceBrief traceBrief = queryBasicTraces(
+            startSecondTB, endSecondTB, minDuration, maxDuration, endpointName, serviceId, serviceInstanceId,
+            endpointId, traceId, limit, from, traceState, queryOrder, tags
+        );
+        if (traceBrief.getTraces().size() >= limit) {
+            traceBrief.setCursor(String.valueOf(from + limit));
+        }
+        return traceBrief;
+    }
+
     List<SegmentRecord> queryByTraceId(String traceId) throws IOException;
 
     /**
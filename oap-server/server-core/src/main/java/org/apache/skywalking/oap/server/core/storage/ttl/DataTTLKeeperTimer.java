@@ -18,9 +18,16 @@
 
 package org.apache.skywalking.oap.server.core.storage.ttl;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
@@ -36,6 +43,11 @@ import org.apache.skywalking.oap.server.core.storage.model.IModelManager;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
 /**
  * TTL = Time To Live
@@ -44,6 +56,10 @@ import org.apache.skywalking.oap.server.library.util.CollectionUtils;
  * configurations are provided in {@link CoreModuleConfig}, some storage implementations, such as ES6/ES7, provides an
  * override TTL, which could be more suitable for the implementation. No matter which TTL configurations are set, they
  * are all driven by this timer.
+ *
+ * The models are removed in parallel by a bounded pool, sized by {@link
+ * CoreModuleConfig#getDataKeeperExecuteThreads()}, and one execution waits for all models finished, so the executions
+ * never overlap.
  */
 @Slf4j
 public enum DataTTLKeeperTimer {
@@ -52,12 +68,29 @@ public enum DataTTLKeeperTimer {
     private ModuleManager moduleManager;
     private ClusterNodesQuery clusterNodesQuery;
     private CoreModuleConfig moduleConfig;
+    private ExecutorService deleteExecutor;
+    private MetricsCreator metricsCreator;
+    private CounterMetrics errorCounter;
+    private final Map<String, HistogramMetrics> modelDeleteLatencies = new ConcurrentHashMap<>();
+    private final Map<String, CounterMetrics> modelRemovedCounters = new ConcurrentHashMap<>();
 
     public void start(ModuleManager moduleManager, CoreModuleConfig moduleConfig) {
         this.moduleManager = moduleManager;
         this.clusterNodesQuery = moduleManager.find(ClusterModule.NAME).provider().getService(ClusterNodesQuery.class);
         this.moduleConfig = moduleConfig;
 
+        metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                      .provider()
+                                      .getService(MetricsCreator.class);
+        errorCounter = metricsCreator.createCounter(
+            "data_ttl_keeper_error_count", "Error deletion of the expired data in data TTL keeper",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        deleteExecutor = Executors.newFixedThreadPool(
+            Math.max(moduleConfig.getDataKeeperExecuteThreads(), 1),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("data-ttl-keeper-%d").build()
+        );
+
         Executors.newSingleThreadScheduledExecutor()
                  .scheduleAtFixedRate(
                      new RunnableWithExceptionProtection(
@@ -79,25 +112,62 @@ public enum DataTTLKeeperTimer {
         }
 
         log.info("Beginning to remove expired metrics from the storage.");
+        long startTime = System.currentTimeMillis();
         IModelManager modelGetter = moduleManager.find(CoreModule.NAME).provider().getService(IModelManager.class);
         List<Model> models = modelGetter.allModels();
-        models.forEach(this::execute);
+        List<Future<?>> futures = new ArrayList<>(models.size());
+        for (Model model : models) {
+            if (model.isTimeSeries()) {
+                futures.add(deleteExecutor.submit(() -> execute(model)));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                errorCounter.inc();
+                log.error(e.getMessage(), e);
+            }
+        }
+        log.info(
+            "Expired data of {} models removed, cost {}ms.", futures.size(), System.currentTimeMillis() - startTime);
     }
 
     private void execute(Model model) {
+        HistogramMetrics.Timer timer = modelDeleteLatency(model.getName()).createTimer();
         try {
-            if (!model.isTimeSeries()) {
-                return;
+            int ttl = model.isRecord() ? moduleConfig.getRecordDataTTL() : moduleConfig.getMetricsDataTTL();
+            long removed = moduleManager.find(StorageModule.NAME)
+                                        .provider()
+                                        .getService(IHistoryDeleteDAO.class)
+                                        .deleteHistory(model, Metrics.TIME_BUCKET, ttl);
+            if (removed > 0) {
+                modelRemovedCounter(model.getName()).inc(removed);
             }
-            moduleManager.find(StorageModule.NAME)
-                         .provider()
-                         .getService(IHistoryDeleteDAO.class)
-                         .deleteHistory(model, Metrics.TIME_BUCKET,
-                                        model.isRecord() ? moduleConfig.getRecordDataTTL() : moduleConfig.getMetricsDataTTL()
-                         );
         } catch (IOException e) {
+            errorCounter.inc();
             log.warn("History of {} delete failure", model.getName());
             log.error(e.getMessage(), e);
+        } finally {
+            timer.finish();
         }
     }
+
+    private HistogramMetrics modelDeleteLatency(String modelName) {
+        return modelDeleteLatencies.computeIfAbsent(modelName, name -> metricsCreator.createHistogramMetric(
+            "data_ttl_keeper_model_delete_latency", "Latency of removing the expired data of each model",
+            new MetricsTag.Keys("model"), new MetricsTag.Values(name)
+        ));
+    }
+
+    private CounterMetrics modelRemovedCounter(String modelName) {
+        return modelRemovedCounters.computeIfAbsent(modelName, name -> metricsCreator.createCounter(
+            "data_ttl_keeper_model_removed_count",
+            "The amount of the removed data of each model, rows or partitions depending on the storage",
+            new MetricsTag.Keys("model"), new MetricsTag.Values(name)
+        ));
+    }
 }
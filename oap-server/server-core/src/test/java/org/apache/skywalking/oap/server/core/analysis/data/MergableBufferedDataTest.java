@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationServerSideMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MergableBufferedDataTest {
+    @Test
+    public void testMergeByEntityAndTimeBucket() {
+        MergableBufferedData<ServiceRelationServerSideMetrics> buffer = new MergableBufferedData<>();
+        buffer.accept(relation("service-a_service-b", 202010181200L));
+        buffer.accept(relation("service-a_service-b", 202010181200L));
+        buffer.accept(relation("service-a_service-b", 202010181201L));
+        buffer.accept(relation("service-a_service-c", 202010181200L));
+
+        List<ServiceRelationServerSideMetrics> result = buffer.read();
+        Assert.assertEquals(3, result.size());
+        Assert.assertTrue(buffer.read().isEmpty());
+    }
+
+    private static ServiceRelationServerSideMetrics relation(String entityId, long timeBucket) {
+        ServiceRelationServerSideMetrics metrics = new ServiceRelationServerSideMetrics();
+        metrics.setEntityId(entityId);
+        metrics.setTimeBucket(timeBucket);
+        return metrics;
+    }
+}
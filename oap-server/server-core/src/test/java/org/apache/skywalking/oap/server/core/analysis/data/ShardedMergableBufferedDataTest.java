@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.analysis.metrics.CountMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ShardedMergableBufferedDataTest {
+    @Test
+    public void testMergeAndRead() {
+        ShardedMergableBufferedData<MockCountMetrics> buffer = new ShardedMergableBufferedData<>(3);
+        buffer.accept(new MockCountMetrics("a", 1));
+        buffer.accept(new MockCountMetrics("b", 2));
+        buffer.accept(new MockCountMetrics("a", 3));
+
+        List<MockCountMetrics> result = buffer.read();
+        Assert.assertEquals(2, result.size());
+        for (MockCountMetrics metrics : result) {
+            Assert.assertEquals(metrics.id().equals("a") ? 4 : 2, metrics.getValue());
+        }
+
+        Assert.assertTrue(buffer.read().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentAccept() throws InterruptedException {
+        final ShardedMergableBufferedData<MockCountMetrics> buffer = new ShardedMergableBufferedData<>(4);
+        final int threads = 8;
+        final int loop = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < loop; i++) {
+                    buffer.accept(new MockCountMetrics("id-" + (i % 10), 1));
+                }
+                latch.countDown();
+            });
+        }
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        List<MockCountMetrics> result = buffer.read();
+        Assert.assertEquals(10, result.size());
+        long total = 0;
+        for (MockCountMetrics metrics : result) {
+            total += metrics.getValue();
+        }
+        Assert.assertEquals(threads * loop, total);
+    }
+
+    private static class MockCountMetrics extends CountMetrics {
+        private final String id;
+
+        private MockCountMetrics(String id, long value) {
+            this.id = id;
+            combine(value);
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MockCountMetrics && id.equals(((MockCountMetrics) o).id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.segment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentDataCodecTest {
+    private final byte[] data = ("\n$trace-id-of-the-segment" + String.join("", Arrays.asList(
+        "span-operation-name", "span-operation-name", "span-operation-name", "span-operation-name"
+    ))).getBytes(StandardCharsets.UTF_8);
+
+    @After
+    public void reset() {
+        SegmentDataCodec.setCOMPRESS(false);
+    }
+
+    @Test
+    public void testUncompressed() throws IOException {
+        Assert.assertSame(data, SegmentDataCodec.encode(data));
+        Assert.assertSame(data, SegmentDataCodec.decode(data));
+    }
+
+    @Test
+    public void testCompressed() throws IOException {
+        SegmentDataCodec.setCOMPRESS(true);
+        byte[] encoded = SegmentDataCodec.encode(data);
+        Assert.assertEquals(0, encoded[0]);
+        Assert.assertTrue(encoded.length < data.length);
+        Assert.assertArrayEquals(data, SegmentDataCodec.decode(encoded));
+    }
+
+    @Test
+    public void testReadUncompressedAfterCompressionActivated() throws IOException {
+        SegmentDataCodec.setCOMPRESS(true);
+        Assert.assertArrayEquals(data, SegmentDataCodec.decode(data));
+        Assert.assertEquals(0, SegmentDataCodec.decode(new byte[0]).length);
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownVersion() throws IOException {
+        SegmentDataCodec.decode(new byte[] {0, 99, 1, 2});
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        SegmentDataCodec.setCOMPRESS(true);
+        byte[] encoded = SegmentDataCodec.encode(data);
+        SegmentDataCodec.decode(Arrays.copyOf(encoded, encoded.length / 2));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IntKeyLongValueHashMapTestCase {
+
+    private IntKeyLongValueHashMap map;
+
+    @Before
+    public void init() {
+        map = new IntKeyLongValueHashMap();
+        map.valueAccumulation(5, 500L);
+        map.valueAccumulation(6, 600L);
+        map.valueAccumulation(1, 100L);
+        map.valueAccumulation(2, 200L);
+        map.valueAccumulation(7, 700L);
+    }
+
+    @Test
+    public void valueAccumulation() {
+        map.valueAccumulation(5, 1L);
+        map.valueAccumulation(-1, 1L);
+
+        Assert.assertEquals(501, map.get(5));
+        Assert.assertEquals(1, map.get(-1));
+        Assert.assertEquals(0, map.get(3));
+        Assert.assertFalse(map.hasKey(3));
+        Assert.assertEquals(6, map.size());
+        Assert.assertEquals(2102, map.sumOfValues());
+    }
+
+    @Test
+    public void rehash() {
+        IntKeyLongValueHashMap map = new IntKeyLongValueHashMap(2);
+        for (int i = 0; i < 1000; i++) {
+            map.valueAccumulation(i, i);
+            map.valueAccumulation(i, 1);
+        }
+
+        Assert.assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i + 1, map.get(i));
+        }
+        Assert.assertEquals(999, map.sortedKeys()[999]);
+    }
+
+    @Test
+    public void sortedKeys() {
+        Assert.assertArrayEquals(new int[] {1, 2, 5, 6, 7}, map.sortedKeys());
+    }
+
+    @Test
+    public void toObject() {
+        IntKeyLongValueHashMap map = new IntKeyLongValueHashMap("1,100|2,200|5,500|6,600|7,700");
+
+        Assert.assertArrayEquals(this.map.sortedKeys(), map.sortedKeys());
+        Assert.assertEquals(100, map.get(1));
+        Assert.assertEquals(700, map.get(7));
+    }
+
+    @Test
+    public void toStorageDataCompatibleWithDataTable() {
+        DataTable dataTable = new DataTable(map.toStorageData());
+
+        Assert.assertEquals("1,100|2,200|5,500|6,600|7,700", dataTable.toStorageData());
+    }
+
+    @Test
+    public void copyFrom() {
+        IntKeyLongValueHashMap map = new IntKeyLongValueHashMap();
+        map.copyFrom(this.map);
+        map.clear();
+        map.copyFrom(this.map);
+
+        Assert.assertEquals(5, map.size());
+        Assert.assertEquals(600, map.get(6));
+    }
+}
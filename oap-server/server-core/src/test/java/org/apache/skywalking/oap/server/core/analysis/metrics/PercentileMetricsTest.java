@@ -115,6 +115,49 @@ public class PercentileMetricsTest {
         }, metricsMocker.getValues());
     }
 
+    @Test
+    public void percentileTestWithRemoteDataset() {
+        PercentileMetricsTest.PercentileMetricsMocker remoteMocker = new PercentileMetricsTest.PercentileMetricsMocker();
+        remoteMocker.combine(50, precision);
+        remoteMocker.combine(50, precision);
+        remoteMocker.combine(110, precision);
+
+        PercentileMetricsTest.PercentileMetricsMocker metricsMocker = new PercentileMetricsTest.PercentileMetricsMocker();
+        metricsMocker.setPrecision(precision);
+        metricsMocker.setDataset(new DataTable(remoteMocker.getDataset().toStorageData()));
+        metricsMocker.combine(90, precision);
+        metricsMocker.combine(50, precision);
+
+        metricsMocker.calculate();
+
+        Assert.assertArrayEquals(new int[] {
+            50,
+            90,
+            110,
+            110,
+            110
+        }, metricsMocker.getValues());
+        Assert.assertEquals(3L, metricsMocker.getDataset().get("5").longValue());
+        Assert.assertEquals(1L, metricsMocker.getDataset().get("9").longValue());
+    }
+
+    @Test
+    public void testReadDatasetWithoutSideEffect() {
+        PercentileMetricsTest.PercentileMetricsMocker metricsMocker = new PercentileMetricsTest.PercentileMetricsMocker();
+        metricsMocker.combine(50, precision);
+
+        DataTable dataset = metricsMocker.getDataset();
+        metricsMocker.combine(50, precision);
+
+        // The returned dataset is a snapshot, the later combination is not folded into it.
+        Assert.assertEquals(1L, dataset.get("5").longValue());
+        Assert.assertEquals(2L, metricsMocker.getDataset().get("5").longValue());
+
+        metricsMocker.calculate();
+        Assert.assertEquals(2L, metricsMocker.getDataset().get("5").longValue());
+        Assert.assertSame(metricsMocker.getDataset(), metricsMocker.getDataset());
+    }
+
     public class PercentileMetricsMocker extends PercentileMetrics {
 
         @Override
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
+import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
+import org.apache.skywalking.oap.server.testing.module.ModuleManagerTesting;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MetricsPersistentWorkerTest {
+    private ModuleManagerTesting moduleManager;
+    private Model model;
+    private IMetricsDAO metricsDAO;
+
+    @Before
+    public void before() throws Exception {
+        moduleManager = new ModuleManagerTesting();
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricsCreator.class, new MetricsCreatorNoop());
+        ModuleDefineTesting coreModuleDefine = new ModuleDefineTesting();
+        moduleManager.put(CoreModule.NAME, coreModuleDefine);
+        coreModuleDefine.provider().registerServiceImplementation(
+            RemoteClientManager.class, mock(RemoteClientManager.class));
+
+        model = new Model(
+            "persistent_test", new ArrayList<>(), new ArrayList<>(), 0, DownSampling.Minute, false, false);
+        metricsDAO = mock(IMetricsDAO.class);
+        InsertRequest insertRequest = mock(InsertRequest.class);
+        UpdateRequest updateRequest = mock(UpdateRequest.class);
+        when(metricsDAO.prepareBatchInsert(eq(model), any(Metrics.class))).thenReturn(insertRequest);
+        when(metricsDAO.prepareBatchUpdate(eq(model), any(Metrics.class))).thenReturn(updateRequest);
+    }
+
+    @Test
+    public void testReadAfterPartiallyFailedRound() throws Exception {
+        MetricsPersistentWorker worker = new MetricsPersistentWorker(
+            moduleManager, model, metricsDAO, false, true, 0, new MetricsSessionCache.Budget(moduleManager, 0), true);
+        // The time bucket after the worker started is tracked.
+        final long timeBucket = TimeBucket.getTimeBucket(System.currentTimeMillis() + 60 * 1000, DownSampling.Minute);
+
+        when(metricsDAO.multiGet(eq(model), anyListOf(String.class))).thenReturn(Collections.emptyList());
+        worker.prepareBatch(Collections.singletonList(metrics("1", timeBucket)), new ArrayList<>());
+        // The new metrics is inserted without reading the storage.
+        verify(metricsDAO, never()).multiGet(eq(model), anyListOf(String.class));
+        verify(metricsDAO, times(1)).prepareBatchInsert(eq(model), any(Metrics.class));
+        // The batch threw, while the metrics could be written.
+        worker.afterRoundExecuted(false);
+
+        when(metricsDAO.multiGet(model, Collections.singletonList("1"))).thenReturn(
+            Collections.singletonList(metrics("1", timeBucket)));
+        List<PrepareRequest> requests = new ArrayList<>();
+        worker.prepareBatch(Collections.singletonList(metrics("1", timeBucket)), requests);
+        // The metrics is read from the storage and updated, rather than overridden by a new one.
+        verify(metricsDAO, times(1)).multiGet(model, Collections.singletonList("1"));
+        verify(metricsDAO, times(1)).prepareBatchInsert(eq(model), any(Metrics.class));
+        verify(metricsDAO, times(1)).prepareBatchUpdate(eq(model), any(Metrics.class));
+        worker.afterRoundExecuted(true);
+
+        // The other new metrics of the time bucket are read too, they could be written in the failed round.
+        worker.prepareBatch(Collections.singletonList(metrics("2", timeBucket)), new ArrayList<>());
+        verify(metricsDAO, times(1)).multiGet(model, Collections.singletonList("2"));
+    }
+
+    private static Metrics metrics(String id, long timeBucket) {
+        Metrics metrics = new MetricsSessionCacheTest.MetricsMocker(id);
+        metrics.setTimeBucket(timeBucket);
+        return metrics;
+    }
+}
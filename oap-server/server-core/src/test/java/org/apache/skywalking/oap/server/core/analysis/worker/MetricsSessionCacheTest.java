@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.ArrayList;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
+import org.apache.skywalking.oap.server.testing.module.ModuleManagerTesting;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsSessionCacheTest {
+    private ModuleManagerTesting moduleManager;
+    private Model model;
+
+    @Before
+    public void before() {
+        moduleManager = new ModuleManagerTesting();
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricsCreator.class, new MetricsCreatorNoop());
+
+        model = new Model("test", new ArrayList<>(), new ArrayList<>(), 0, DownSampling.Minute, false, false);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        MetricsSessionCache cache = new MetricsSessionCache(
+            moduleManager, model, 2, new MetricsSessionCache.Budget(moduleManager, 0));
+
+        cache.put(new MetricsMocker("1"));
+        cache.put(new MetricsMocker("2"));
+        Assert.assertNotNull(cache.get(new MetricsMocker("1")));
+        cache.put(new MetricsMocker("3"));
+        // The metrics of the batch are kept until the batch is processed.
+        Assert.assertEquals(3, cache.size());
+
+        cache.evictIfNecessary();
+        Assert.assertEquals(2, cache.size());
+        Assert.assertTrue(cache.containsKey(new MetricsMocker("1")));
+        Assert.assertFalse(cache.containsKey(new MetricsMocker("2")));
+        Assert.assertTrue(cache.containsKey(new MetricsMocker("3")));
+    }
+
+    @Test
+    public void testBytesBudgetSharedByModels() {
+        // 10 metrics of 164 bytes, the fair share of each model is 5 metrics.
+        MetricsSessionCache.Budget budget = new MetricsSessionCache.Budget(moduleManager, 1640);
+        MetricsSessionCache cache1 = new MetricsSessionCache(moduleManager, model, 0, budget);
+        MetricsSessionCache cache2 = new MetricsSessionCache(moduleManager, model, 0, budget);
+
+        for (int i = 0; i < 8; i++) {
+            cache1.put(new MetricsMocker(String.valueOf(i)));
+        }
+        cache1.evictIfNecessary();
+        // More than the fair share is allowed while the budget isn't exceeded.
+        Assert.assertEquals(8, cache1.size());
+
+        for (int i = 0; i < 4; i++) {
+            cache2.put(new MetricsMocker("a" + i));
+        }
+        Assert.assertTrue(budget.isExceeded());
+        cache2.evictIfNecessary();
+        // The model under its fair share is not evicted because of the others.
+        Assert.assertEquals(4, cache2.size());
+        cache1.evictIfNecessary();
+        Assert.assertEquals(6, cache1.size());
+        Assert.assertFalse(budget.isExceeded());
+
+        cache1.clear();
+        cache2.clear();
+        Assert.assertEquals(0, cache1.size());
+        Assert.assertEquals(0, cache1.usedBytes());
+        Assert.assertFalse(budget.isExceeded());
+    }
+
+    @Test
+    public void testCountBytesAfterCombine() {
+        MetricsSessionCache.Budget budget = new MetricsSessionCache.Budget(moduleManager, 1640);
+        MetricsSessionCache cache = new MetricsSessionCache(moduleManager, model, 0, budget);
+        MetricsMocker metrics = new MetricsMocker("1");
+        cache.put(metrics);
+        cache.put(new MetricsMocker("2"));
+        Assert.assertEquals(328, cache.usedBytes());
+
+        metrics.bytes = 2000;
+        cache.updated(metrics);
+        Assert.assertEquals(2228, cache.usedBytes());
+        Assert.assertTrue(budget.isExceeded());
+
+        cache.evictIfNecessary();
+        // The grown one is the latest used.
+        Assert.assertEquals(1, cache.size());
+        Assert.assertTrue(cache.containsKey(metrics));
+    }
+
+    @Test
+    public void testExpire() {
+        MetricsSessionCache cache = new MetricsSessionCache(
+            moduleManager, model, 0, new MetricsSessionCache.Budget(moduleManager, 0));
+
+        cache.put(new MetricsMocker("1"));
+        cache.expire(MetricsSessionCache.SURVIVAL_TIME / 2);
+        cache.put(new MetricsMocker("2"));
+        cache.expire(MetricsSessionCache.SURVIVAL_TIME / 2 + 1);
+
+        Assert.assertFalse(cache.containsKey(new MetricsMocker("1")));
+        Assert.assertTrue(cache.containsKey(new MetricsMocker("2")));
+    }
+
+    public static class MetricsMocker extends Metrics {
+        private final String id;
+        private long bytes = 100;
+
+        public MetricsMocker(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public void combine(Metrics metrics) {
+
+        }
+
+        @Override
+        public void calculate() {
+
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return bytes;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return id.hashCode();
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return RemoteData.newBuilder().addDataStrings(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof MetricsMocker && id.equals(((MetricsMocker) obj).id);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PersistedIdsTrackerTest {
+    private static final long ONE_MINUTE = 60 * 1000;
+
+    private AtomicLong clusterChangedTime;
+    private PersistedIdsTracker tracker;
+    private long now;
+
+    @Before
+    public void before() {
+        clusterChangedTime = new AtomicLong();
+        tracker = new PersistedIdsTracker(DownSampling.Minute, clusterChangedTime::get);
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    public void testCurrentBucketIsNotTracked() {
+        Metrics metrics = metrics("1", now);
+        Assert.assertFalse(tracker.isNew(metrics));
+        tracker.persisted(metrics);
+        Assert.assertFalse(tracker.isNew(metrics("2", now - ONE_MINUTE)));
+    }
+
+    @Test
+    public void testNewMetricsInTrackedBucket() {
+        Metrics metrics = metrics("1", now + ONE_MINUTE);
+        Assert.assertTrue(tracker.isNew(metrics));
+        tracker.persisted(metrics);
+        Assert.assertFalse(tracker.isNew(metrics("1", now + ONE_MINUTE)));
+        Assert.assertTrue(tracker.isNew(metrics("2", now + ONE_MINUTE)));
+    }
+
+    @Test
+    public void testOldestBucketRolledOff() {
+        for (int i = 1; i <= PersistedIdsTracker.RETAINED_BUCKETS + 1; i++) {
+            tracker.persisted(metrics("1", now + i * ONE_MINUTE));
+        }
+        // The first tracked bucket has been rolled off, never treat its metrics as new again.
+        Assert.assertFalse(tracker.isNew(metrics("2", now + ONE_MINUTE)));
+        Assert.assertTrue(tracker.isNew(metrics("2", now + 2 * ONE_MINUTE)));
+    }
+
+    @Test
+    public void testUntrackAfterFailedRound() {
+        tracker.persisted(metrics("1", now + ONE_MINUTE));
+        // The round of metrics 2 failed, it could be persisted or not.
+        tracker.untrack(metrics("2", now + ONE_MINUTE));
+
+        Assert.assertFalse(tracker.isNew(metrics("2", now + ONE_MINUTE)));
+        Assert.assertFalse(tracker.isNew(metrics("3", now + ONE_MINUTE)));
+        tracker.persisted(metrics("3", now + ONE_MINUTE));
+        Assert.assertFalse(tracker.isNew(metrics("4", now + ONE_MINUTE)));
+        Assert.assertTrue(tracker.isNew(metrics("2", now + 2 * ONE_MINUTE)));
+    }
+
+    @Test
+    public void testClusterChanged() {
+        tracker.persisted(metrics("1", now + ONE_MINUTE));
+        clusterChangedTime.set(now + ONE_MINUTE);
+
+        // The other OAP nodes could have persisted the metrics before the change.
+        Assert.assertFalse(tracker.isNew(metrics("2", now + ONE_MINUTE)));
+        Assert.assertTrue(tracker.isNew(metrics("2", now + 2 * ONE_MINUTE)));
+    }
+
+    private Metrics metrics(String id, long timestamp) {
+        Metrics metrics = new MetricsSessionCacheTest.MetricsMocker(id);
+        metrics.setTimeBucket(TimeBucket.getTimeBucket(timestamp, DownSampling.Minute));
+        return metrics;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.query.enumeration.Scope;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.Entity;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.sql.Function;
+import org.apache.skywalking.oap.server.core.query.type.KVInt;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnMetadata;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
+import org.apache.skywalking.oap.server.testing.module.ModuleManagerTesting;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsQueryCacheTest {
+    private MetricsQueryCache cache;
+    private MetricsCondition condition;
+    private List<Duration> reads;
+
+    @Before
+    public void before() {
+        ModuleManagerTesting moduleManager = new ModuleManagerTesting();
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricsCreator.class, new MetricsCreatorNoop());
+
+        ValueColumnMetadata.INSTANCE.putIfAbsent(
+            "query_cache_test", "value", Column.ValueDataType.COMMON_VALUE, Function.Avg, 0);
+        cache = new MetricsQueryCache(moduleManager, 100, 30);
+        condition = new MetricsCondition();
+        condition.setName("query_cache_test");
+        Entity entity = new Entity();
+        entity.setScope(Scope.All);
+        condition.setEntity(entity);
+        reads = new ArrayList<>();
+    }
+
+    @Test
+    public void testReadClosedBucketsFromCache() throws Exception {
+        MetricsValues values = cache.readMetricsValues(
+            condition, duration("2020-07-29 1425", "2020-07-29 1427"), this::read);
+        assertValues(values, 202007291425L, 202007291426L, 202007291427L);
+        Assert.assertEquals(1, reads.size());
+
+        values = cache.readMetricsValues(condition, duration("2020-07-29 1425", "2020-07-29 1427"), this::read);
+        assertValues(values, 202007291425L, 202007291426L, 202007291427L);
+        Assert.assertEquals(1, reads.size());
+
+        // Only the time buckets not cached are read.
+        values = cache.readMetricsValues(condition, duration("2020-07-29 1426", "2020-07-29 1429"), this::read);
+        assertValues(values, 202007291426L, 202007291427L, 202007291428L, 202007291429L);
+        Assert.assertEquals(2, reads.size());
+        Assert.assertEquals("2020-07-29 1428", reads.get(1).getStart());
+        Assert.assertEquals("2020-07-29 1429", reads.get(1).getEnd());
+    }
+
+    @Test
+    public void testOpenBucketNotCached() throws Exception {
+        long now = System.currentTimeMillis();
+        String end = DurationUtils.INSTANCE.convertToDateStr(
+            Step.MINUTE, DurationUtils.INSTANCE.timestampToTimeBucket(Step.MINUTE, now));
+        String start = DurationUtils.INSTANCE.convertToDateStr(
+            Step.MINUTE, DurationUtils.INSTANCE.timestampToTimeBucket(Step.MINUTE, now - 10 * 60 * 1000));
+
+        cache.readMetricsValues(condition, duration(start, end), this::read);
+        cache.readMetricsValues(condition, duration(start, end), this::read);
+        Assert.assertEquals(2, reads.size());
+        Assert.assertNotEquals(start, reads.get(1).getStart());
+    }
+
+    @Test
+    public void testAbsentValueNotCached() throws Exception {
+        MetricsValues values = cache.readMetricsValues(
+            condition, duration("2020-07-29 1425", "2020-07-29 1426"), this::readNothing);
+        Assert.assertEquals(0, values.getValues().findValue("202007291425", -1));
+
+        // The absent values could be persisted later, they are read from the storage again.
+        values = cache.readMetricsValues(condition, duration("2020-07-29 1425", "2020-07-29 1426"), this::read);
+        assertValues(values, 202007291425L, 202007291426L);
+        Assert.assertEquals(2, reads.size());
+        Assert.assertEquals("2020-07-29 1425", reads.get(1).getStart());
+    }
+
+    @Test
+    public void testReadLabeledValues() throws Exception {
+        List<String> labels = Arrays.asList("400", "200");
+        List<MetricsValues> values = cache.readLabeledMetricsValues(
+            condition, labels, duration("2020-07-29 1425", "2020-07-29 1426"), this::readLabeled);
+        values = cache.readLabeledMetricsValues(
+            condition, labels, duration("2020-07-29 1425", "2020-07-29 1426"), this::readLabeled);
+        Assert.assertEquals(1, reads.size());
+        Assert.assertEquals(2, values.size());
+        Assert.assertEquals("200", values.get(0).getLabel());
+        Assert.assertEquals(
+            202007291426L + 200, values.get(0).getValues().findValue("202007291426", 0));
+        Assert.assertEquals("400", values.get(1).getLabel());
+        Assert.assertEquals(
+            202007291425L + 400, values.get(1).getValues().findValue("202007291425", 0));
+
+        // A new label is not cached.
+        cache.readLabeledMetricsValues(
+            condition, Arrays.asList("200", "500"), duration("2020-07-29 1425", "2020-07-29 1426"),
+            this::readLabeled
+        );
+        Assert.assertEquals(2, reads.size());
+    }
+
+    private Duration duration(String start, String end) {
+        Duration duration = new Duration();
+        duration.setStart(start);
+        duration.setEnd(end);
+        duration.setStep(Step.MINUTE);
+        return duration;
+    }
+
+    /**
+     * Mock the storage, the value of each time bucket is the time bucket itself.
+     */
+    private MetricsValues read(Duration duration) {
+        reads.add(duration);
+        MetricsValues values = new MetricsValues();
+        duration.assembleDurationPoints().forEach(point -> {
+            KVInt kvInt = new KVInt();
+            kvInt.setId(String.valueOf(point.getPoint()));
+            kvInt.setValue(point.getPoint());
+            values.getValues().addKVInt(kvInt);
+        });
+        return values;
+    }
+
+    private MetricsValues readNothing(Duration duration) {
+        reads.add(duration);
+        return new MetricsValues();
+    }
+
+    private List<MetricsValues> readLabeled(Duration duration) {
+        reads.add(duration);
+        List<MetricsValues> result = new ArrayList<>();
+        for (String label : Arrays.asList("200", "400", "500")) {
+            MetricsValues values = new MetricsValues();
+            values.setLabel(label);
+            duration.assembleDurationPoints().forEach(point -> {
+                KVInt kvInt = new KVInt();
+                kvInt.setId(String.valueOf(point.getPoint()));
+                kvInt.setValue(point.getPoint() + Long.parseLong(label));
+                values.getValues().addKVInt(kvInt);
+            });
+            result.add(values);
+        }
+        return result;
+    }
+
+    private void assertValues(MetricsValues values, long... timeBuckets) {
+        for (long timeBucket : timeBuckets) {
+            Assert.assertEquals(timeBucket, values.getValues().findValue(String.valueOf(timeBucket), 0));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.IDManager;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationClientSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationServerSideMetrics;
+import org.apache.skywalking.oap.server.core.query.type.Call;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.ServiceRelation;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.TopologySnapshots;
+import org.apache.skywalking.oap.server.core.source.DetectPoint;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ServiceTopologySnapshotsTest {
+    private final Model serverSideModel = new Model(
+        ServiceRelationServerSideMetrics.INDEX_NAME, new ArrayList<>(), new ArrayList<>(), 0, DownSampling.Minute,
+        false, false
+    );
+    private final Model clientSideModel = new Model(
+        ServiceRelationClientSideMetrics.INDEX_NAME, new ArrayList<>(), new ArrayList<>(), 0, DownSampling.Minute,
+        false, false
+    );
+    private long startBucket;
+
+    @Before
+    public void before() {
+        ServiceTopologySnapshots.INSTANCE.start(2);
+        startBucket = ServiceTopologySnapshots.INSTANCE.coveredFrom(minuteBucket(0));
+    }
+
+    @After
+    public void after() {
+        ServiceTopologySnapshots.INSTANCE.start(0);
+    }
+
+    @Test
+    public void testDisabled() {
+        ServiceTopologySnapshots.INSTANCE.start(0);
+        Assert.assertFalse(ServiceTopologySnapshots.INSTANCE.accept(serverSideModel));
+        Assert.assertEquals(Long.MAX_VALUE, ServiceTopologySnapshots.INSTANCE.coveredFrom(minuteBucket(0)));
+    }
+
+    @Test
+    public void testMergeBuckets() {
+        Assert.assertTrue(ServiceTopologySnapshots.INSTANCE.accept(serverSideModel));
+        Assert.assertTrue(ServiceTopologySnapshots.INSTANCE.accept(clientSideModel));
+
+        ServiceTopologySnapshots.INSTANCE.record(serverSideModel, serverSide(startBucket, "a", "b", 1));
+        ServiceTopologySnapshots.INSTANCE.record(serverSideModel, serverSide(next(startBucket), "a", "b", 1));
+        ServiceTopologySnapshots.INSTANCE.record(serverSideModel, serverSide(next(startBucket), "b", "c", 2));
+        ServiceTopologySnapshots.INSTANCE.record(clientSideModel, clientSide(next(startBucket), "a", "b", 3));
+
+        TopologySnapshots snapshots = ServiceTopologySnapshots.INSTANCE.read(startBucket, next(startBucket));
+        Assert.assertEquals(startBucket, snapshots.getCoveredFrom());
+        List<Call.CallDetail> serverCalls = ServiceTopologySnapshots.toCalls(
+            snapshots.getServerSideList(), DetectPoint.SERVER);
+        Assert.assertEquals(2, serverCalls.size());
+        serverCalls.forEach(call -> Assert.assertEquals(DetectPoint.SERVER, call.getDetectPoint()));
+
+        List<Call.CallDetail> clientCalls = ServiceTopologySnapshots.toCalls(
+            snapshots.getClientSideList(), DetectPoint.CLIENT);
+        Assert.assertEquals(1, clientCalls.size());
+        Assert.assertEquals(DetectPoint.CLIENT, clientCalls.get(0).getDetectPoint());
+        Assert.assertEquals(3, clientCalls.get(0).getComponentId().intValue());
+
+        Assert.assertEquals(1, ServiceTopologySnapshots.INSTANCE.read(startBucket, startBucket).getServerSideCount());
+    }
+
+    @Test
+    public void testEvictEldestBucket() {
+        final long secondBucket = next(startBucket);
+        final long thirdBucket = next(secondBucket);
+        ServiceTopologySnapshots.INSTANCE.record(serverSideModel, serverSide(startBucket, "a", "b", 1));
+        ServiceTopologySnapshots.INSTANCE.record(serverSideModel, serverSide(secondBucket, "b", "c", 1));
+        Assert.assertEquals(startBucket, ServiceTopologySnapshots.INSTANCE.coveredFrom(startBucket));
+
+        ServiceTopologySnapshots.INSTANCE.record(serverSideModel, serverSide(thirdBucket, "c", "d", 1));
+        Assert.assertEquals(startBucket, ServiceTopologySnapshots.INSTANCE.coveredFrom(thirdBucket));
+        Assert.assertEquals(0, ServiceTopologySnapshots.INSTANCE.read(startBucket, startBucket).getServerSideCount());
+        Assert.assertEquals(2, ServiceTopologySnapshots.INSTANCE.read(startBucket, thirdBucket).getServerSideCount());
+
+        ServiceTopologySnapshots.INSTANCE.record(serverSideModel, serverSide(next(thirdBucket), "d", "e", 1));
+        Assert.assertEquals(secondBucket, ServiceTopologySnapshots.INSTANCE.coveredFrom(thirdBucket));
+    }
+
+    @Test
+    public void testIgnoreBucketsBeforeStart() {
+        final long earlierBucket = minuteBucket(-10);
+        ServiceTopologySnapshots.INSTANCE.record(serverSideModel, serverSide(earlierBucket, "a", "b", 1));
+        Assert.assertEquals(0, ServiceTopologySnapshots.INSTANCE.read(earlierBucket, startBucket).getServerSideCount());
+    }
+
+    @Test
+    public void testClusterChanged() {
+        ServiceTopologySnapshots.INSTANCE.record(serverSideModel, serverSide(startBucket, "a", "b", 1));
+        final long changedBucket = next(startBucket);
+        ServiceTopologySnapshots.INSTANCE.clusterChanged(TimeBucket.getTimestamp(changedBucket, DownSampling.Minute));
+
+        // The relations before the change could be persisted by the other nodes, read them from the storage.
+        Assert.assertEquals(changedBucket, ServiceTopologySnapshots.INSTANCE.coveredFrom(startBucket));
+        TopologySnapshots snapshots = ServiceTopologySnapshots.INSTANCE.read(startBucket, changedBucket);
+        Assert.assertEquals(changedBucket, snapshots.getCoveredFrom());
+        Assert.assertEquals(0, snapshots.getServerSideCount());
+
+        ServiceTopologySnapshots.INSTANCE.record(serverSideModel, serverSide(startBucket, "a", "c", 1));
+        ServiceTopologySnapshots.INSTANCE.record(serverSideModel, serverSide(changedBucket, "a", "b", 1));
+        Assert.assertEquals(1, ServiceTopologySnapshots.INSTANCE.read(startBucket, changedBucket).getServerSideCount());
+    }
+
+    @Test
+    public void testMergeSnapshotsOfNodes() {
+        List<ServiceRelation> relations = new ArrayList<>();
+        relations.add(ServiceRelation.newBuilder().setEntityId(relationId("a", "b")).setComponentId(1).build());
+        relations.add(ServiceRelation.newBuilder().setEntityId(relationId("a", "b")).setComponentId(1).build());
+        relations.add(ServiceRelation.newBuilder().setEntityId(relationId("b", "c")).setComponentId(2).build());
+        Assert.assertEquals(2, ServiceTopologySnapshots.toCalls(relations, DetectPoint.SERVER).size());
+    }
+
+    private static long minuteBucket(int minutes) {
+        return TimeBucket.getTimeBucket(System.currentTimeMillis() + minutes * 60_000L, DownSampling.Minute);
+    }
+
+    private static long next(long minuteBucket) {
+        return TimeBucket.getTimeBucket(
+            TimeBucket.getTimestamp(minuteBucket, DownSampling.Minute) + 60_000L, DownSampling.Minute);
+    }
+
+    private static ServiceRelationServerSideMetrics serverSide(long timeBucket, String source, String dest,
+                                                               int componentId) {
+        ServiceRelationServerSideMetrics metrics = new ServiceRelationServerSideMetrics();
+        metrics.setTimeBucket(timeBucket);
+        metrics.setEntityId(relationId(source, dest));
+        metrics.setComponentId(componentId);
+        return metrics;
+    }
+
+    private static ServiceRelationClientSideMetrics clientSide(long timeBucket, String source, String dest,
+                                                               int componentId) {
+        ServiceRelationClientSideMetrics metrics = new ServiceRelationClientSideMetrics();
+        metrics.setTimeBucket(timeBucket);
+        metrics.setEntityId(relationId(source, dest));
+        metrics.setComponentId(componentId);
+        return metrics;
+    }
+
+    private static String relationId(String source, String dest) {
+        return IDManager.ServiceID.buildRelationId(new IDManager.ServiceID.ServiceRelationDefine(
+            IDManager.ServiceID.buildId(source, true), IDManager.ServiceID.buildId(dest, true)));
+    }
+}
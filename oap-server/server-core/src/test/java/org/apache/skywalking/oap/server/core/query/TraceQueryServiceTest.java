@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.apm.network.language.agent.v3.RefType;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentReference;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.config.IComponentLibraryCatalogService;
+import org.apache.skywalking.oap.server.core.query.type.Span;
+import org.apache.skywalking.oap.server.core.query.type.Trace;
+import org.apache.skywalking.oap.server.core.storage.StorageModule;
+import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
+import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
+import org.apache.skywalking.oap.server.testing.module.ModuleManagerTesting;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TraceQueryServiceTest {
+    private static final String TRACE_ID = "trace";
+
+    private ModuleManagerTesting moduleManager;
+    private ITraceQueryDAO traceQueryDAO;
+
+    @Before
+    public void before() {
+        moduleManager = new ModuleManagerTesting();
+        traceQueryDAO = mock(ITraceQueryDAO.class);
+        ModuleDefineTesting storageModuleDefine = new ModuleDefineTesting();
+        storageModuleDefine.provider().registerServiceImplementation(ITraceQueryDAO.class, traceQueryDAO);
+        moduleManager.put(StorageModule.NAME, storageModuleDefine);
+        ModuleDefineTesting coreModuleDefine = new ModuleDefineTesting();
+        coreModuleDefine.provider().registerServiceImplementation(
+            IComponentLibraryCatalogService.class, mock(IComponentLibraryCatalogService.class));
+        moduleManager.put(CoreModule.NAME, coreModuleDefine);
+    }
+
+    @Test
+    public void testSortSpansByTree() throws IOException {
+        when(traceQueryDAO.queryByTraceId(TRACE_ID)).thenReturn(Arrays.asList(
+            segment("child", 2, SpanObject.newBuilder().setSpanId(0).setParentSpanId(-1).setStartTime(2)
+                                          .addRefs(SegmentReference.newBuilder()
+                                                                   .setRefType(RefType.CrossProcess)
+                                                                   .setTraceId(TRACE_ID)
+                                                                   .setParentTraceSegmentId("parent")
+                                                                   .setParentSpanId(1))),
+            segment("parent", 1,
+                    SpanObject.newBuilder().setSpanId(0).setParentSpanId(-1).setStartTime(1),
+                    SpanObject.newBuilder().setSpanId(1).setParentSpanId(0).setStartTime(1)
+            )
+        ));
+
+        Trace trace = new TraceQueryService(moduleManager, 0, 2).queryTrace(TRACE_ID);
+        List<Span> spans = trace.getSpans();
+        Assert.assertEquals(3, spans.size());
+        Assert.assertEquals("parent", spans.get(0).getSegmentId());
+        Assert.assertTrue(spans.get(0).isRoot());
+        Assert.assertEquals(1, spans.get(1).getSpanId());
+        Assert.assertEquals("child", spans.get(2).getSegmentId());
+        Assert.assertFalse(spans.get(2).isRoot());
+        Assert.assertTrue(spans.get(0).getTags().isEmpty());
+    }
+
+    @Test
+    public void testTruncateSpans() throws IOException {
+        List<SegmentRecord> segments = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            segments.add(segment(
+                "segment" + i, i,
+                SpanObject.newBuilder().setSpanId(0).setParentSpanId(-1).setStartTime(i),
+                SpanObject.newBuilder().setSpanId(1).setParentSpanId(0).setStartTime(i)
+            ));
+        }
+        when(traceQueryDAO.queryByTraceId(TRACE_ID)).thenReturn(segments);
+
+        Trace trace = new TraceQueryService(moduleManager, 3, 1).queryTrace(TRACE_ID);
+        List<Span> spans = trace.getSpans();
+        Assert.assertEquals(3, spans.size());
+        Assert.assertEquals("segment0", spans.get(0).getSegmentId());
+        Assert.assertEquals("segment1", spans.get(2).getSegmentId());
+        Assert.assertEquals(TraceQueryService.TRUNCATED_TAG_KEY, spans.get(0).getTags().get(0).getKey());
+        Assert.assertEquals("3", spans.get(0).getTags().get(0).getValue());
+    }
+
+    private static SegmentRecord segment(String segmentId, long startTime, SpanObject.Builder... spans) {
+        SegmentObject.Builder segmentObject = SegmentObject.newBuilder()
+                                                           .setTraceId(TRACE_ID)
+                                                           .setTraceSegmentId(segmentId)
+                                                           .setService("service")
+                                                           .setServiceInstance("instance");
+        for (SpanObject.Builder span : spans) {
+            segmentObject.addSpans(span);
+        }
+        SegmentRecord record = new SegmentRecord();
+        record.setSegmentId(segmentId);
+        record.setTraceId(TRACE_ID);
+        record.setStartTime(startTime);
+        record.setDataBinary(segmentObject.build().toByteArray());
+        return record;
+    }
+}
@@ -18,14 +18,20 @@
 
 package org.apache.skywalking.oap.server.core.remote;
 
+import com.google.protobuf.ByteString;
+import io.grpc.Status;
 import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.inprocess.InProcessServerBuilder;
 import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteBinaryMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
@@ -55,10 +61,79 @@ public class RemoteServiceHandlerTestCase {
     @Rule
     public final GrpcCleanupRule gRPCCleanup = new GrpcCleanupRule();
 
+    private static final String TEST_WORKER_ID = "mock-worker";
+
     @Test
     public void callTest() throws DuplicateProviderException, ProviderNotFoundException, IOException {
-        final String testWorkerId = "mock-worker";
+        RemoteServiceGrpc.RemoteServiceStub remoteServiceStub = startServer();
+
+        StreamObserver<RemoteMessage> streamObserver = remoteServiceStub.call(new StreamObserver<Empty>() {
+            @Override
+            public void onNext(Empty empty) {
+
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+
+            }
+
+            @Override
+            public void onCompleted() {
+
+            }
+        });
+
+        RemoteMessage.Builder remoteMessage = RemoteMessage.newBuilder();
+        remoteMessage.setNextWorkerName(TEST_WORKER_ID);
+
+        RemoteData.Builder remoteData = RemoteData.newBuilder();
+        remoteData.addDataStrings("test1");
+        remoteData.addDataStrings("test2");
+
+        remoteData.addDataLongs(10);
+        remoteData.addDataLongs(20);
+        remoteMessage.setRemoteData(remoteData);
+
+        streamObserver.onNext(remoteMessage.build());
+        streamObserver.onCompleted();
+    }
+
+    @Test
+    public void callBinaryFailOnUndecodableMessage() throws DuplicateProviderException, ProviderNotFoundException,
+        IOException {
+        RemoteServiceGrpc.RemoteServiceStub remoteServiceStub = startServer();
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        StreamObserver<RemoteBinaryMessage> streamObserver = remoteServiceStub.callBinary(new StreamObserver<Empty>() {
+            @Override
+            public void onNext(Empty empty) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                error.set(throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.set(true);
+            }
+        });
+
+        // The decoder is stateful, the stream fails rather than decoding the following messages.
+        byte[] malformed = new byte[12];
+        Arrays.fill(malformed, (byte) 0xFF);
+        streamObserver.onNext(RemoteBinaryMessage.newBuilder().setData(ByteString.copyFrom(malformed)).build());
+
+        Assert.assertNotNull(error.get());
+        Assert.assertEquals(Status.Code.INVALID_ARGUMENT, Status.fromThrowable(error.get()).getCode());
+        Assert.assertFalse(completed.get());
+    }
 
+    private RemoteServiceGrpc.RemoteServiceStub startServer() throws DuplicateProviderException,
+        ProviderNotFoundException, IOException {
         ModuleManagerTesting moduleManager = new ModuleManagerTesting();
         ModuleDefineTesting moduleDefine = new ModuleDefineTesting();
         moduleManager.put(CoreModule.NAME, moduleDefine);
@@ -68,7 +143,7 @@ public class RemoteServiceHandlerTestCase {
         moduleDefine.provider().registerServiceImplementation(IWorkerInstanceSetter.class, workerInstancesService);
 
         TestWorker worker = new TestWorker(moduleManager);
-        workerInstancesService.put(testWorkerId, worker, TestRemoteData.class);
+        workerInstancesService.put(TEST_WORKER_ID, worker, TestRemoteData.class);
 
         String serverName = InProcessServerBuilder.generateName();
         MetricsCreator metricsCreator = mock(MetricsCreator.class);
@@ -105,41 +180,10 @@ public class RemoteServiceHandlerTestCase {
                                                    .build()
                                                    .start());
 
-        RemoteServiceGrpc.RemoteServiceStub remoteServiceStub = RemoteServiceGrpc.newStub(gRPCCleanup.register(InProcessChannelBuilder
+        return RemoteServiceGrpc.newStub(gRPCCleanup.register(InProcessChannelBuilder
             .forName(serverName)
             .directExecutor()
             .build()));
-
-        StreamObserver<RemoteMessage> streamObserver = remoteServiceStub.call(new StreamObserver<Empty>() {
-            @Override
-            public void onNext(Empty empty) {
-
-            }
-
-            @Override
-            public void onError(Throwable throwable) {
-
-            }
-
-            @Override
-            public void onCompleted() {
-
-            }
-        });
-
-        RemoteMessage.Builder remoteMessage = RemoteMessage.newBuilder();
-        remoteMessage.setNextWorkerName(testWorkerId);
-
-        RemoteData.Builder remoteData = RemoteData.newBuilder();
-        remoteData.addDataStrings("test1");
-        remoteData.addDataStrings("test2");
-
-        remoteData.addDataLongs(10);
-        remoteData.addDataLongs(20);
-        remoteMessage.setRemoteData(remoteData);
-
-        streamObserver.onNext(remoteMessage.build());
-        streamObserver.onCompleted();
     }
 
     static class TestRemoteData extends StreamData {
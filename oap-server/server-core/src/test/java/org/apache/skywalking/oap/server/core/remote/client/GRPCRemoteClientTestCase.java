@@ -18,12 +18,17 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.RemoteServiceHandler;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceSetter;
@@ -31,6 +36,7 @@ import org.apache.skywalking.oap.server.core.worker.WorkerInstancesService;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
@@ -50,6 +56,7 @@ public class GRPCRemoteClientTestCase {
 
     private final String nextWorkerName = "mock-worker";
     private ModuleManagerTesting moduleManager;
+    private final AtomicInteger received = new AtomicInteger(0);
     @Rule
     public final GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
 
@@ -65,10 +72,7 @@ public class GRPCRemoteClientTestCase {
 
         TestWorker worker = new TestWorker(moduleManager);
         workerInstancesService.put(nextWorkerName, worker, TestStreamData.class);
-    }
 
-    @Test
-    public void testPush() throws InterruptedException {
         MetricsCreator metricsCreator = mock(MetricsCreator.class);
         when(metricsCreator.createCounter(any(), any(), any(), any())).thenReturn(new CounterMetrics() {
             @Override
@@ -94,11 +98,47 @@ public class GRPCRemoteClientTestCase {
             }
         });
 
+        when(metricsCreator.createGauge(any(), any(), any(), any())).thenReturn(new GaugeMetrics() {
+            @Override
+            public void inc() {
+
+            }
+
+            @Override
+            public void inc(double value) {
+
+            }
+
+            @Override
+            public void dec() {
+
+            }
+
+            @Override
+            public void dec(double value) {
+
+            }
+
+            @Override
+            public void setValue(double value) {
+
+            }
+
+            @Override
+            public double getValue() {
+                return 0;
+            }
+        });
+
         ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
         moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
         telemetryModuleDefine.provider().registerServiceImplementation(MetricsCreator.class, metricsCreator);
 
         grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
+    }
+
+    @Test
+    public void testPush() throws InterruptedException {
 
         Address address = new Address("not-important", 11, false);
         GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, address, 1, 10, 10, null));
@@ -111,6 +151,71 @@ public class GRPCRemoteClientTestCase {
         }
 
         TimeUnit.SECONDS.sleep(2);
+        Assert.assertEquals(12, received.get());
+    }
+
+    @Test
+    public void testPushThroughLongLivedStream() throws InterruptedException {
+        Address address = new Address("not-important", 11, false);
+        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, address, 1, 10, 10, null, true, 1));
+        remoteClient.connect();
+
+        doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
+
+        // Multiple batches share the same stream, even though only one stream is allowed in flight.
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 10; j++) {
+                remoteClient.push(nextWorkerName, new TestStreamData());
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+
+        TimeUnit.SECONDS.sleep(2);
+        Assert.assertEquals(30, received.get());
+        remoteClient.close();
+    }
+
+    @Test
+    public void testReleaseStalledStreamByDeadline() throws InterruptedException {
+        // The peer receives the messages, but never acknowledges the stream.
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceGrpc.RemoteServiceImplBase() {
+            @Override
+            public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
+                return new StreamObserver<RemoteMessage>() {
+                    @Override
+                    public void onNext(RemoteMessage message) {
+                        received.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+                };
+            }
+        });
+
+        Address address = new Address("not-important", 11, false);
+        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, address, 1, 10, 1, null, false, 1));
+        remoteClient.connect();
+
+        doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
+
+        for (int i = 0; i < 10; i++) {
+            remoteClient.push(nextWorkerName, new TestStreamData());
+        }
+        // The idle stream holds the only permit, until it is over the deadline.
+        TimeUnit.SECONDS.sleep(3);
+        for (int i = 0; i < 10; i++) {
+            remoteClient.push(nextWorkerName, new TestStreamData());
+        }
+
+        TimeUnit.SECONDS.sleep(2);
+        Assert.assertEquals(20, received.get());
+        remoteClient.close();
     }
 
     public static class TestStreamData extends StreamData {
@@ -145,6 +250,7 @@ public class GRPCRemoteClientTestCase {
         public void in(Object o) {
             TestStreamData streamData = (TestStreamData) o;
             Assert.assertEquals(987, streamData.value);
+            received.incrementAndGet();
         }
     }
 }
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.codec;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RemoteMessageCodecTestCase {
+    @Test
+    public void testEncodeAndDecode() throws IOException {
+        RemoteMessageEncoder encoder = new RemoteMessageEncoder(2);
+        RemoteMessageDecoder decoder = new RemoteMessageDecoder();
+
+        RemoteMessage[] messages = new RemoteMessage[] {
+            message("endpoint_cpm_rec", "ZW5kcG9pbnQ=.1_L2FwaQ==", 202010181200L, "1,2|3,4"),
+            message("endpoint_cpm_rec", "ZW5kcG9pbnQ=.1_L2FwaQ==", 202010181201L, "0,-5|10,100"),
+            message("endpoint_percentile_rec", "other-entity", -1L, "1,2|3"),
+            message("endpoint_percentile_rec", "other-entity", Long.MAX_VALUE, "1|2|3|"),
+            message("endpoint_percentile_rec", "", Long.MIN_VALUE, "01,2"),
+            message("endpoint_percentile_rec", "中文", 0L, "")
+        };
+
+        for (RemoteMessage message : messages) {
+            ByteString data = encoder.encode(message);
+            Assert.assertEquals(message, decoder.decode(data));
+        }
+    }
+
+    @Test
+    public void testPackedNumbers() {
+        Assert.assertEquals(2, RemoteMessageEncoder.parseNumbers("1,2|3,4").size());
+        Assert.assertEquals(3, RemoteMessageEncoder.parseNumbers("1|2|3").size());
+        Assert.assertNull(RemoteMessageEncoder.parseNumbers("1,2|3"));
+        Assert.assertNull(RemoteMessageEncoder.parseNumbers("1|2|"));
+        Assert.assertNull(RemoteMessageEncoder.parseNumbers("-0"));
+        Assert.assertNull(RemoteMessageEncoder.parseNumbers("a,1"));
+        Assert.assertNull(RemoteMessageEncoder.parseNumbers(""));
+    }
+
+    @Test
+    public void testSmallerThanProtobuf() throws IOException {
+        RemoteMessageEncoder encoder = new RemoteMessageEncoder(100);
+        int binarySize = 0;
+        int protobufSize = 0;
+        for (int i = 0; i < 100; i++) {
+            RemoteMessage message = message(
+                "endpoint_percentile_rec", "ZW5kcG9pbnQ=.1_L2FwaQ==", 202010181200L, "0,120|1,30|2,7|10,1");
+            binarySize += encoder.encode(message).size();
+            protobufSize += message.getSerializedSize();
+        }
+        Assert.assertTrue(binarySize * 2 < protobufSize);
+    }
+
+    private static RemoteMessage message(String workerName, String entityId, long timeBucket, String dataTable) {
+        return RemoteMessage.newBuilder()
+                            .setNextWorkerName(workerName)
+                            .setRemoteData(RemoteData.newBuilder()
+                                                     .addDataStrings(entityId)
+                                                     .addDataStrings("shared")
+                                                     .addDataLongs(timeBucket)
+                                                     .addDataLongs(100)
+                                                     .addDataDoubles(0.5)
+                                                     .addDataIntegers(-3)
+                                                     .addDataObjectStrings(dataTable)
+                                                     .addDataObjectStrings(dataTable))
+                            .build();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.selector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import org.apache.skywalking.oap.server.core.remote.client.Address;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.TopologySnapshots;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConsistentHashSelectorTestCase {
+    private static final int DATA_SIZE = 10000;
+
+    @Test
+    public void testSameRingInDifferentOrder() {
+        List<RemoteClient> clients = clients(5);
+        List<RemoteClient> reversed = new ArrayList<>(clients);
+        Collections.reverse(reversed);
+
+        ConsistentHashSelector selector1 = new ConsistentHashSelector();
+        ConsistentHashSelector selector2 = new ConsistentHashSelector();
+        for (int i = 0; i < DATA_SIZE; i++) {
+            StreamData data = new TestStreamData(i);
+            Assert.assertEquals(
+                selector1.select(clients, data).getAddress(), selector2.select(reversed, data).getAddress());
+        }
+    }
+
+    @Test
+    public void testMinimalReshuffling() {
+        List<RemoteClient> clients = clients(4);
+        List<RemoteClient> scaled = clients(5);
+
+        ConsistentHashSelector selector = new ConsistentHashSelector();
+        Address[] before = new Address[DATA_SIZE];
+        for (int i = 0; i < DATA_SIZE; i++) {
+            before[i] = selector.select(clients, new TestStreamData(i)).getAddress();
+        }
+
+        int moved = 0;
+        for (int i = 0; i < DATA_SIZE; i++) {
+            Address after = selector.select(scaled, new TestStreamData(i)).getAddress();
+            if (!after.equals(before[i])) {
+                moved++;
+                // Only the data routed to the new node could be moved.
+                Assert.assertEquals(scaled.get(4).getAddress(), after);
+            }
+        }
+        // About 1/5 of the data are expected to be moved, while HashCodeSelector moves about 4/5 of them.
+        Assert.assertTrue(moved > 0);
+        Assert.assertTrue(moved < DATA_SIZE * 0.3);
+    }
+
+    @Test
+    public void testBalance() {
+        List<RemoteClient> clients = clients(3);
+        ConsistentHashSelector selector = new ConsistentHashSelector();
+        int[] counts = new int[clients.size()];
+        for (int i = 0; i < DATA_SIZE; i++) {
+            counts[clients.indexOf(selector.select(clients, new TestStreamData(i)))]++;
+        }
+        for (int count : counts) {
+            Assert.assertTrue(count > DATA_SIZE / clients.size() / 2);
+        }
+    }
+
+    private static List<RemoteClient> clients(int size) {
+        List<RemoteClient> clients = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            clients.add(new TestRemoteClient(new Address("10.0.0." + i, 11800, false)));
+        }
+        return clients;
+    }
+
+    private static class TestRemoteClient implements RemoteClient {
+        private final Address address;
+
+        private TestRemoteClient(Address address) {
+            this.address = address;
+        }
+
+        @Override
+        public Address getAddress() {
+            return address;
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void push(String nextWorkerName, StreamData streamData) {
+        }
+
+        @Override
+        public Future<TopologySnapshots> readTopologySnapshots(long startTB, long endTB) {
+            return CompletableFuture.completedFuture(TopologySnapshots.getDefaultInstance());
+        }
+
+        @Override
+        public int compareTo(RemoteClient o) {
+            return address.compareTo(o.getAddress());
+        }
+    }
+
+    private static class TestStreamData extends StreamData {
+        private final int hashCode;
+
+        private TestStreamData(int hashCode) {
+            this.hashCode = hashCode;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return RemoteData.newBuilder();
+        }
+    }
+}
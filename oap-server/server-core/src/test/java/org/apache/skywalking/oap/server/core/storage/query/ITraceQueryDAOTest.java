@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage.query;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SpanTag;
+import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
+import org.apache.skywalking.oap.server.core.query.type.QueryOrder;
+import org.apache.skywalking.oap.server.core.query.type.Span;
+import org.apache.skywalking.oap.server.core.query.type.TraceBrief;
+import org.apache.skywalking.oap.server.core.query.type.TraceState;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ITraceQueryDAOTest {
+    private final List<Integer> froms = new ArrayList<>();
+
+    /**
+     * Mock the storage of 5 traces, queried by the offset.
+     */
+    private final ITraceQueryDAO traceQueryDAO = new ITraceQueryDAO() {
+        @Override
+        public TraceBrief queryBasicTraces(long startSecondTB, long endSecondTB, long minDuration, long maxDuration,
+                                           String endpointName, String serviceId, String serviceInstanceId,
+                                           String endpointId, String traceId, int limit, int from,
+                                           TraceState traceState, QueryOrder queryOrder, List<SpanTag> tags) {
+            froms.add(from);
+            TraceBrief traceBrief = new TraceBrief();
+            for (int i = from; i < Math.min(from + limit, 5); i++) {
+                BasicTrace trace = new BasicTrace();
+                trace.setSegmentId("segment" + i);
+                traceBrief.getTraces().add(trace);
+            }
+            traceBrief.setTotal(5);
+            return traceBrief;
+        }
+
+        @Override
+        public List<SegmentRecord> queryByTraceId(String traceId) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Span> doFlexibleTraceQuery(String traceId) {
+            return Collections.emptyList();
+        }
+    };
+
+    @Test
+    public void testQueryBasicTracesAfterOffsetCursor() throws IOException {
+        TraceBrief page = queryAfter("");
+        Assert.assertEquals(2, page.getTraces().size());
+        Assert.assertEquals("segment0", page.getTraces().get(0).getSegmentId());
+        Assert.assertEquals("2", page.getCursor());
+
+        page = queryAfter(page.getCursor());
+        Assert.assertEquals("segment2", page.getTraces().get(0).getSegmentId());
+        Assert.assertEquals("4", page.getCursor());
+
+        // The last page isn't full, there are no more traces.
+        page = queryAfter(page.getCursor());
+        Assert.assertEquals(1, page.getTraces().size());
+        Assert.assertEquals("segment4", page.getTraces().get(0).getSegmentId());
+        Assert.assertNull(page.getCursor());
+
+        Assert.assertEquals(3, froms.size());
+        Assert.assertEquals(4, (int) froms.get(2));
+    }
+
+    @Test
+    public void testNullCursorMeansFirstPage() throws IOException {
+        queryAfter(null);
+        Assert.assertEquals(0, (int) froms.get(0));
+    }
+
+    private TraceBrief queryAfter(String cursor) throws IOException {
+        return traceQueryDAO.queryBasicTracesAfter(
+            0, 0, 0, 0, null, null, null, null, null, 2, cursor, TraceState.ALL, QueryOrder.BY_START_TIME,
+            Collections.emptyList()
+        );
+    }
+}
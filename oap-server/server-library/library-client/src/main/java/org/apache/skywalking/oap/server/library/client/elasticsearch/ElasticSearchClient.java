@@ -450,17 +450,20 @@ public class ElasticSearchClient implements Client, HealthCheckable {
         return response.getStatusLine().getStatusCode();
     }
 
-    public void synchronousBulk(BulkRequest request) {
+    /**
+     * Execute the bulk synchronously, the failed items in the response are left to the caller.
+     */
+    public BulkResponse bulk(BulkRequest request) throws IOException {
         request.timeout(TimeValue.timeValueMinutes(2));
         request.setRefreshPolicy(WriteRequest.RefreshPolicy.WAIT_UNTIL);
         request.waitForActiveShards(ActiveShardCount.ONE);
         try {
-            int size = request.requests().size();
-            BulkResponse responses = client.bulk(request);
-            log.info("Synchronous bulk took time: {} millis, size: {}", responses.getTook().getMillis(), size);
+            BulkResponse response = client.bulk(request);
             healthChecker.health();
-        } catch (Throwable t) {
-            healthChecker.unHealth(t);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            healthChecker.unHealth(e);
+            throw e;
         }
     }
 
@@ -114,6 +114,22 @@ public class JDBCHikariCPClient implements Client, HealthCheckable {
         return result;
     }
 
+    /**
+     * @return the number of the rows affected by the statement.
+     */
+    public int executeUpdate(Connection connection, String sql, Object... params) throws JDBCClientException {
+        LOGGER.debug("execute update: {}", sql);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            setStatementParam(statement, params);
+            int result = statement.executeUpdate();
+            healthChecker.health();
+            return result;
+        } catch (SQLException e) {
+            healthChecker.unHealth(e);
+            throw new JDBCClientException(e.getMessage(), e);
+        }
+    }
+
     public ResultSet executeQuery(Connection connection, String sql, Object... params) throws JDBCClientException {
         LOGGER.debug("execute query with result: {}", sql);
         ResultSet rs;
@@ -95,6 +95,8 @@ public class GraphQLQueryProvider extends ModuleProvider {
                 .resolvers(new TopNRecordsQuery(getManager()))
                 ////////
                 .file("query-protocol/trace.graphqls")
+                // The cursor pagination of the basic traces, not in the query protocol yet.
+                .file("query-protocol-ext/trace-cursor.graphqls")
                 .resolvers(new TraceQuery(getManager()))
                 .file("query-protocol/alarm.graphqls")
                 .resolvers(new AlarmQuery(getManager()))
@@ -79,6 +79,15 @@ public class TraceQuery implements GraphQLQueryResolver {
         );
     }
 
+    /**
+     * Query the page of the basic traces after the cursor of the previous page, null or empty for the first page.
+     */
+    public TraceBrief queryBasicTracesByCursor(final TraceQueryCondition condition,
+                                               final String cursor) throws IOException {
+        condition.getPaging().setCursor(Strings.nullToEmpty(cursor));
+        return queryBasicTraces(condition);
+    }
+
     public Trace queryTrace(final String traceId) throws IOException {
         return getQueryService().queryTrace(traceId);
     }
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * SegmentAnalysisStage decouples the segment analysis from the threads receiving the segments. The analysis tasks are
+ * queued in a bounded queue and executed by the dedicated analysis threads, so the gRPC and HTTP handler threads are
+ * released as soon as the segment is queued.
+ * <p>
+ * When the queue is full, the task is executed in the caller thread. It slows down the receiver, which is the
+ * back-pressure for the clients without flow control. The gRPC stream handler requests the next segment only after the
+ * previous one has been taken by an analysis thread, so the streaming agents are held back by the gRPC flow control
+ * before the queue overflows.
+ */
+@Slf4j
+public class SegmentAnalysisStage {
+    private final ThreadPoolExecutor executor;
+    private final CounterMetrics overflowCounter;
+
+    /**
+     * @param threads   the number of analysis threads, 0 means executing the analysis in the caller thread.
+     * @param queueSize the max number of tasks waiting for the analysis threads.
+     */
+    public SegmentAnalysisStage(MetricsCreator metricsCreator, int threads, int queueSize) {
+        overflowCounter = metricsCreator.createCounter(
+            "trace_analysis_queue_overflow_count",
+            "The number of segments analysed in the receiver thread because of the full analysis queue",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        if (threads > 0) {
+            executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("segment-analysis-%d").build(),
+                (task, pool) -> {
+                    overflowCounter.inc();
+                    task.run();
+                }
+            );
+        } else {
+            executor = null;
+        }
+    }
+
+    /**
+     * @return true if the analysis tasks are executed by the dedicated analysis threads.
+     */
+    public boolean isAsync() {
+        return executor != null;
+    }
+
+    /**
+     * Execute the analysis task in the analysis threads, or in the caller thread if the stage is not asynchronous or
+     * the queue is full.
+     */
+    public void execute(Runnable task) {
+        if (executor == null) {
+            task.run();
+            return;
+        }
+        executor.execute(task);
+    }
+}
@@ -33,8 +33,14 @@ import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v8.grpc.
 import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v8.rest.TraceSegmentReportListServletHandler;
 import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v8.rest.TraceSegmentReportSingleServletHandler;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 public class TraceModuleProvider extends ModuleProvider {
+    private final TraceServiceModuleConfig moduleConfig;
+
+    public TraceModuleProvider() {
+        this.moduleConfig = new TraceServiceModuleConfig();
+    }
 
     @Override
     public String name() {
@@ -48,7 +54,7 @@ public class TraceModuleProvider extends ModuleProvider {
 
     @Override
     public ModuleConfig createConfigBeanIfAbsent() {
-        return null;
+        return moduleConfig;
     }
 
     @Override
@@ -65,10 +71,16 @@ public class TraceModuleProvider extends ModuleProvider {
                                                                 .provider()
                                                                 .getService(JettyHandlerRegister.class);
 
-        grpcHandlerRegister.addHandler(new TraceSegmentReportServiceHandler(getManager()));
+        MetricsCreator metricsCreator = getManager().find(TelemetryModule.NAME)
+                                                    .provider()
+                                                    .getService(MetricsCreator.class);
+        SegmentAnalysisStage analysisStage = new SegmentAnalysisStage(
+            metricsCreator, moduleConfig.getSegmentAnalysisThreads(), moduleConfig.getSegmentAnalysisQueueSize());
+
+        grpcHandlerRegister.addHandler(new TraceSegmentReportServiceHandler(getManager(), analysisStage));
 
-        jettyHandlerRegister.addHandler(new TraceSegmentReportListServletHandler(getManager()));
-        jettyHandlerRegister.addHandler(new TraceSegmentReportSingleServletHandler(getManager()));
+        jettyHandlerRegister.addHandler(new TraceSegmentReportListServletHandler(getManager(), analysisStage));
+        jettyHandlerRegister.addHandler(new TraceSegmentReportSingleServletHandler(getManager(), analysisStage));
     }
 
     @Override
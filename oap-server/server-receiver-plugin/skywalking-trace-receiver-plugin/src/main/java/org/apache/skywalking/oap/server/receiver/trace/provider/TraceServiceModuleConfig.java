@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.skywalking.oap.server.library.module.ModuleConfig;
+
+@Setter
+@Getter
+public class TraceServiceModuleConfig extends ModuleConfig {
+    /**
+     * The number of threads analysing the received segments. The segments are analysed in the gRPC and HTTP handler
+     * threads directly when it is 0.
+     *
+     * @since 8.2.0
+     */
+    private int segmentAnalysisThreads = 4;
+    /**
+     * The max number of segments waiting for the analysis threads. Once it is full, the received segments are analysed
+     * in the handler threads.
+     *
+     * @since 8.2.0
+     */
+    private int segmentAnalysisQueueSize = 10000;
+}
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.receiver.trace.provider.handler.v8.grpc;
 
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.network.common.v3.Commands;
@@ -28,6 +29,7 @@ import org.apache.skywalking.oap.server.analyzer.module.AnalyzerModule;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.ISegmentParserService;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.server.grpc.GRPCHandler;
+import org.apache.skywalking.oap.server.receiver.trace.provider.SegmentAnalysisStage;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
@@ -41,9 +43,11 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
     private CounterMetrics errorCounter;
 
     private ISegmentParserService segmentParserService;
+    private final SegmentAnalysisStage analysisStage;
 
-    public TraceSegmentReportServiceHandler(ModuleManager moduleManager) {
+    public TraceSegmentReportServiceHandler(ModuleManager moduleManager, SegmentAnalysisStage analysisStage) {
         this.moduleManager = moduleManager;
+        this.analysisStage = analysisStage;
         this.segmentParserService = moduleManager.find(AnalyzerModule.NAME)
                                                  .provider()
                                                  .getService(ISegmentParserService.class);
@@ -62,6 +66,17 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
 
     @Override
     public StreamObserver<SegmentObject> collect(StreamObserver<Commands> responseObserver) {
+        final ServerCallStreamObserver<Commands> call;
+        if (analysisStage.isAsync() && responseObserver instanceof ServerCallStreamObserver) {
+            // Request the next segment only after the previous one has been taken by the analysis stage, so a busy
+            // stage holds the agents back through the gRPC flow control.
+            call = (ServerCallStreamObserver<Commands>) responseObserver;
+            call.disableAutoInboundFlowControl();
+            call.request(1);
+        } else {
+            call = null;
+        }
+
         return new StreamObserver<SegmentObject>() {
             @Override
             public void onNext(SegmentObject segment) {
@@ -69,14 +84,12 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
                     log.debug("received segment in streaming");
                 }
 
-                HistogramMetrics.Timer timer = histogram.createTimer();
-                try {
-                    segmentParserService.send(segment);
-                } catch (Exception e) {
-                    errorCounter.inc();
-                } finally {
-                    timer.finish();
-                }
+                analysisStage.execute(() -> {
+                    if (call != null && !call.isCancelled()) {
+                        call.request(1);
+                    }
+                    analyse(segment);
+                });
             }
 
             @Override
@@ -99,18 +112,20 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
             log.debug("received {} segments", request.getSegmentsCount());
         }
 
-        request.getSegmentsList().forEach(segment -> {
-            HistogramMetrics.Timer timer = histogram.createTimer();
-            try {
-                segmentParserService.send(segment);
-            } catch (Exception e) {
-                errorCounter.inc();
-            } finally {
-                timer.finish();
-            }
-        });
+        request.getSegmentsList().forEach(segment -> analysisStage.execute(() -> analyse(segment)));
 
         responseObserver.onNext(Commands.newBuilder().build());
         responseObserver.onCompleted();
     }
+
+    private void analyse(SegmentObject segment) {
+        HistogramMetrics.Timer timer = histogram.createTimer();
+        try {
+            segmentParserService.send(segment);
+        } catch (Exception e) {
+            errorCounter.inc();
+        } finally {
+            timer.finish();
+        }
+    }
 }
@@ -28,6 +28,7 @@ import org.apache.skywalking.oap.server.analyzer.module.AnalyzerModule;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.ISegmentParserService;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.server.jetty.JettyJsonHandler;
+import org.apache.skywalking.oap.server.receiver.trace.provider.SegmentAnalysisStage;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
@@ -39,11 +40,13 @@ public abstract class TraceSegmentReportBaseServletHandler extends JettyJsonHand
 
     private final ModuleManager moduleManager;
     private final ISegmentParserService segmentParserService;
+    private final SegmentAnalysisStage analysisStage;
     private HistogramMetrics histogram;
     private CounterMetrics errorCounter;
 
-    public TraceSegmentReportBaseServletHandler(ModuleManager moduleManager) {
+    public TraceSegmentReportBaseServletHandler(ModuleManager moduleManager, SegmentAnalysisStage analysisStage) {
         this.moduleManager = moduleManager;
+        this.analysisStage = analysisStage;
         this.segmentParserService = moduleManager.find(AnalyzerModule.NAME)
                                                  .provider()
                                                  .getService(ISegmentParserService.class);
@@ -75,7 +78,7 @@ public abstract class TraceSegmentReportBaseServletHandler extends JettyJsonHand
             final List<SegmentObject> segments = parseSegments(req);
 
             for (SegmentObject segment : segments) {
-                segmentParserService.send(segment);
+                analysisStage.execute(() -> analyse(segment));
             }
         } catch (Exception e) {
             errorCounter.inc();
@@ -87,6 +90,15 @@ public abstract class TraceSegmentReportBaseServletHandler extends JettyJsonHand
         return null;
     }
 
+    private void analyse(SegmentObject segment) {
+        try {
+            segmentParserService.send(segment);
+        } catch (Exception e) {
+            errorCounter.inc();
+            log.error(e.getMessage(), e);
+        }
+    }
+
     /**
      * parsing segment list from request
      */
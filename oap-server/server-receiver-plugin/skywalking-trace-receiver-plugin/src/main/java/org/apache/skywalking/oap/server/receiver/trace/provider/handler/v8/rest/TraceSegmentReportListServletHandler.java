@@ -30,6 +30,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.ProtoBufJsonUtils;
+import org.apache.skywalking.oap.server.receiver.trace.provider.SegmentAnalysisStage;
 
 /**
  * Parsing segments from list json
@@ -38,8 +39,8 @@ public class TraceSegmentReportListServletHandler extends TraceSegmentReportBase
 
     private final Gson gson = new Gson();
 
-    public TraceSegmentReportListServletHandler(ModuleManager moduleManager) {
-        super(moduleManager);
+    public TraceSegmentReportListServletHandler(ModuleManager moduleManager, SegmentAnalysisStage analysisStage) {
+        super(moduleManager, analysisStage);
     }
 
     @Override
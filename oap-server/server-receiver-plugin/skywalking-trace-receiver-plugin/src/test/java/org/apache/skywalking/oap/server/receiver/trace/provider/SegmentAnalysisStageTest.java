@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentAnalysisStageTest {
+
+    @Test
+    public void testInline() {
+        SegmentAnalysisStage stage = new SegmentAnalysisStage(new MetricsCreatorNoop(), 0, 0);
+        AtomicReference<Thread> executedBy = new AtomicReference<>();
+        stage.execute(() -> executedBy.set(Thread.currentThread()));
+
+        Assert.assertFalse(stage.isAsync());
+        Assert.assertSame(Thread.currentThread(), executedBy.get());
+    }
+
+    @Test
+    public void testAsync() throws InterruptedException {
+        SegmentAnalysisStage stage = new SegmentAnalysisStage(new MetricsCreatorNoop(), 2, 10);
+        AtomicReference<Thread> executedBy = new AtomicReference<>();
+        CountDownLatch executed = new CountDownLatch(1);
+        stage.execute(() -> {
+            executedBy.set(Thread.currentThread());
+            executed.countDown();
+        });
+
+        Assert.assertTrue(stage.isAsync());
+        Assert.assertTrue(executed.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(executedBy.get().getName().startsWith("segment-analysis-"));
+    }
+
+    @Test
+    public void testOverflowRunsInCallerThread() throws InterruptedException {
+        SegmentAnalysisStage stage = new SegmentAnalysisStage(new MetricsCreatorNoop(), 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        stage.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        // Fills the queue, as the only analysis thread is blocked.
+        stage.execute(() -> {
+        });
+
+        AtomicReference<Thread> executedBy = new AtomicReference<>();
+        stage.execute(() -> executedBy.set(Thread.currentThread()));
+        release.countDown();
+
+        Assert.assertSame(Thread.currentThread(), executedBy.get());
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleProvider
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.ISegmentParserService;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.SegmentParserServiceImpl;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.receiver.trace.provider.SegmentAnalysisStage;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
@@ -87,7 +88,8 @@ public class TraceSegmentReportServletHandlerTest {
             "}";
 
         final TraceSegmentReportSingleServletHandler singleServletHandler =
-            new TraceSegmentReportSingleServletHandler(moduleManager);
+            new TraceSegmentReportSingleServletHandler(
+                moduleManager, new SegmentAnalysisStage(new MetricsCreatorNoop(), 0, 0));
 
         when(request.getReader()).thenReturn(new BufferedReader(new StringReader(singleJson)));
         final List<SegmentObject> segmentObjects = singleServletHandler.parseSegments(request);
@@ -109,7 +111,8 @@ public class TraceSegmentReportServletHandlerTest {
             "}]";
 
         final TraceSegmentReportListServletHandler singleServletHandler =
-            new TraceSegmentReportListServletHandler(moduleManager);
+            new TraceSegmentReportListServletHandler(
+                moduleManager, new SegmentAnalysisStage(new MetricsCreatorNoop(), 0, 0));
 
         when(request.getReader()).thenReturn(new BufferedReader(new StringReader(listJson)));
         final List<SegmentObject> segmentObjects = singleServletHandler.parseSegments(request);
@@ -46,6 +46,16 @@ public class StorageModuleElasticsearchConfig extends ModuleConfig {
     private int flushInterval = 10;
     @Setter
     private int concurrentRequests = 2;
+    /**
+     * The max size of one bulk in the synchronous persistence, in MB. Bigger requests are split into several bulks.
+     */
+    @Setter
+    private int syncBulkSize = 10;
+    /**
+     * The number of the bulks executed concurrently in the synchronous persistence.
+     */
+    @Setter
+    private int syncConcurrentRequests = 2;
     /**
      * @since 7.0.0 This could be managed inside {@link #secretsManagementFile}
      */
@@ -156,8 +156,10 @@ public class StorageModuleElasticsearchProvider extends ModuleProvider {
         );
 
         this.registerServiceImplementation(
-            IBatchDAO.class, new BatchProcessEsDAO(elasticSearchClient, config.getBulkActions(), config
-                .getFlushInterval(), config.getConcurrentRequests()));
+            IBatchDAO.class, new BatchProcessEsDAO(getManager(), elasticSearchClient, config.getBulkActions(), config
+                .getFlushInterval(), config.getConcurrentRequests(), config.getSyncBulkSize(),
+                                                   config.getSyncConcurrentRequests()
+            ));
         this.registerServiceImplementation(StorageDAO.class, new StorageEsDAO(elasticSearchClient));
         this.registerServiceImplementation(
             IHistoryDeleteDAO.class, new HistoryDeleteEsDAO(elasticSearchClient));
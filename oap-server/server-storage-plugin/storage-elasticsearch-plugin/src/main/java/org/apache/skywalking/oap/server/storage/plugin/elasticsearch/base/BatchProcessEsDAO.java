@@ -18,19 +18,43 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageException;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.rest.RestStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * The synchronous requests of one persistence round are split into the bulks of at most {@link #syncBulkSize} bytes,
+ * which are executed by {@link #syncConcurrentRequests} threads concurrently. The items rejected by the Elasticsearch
+ * because of the full queue (HTTP 429), and the bulks failed as a whole, are retried with the exponential back-off.
+ */
 public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BatchProcessEsDAO.class);
@@ -39,12 +63,36 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
     private final int bulkActions;
     private final int flushInterval;
     private final int concurrentRequests;
+    private final ModuleDefineHolder moduleDefineHolder;
+    private final long syncBulkSize;
+    private final int syncConcurrentRequests;
+    private final ExecutorService syncBulkExecutor;
+    private volatile HistogramMetrics bulkLatency;
+    private HistogramMetrics bulkSize;
+    private CounterMetrics failedItems;
 
-    public BatchProcessEsDAO(ElasticSearchClient client, int bulkActions, int flushInterval, int concurrentRequests) {
+    /**
+     * @param syncBulkSize           the max size of one synchronous bulk, in MB.
+     * @param syncConcurrentRequests the number of the synchronous bulks executed concurrently.
+     */
+    public BatchProcessEsDAO(ModuleDefineHolder moduleDefineHolder, ElasticSearchClient client, int bulkActions,
+                             int flushInterval, int concurrentRequests, int syncBulkSize,
+                             int syncConcurrentRequests) {
         super(client);
         this.bulkActions = bulkActions;
         this.flushInterval = flushInterval;
         this.concurrentRequests = concurrentRequests;
+        this.moduleDefineHolder = moduleDefineHolder;
+        this.syncBulkSize = syncBulkSize * 1024L * 1024L;
+        this.syncConcurrentRequests = Math.max(1, syncConcurrentRequests);
+        if (this.syncConcurrentRequests > 1) {
+            this.syncBulkExecutor = Executors.newFixedThreadPool(
+                this.syncConcurrentRequests,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("es-synchronous-bulk-%d").build()
+            );
+        } else {
+            this.syncBulkExecutor = null;
+        }
     }
 
     @Override
@@ -57,18 +105,144 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
     }
 
     @Override
-    public void synchronous(List<PrepareRequest> prepareRequests) {
-        if (CollectionUtils.isNotEmpty(prepareRequests)) {
-            BulkRequest request = new BulkRequest();
+    public void synchronous(List<PrepareRequest> prepareRequests) throws StorageException {
+        if (CollectionUtils.isEmpty(prepareRequests)) {
+            return;
+        }
+
+        List<BulkRequest> bulks = new ArrayList<>();
+        BulkRequest request = new BulkRequest();
+        for (PrepareRequest prepareRequest : prepareRequests) {
+            if (prepareRequest instanceof InsertRequest) {
+                request.add((IndexRequest) prepareRequest);
+            } else {
+                request.add((UpdateRequest) prepareRequest);
+            }
+            if (request.estimatedSizeInBytes() >= syncBulkSize) {
+                bulks.add(request);
+                request = new BulkRequest();
+            }
+        }
+        if (request.numberOfActions() > 0) {
+            bulks.add(request);
+        }
+
+        int abandoned = 0;
+        if (syncBulkExecutor == null || bulks.size() == 1) {
+            for (BulkRequest bulk : bulks) {
+                abandoned += executeBulk(bulk);
+            }
+        } else {
+            List<Future<Integer>> futures = new ArrayList<>(bulks.size());
+            for (BulkRequest bulk : bulks) {
+                futures.add(syncBulkExecutor.submit(() -> executeBulk(bulk)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    abandoned += futures.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new StorageException("Interrupted while executing the synchronous bulks.", e);
+                } catch (ExecutionException e) {
+                    LOGGER.error(e.getMessage(), e);
+                    abandoned += bulks.get(i).numberOfActions();
+                }
+            }
+        }
+        if (abandoned > 0) {
+            throw new StorageException(
+                abandoned + " of " + prepareRequests.size() + " requests are not executed by the synchronous bulks.");
+        }
+    }
 
-            for (PrepareRequest prepareRequest : prepareRequests) {
-                if (prepareRequest instanceof InsertRequest) {
-                    request.add((IndexRequest) prepareRequest);
-                } else {
-                    request.add((UpdateRequest) prepareRequest);
+    /**
+     * Execute the bulk, retry the rejected items until the back-off policy is exhausted.
+     *
+     * @return the number of the items failed or abandoned.
+     */
+    private int executeBulk(BulkRequest request) {
+        Iterator<TimeValue> backoff = BackoffPolicy.exponentialBackoff(TimeValue.timeValueMillis(100), 3).iterator();
+        int totalFailed = 0;
+        while (true) {
+            BulkRequest retries = new BulkRequest();
+            int failed = 0;
+            try (HistogramMetrics.Timer ignored = bulkLatency().createTimer()) {
+                bulkSize.observe(request.estimatedSizeInBytes());
+                BulkResponse response = getClient().bulk(request);
+                if (response.hasFailures()) {
+                    for (BulkItemResponse item : response.getItems()) {
+                        if (!item.isFailed()) {
+                            continue;
+                        }
+                        if (RestStatus.TOO_MANY_REQUESTS.equals(item.status())) {
+                            retries.add(request.requests().get(item.getItemId()));
+                        } else {
+                            failed++;
+                        }
+                    }
+                    if (failed > 0) {
+                        LOGGER.warn(
+                            "Synchronous bulk executed with {} failed items: [{}]", failed,
+                            response.buildFailureMessage()
+                        );
+                    }
                 }
+                LOGGER.info(
+                    "Synchronous bulk took time: {} millis, size: {}", response.getTook().getMillis(),
+                    request.numberOfActions()
+                );
+            } catch (Exception e) {
+                LOGGER.warn("Synchronous bulk failed, size: {}. {}", request.numberOfActions(), e.getMessage());
+                retries = request;
+            }
+
+            totalFailed += failed;
+            if (retries.numberOfActions() == 0) {
+                failedItems.inc(failed);
+                return totalFailed;
+            }
+            if (!backoff.hasNext()) {
+                LOGGER.error("Synchronous bulk abandoned {} items after retries.", retries.numberOfActions());
+                failedItems.inc(failed + retries.numberOfActions());
+                return totalFailed + retries.numberOfActions();
+            }
+            failedItems.inc(failed);
+            try {
+                Thread.sleep(backoff.next().millis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return totalFailed + retries.numberOfActions();
             }
-            getClient().synchronousBulk(request);
+            request = retries;
+        }
+    }
+
+    private HistogramMetrics bulkLatency() {
+        if (bulkLatency == null) {
+            createTelemetry();
+        }
+        return bulkLatency;
+    }
+
+    private synchronized void createTelemetry() {
+        if (bulkLatency != null) {
+            return;
         }
+        MetricsCreator metricsCreator = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class);
+        bulkSize = metricsCreator.createHistogramMetric(
+            "es_synchronous_bulk_size", "The bytes of the synchronous bulks", MetricsTag.EMPTY_KEY,
+            MetricsTag.EMPTY_VALUE, 1024 * 1024, 5 * 1024 * 1024, 10 * 1024 * 1024, 20 * 1024 * 1024,
+            50 * 1024 * 1024, 100 * 1024 * 1024
+        );
+        failedItems = metricsCreator.createCounter(
+            "es_synchronous_bulk_failed_items", "The number of the items failed in the synchronous bulks",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        bulkLatency = metricsCreator.createHistogramMetric(
+            "es_synchronous_bulk_latency", "The latency of the synchronous bulks", MetricsTag.EMPTY_KEY,
+            MetricsTag.EMPTY_VALUE
+        );
     }
 }
@@ -35,7 +35,7 @@ public class HistoryDeleteEsDAO extends EsDAO implements IHistoryDeleteDAO {
     }
 
     @Override
-    public void deleteHistory(Model model, String timeBucketColumnName, int ttl) throws IOException {
+    public long deleteHistory(Model model, String timeBucketColumnName, int ttl) throws IOException {
         ElasticSearchClient client = getClient();
 
         long deadline;
@@ -46,7 +46,7 @@ public class HistoryDeleteEsDAO extends EsDAO implements IHistoryDeleteDAO {
                  * As all metrics data in different down sampling rule of one day are in the same index, the deletion operation
                  * is only required to run once.
                  */
-                return;
+                return 0;
             }
         }
         deadline = Long.valueOf(new DateTime().plusDays(0 - ttl).toString("yyyyMMdd"));
@@ -71,5 +71,6 @@ public class HistoryDeleteEsDAO extends EsDAO implements IHistoryDeleteDAO {
         if (!leftIndices.contains(formattedLatestIndex)) {
             client.createIndex(latestIndex);
         }
+        return prepareDeleteIndexes.size();
     }
 }
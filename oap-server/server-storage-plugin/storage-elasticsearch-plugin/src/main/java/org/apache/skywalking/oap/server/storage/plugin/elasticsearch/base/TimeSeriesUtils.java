@@ -19,7 +19,8 @@ package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
 import java.util.ArrayList;
 import java.util.List;
-import lombok.Setter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.DownSampling;
@@ -40,10 +41,23 @@ public class TimeSeriesUtils {
      * #DAY_STEP} is consistently no matter whenever the OAP starts up.
      */
     private static final DateTime DAY_ONE = TIME_BUCKET_FORMATTER.parseDateTime("20000101");
-    @Setter
     private static int DAY_STEP = 1;
-    @Setter
     private static int SUPER_DATASET_DAY_STEP = 1;
+    /**
+     * The resolved write index names, model name as the key. The downsampling of the model is eliminated from the day
+     * bucket, so the models of the same name share one cache.
+     */
+    private static final Map<String, WriteIndexNames> WRITE_INDEX_NAMES = new ConcurrentHashMap<>();
+
+    public static void setDAY_STEP(int dayStep) {
+        DAY_STEP = dayStep;
+        WRITE_INDEX_NAMES.clear();
+    }
+
+    public static void setSUPER_DATASET_DAY_STEP(int superDatasetDayStep) {
+        SUPER_DATASET_DAY_STEP = superDatasetDayStep;
+        WRITE_INDEX_NAMES.clear();
+    }
 
     /**
      * @return formatted latest index name, based on current timestamp.
@@ -90,27 +104,39 @@ public class TimeSeriesUtils {
      */
     static String writeIndexName(Model model, long timeBucket) {
         final String modelName = model.getName();
+        final long dayBucket;
+        final int dayStep;
 
-        if (model.isRecord() && model.isSuperDataset()) {
-            return modelName + Const.LINE + compressTimeBucket(timeBucket / 1000000, SUPER_DATASET_DAY_STEP);
-        } else if (model.isRecord()) {
-            return modelName + Const.LINE + compressTimeBucket(timeBucket / 1000000, DAY_STEP);
+        if (model.isRecord()) {
+            dayBucket = timeBucket / 1000000;
+            dayStep = model.isSuperDataset() ? SUPER_DATASET_DAY_STEP : DAY_STEP;
         } else {
             switch (model.getDownsampling()) {
                 case None:
                     return modelName;
                 case Hour:
-                    return modelName + Const.LINE + compressTimeBucket(timeBucket / 100, DAY_STEP);
+                    dayBucket = timeBucket / 100;
+                    break;
                 case Minute:
-                    return modelName + Const.LINE + compressTimeBucket(timeBucket / 10000, DAY_STEP);
+                    dayBucket = timeBucket / 10000;
+                    break;
                 case Day:
-                    return modelName + Const.LINE + compressTimeBucket(timeBucket, DAY_STEP);
+                    dayBucket = timeBucket;
+                    break;
                 case Second:
-                    return modelName + Const.LINE + compressTimeBucket(timeBucket / 1000000, DAY_STEP);
+                    dayBucket = timeBucket / 1000000;
+                    break;
                 default:
                     throw new UnexpectedException("Unexpected down sampling value, " + model.getDownsampling());
             }
+            dayStep = DAY_STEP;
+        }
+
+        WriteIndexNames indexNames = WRITE_INDEX_NAMES.get(modelName);
+        if (indexNames == null) {
+            indexNames = WRITE_INDEX_NAMES.computeIfAbsent(modelName, WriteIndexNames::new);
         }
+        return indexNames.get(dayBucket, dayStep);
     }
 
     /**
@@ -155,4 +181,49 @@ public class TimeSeriesUtils {
         }
     }
 
+    /**
+     * The write index names of one model, the persistent data are mostly in today, so the latest day is held
+     * aside, others are kept in a small map, which is cleared when it is full, as the old days are rarely written.
+     */
+    private static class WriteIndexNames {
+        private static final int MAX_SIZE = 64;
+
+        private final String modelName;
+        private final Map<Long, String> names = new ConcurrentHashMap<>();
+        private volatile ResolvedIndexName latest;
+
+        private WriteIndexNames(String modelName) {
+            this.modelName = modelName;
+        }
+
+        private String get(long dayBucket, int dayStep) {
+            ResolvedIndexName resolved = latest;
+            if (resolved != null && resolved.dayBucket == dayBucket) {
+                return resolved.indexName;
+            }
+
+            String indexName = names.get(dayBucket);
+            if (indexName == null) {
+                if (names.size() >= MAX_SIZE) {
+                    names.clear();
+                }
+                indexName = modelName + Const.LINE + compressTimeBucket(dayBucket, dayStep);
+                names.put(dayBucket, indexName);
+            }
+            if (resolved == null || dayBucket > resolved.dayBucket) {
+                latest = new ResolvedIndexName(dayBucket, indexName);
+            }
+            return indexName;
+        }
+    }
+
+    private static class ResolvedIndexName {
+        private final long dayBucket;
+        private final String indexName;
+
+        private ResolvedIndexName(long dayBucket, String indexName) {
+            this.dayBucket = dayBucket;
+            this.indexName = indexName;
+        }
+    }
 }
@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.query;
 
 import com.google.common.base.Strings;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collections;
@@ -72,6 +73,68 @@ public class TraceQueryEsDAO extends EsDAO implements ITraceQueryDAO {
                                        TraceState traceState,
                                        QueryOrder queryOrder,
                                        final List<SpanTag> tags) throws IOException {
+        SearchSourceBuilder sourceBuilder = basicTracesSource(
+            startSecondTB, endSecondTB, minDuration, maxDuration, endpointName, serviceId, serviceInstanceId,
+            endpointId, traceId, traceState, queryOrder, tags
+        );
+        sourceBuilder.size(limit);
+        sourceBuilder.from(from);
+        SearchResponse response = getClient().search(new TimeRangeIndexNameMaker(SegmentRecord.INDEX_NAME, startSecondTB, endSecondTB), sourceBuilder);
+        return buildTraceBrief(response);
+    }
+
+    /**
+     * Query the page through search_after, rather than from/size, so the deep pages don't make every shard collect
+     * all the hits before the page. The segment id is the tiebreaker of the sort, the cursor is the encoded sort
+     * values of the last hit.
+     */
+    @Override
+    public TraceBrief queryBasicTracesAfter(long startSecondTB,
+                                            long endSecondTB,
+                                            long minDuration,
+                                            long maxDuration,
+                                            String endpointName,
+                                            String serviceId,
+                                            String serviceInstanceId,
+                                            String endpointId,
+                                            String traceId,
+                                            int limit,
+                                            String cursor,
+                                            TraceState traceState,
+                                            QueryOrder queryOrder,
+                                            final List<SpanTag> tags) throws IOException {
+        SearchSourceBuilder sourceBuilder = basicTracesSource(
+            startSecondTB, endSecondTB, minDuration, maxDuration, endpointName, serviceId, serviceInstanceId,
+            endpointId, traceId, traceState, queryOrder, tags
+        );
+        sourceBuilder.sort(SegmentRecord.SEGMENT_ID, SortOrder.DESC);
+        sourceBuilder.size(limit);
+        if (!Strings.isNullOrEmpty(cursor)) {
+            sourceBuilder.searchAfter(decodeCursor(cursor));
+        }
+        SearchResponse response = getClient().search(
+            new TimeRangeIndexNameMaker(SegmentRecord.INDEX_NAME, startSecondTB, endSecondTB), sourceBuilder);
+
+        TraceBrief traceBrief = buildTraceBrief(response);
+        SearchHit[] hits = response.getHits().getHits();
+        if (hits.length > 0 && hits.length >= limit) {
+            traceBrief.setCursor(encodeCursor(hits[hits.length - 1].getSortValues()));
+        }
+        return traceBrief;
+    }
+
+    private SearchSourceBuilder basicTracesSource(long startSecondTB,
+                                                  long endSecondTB,
+                                                  long minDuration,
+                                                  long maxDuration,
+                                                  String endpointName,
+                                                  String serviceId,
+                                                  String serviceInstanceId,
+                                                  String endpointId,
+                                                  String traceId,
+                                                  TraceState traceState,
+                                                  QueryOrder queryOrder,
+                                                  final List<SpanTag> tags) {
         SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource();
 
         BoolQueryBuilder boolQueryBuilder = QueryBuilders.boolQuery();
@@ -131,11 +194,12 @@ public class TraceQueryEsDAO extends EsDAO implements ITraceQueryDAO {
             });
             mustQueryList.add(tagMatchQuery);
         }
-        sourceBuilder.size(limit);
-        sourceBuilder.from(from);
-        SearchResponse response = getClient().search(new TimeRangeIndexNameMaker(SegmentRecord.INDEX_NAME, startSecondTB, endSecondTB), sourceBuilder);
+        return sourceBuilder;
+    }
+
+    private TraceBrief buildTraceBrief(SearchResponse response) {
         TraceBrief traceBrief = new TraceBrief();
-        traceBrief.setTotal((int) response.getHits().totalHits);
+        traceBrief.setTotal((int) totalHits(response));
 
         for (SearchHit searchHit : response.getHits().getHits()) {
             BasicTrace basicTrace = new BasicTrace();
@@ -156,6 +220,39 @@ public class TraceQueryEsDAO extends EsDAO implements ITraceQueryDAO {
         return traceBrief;
     }
 
+    /**
+     * The total hits are read differently in the ElasticSearch 7 client, override it there.
+     */
+    protected long totalHits(SearchResponse response) {
+        return response.getHits().totalHits;
+    }
+
+    /**
+     * @return the sort values, the number of the sort field and the segment id, encoded as "{number},{segment id}"
+     * in base64.
+     */
+    static String encodeCursor(Object[] sortValues) {
+        String value = ((Number) sortValues[0]).longValue() + "," + sortValues[1];
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Object[] decodeCursor(String cursor) {
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Illegal trace query cursor: " + cursor, e);
+        }
+        int separator = value.indexOf(',');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Illegal trace query cursor: " + cursor);
+        }
+        return new Object[] {
+            Long.parseLong(value.substring(0, separator)),
+            value.substring(separator + 1)
+        };
+    }
+
     @Override
     public List<SegmentRecord> queryByTraceId(String traceId) throws IOException {
         SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource();
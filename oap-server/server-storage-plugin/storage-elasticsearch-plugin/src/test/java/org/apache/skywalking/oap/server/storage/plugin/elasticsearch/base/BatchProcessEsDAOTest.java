@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.storage.StorageException;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchInsertRequest;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+import org.apache.skywalking.oap.server.library.module.ModuleProviderHolder;
+import org.apache.skywalking.oap.server.library.module.ModuleServiceHolder;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.rest.RestStatus;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchProcessEsDAOTest {
+    private ModuleDefineHolder moduleDefineHolder;
+    private ElasticSearchClient client;
+
+    @Before
+    public void before() throws Exception {
+        moduleDefineHolder = mock(ModuleDefineHolder.class);
+        ModuleProviderHolder providerHolder = mock(ModuleProviderHolder.class);
+        ModuleServiceHolder serviceHolder = mock(ModuleServiceHolder.class);
+        when(moduleDefineHolder.find(TelemetryModule.NAME)).thenReturn(providerHolder);
+        when(providerHolder.provider()).thenReturn(serviceHolder);
+        when(serviceHolder.getService(MetricsCreator.class)).thenReturn(new MetricsCreatorNoop());
+        client = mock(ElasticSearchClient.class);
+    }
+
+    @Test
+    public void testSplitBySyncBulkSize() throws Exception {
+        BulkResponse success = response(RestStatus.OK);
+        when(client.bulk(any(BulkRequest.class))).thenReturn(success);
+        BatchProcessEsDAO batchDAO = new BatchProcessEsDAO(moduleDefineHolder, client, 1000, 10, 2, 1, 1);
+
+        // Every request is about 300KB, a bulk is sent once it reaches 1MB.
+        batchDAO.synchronous(requests(5, 300 * 1024));
+
+        ArgumentCaptor<BulkRequest> bulks = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(client, times(2)).bulk(bulks.capture());
+        Assert.assertEquals(4, bulks.getAllValues().get(0).numberOfActions());
+        Assert.assertEquals(1, bulks.getAllValues().get(1).numberOfActions());
+    }
+
+    @Test
+    public void testRetryRejectedItemsOnly() throws Exception {
+        BulkResponse rejected = response(RestStatus.OK, RestStatus.TOO_MANY_REQUESTS, RestStatus.OK);
+        BulkResponse success = response(RestStatus.OK);
+        when(client.bulk(any(BulkRequest.class))).thenReturn(rejected, success);
+        BatchProcessEsDAO batchDAO = new BatchProcessEsDAO(moduleDefineHolder, client, 1000, 10, 2, 1, 1);
+
+        List<PrepareRequest> requests = requests(3, 10);
+        batchDAO.synchronous(requests);
+
+        ArgumentCaptor<BulkRequest> bulks = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(client, times(2)).bulk(bulks.capture());
+        Assert.assertEquals(3, bulks.getAllValues().get(0).numberOfActions());
+        BulkRequest retry = bulks.getAllValues().get(1);
+        Assert.assertEquals(1, retry.numberOfActions());
+        Assert.assertSame(requests.get(1), retry.requests().get(0));
+    }
+
+    @Test
+    public void testNotRetryOtherFailures() throws Exception {
+        BulkResponse failed = response(RestStatus.OK, RestStatus.BAD_REQUEST);
+        when(client.bulk(any(BulkRequest.class))).thenReturn(failed);
+        BatchProcessEsDAO batchDAO = new BatchProcessEsDAO(moduleDefineHolder, client, 1000, 10, 2, 1, 1);
+
+        try {
+            batchDAO.synchronous(requests(2, 10));
+            Assert.fail("The failed item should be reported.");
+        } catch (StorageException e) {
+            verify(client, times(1)).bulk(any(BulkRequest.class));
+        }
+    }
+
+    @Test
+    public void testGiveUpAfterBackoff() throws Exception {
+        BulkResponse rejected = response(RestStatus.TOO_MANY_REQUESTS);
+        when(client.bulk(any(BulkRequest.class))).thenReturn(rejected);
+        BatchProcessEsDAO batchDAO = new BatchProcessEsDAO(moduleDefineHolder, client, 1000, 10, 2, 1, 1);
+
+        try {
+            batchDAO.synchronous(requests(1, 10));
+            Assert.fail("The rejected item should be abandoned after the retries.");
+        } catch (StorageException e) {
+            // Executed once, and retried 3 times by the back-off policy.
+            verify(client, times(4)).bulk(any(BulkRequest.class));
+        }
+    }
+
+    @Test
+    public void testGiveUpFailedBulkAfterBackoff() throws Exception {
+        when(client.bulk(any(BulkRequest.class))).thenThrow(new IOException("connection refused"));
+        BatchProcessEsDAO batchDAO = new BatchProcessEsDAO(moduleDefineHolder, client, 1000, 10, 2, 1, 1);
+
+        try {
+            batchDAO.synchronous(requests(2, 10));
+            Assert.fail("The failed bulk should be abandoned after the retries.");
+        } catch (StorageException e) {
+            verify(client, times(4)).bulk(any(BulkRequest.class));
+        }
+    }
+
+    private static List<PrepareRequest> requests(int count, int bytes) throws IOException {
+        char[] data = new char[bytes];
+        Arrays.fill(data, 'a');
+        List<PrepareRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(new ElasticSearchInsertRequest("index", "type", String.valueOf(i)).source(
+                XContentFactory.jsonBuilder().startObject().field("data", new String(data)).endObject()));
+        }
+        return requests;
+    }
+
+    /**
+     * @return the response of the bulk, in which the status of the items are the given ones.
+     */
+    private static BulkResponse response(RestStatus... statuses) {
+        BulkItemResponse[] items = new BulkItemResponse[statuses.length];
+        boolean hasFailures = false;
+        for (int i = 0; i < statuses.length; i++) {
+            items[i] = mock(BulkItemResponse.class);
+            when(items[i].getItemId()).thenReturn(i);
+            when(items[i].status()).thenReturn(statuses[i]);
+            when(items[i].isFailed()).thenReturn(statuses[i] != RestStatus.OK);
+            hasFailures |= statuses[i] != RestStatus.OK;
+        }
+        BulkResponse response = mock(BulkResponse.class);
+        when(response.hasFailures()).thenReturn(hasFailures);
+        when(response.getItems()).thenReturn(items);
+        when(response.getTook()).thenReturn(TimeValue.timeValueMillis(1));
+        when(response.buildFailureMessage()).thenReturn("failure");
+        return response;
+    }
+}
@@ -73,4 +73,17 @@ public class TimeSeriesUtilsTest {
         Assert.assertEquals("normalMetricsModel-20200810", writeIndexName(normalMetricsModel, minuteTimeBucket));
     }
 
+    @Test
+    public void testIndexNameCache() {
+        long minuteTimeBucket = 2020_0809_1010L;
+        Assert.assertEquals("normalMetricsModel-20200807", writeIndexName(normalMetricsModel, minuteTimeBucket));
+        Assert.assertEquals("normalMetricsModel-20200807", writeIndexName(normalMetricsModel, minuteTimeBucket + 1));
+        Assert.assertEquals("normalMetricsModel-20200807", writeIndexName(normalMetricsModel, 2020_0807_0000L));
+        Assert.assertEquals("normalMetricsModel-20200810", writeIndexName(normalMetricsModel, 2020_0810_0000L));
+        Assert.assertEquals("normalMetricsModel-20200807", writeIndexName(normalMetricsModel, minuteTimeBucket));
+
+        TimeSeriesUtils.setDAY_STEP(1);
+        Assert.assertEquals("normalMetricsModel-20200809", writeIndexName(normalMetricsModel, minuteTimeBucket));
+    }
+
 }
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TraceQueryEsDAOTest {
+
+    @Test
+    public void testEncodeAndDecodeCursor() {
+        String cursor = TraceQueryEsDAO.encodeCursor(new Object[] {1596005100000L, "a1b2.51.15960051000000001"});
+        Assert.assertFalse(cursor.contains("="));
+
+        Object[] sortValues = TraceQueryEsDAO.decodeCursor(cursor);
+        Assert.assertEquals(2, sortValues.length);
+        Assert.assertEquals(1596005100000L, sortValues[0]);
+        Assert.assertEquals("a1b2.51.15960051000000001", sortValues[1]);
+    }
+
+    @Test
+    public void testEncodeIntegerSortValue() {
+        // The latency is sorted as an integer.
+        Object[] sortValues = TraceQueryEsDAO.decodeCursor(TraceQueryEsDAO.encodeCursor(new Object[] {120, "segment"}));
+        Assert.assertEquals(120L, sortValues[0]);
+        Assert.assertEquals("segment", sortValues[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeIllegalBase64() {
+        TraceQueryEsDAO.decodeCursor("!not base64!");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeCursorWithoutSegmentId() {
+        TraceQueryEsDAO.decodeCursor(
+            Base64.getUrlEncoder().encodeToString("1596005100000".getBytes(StandardCharsets.UTF_8)));
+    }
+}
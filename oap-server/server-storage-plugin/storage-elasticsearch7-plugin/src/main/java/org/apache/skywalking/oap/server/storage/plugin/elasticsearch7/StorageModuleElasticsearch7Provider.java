@@ -154,8 +154,9 @@ public class StorageModuleElasticsearch7Provider extends ModuleProvider {
         );
 
         this.registerServiceImplementation(
-                IBatchDAO.class, new BatchProcessEsDAO(elasticSearch7Client, config.getBulkActions(),
-                        config.getFlushInterval(), config.getConcurrentRequests()
+                IBatchDAO.class, new BatchProcessEsDAO(getManager(), elasticSearch7Client, config.getBulkActions(),
+                        config.getFlushInterval(), config.getConcurrentRequests(), config.getSyncBulkSize(),
+                        config.getSyncConcurrentRequests()
                 ));
         this.registerServiceImplementation(StorageDAO.class, new StorageEs7DAO(elasticSearch7Client));
         this.registerServiceImplementation(
@@ -147,4 +147,9 @@ public class TraceQueryEs7DAO extends TraceQueryEsDAO {
 
         return traceBrief;
     }
+
+    @Override
+    protected long totalHits(SearchResponse response) {
+        return response.getHits().getTotalHits().value;
+    }
 }
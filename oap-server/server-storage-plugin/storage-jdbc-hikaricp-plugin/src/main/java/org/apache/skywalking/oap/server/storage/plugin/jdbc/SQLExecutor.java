@@ -22,18 +22,21 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.List;
+import lombok.Getter;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A SQL executor.
+ * A SQL executor. The executors sharing the same {@link #sql} could be executed in one JDBC batch, through {@link
+ * #setParameters(PreparedStatement)}.
  */
 public class SQLExecutor implements InsertRequest, UpdateRequest {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SQLExecutor.class);
 
+    @Getter
     private String sql;
     private List<Object> param;
 
@@ -43,13 +46,20 @@ public class SQLExecutor implements InsertRequest, UpdateRequest {
     }
 
     public void invoke(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            setParameters(preparedStatement);
 
+            LOGGER.debug("execute aql in batch: {}", sql);
+            preparedStatement.execute();
+        }
+    }
+
+    /**
+     * Bind the parameters to the statement prepared from the {@link #sql}.
+     */
+    public void setParameters(PreparedStatement preparedStatement) throws SQLException {
         for (int i = 0; i < param.size(); i++) {
             preparedStatement.setObject(i + 1, param.get(i));
         }
-
-        LOGGER.debug("execute aql in batch: {}", sql);
-        preparedStatement.execute();
     }
 }
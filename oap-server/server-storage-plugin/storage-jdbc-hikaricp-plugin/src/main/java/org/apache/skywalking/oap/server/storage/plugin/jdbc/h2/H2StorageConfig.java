@@ -59,4 +59,23 @@ public class H2StorageConfig extends ModuleConfig {
      * @since 8.2.0
      */
     private int numOfSearchableValuesPerTag = 2;
+    /**
+     * The max number of the statements executed in one JDBC batch.
+     *
+     * @since 8.2.0
+     */
+    private int maxSizeOfBatchSql = 100;
+    /**
+     * The number of the connections executing the JDBC batches of one persistence round in parallel.
+     *
+     * @since 8.2.0
+     */
+    private int batchPersistentPoolSize = 1;
+    /**
+     * The max number of the rows removed by one delete statement of the TTL. The expired data is removed by several
+     * statements, rather than one huge statement locking the table for a long time. 0 or negative means no limit.
+     *
+     * @since 8.2.0
+     */
+    private int maxSizeOfBatchDelete = 10000;
 }
@@ -110,7 +110,10 @@ public class H2StorageProvider extends ModuleProvider {
         settings.setProperty("dataSource.password", config.getPassword());
         h2Client = new JDBCHikariCPClient(settings);
 
-        this.registerServiceImplementation(IBatchDAO.class, new H2BatchDAO(h2Client));
+        this.registerServiceImplementation(
+            IBatchDAO.class,
+            new H2BatchDAO(h2Client, config.getMaxSizeOfBatchSql(), config.getBatchPersistentPoolSize())
+        );
         this.registerServiceImplementation(
             StorageDAO.class,
             new H2StorageDAO(
@@ -134,7 +137,7 @@ public class H2StorageProvider extends ModuleProvider {
         this.registerServiceImplementation(IAggregationQueryDAO.class, new H2AggregationQueryDAO(h2Client));
         this.registerServiceImplementation(IAlarmQueryDAO.class, new H2AlarmQueryDAO(h2Client));
         this.registerServiceImplementation(
-            IHistoryDeleteDAO.class, new H2HistoryDeleteDAO(h2Client));
+            IHistoryDeleteDAO.class, new H2HistoryDeleteDAO(h2Client, config.getMaxSizeOfBatchDelete()));
         this.registerServiceImplementation(ITopNRecordsQueryDAO.class, new H2TopNRecordsQueryDAO(h2Client));
         this.registerServiceImplementation(ILogQueryDAO.class, new H2LogQueryDAO(h2Client));
 
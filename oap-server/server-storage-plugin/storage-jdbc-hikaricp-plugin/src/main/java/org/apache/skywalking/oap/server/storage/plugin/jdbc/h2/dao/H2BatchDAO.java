@@ -18,9 +18,21 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
@@ -28,6 +40,7 @@ import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPoolFactor
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageException;
 import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
@@ -35,13 +48,31 @@ import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
 
+/**
+ * H2BatchDAO groups the requests by the SQL, and executes every group through JDBC batches of {@link
+ * #maxSizeOfBatchSql} statements. The batches are spread over {@link #batchPersistentPoolSize} connections in
+ * parallel, and each connection prepares the statement once per batch.
+ */
 @Slf4j
 public class H2BatchDAO implements IBatchDAO {
     private JDBCHikariCPClient h2Client;
     private final DataCarrier<PrepareRequest> dataCarrier;
+    private final int maxSizeOfBatchSql;
+    private final int batchPersistentPoolSize;
+    private final ExecutorService executor;
 
-    public H2BatchDAO(JDBCHikariCPClient h2Client) {
+    public H2BatchDAO(JDBCHikariCPClient h2Client, int maxSizeOfBatchSql, int batchPersistentPoolSize) {
         this.h2Client = h2Client;
+        this.maxSizeOfBatchSql = Math.max(1, maxSizeOfBatchSql);
+        this.batchPersistentPoolSize = Math.max(1, batchPersistentPoolSize);
+        if (this.batchPersistentPoolSize > 1) {
+            this.executor = Executors.newFixedThreadPool(
+                this.batchPersistentPoolSize,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("jdbc-batch-persistent-%d").build()
+            );
+        } else {
+            this.executor = null;
+        }
 
         String name = "H2_ASYNCHRONOUS_BATCH_PERSISTENT";
         BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, 1, 20);
@@ -56,7 +87,7 @@ public class H2BatchDAO implements IBatchDAO {
     }
 
     @Override
-    public void synchronous(List<PrepareRequest> prepareRequests) {
+    public void synchronous(List<PrepareRequest> prepareRequests) throws StorageException {
         if (CollectionUtils.isEmpty(prepareRequests)) {
             return;
         }
@@ -65,19 +96,117 @@ public class H2BatchDAO implements IBatchDAO {
             log.debug("batch sql statements execute, data size: {}", prepareRequests.size());
         }
 
+        Map<String, List<SQLExecutor>> groups = new LinkedHashMap<>();
+        for (PrepareRequest prepareRequest : prepareRequests) {
+            SQLExecutor sqlExecutor = (SQLExecutor) prepareRequest;
+            groups.computeIfAbsent(sqlExecutor.getSql(), sql -> new ArrayList<>()).add(sqlExecutor);
+        }
+        List<List<SQLExecutor>> batches = new ArrayList<>();
+        for (List<SQLExecutor> group : groups.values()) {
+            batches.addAll(Lists.partition(group, maxSizeOfBatchSql));
+        }
+
+        final int failed;
+        if (executor == null || batches.size() == 1) {
+            failed = executeBatches(batches);
+        } else {
+            failed = executeBatchesInParallel(batches);
+        }
+        if (failed > 0) {
+            throw new StorageException(failed + " of " + prepareRequests.size() + " statements are failed.");
+        }
+    }
+
+    private int executeBatchesInParallel(List<List<SQLExecutor>> batches) throws StorageException {
+
+        // Assign the batches to the connections in turn, the requests of one group never share one batch with the
+        // others, so the execution order across the connections doesn't matter.
+        int lanes = Math.min(batchPersistentPoolSize, batches.size());
+        List<List<List<SQLExecutor>>> batchesOfLanes = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            batchesOfLanes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < batches.size(); i++) {
+            batchesOfLanes.get(i % lanes).add(batches.get(i));
+        }
+        List<Future<Integer>> futures = new ArrayList<>(lanes);
+        for (List<List<SQLExecutor>> batchesOfLane : batchesOfLanes) {
+            futures.add(executor.submit(() -> executeBatches(batchesOfLane)));
+        }
+        int failed = 0;
+        for (int i = 0; i < lanes; i++) {
+            try {
+                failed += futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StorageException("Interrupted while executing the batches.", e);
+            } catch (ExecutionException e) {
+                log.error(e.getMessage(), e);
+                failed += countStatements(batchesOfLanes.get(i));
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * @return the number of the failed statements.
+     */
+    private int executeBatches(List<List<SQLExecutor>> batches) {
+        int failed = 0;
+        int executed = 0;
         try (Connection connection = h2Client.getConnection()) {
-            for (PrepareRequest prepareRequest : prepareRequests) {
-                try {
-                    SQLExecutor sqlExecutor = (SQLExecutor) prepareRequest;
-                    sqlExecutor.invoke(connection);
-                } catch (SQLException e) {
-                    // Just avoid one execution failure makes the rest of batch failure.
-                    log.error(e.getMessage(), e);
-                }
+            for (List<SQLExecutor> batch : batches) {
+                failed += executeBatch(connection, batch);
+                executed++;
             }
         } catch (SQLException | JDBCClientException e) {
             log.error(e.getMessage(), e);
+            failed += countStatements(batches.subList(executed, batches.size()));
+        }
+        return failed;
+    }
+
+    private static int countStatements(List<List<SQLExecutor>> batches) {
+        int count = 0;
+        for (List<SQLExecutor> batch : batches) {
+            count += batch.size();
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of the failed statements.
+     */
+    private int executeBatch(Connection connection, List<SQLExecutor> batch) {
+        int failed = 0;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(batch.get(0).getSql())) {
+            for (SQLExecutor sqlExecutor : batch) {
+                sqlExecutor.setParameters(preparedStatement);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        } catch (BatchUpdateException e) {
+            log.warn(
+                "Execute batch of {} statements failed, retry the failed ones one by one. {}", batch.size(),
+                e.getMessage()
+            );
+            // Just avoid one execution failure makes the rest of batch failure.
+            int[] updateCounts = e.getUpdateCounts();
+            for (int i = 0; i < batch.size(); i++) {
+                if (updateCounts == null || i >= updateCounts.length || updateCounts[i] == Statement.EXECUTE_FAILED) {
+                    try {
+                        batch.get(i).invoke(connection);
+                    } catch (SQLException ex) {
+                        log.error(ex.getMessage(), ex);
+                        failed++;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage(), e);
+            failed = batch.size();
         }
+        return failed;
     }
 
     @Override
@@ -100,7 +229,11 @@ public class H2BatchDAO implements IBatchDAO {
 
         @Override
         public void consume(List<PrepareRequest> prepareRequests) {
-            h2BatchDAO.synchronous(prepareRequests);
+            try {
+                h2BatchDAO.synchronous(prepareRequests);
+            } catch (StorageException e) {
+                log.error(e.getMessage(), e);
+            }
         }
 
         @Override
@@ -28,19 +28,28 @@ import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariC
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLBuilder;
 import org.joda.time.DateTime;
 
+/**
+ * Delete the expired rows in batches of {@link #maxSizeOfBatchDelete} rows, each batch is a separated statement, so
+ * the locks are held only for a short while, rather than the whole time of removing the expired data of one day.
+ */
 public class H2HistoryDeleteDAO implements IHistoryDeleteDAO {
 
     private final JDBCHikariCPClient client;
+    private final int maxSizeOfBatchDelete;
 
-    public H2HistoryDeleteDAO(JDBCHikariCPClient client) {
+    public H2HistoryDeleteDAO(JDBCHikariCPClient client, int maxSizeOfBatchDelete) {
         this.client = client;
+        this.maxSizeOfBatchDelete = maxSizeOfBatchDelete;
     }
 
     @Override
-    public void deleteHistory(Model model, String timeBucketColumnName, int ttl) throws IOException {
+    public long deleteHistory(Model model, String timeBucketColumnName, int ttl) throws IOException {
         SQLBuilder dataDeleteSQL = new SQLBuilder("delete from " + model.getName() + " where ")
             .append(timeBucketColumnName).append("<= ? and ")
             .append(timeBucketColumnName).append(">= ?");
+        if (maxSizeOfBatchDelete > 0) {
+            dataDeleteSQL.append(" limit " + maxSizeOfBatchDelete);
+        }
         long minTimeBucket = 0;
         DateTime minDate = new DateTime(1900, 1, 1, 0, 0);
 
@@ -63,10 +72,16 @@ public class H2HistoryDeleteDAO implements IHistoryDeleteDAO {
                         minTimeBucket = Long.valueOf(minDate.toString("yyyyMMdd"));
                         break;
                     default:
-                        return;
+                        return 0;
                 }
             }
-            client.execute(connection, dataDeleteSQL.toString(), deadline, minTimeBucket);
+            long deleted = 0;
+            int affected;
+            do {
+                affected = client.executeUpdate(connection, dataDeleteSQL.toString(), deadline, minTimeBucket);
+                deleted += affected;
+            } while (maxSizeOfBatchDelete > 0 && affected >= maxSizeOfBatchDelete);
+            return deleted;
         } catch (JDBCClientException | SQLException e) {
             throw new IOException(e.getMessage(), e);
         }
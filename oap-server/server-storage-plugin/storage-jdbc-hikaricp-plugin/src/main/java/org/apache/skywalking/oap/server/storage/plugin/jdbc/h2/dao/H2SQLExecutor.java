@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
 import org.apache.skywalking.oap.server.core.storage.StorageData;
@@ -40,6 +41,9 @@ import org.apache.skywalking.oap.server.storage.plugin.jdbc.TableMetaInfo;
 
 @Slf4j
 public class H2SQLExecutor {
+    private static final Map<String, String> INSERT_SQL = new ConcurrentHashMap<>();
+    private static final Map<String, String> UPDATE_SQL = new ConcurrentHashMap<>();
+
     protected <T extends StorageData> List<StorageData> getByIDs(JDBCHikariCPClient h2Client,
                                                                  String modelName,
                                                                  String[] ids,
@@ -113,24 +117,15 @@ public class H2SQLExecutor {
                                                                     int maxSizeOfArrayColumn) throws IOException {
         Map<String, Object> objectMap = storageBuilder.data2Map(metrics);
 
-        SQLBuilder sqlBuilder = new SQLBuilder("INSERT INTO " + modelName + " VALUES");
         List<ModelColumn> columns = TableMetaInfo.get(modelName).getColumns();
         List<Object> param = new ArrayList<>();
-        sqlBuilder.append("(?,");
         param.add(metrics.id());
-        for (int i = 0; i < columns.size(); i++) {
-            ModelColumn column = columns.get(i);
+        for (ModelColumn column : columns) {
             if (List.class.isAssignableFrom(column.getType())) {
                 for (int physicalColumnIdx = 0; physicalColumnIdx < maxSizeOfArrayColumn; physicalColumnIdx++) {
-                    sqlBuilder.append("?");
                     param.add(objectMap.get(column.getColumnName().getName() + "_" + physicalColumnIdx));
-                    if (physicalColumnIdx != maxSizeOfArrayColumn - 1) {
-                        sqlBuilder.append(",");
-                    }
                 }
             } else {
-                sqlBuilder.append("?");
-
                 Object value = objectMap.get(column.getColumnName().getName());
                 if (value instanceof StorageDataComplexObject) {
                     param.add(((StorageDataComplexObject) value).toStorageData());
@@ -138,30 +133,18 @@ public class H2SQLExecutor {
                     param.add(value);
                 }
             }
-
-            if (i != columns.size() - 1) {
-                sqlBuilder.append(",");
-            }
         }
-        sqlBuilder.append(")");
 
-        return new SQLExecutor(sqlBuilder.toString(), param);
+        return new SQLExecutor(insertSQL(modelName, columns, maxSizeOfArrayColumn), param);
     }
 
     protected <T extends StorageData> SQLExecutor getUpdateExecutor(String modelName, T metrics,
                                                                     StorageBuilder<T> storageBuilder) throws IOException {
         Map<String, Object> objectMap = storageBuilder.data2Map(metrics);
 
-        SQLBuilder sqlBuilder = new SQLBuilder("UPDATE " + modelName + " SET ");
         List<ModelColumn> columns = TableMetaInfo.get(modelName).getColumns();
         List<Object> param = new ArrayList<>();
-        for (int i = 0; i < columns.size(); i++) {
-            ModelColumn column = columns.get(i);
-            sqlBuilder.append(column.getColumnName().getStorageName() + "= ?");
-            if (i != columns.size() - 1) {
-                sqlBuilder.append(",");
-            }
-
+        for (ModelColumn column : columns) {
             Object value = objectMap.get(column.getColumnName().getName());
             if (value instanceof StorageDataComplexObject) {
                 param.add(((StorageDataComplexObject) value).toStorageData());
@@ -169,9 +152,53 @@ public class H2SQLExecutor {
                 param.add(value);
             }
         }
-        sqlBuilder.append(" WHERE id = ?");
         param.add(metrics.id());
 
-        return new SQLExecutor(sqlBuilder.toString(), param);
+        return new SQLExecutor(updateSQL(modelName, columns), param);
+    }
+
+    /**
+     * The insert statement only depends on the table, build it once and share it by all rows, which also makes the
+     * rows of the same table could be executed in one JDBC batch.
+     */
+    private static String insertSQL(String modelName, List<ModelColumn> columns, int maxSizeOfArrayColumn) {
+        return INSERT_SQL.computeIfAbsent(modelName + "#" + maxSizeOfArrayColumn, key -> {
+            SQLBuilder sqlBuilder = new SQLBuilder("INSERT INTO " + modelName + " VALUES");
+            sqlBuilder.append("(?,");
+            for (int i = 0; i < columns.size(); i++) {
+                ModelColumn column = columns.get(i);
+                if (List.class.isAssignableFrom(column.getType())) {
+                    for (int physicalColumnIdx = 0; physicalColumnIdx < maxSizeOfArrayColumn; physicalColumnIdx++) {
+                        sqlBuilder.append("?");
+                        if (physicalColumnIdx != maxSizeOfArrayColumn - 1) {
+                            sqlBuilder.append(",");
+                        }
+                    }
+                } else {
+                    sqlBuilder.append("?");
+                }
+
+                if (i != columns.size() - 1) {
+                    sqlBuilder.append(",");
+                }
+            }
+            sqlBuilder.append(")");
+            return sqlBuilder.toString();
+        });
+    }
+
+    private static String updateSQL(String modelName, List<ModelColumn> columns) {
+        return UPDATE_SQL.computeIfAbsent(modelName, key -> {
+            SQLBuilder sqlBuilder = new SQLBuilder("UPDATE " + modelName + " SET ");
+            for (int i = 0; i < columns.size(); i++) {
+                ModelColumn column = columns.get(i);
+                sqlBuilder.append(column.getColumnName().getStorageName() + "= ?");
+                if (i != columns.size() - 1) {
+                    sqlBuilder.append(",");
+                }
+            }
+            sqlBuilder.append(" WHERE id = ?");
+            return sqlBuilder.toString();
+        });
     }
 }
@@ -25,6 +25,7 @@ import java.util.Map;
 import joptsimple.internal.Strings;
 import org.apache.skywalking.apm.util.StringUtil;
 import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentDataCodec;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.analysis.record.Record;
 import org.apache.skywalking.oap.server.core.analysis.topn.TopN;
@@ -89,7 +90,10 @@ public class H2SegmentRecordBuilder implements StorageBuilder<Record> {
         if (CollectionUtils.isEmpty(storageData.getDataBinary())) {
             map.put(DATA_BINARY, Const.EMPTY_STRING);
         } else {
-            map.put(DATA_BINARY, new String(Base64.getEncoder().encode(storageData.getDataBinary())));
+            map.put(
+                DATA_BINARY,
+                new String(Base64.getEncoder().encode(SegmentDataCodec.encode(storageData.getDataBinary())))
+            );
         }
         map.put(VERSION, storageData.getVersion());
         storageData.getTagsRawData().forEach(spanTag -> {
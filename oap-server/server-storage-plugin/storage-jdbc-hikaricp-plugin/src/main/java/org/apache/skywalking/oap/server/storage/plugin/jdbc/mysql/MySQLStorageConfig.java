@@ -39,5 +39,23 @@ public final class MySQLStorageConfig extends ModuleConfig {
      * @since 8.2.0
      */
     private int numOfSearchableValuesPerTag = 2;
+    /**
+     * Inherit from {@link org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.H2StorageConfig#getMaxSizeOfBatchSql()}
+     *
+     * @since 8.2.0
+     */
+    private int maxSizeOfBatchSql = 2000;
+    /**
+     * Inherit from {@link org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.H2StorageConfig#getBatchPersistentPoolSize()}
+     *
+     * @since 8.2.0
+     */
+    private int batchPersistentPoolSize = 4;
+    /**
+     * Inherit from {@link org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.H2StorageConfig#getMaxSizeOfBatchDelete()}
+     *
+     * @since 8.2.0
+     */
+    private int maxSizeOfBatchDelete = 10000;
     private Properties properties;
 }
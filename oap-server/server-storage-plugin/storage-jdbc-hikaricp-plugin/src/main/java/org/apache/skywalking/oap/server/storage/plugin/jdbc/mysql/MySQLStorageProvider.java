@@ -97,7 +97,10 @@ public class MySQLStorageProvider extends ModuleProvider {
     public void prepare() throws ServiceNotProvidedException {
         mysqlClient = new JDBCHikariCPClient(config.getProperties());
 
-        this.registerServiceImplementation(IBatchDAO.class, new H2BatchDAO(mysqlClient));
+        this.registerServiceImplementation(
+            IBatchDAO.class,
+            new H2BatchDAO(mysqlClient, config.getMaxSizeOfBatchSql(), config.getBatchPersistentPoolSize())
+        );
         this.registerServiceImplementation(
             StorageDAO.class,
             new H2StorageDAO(
@@ -122,7 +125,7 @@ public class MySQLStorageProvider extends ModuleProvider {
         this.registerServiceImplementation(IAggregationQueryDAO.class, new MySQLAggregationQueryDAO(mysqlClient));
         this.registerServiceImplementation(IAlarmQueryDAO.class, new MySQLAlarmQueryDAO(mysqlClient));
         this.registerServiceImplementation(
-            IHistoryDeleteDAO.class, new H2HistoryDeleteDAO(mysqlClient));
+            IHistoryDeleteDAO.class, new H2HistoryDeleteDAO(mysqlClient, config.getMaxSizeOfBatchDelete()));
         this.registerServiceImplementation(ITopNRecordsQueryDAO.class, new H2TopNRecordsQueryDAO(mysqlClient));
         this.registerServiceImplementation(ILogQueryDAO.class, new MySQLLogQueryDAO(mysqlClient));
 
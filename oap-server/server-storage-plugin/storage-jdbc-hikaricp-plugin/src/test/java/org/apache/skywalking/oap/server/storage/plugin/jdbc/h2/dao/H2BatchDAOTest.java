@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.storage.StorageException;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class H2BatchDAOTest {
+    private JDBCHikariCPClient client;
+    private Connection connection;
+    private PreparedStatement preparedStatement;
+
+    @Before
+    public void before() throws Exception {
+        client = mock(JDBCHikariCPClient.class);
+        connection = mock(Connection.class);
+        preparedStatement = mock(PreparedStatement.class);
+        when(client.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+    }
+
+    @Test
+    public void testBatchBySQL() throws Exception {
+        H2BatchDAO batchDAO = new H2BatchDAO(client, 2, 1);
+
+        List<PrepareRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(new SQLExecutor("INSERT INTO a VALUES(?)", Collections.singletonList(i)));
+            requests.add(new SQLExecutor("INSERT INTO b VALUES(?)", Collections.singletonList(i)));
+        }
+        batchDAO.synchronous(requests);
+
+        // Table a and b are executed in 2 batches respectively, through one connection.
+        verify(client, times(1)).getConnection();
+        verify(connection, times(2)).prepareStatement("INSERT INTO a VALUES(?)");
+        verify(connection, times(2)).prepareStatement("INSERT INTO b VALUES(?)");
+        verify(preparedStatement, times(6)).addBatch();
+        verify(preparedStatement, times(4)).executeBatch();
+        verify(preparedStatement, times(0)).execute();
+    }
+
+    @Test
+    public void testBatchInParallel() throws Exception {
+        H2BatchDAO batchDAO = new H2BatchDAO(client, 1, 2);
+
+        List<PrepareRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            requests.add(new SQLExecutor("INSERT INTO a VALUES(?)", Collections.singletonList(i)));
+        }
+        batchDAO.synchronous(requests);
+
+        verify(client, times(2)).getConnection();
+        verify(preparedStatement, times(4)).addBatch();
+        verify(preparedStatement, times(4)).executeBatch();
+    }
+
+    @Test
+    public void testRetryFailedStatements() throws Exception {
+        H2BatchDAO batchDAO = new H2BatchDAO(client, 10, 1);
+        when(preparedStatement.executeBatch()).thenThrow(
+            new BatchUpdateException(new int[] {1, Statement.EXECUTE_FAILED}));
+
+        List<PrepareRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(new SQLExecutor("INSERT INTO a VALUES(?)", Collections.singletonList(i)));
+        }
+        batchDAO.synchronous(requests);
+
+        // The first one succeeded, the others are executed one by one.
+        verify(preparedStatement, times(2)).execute();
+        verify(preparedStatement, times(1)).setObject(eq(1), eq(0));
+        verify(preparedStatement, times(2)).setObject(eq(1), eq(1));
+        verify(preparedStatement, times(2)).setObject(eq(1), eq(2));
+        verify(preparedStatement, times(5)).setObject(anyInt(), anyObject());
+    }
+
+    @Test(expected = StorageException.class)
+    public void testReportFailedStatements() throws Exception {
+        H2BatchDAO batchDAO = new H2BatchDAO(client, 10, 1);
+        when(preparedStatement.executeBatch()).thenThrow(
+            new BatchUpdateException(new int[] {1, Statement.EXECUTE_FAILED}));
+        when(preparedStatement.execute()).thenThrow(new SQLException("duplicate key"));
+
+        List<PrepareRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            requests.add(new SQLExecutor("INSERT INTO a VALUES(?)", Collections.singletonList(i)));
+        }
+        batchDAO.synchronous(requests);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.skywalking.oap.server.library.module.ModuleConfig;
+
+@Setter
+@Getter
+public class LocalStorageConfig extends ModuleConfig {
+    /**
+     * The directory hosting the data files. Every model has its own sub-directory, partitioned by day.
+     */
+    private String dataPath = "local-storage";
+    /**
+     * The max size of one data file, in MB. A new file of the partition is created when the current one is full. The
+     * files are memory mapped in chunks, but the rows are located by the int offsets in the file, so the size must be
+     * less than 2048.
+     */
+    private int maxSegmentSize = 256;
+    private int metadataQueryMaxSize = 5000;
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local;
+
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
+import org.apache.skywalking.oap.server.core.storage.IHistoryDeleteDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageModule;
+import org.apache.skywalking.oap.server.core.storage.cache.INetworkAddressAliasDAO;
+import org.apache.skywalking.oap.server.core.storage.management.UITemplateManagementDAO;
+import org.apache.skywalking.oap.server.core.storage.model.ModelCreator;
+import org.apache.skywalking.oap.server.core.storage.profile.IProfileTaskLogQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.profile.IProfileTaskQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.profile.IProfileThreadSnapshotQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.query.IAggregationQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.query.IAlarmQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.query.ILogQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.query.IMetadataQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.query.IMetricsQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.query.ITopNRecordsQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.query.ITopologyQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
+import org.apache.skywalking.oap.server.library.module.ModuleConfig;
+import org.apache.skywalking.oap.server.library.module.ModuleDefine;
+import org.apache.skywalking.oap.server.library.module.ModuleProvider;
+import org.apache.skywalking.oap.server.library.module.ModuleStartException;
+import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalAggregationQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalAlarmQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalBatchDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalHistoryDeleteDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalLogQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalMetadataQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalMetricsQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalModelInstaller;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalNetworkAddressAliasDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalProfileTaskLogQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalProfileTaskQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalProfileThreadSnapshotQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalStorageDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalTopNRecordsQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalTopologyQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalTraceQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.dao.LocalUITemplateManagementDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+/**
+ * Local storage provider hosts the data in the local file system, without any external database. Every model is
+ * stored as the day partitioned append-only files, which are memory mapped for reading, and the expired data is
+ * removed by deleting the whole partitions.
+ * <p>
+ * The metrics are read by the in-memory id index, and the traces by the trace id index of the segments. The other
+ * queries scan the partitions of the queried duration. The data files are owned by this OAP node, they are not shared
+ * in the cluster.
+ */
+@Slf4j
+public class LocalStorageProvider extends ModuleProvider {
+
+    private final LocalStorageConfig config;
+    private LocalStore localStore;
+
+    public LocalStorageProvider() {
+        config = new LocalStorageConfig();
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public Class<? extends ModuleDefine> module() {
+        return StorageModule.class;
+    }
+
+    @Override
+    public ModuleConfig createConfigBeanIfAbsent() {
+        return config;
+    }
+
+    @Override
+    public void prepare() throws ServiceNotProvidedException, ModuleStartException {
+        if (config.getMaxSegmentSize() <= 0 || config.getMaxSegmentSize() >= 2048) {
+            throw new ModuleStartException(
+                "maxSegmentSize[" + config.getMaxSegmentSize() + "] of the local storage should be in (0, 2048).");
+        }
+        localStore = new LocalStore(config.getDataPath(), config.getMaxSegmentSize() * 1024 * 1024);
+
+        this.registerServiceImplementation(IBatchDAO.class, new LocalBatchDAO(localStore));
+        this.registerServiceImplementation(StorageDAO.class, new LocalStorageDAO(localStore));
+        this.registerServiceImplementation(IHistoryDeleteDAO.class, new LocalHistoryDeleteDAO(localStore));
+        this.registerServiceImplementation(
+            INetworkAddressAliasDAO.class, new LocalNetworkAddressAliasDAO(localStore));
+
+        this.registerServiceImplementation(ITopologyQueryDAO.class, new LocalTopologyQueryDAO(localStore));
+        this.registerServiceImplementation(IMetricsQueryDAO.class, new LocalMetricsQueryDAO(localStore));
+        this.registerServiceImplementation(ITraceQueryDAO.class, new LocalTraceQueryDAO(localStore));
+        this.registerServiceImplementation(
+            IMetadataQueryDAO.class, new LocalMetadataQueryDAO(localStore, config.getMetadataQueryMaxSize()));
+        this.registerServiceImplementation(IAggregationQueryDAO.class, new LocalAggregationQueryDAO(localStore));
+        this.registerServiceImplementation(IAlarmQueryDAO.class, new LocalAlarmQueryDAO(localStore));
+        this.registerServiceImplementation(ITopNRecordsQueryDAO.class, new LocalTopNRecordsQueryDAO(localStore));
+        this.registerServiceImplementation(ILogQueryDAO.class, new LocalLogQueryDAO(localStore));
+
+        this.registerServiceImplementation(IProfileTaskQueryDAO.class, new LocalProfileTaskQueryDAO(localStore));
+        this.registerServiceImplementation(
+            IProfileTaskLogQueryDAO.class, new LocalProfileTaskLogQueryDAO(localStore));
+        this.registerServiceImplementation(
+            IProfileThreadSnapshotQueryDAO.class, new LocalProfileThreadSnapshotQueryDAO(localStore));
+        this.registerServiceImplementation(
+            UITemplateManagementDAO.class, new LocalUITemplateManagementDAO(localStore));
+    }
+
+    @Override
+    public void start() throws ServiceNotProvidedException, ModuleStartException {
+        try {
+            localStore.connect();
+        } catch (IOException e) {
+            throw new ModuleStartException(e.getMessage(), e);
+        }
+
+        LocalModelInstaller installer = new LocalModelInstaller(localStore);
+        getManager().find(CoreModule.NAME).provider().getService(ModelCreator.class).addModelListener(installer);
+    }
+
+    @Override
+    public void notifyAfterCompleted() throws ServiceNotProvidedException, ModuleStartException {
+
+    }
+
+    @Override
+    public String[] requiredModules() {
+        return new String[] {CoreModule.NAME};
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.query.enumeration.Order;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.TopNCondition;
+import org.apache.skywalking.oap.server.core.query.type.KeyValue;
+import org.apache.skywalking.oap.server.core.query.type.SelectedRecord;
+import org.apache.skywalking.oap.server.core.storage.query.IAggregationQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+public class LocalAggregationQueryDAO extends LocalDAO implements IAggregationQueryDAO {
+
+    public LocalAggregationQueryDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public List<SelectedRecord> sortMetrics(final TopNCondition metrics,
+                                            final String valueColumnName,
+                                            final Duration duration,
+                                            List<KeyValue> additionalConditions) throws IOException {
+        final long startTB = duration.getStartTimeBucket();
+        final long endTB = duration.getEndTimeBucket();
+        // entity id -> [sum, count]
+        Map<String, long[]> groups = new HashMap<>();
+        scan(metrics.getName(), startTB, endTB, (id, row) -> {
+            if (!between(row, Metrics.TIME_BUCKET, startTB, endTB)) {
+                return true;
+            }
+            if (additionalConditions != null) {
+                for (KeyValue condition : additionalConditions) {
+                    if (!Objects.equals(condition.getValue(), stringValue(row, condition.getKey()))) {
+                        return true;
+                    }
+                }
+            }
+            long[] sumAndCount = groups.computeIfAbsent(stringValue(row, Metrics.ENTITY_ID), k -> new long[2]);
+            sumAndCount[0] += longValue(row, valueColumnName);
+            sumAndCount[1]++;
+            return true;
+        });
+
+        List<SelectedRecord> topNEntities = new ArrayList<>(groups.size());
+        groups.forEach((entityId, sumAndCount) -> {
+            SelectedRecord topNEntity = new SelectedRecord();
+            topNEntity.setId(entityId);
+            topNEntity.setValue(String.valueOf(sumAndCount[0] / sumAndCount[1]));
+            topNEntities.add(topNEntity);
+        });
+        Comparator<SelectedRecord> comparator = Comparator.comparingLong(record -> Long.parseLong(record.getValue()));
+        topNEntities.sort(metrics.getOrder().equals(Order.ASC) ? comparator : comparator.reversed());
+        return page(topNEntities, 0, metrics.getTopN());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import com.google.common.base.Strings;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import org.apache.skywalking.oap.server.core.alarm.AlarmRecord;
+import org.apache.skywalking.oap.server.core.query.enumeration.Scope;
+import org.apache.skywalking.oap.server.core.query.type.AlarmMessage;
+import org.apache.skywalking.oap.server.core.query.type.Alarms;
+import org.apache.skywalking.oap.server.core.storage.query.IAlarmQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+public class LocalAlarmQueryDAO extends LocalDAO implements IAlarmQueryDAO {
+
+    public LocalAlarmQueryDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public Alarms getAlarm(Integer scopeId, String keyword, int limit, int from, long startTB,
+                           long endTB) throws IOException {
+        final boolean inDuration = startTB != 0 && endTB != 0;
+
+        List<AlarmMessage> messages = new ArrayList<>();
+        localStore.model(AlarmRecord.INDEX_NAME).scan(
+            inDuration ? LocalStore.dayOf(startTB) : Long.MIN_VALUE,
+            inDuration ? LocalStore.dayOf(endTB) : Long.MAX_VALUE,
+            (id, row) -> {
+                if (inDuration && !between(row, AlarmRecord.TIME_BUCKET, startTB, endTB)) {
+                    return true;
+                }
+                final int scope = (int) longValue(row, AlarmRecord.SCOPE);
+                if (Objects.nonNull(scopeId) && scopeId != scope) {
+                    return true;
+                }
+                final String alarmMessage = stringValue(row, AlarmRecord.ALARM_MESSAGE);
+                if (!Strings.isNullOrEmpty(keyword) && (alarmMessage == null || !alarmMessage.contains(keyword))) {
+                    return true;
+                }
+                AlarmMessage message = new AlarmMessage();
+                message.setId(stringValue(row, AlarmRecord.ID0));
+                message.setMessage(alarmMessage);
+                message.setStartTime(longValue(row, AlarmRecord.START_TIME));
+                message.setScope(Scope.Finder.valueOf(scope));
+                message.setScopeId(scope);
+                messages.add(message);
+                return true;
+            }
+        );
+        messages.sort(Comparator.comparingLong(AlarmMessage::getStartTime).reversed());
+
+        Alarms alarms = new Alarms();
+        alarms.setTotal(messages.size());
+        alarms.getMsgs().addAll(page(messages, from, limit));
+        return alarms;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageException;
+import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+/**
+ * Appending a row into the local storage is a memory copy only, so the requests are executed in the caller thread
+ * rather than being queued. The synchronous batch flushes the appended rows to the disk after the execution.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LocalBatchDAO implements IBatchDAO {
+    private final LocalStore localStore;
+
+    @Override
+    public void asynchronous(InsertRequest insertRequest) {
+        try {
+            ((LocalInsertRequest) insertRequest).execute(localStore);
+        } catch (IOException e) {
+            log.error("Failed to write {} into the local storage.", insertRequest, e);
+        }
+    }
+
+    @Override
+    public void synchronous(List<PrepareRequest> prepareRequests) throws StorageException {
+        if (CollectionUtils.isEmpty(prepareRequests)) {
+            return;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("local storage batch execute, data size: {}", prepareRequests.size());
+        }
+
+        int failed = 0;
+        for (PrepareRequest prepareRequest : prepareRequests) {
+            try {
+                ((LocalInsertRequest) prepareRequest).execute(localStore);
+            } catch (IOException e) {
+                log.error("Failed to write {} into the local storage.", prepareRequest, e);
+                failed++;
+            }
+        }
+        try {
+            localStore.force();
+        } catch (IOException e) {
+            throw new StorageException("Failed to flush the local storage.", e);
+        }
+        if (failed > 0) {
+            throw new StorageException(failed + " of " + prepareRequests.size() + " rows are not written.");
+        }
+    }
+}
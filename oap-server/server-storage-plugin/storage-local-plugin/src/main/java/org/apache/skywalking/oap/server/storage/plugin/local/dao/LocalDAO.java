@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.RowVisitor;
+
+/**
+ * The shared helpers of the local storage DAOs.
+ */
+public abstract class LocalDAO {
+    protected final LocalStore localStore;
+
+    protected LocalDAO(LocalStore localStore) {
+        this.localStore = localStore;
+    }
+
+    /**
+     * Visit the rows of the model in the partitions covering the time buckets. The partitions are days, so the rows
+     * out of the time bucket range could be visited too, the visitor should filter by the time bucket column.
+     */
+    protected void scan(String modelName, long startTB, long endTB, RowVisitor visitor) throws IOException {
+        localStore.model(modelName).scan(LocalStore.dayOf(startTB), LocalStore.dayOf(endTB), visitor);
+    }
+
+    /**
+     * Convert the complex objects to the strings, the same as they are stored in the other storage implementations.
+     */
+    static Map<String, Object> toRow(Map<String, Object> data) {
+        data.replaceAll((column, value) -> value instanceof StorageDataComplexObject
+            ? ((StorageDataComplexObject) value).toStorageData() : value);
+        return data;
+    }
+
+    static long longValue(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    static String stringValue(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value == null ? null : value.toString();
+    }
+
+    static <T> List<T> page(List<T> sorted, int from, int limit) {
+        if (from >= sorted.size()) {
+            return Collections.emptyList();
+        }
+        return sorted.subList(from, Math.min(from + limit, sorted.size()));
+    }
+
+    static boolean between(Map<String, Object> row, String column, long start, long end) {
+        long value = longValue(row, column);
+        return value >= start && value <= end;
+    }
+}
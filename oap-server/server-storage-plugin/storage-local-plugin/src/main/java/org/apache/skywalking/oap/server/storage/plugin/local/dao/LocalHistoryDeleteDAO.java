@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.storage.IHistoryDeleteDAO;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.ModelStore;
+import org.joda.time.DateTime;
+
+/**
+ * The data is partitioned by day, the expired data is removed by deleting the partitions before the day of the
+ * deadline, rather than deleting the rows one by one. The partitions of the metrics are compacted here too, to remove
+ * the older versions of the updated rows.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LocalHistoryDeleteDAO implements IHistoryDeleteDAO {
+    private final LocalStore localStore;
+
+    @Override
+    public long deleteHistory(Model model, String timeBucketColumnName, int ttl) throws IOException {
+        if (!localStore.isOpened(model.getName())) {
+            return 0;
+        }
+        long deadline = Long.parseLong(new DateTime().plusDays(0 - ttl).toString("yyyyMMdd"));
+        ModelStore modelStore = localStore.model(model.getName());
+        List<Long> deleted = modelStore.deleteBefore(deadline);
+        if (!deleted.isEmpty()) {
+            log.info("The partitions {} of {} are deleted.", deleted, model.getName());
+        }
+        List<Long> compacted = modelStore.compact();
+        if (!compacted.isEmpty()) {
+            log.info("The partitions {} of {} are compacted.", compacted, model.getName());
+        }
+        return deleted.size();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
+import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+/**
+ * The row to append into the day partition of the model. Insert and update are the same in the local storage, as
+ * the latest appended version of the keyed row wins.
+ */
+@RequiredArgsConstructor
+public class LocalInsertRequest implements InsertRequest, UpdateRequest {
+    private final String modelName;
+    private final long day;
+    private final String id;
+    private final Map<String, Object> row;
+
+    public void execute(LocalStore localStore) throws IOException {
+        localStore.model(modelName).write(day, id, row);
+    }
+
+    @Override
+    public String toString() {
+        return modelName + "[" + day + "]: " + id;
+    }
+}
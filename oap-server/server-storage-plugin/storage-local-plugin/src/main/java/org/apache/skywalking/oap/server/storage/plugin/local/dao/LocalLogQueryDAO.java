@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import com.google.common.base.Strings;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.manual.log.AbstractLogRecord;
+import org.apache.skywalking.oap.server.core.query.type.ContentType;
+import org.apache.skywalking.oap.server.core.query.type.Log;
+import org.apache.skywalking.oap.server.core.query.type.LogState;
+import org.apache.skywalking.oap.server.core.query.type.Logs;
+import org.apache.skywalking.oap.server.core.query.type.Pagination;
+import org.apache.skywalking.oap.server.core.storage.query.ILogQueryDAO;
+import org.apache.skywalking.oap.server.library.util.BooleanUtils;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+import static org.apache.skywalking.oap.server.core.analysis.manual.log.AbstractLogRecord.CONTENT;
+import static org.apache.skywalking.oap.server.core.analysis.manual.log.AbstractLogRecord.CONTENT_TYPE;
+import static org.apache.skywalking.oap.server.core.analysis.manual.log.AbstractLogRecord.ENDPOINT_ID;
+import static org.apache.skywalking.oap.server.core.analysis.manual.log.AbstractLogRecord.ENDPOINT_NAME;
+import static org.apache.skywalking.oap.server.core.analysis.manual.log.AbstractLogRecord.SERVICE_ID;
+import static org.apache.skywalking.oap.server.core.analysis.manual.log.AbstractLogRecord.SERVICE_INSTANCE_ID;
+import static org.apache.skywalking.oap.server.core.analysis.manual.log.AbstractLogRecord.STATUS_CODE;
+import static org.apache.skywalking.oap.server.core.analysis.manual.log.AbstractLogRecord.TIMESTAMP;
+import static org.apache.skywalking.oap.server.core.analysis.manual.log.AbstractLogRecord.TRACE_ID;
+
+public class LocalLogQueryDAO extends LocalDAO implements ILogQueryDAO {
+
+    public LocalLogQueryDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public Logs queryLogs(String metricName, int serviceId, int serviceInstanceId, String endpointId, String traceId,
+                          LogState state, String stateCode, Pagination paging, int from, int limit, long startSecondTB,
+                          long endSecondTB) throws IOException {
+        final boolean inDuration = startSecondTB != 0 && endSecondTB != 0;
+
+        List<Log> matched = new ArrayList<>();
+        localStore.model(metricName).scan(
+            inDuration ? LocalStore.dayOf(startSecondTB) : Long.MIN_VALUE,
+            inDuration ? LocalStore.dayOf(endSecondTB) : Long.MAX_VALUE,
+            (id, row) -> {
+                if (inDuration && !between(row, AbstractLogRecord.TIME_BUCKET, startSecondTB, endSecondTB)) {
+                    return true;
+                }
+                if (serviceId != Const.NONE && !matches(row, SERVICE_ID, String.valueOf(serviceId))
+                    || serviceInstanceId != Const.NONE
+                    && !matches(row, SERVICE_INSTANCE_ID, String.valueOf(serviceInstanceId))
+                    || StringUtil.isNotEmpty(endpointId) && !matches(row, ENDPOINT_ID, endpointId)
+                    || !Strings.isNullOrEmpty(stateCode) && !matches(row, STATUS_CODE, stateCode)
+                    || !Strings.isNullOrEmpty(traceId) && !matches(row, TRACE_ID, traceId)) {
+                    return true;
+                }
+                final long isError = longValue(row, AbstractLogRecord.IS_ERROR);
+                if (LogState.ERROR.equals(state) && isError != BooleanUtils.booleanToValue(true)
+                    || LogState.SUCCESS.equals(state) && isError != BooleanUtils.booleanToValue(false)) {
+                    return true;
+                }
+
+                Log log = new Log();
+                log.setServiceId(stringValue(row, SERVICE_ID));
+                log.setServiceInstanceId(stringValue(row, SERVICE_INSTANCE_ID));
+                log.setEndpointId(stringValue(row, ENDPOINT_ID));
+                log.setEndpointName(stringValue(row, ENDPOINT_NAME));
+                log.setTraceId(stringValue(row, TRACE_ID));
+                log.setTimestamp(stringValue(row, TIMESTAMP));
+                log.setStatusCode(stringValue(row, STATUS_CODE));
+                log.setContentType(ContentType.instanceOf((int) longValue(row, CONTENT_TYPE)));
+                log.setContent(stringValue(row, CONTENT));
+                matched.add(log);
+                return true;
+            }
+        );
+
+        Logs logs = new Logs();
+        logs.setTotal(matched.size());
+        logs.getLogs().addAll(page(matched, from, limit));
+        return logs;
+    }
+
+    private static boolean matches(Map<String, Object> row, String column, String expected) {
+        return Objects.equals(expected, stringValue(row, column));
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.oap.server.core.analysis.management.ManagementData;
+import org.apache.skywalking.oap.server.core.storage.IManagementDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.ModelStore;
+
+/**
+ * The management data isn't time series, all rows are hosted in the partition of {@link #NO_DAY}, which is never
+ * deleted by the TTL.
+ */
+@RequiredArgsConstructor
+public class LocalManagementDAO implements IManagementDAO {
+    static final long NO_DAY = 0;
+
+    private final LocalStore localStore;
+    private final StorageBuilder<ManagementData> storageBuilder;
+
+    @Override
+    public void insert(Model model, ManagementData storageData) throws IOException {
+        ModelStore store = localStore.model(model.getName());
+        synchronized (store) {
+            if (store.get(storageData.id()) != null) {
+                return;
+            }
+            store.write(NO_DAY, storageData.id(), LocalDAO.toRow(storageBuilder.data2Map(storageData)));
+            store.force();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import com.google.common.base.Strings;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.skywalking.oap.server.core.analysis.NodeType;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.manual.endpoint.EndpointTraffic;
+import org.apache.skywalking.oap.server.core.analysis.manual.instance.InstanceTraffic;
+import org.apache.skywalking.oap.server.core.analysis.manual.service.ServiceTraffic;
+import org.apache.skywalking.oap.server.core.query.enumeration.Language;
+import org.apache.skywalking.oap.server.core.query.type.Attribute;
+import org.apache.skywalking.oap.server.core.query.type.Database;
+import org.apache.skywalking.oap.server.core.query.type.Endpoint;
+import org.apache.skywalking.oap.server.core.query.type.Service;
+import org.apache.skywalking.oap.server.core.query.type.ServiceInstance;
+import org.apache.skywalking.oap.server.core.storage.query.IMetadataQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+public class LocalMetadataQueryDAO extends LocalDAO implements IMetadataQueryDAO {
+    private static final Gson GSON = new Gson();
+
+    private final int metadataQueryMaxSize;
+
+    public LocalMetadataQueryDAO(LocalStore localStore, int metadataQueryMaxSize) {
+        super(localStore);
+        this.metadataQueryMaxSize = metadataQueryMaxSize;
+    }
+
+    @Override
+    public List<Service> getAllServices(long startTimestamp, long endTimestamp) throws IOException {
+        return searchServices(NodeType.Normal, null);
+    }
+
+    @Override
+    public List<Service> getAllBrowserServices(long startTimestamp, long endTimestamp) throws IOException {
+        return searchServices(NodeType.Browser, null);
+    }
+
+    @Override
+    public List<Database> getAllDatabases() throws IOException {
+        List<Database> databases = new ArrayList<>();
+        for (Service service : searchServices(NodeType.Database, null)) {
+            Database database = new Database();
+            database.setId(service.getId());
+            database.setName(service.getName());
+            databases.add(database);
+        }
+        return databases;
+    }
+
+    @Override
+    public List<Service> searchServices(long startTimestamp, long endTimestamp, String keyword) throws IOException {
+        return searchServices(NodeType.Normal, keyword);
+    }
+
+    @Override
+    public Service searchService(String serviceCode) throws IOException {
+        final Service[] found = new Service[1];
+        localStore.model(ServiceTraffic.INDEX_NAME).scan((id, row) -> {
+            if (isNodeType(row, NodeType.Normal) && Objects.equals(serviceCode, row.get(ServiceTraffic.NAME))) {
+                found[0] = buildService(id, row);
+                return false;
+            }
+            return true;
+        });
+        return found[0];
+    }
+
+    @Override
+    public List<Endpoint> searchEndpoint(String keyword, String serviceId, int limit) throws IOException {
+        List<Endpoint> endpoints = new ArrayList<>();
+        localStore.model(EndpointTraffic.INDEX_NAME).scan((id, row) -> {
+            if (Objects.equals(serviceId, row.get(EndpointTraffic.SERVICE_ID))
+                && contains(stringValue(row, EndpointTraffic.NAME), keyword)) {
+                Endpoint endpoint = new Endpoint();
+                endpoint.setId(id);
+                endpoint.setName(stringValue(row, EndpointTraffic.NAME));
+                endpoints.add(endpoint);
+            }
+            return endpoints.size() < limit;
+        });
+        return endpoints;
+    }
+
+    @Override
+    public List<ServiceInstance> getServiceInstances(long startTimestamp, long endTimestamp,
+                                                     String serviceId) throws IOException {
+        final long minuteTimeBucket = TimeBucket.getMinuteTimeBucket(startTimestamp);
+
+        List<ServiceInstance> serviceInstances = new ArrayList<>();
+        localStore.model(InstanceTraffic.INDEX_NAME).scan((id, row) -> {
+            if (longValue(row, InstanceTraffic.LAST_PING_TIME_BUCKET) < minuteTimeBucket
+                || !Objects.equals(serviceId, row.get(InstanceTraffic.SERVICE_ID))) {
+                return true;
+            }
+            ServiceInstance serviceInstance = new ServiceInstance();
+            serviceInstance.setId(id);
+            serviceInstance.setName(stringValue(row, InstanceTraffic.NAME));
+            serviceInstance.setInstanceUUID(serviceInstance.getId());
+            String propertiesString = stringValue(row, InstanceTraffic.PROPERTIES);
+            if (!Strings.isNullOrEmpty(propertiesString)) {
+                JsonObject properties = GSON.fromJson(propertiesString, JsonObject.class);
+                for (Map.Entry<String, JsonElement> property : properties.entrySet()) {
+                    String key = property.getKey();
+                    String value = property.getValue().getAsString();
+                    if (key.equals(InstanceTraffic.PropertyUtil.LANGUAGE)) {
+                        serviceInstance.setLanguage(Language.value(value));
+                    } else {
+                        serviceInstance.getAttributes().add(new Attribute(key, value));
+                    }
+                }
+            } else {
+                serviceInstance.setLanguage(Language.UNKNOWN);
+            }
+            serviceInstances.add(serviceInstance);
+            return true;
+        });
+        return serviceInstances;
+    }
+
+    private List<Service> searchServices(NodeType nodeType, String keyword) throws IOException {
+        List<Service> services = new ArrayList<>();
+        localStore.model(ServiceTraffic.INDEX_NAME).scan((id, row) -> {
+            if (isNodeType(row, nodeType) && contains(stringValue(row, ServiceTraffic.NAME), keyword)) {
+                services.add(buildService(id, row));
+            }
+            return services.size() < metadataQueryMaxSize;
+        });
+        return services;
+    }
+
+    private static boolean isNodeType(Map<String, Object> row, NodeType nodeType) {
+        return longValue(row, ServiceTraffic.NODE_TYPE) == nodeType.value();
+    }
+
+    private static boolean contains(String value, String keyword) {
+        return Strings.isNullOrEmpty(keyword) || value != null && value.contains(keyword);
+    }
+
+    private static Service buildService(String id, Map<String, Object> row) {
+        Service service = new Service();
+        service.setId(id);
+        service.setName(stringValue(row, ServiceTraffic.NAME));
+        return service;
+    }
+}
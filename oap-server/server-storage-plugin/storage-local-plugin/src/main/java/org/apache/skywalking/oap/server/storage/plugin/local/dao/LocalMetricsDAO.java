@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.ModelStore;
+
+@RequiredArgsConstructor
+public class LocalMetricsDAO implements IMetricsDAO {
+    private final LocalStore localStore;
+    private final StorageBuilder<Metrics> storageBuilder;
+
+    @Override
+    public List<Metrics> multiGet(Model model, List<String> ids) throws IOException {
+        ModelStore store = localStore.model(model.getName());
+        List<Metrics> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Map<String, Object> row = store.get(id);
+            if (row != null) {
+                result.add(storageBuilder.map2Data(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public LocalInsertRequest prepareBatchInsert(Model model, Metrics metrics) throws IOException {
+        return new LocalInsertRequest(
+            model.getName(),
+            LocalStore.dayOf(metrics.getTimeBucket()),
+            metrics.id(),
+            LocalDAO.toRow(storageBuilder.data2Map(metrics))
+        );
+    }
+
+    @Override
+    public LocalInsertRequest prepareBatchUpdate(Model model, Metrics metrics) throws IOException {
+        return prepareBatchInsert(model, metrics);
+    }
+}
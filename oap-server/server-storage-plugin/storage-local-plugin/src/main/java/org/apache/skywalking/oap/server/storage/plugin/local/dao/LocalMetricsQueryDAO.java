@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.query.PointOfTime;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.sql.Function;
+import org.apache.skywalking.oap.server.core.query.type.HeatMap;
+import org.apache.skywalking.oap.server.core.query.type.IntValues;
+import org.apache.skywalking.oap.server.core.query.type.KVInt;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnMetadata;
+import org.apache.skywalking.oap.server.core.storage.query.IMetricsQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.ModelStore;
+
+public class LocalMetricsQueryDAO extends LocalDAO implements IMetricsQueryDAO {
+
+    public LocalMetricsQueryDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public long readMetricsValue(final MetricsCondition condition,
+                                 final String valueColumnName,
+                                 final Duration duration) throws IOException {
+        int defaultValue = ValueColumnMetadata.INSTANCE.getDefaultValue(condition.getName());
+        final Function function = ValueColumnMetadata.INSTANCE.getValueFunction(condition.getName());
+        if (function == Function.Latest) {
+            return readMetricsValues(condition, valueColumnName, duration).getValues().latestValue(defaultValue);
+        }
+
+        final String entityId = condition.getEntity().buildId();
+        final long[] sumAndCount = new long[2];
+        scan(condition.getName(), duration.getStartTimeBucket(), duration.getEndTimeBucket(), (id, row) -> {
+            if (between(row, Metrics.TIME_BUCKET, duration.getStartTimeBucket(), duration.getEndTimeBucket())
+                && (entityId == null || Objects.equals(entityId, row.get(Metrics.ENTITY_ID)))) {
+                sumAndCount[0] += longValue(row, valueColumnName);
+                sumAndCount[1]++;
+            }
+            return true;
+        });
+        if (sumAndCount[1] == 0) {
+            return defaultValue;
+        }
+        return function == Function.Avg ? sumAndCount[0] / sumAndCount[1] : sumAndCount[0];
+    }
+
+    @Override
+    public MetricsValues readMetricsValues(final MetricsCondition condition,
+                                           final String valueColumnName,
+                                           final Duration duration) throws IOException {
+        final List<String> ids = buildIds(condition, duration);
+
+        MetricsValues metricsValues = new MetricsValues();
+        // Label is null, because in readMetricsValues, no label parameter.
+        final IntValues intValues = metricsValues.getValues();
+        final ModelStore store = localStore.model(condition.getName());
+        for (String id : ids) {
+            Map<String, Object> row = store.get(id);
+            if (row != null) {
+                KVInt kv = new KVInt();
+                kv.setId(id);
+                kv.setValue(longValue(row, valueColumnName));
+                intValues.addKVInt(kv);
+            }
+        }
+
+        metricsValues.setValues(
+            Util.sortValues(intValues, ids, ValueColumnMetadata.INSTANCE.getDefaultValue(condition.getName()))
+        );
+        return metricsValues;
+    }
+
+    @Override
+    public List<MetricsValues> readLabeledMetricsValues(final MetricsCondition condition,
+                                                        final String valueColumnName,
+                                                        final List<String> labels,
+                                                        final Duration duration) throws IOException {
+        final List<String> ids = buildIds(condition, duration);
+
+        Map<String, DataTable> idMap = new HashMap<>();
+        final ModelStore store = localStore.model(condition.getName());
+        for (String id : ids) {
+            Map<String, Object> row = store.get(id);
+            if (row != null) {
+                DataTable multipleValues = new DataTable(5);
+                multipleValues.toObject(stringValue(row, valueColumnName));
+                idMap.put(id, multipleValues);
+            }
+        }
+        return Util.composeLabelValue(condition, labels, ids, idMap);
+    }
+
+    @Override
+    public HeatMap readHeatMap(final MetricsCondition condition,
+                               final String valueColumnName,
+                               final Duration duration) throws IOException {
+        final List<String> ids = buildIds(condition, duration);
+        final int defaultValue = ValueColumnMetadata.INSTANCE.getDefaultValue(condition.getName());
+
+        HeatMap heatMap = new HeatMap();
+        final ModelStore store = localStore.model(condition.getName());
+        for (String id : ids) {
+            Map<String, Object> row = store.get(id);
+            if (row != null) {
+                heatMap.buildColumn(id, stringValue(row, valueColumnName), defaultValue);
+            }
+        }
+        heatMap.fixMissingColumns(ids, defaultValue);
+        return heatMap;
+    }
+
+    private static List<String> buildIds(final MetricsCondition condition, final Duration duration) {
+        final List<PointOfTime> pointOfTimes = duration.assembleDurationPoints();
+        List<String> ids = new ArrayList<>(pointOfTimes.size());
+        pointOfTimes.forEach(pointOfTime -> {
+            ids.add(pointOfTime.id(condition.getEntity().buildId()));
+        });
+        return ids;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.storage.StorageException;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.ModelCreator;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+/**
+ * Open the store of every model, the existing data files are loaded. The rows of the metrics and management models
+ * are indexed by id, as they are read and updated by id. The records are append only, and the segments are indexed by
+ * the trace id, to query the trace without scanning.
+ * <p>
+ * The data files belong to this OAP node, there is no shared schema to wait for, so the init mode doesn't matter
+ * here.
+ */
+@RequiredArgsConstructor
+public class LocalModelInstaller implements ModelCreator.CreatingListener {
+    private final LocalStore localStore;
+
+    @Override
+    public void whenCreating(Model model) throws StorageException {
+        if (localStore.isOpened(model.getName())) {
+            // Metrics in different down samplings share one model name.
+            return;
+        }
+        try {
+            localStore.open(model.getName(), !model.isRecord(), indexedColumn(model));
+        } catch (IOException e) {
+            throw new StorageException(e.getMessage(), e);
+        }
+    }
+
+    private static String indexedColumn(Model model) {
+        return SegmentRecord.INDEX_NAME.equals(model.getName()) ? SegmentRecord.TRACE_ID : null;
+    }
+}
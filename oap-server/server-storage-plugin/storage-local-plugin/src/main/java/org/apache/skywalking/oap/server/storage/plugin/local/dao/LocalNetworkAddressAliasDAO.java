@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.analysis.manual.networkalias.NetworkAddressAlias;
+import org.apache.skywalking.oap.server.core.storage.cache.INetworkAddressAliasDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+@Slf4j
+public class LocalNetworkAddressAliasDAO extends LocalDAO implements INetworkAddressAliasDAO {
+    private final NetworkAddressAlias.Builder builder = new NetworkAddressAlias.Builder();
+
+    public LocalNetworkAddressAliasDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public List<NetworkAddressAlias> loadLastUpdate(long lastUpdateTime) {
+        List<NetworkAddressAlias> networkAddressAliases = new ArrayList<>();
+        try {
+            localStore.model(NetworkAddressAlias.INDEX_NAME).scan((id, row) -> {
+                if (longValue(row, NetworkAddressAlias.LAST_UPDATE_TIME_BUCKET) > lastUpdateTime) {
+                    networkAddressAliases.add(builder.map2Data(row));
+                }
+                return true;
+            });
+        } catch (Throwable t) {
+            log.error(t.getMessage(), t);
+        }
+        return networkAddressAliases;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.profile.ProfileTaskLogRecord;
+import org.apache.skywalking.oap.server.core.query.type.ProfileTaskLog;
+import org.apache.skywalking.oap.server.core.query.type.ProfileTaskLogOperationType;
+import org.apache.skywalking.oap.server.core.storage.profile.IProfileTaskLogQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+public class LocalProfileTaskLogQueryDAO extends LocalDAO implements IProfileTaskLogQueryDAO {
+
+    public LocalProfileTaskLogQueryDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public List<ProfileTaskLog> getTaskLogList() throws IOException {
+        final List<ProfileTaskLog> logs = new ArrayList<>();
+        localStore.model(ProfileTaskLogRecord.INDEX_NAME).scan((id, row) -> {
+            logs.add(parseLog(id, row));
+            return true;
+        });
+        logs.sort(Comparator.comparingLong(ProfileTaskLog::getOperationTime).reversed());
+        return logs;
+    }
+
+    private static ProfileTaskLog parseLog(String id, Map<String, Object> row) {
+        return ProfileTaskLog.builder()
+                             .id(id)
+                             .taskId(stringValue(row, ProfileTaskLogRecord.TASK_ID))
+                             .instanceId(stringValue(row, ProfileTaskLogRecord.INSTANCE_ID))
+                             .operationType(ProfileTaskLogOperationType.parse(
+                                 (int) longValue(row, ProfileTaskLogRecord.OPERATION_TYPE)))
+                             .operationTime(longValue(row, ProfileTaskLogRecord.OPERATION_TIME))
+                             .build();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.apache.skywalking.oap.server.core.profile.ProfileTaskRecord;
+import org.apache.skywalking.oap.server.core.query.type.ProfileTask;
+import org.apache.skywalking.oap.server.core.storage.profile.IProfileTaskQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+public class LocalProfileTaskQueryDAO extends LocalDAO implements IProfileTaskQueryDAO {
+
+    public LocalProfileTaskQueryDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public List<ProfileTask> getTaskList(String serviceId, String endpointName, Long startTimeBucket,
+                                         Long endTimeBucket, Integer limit) throws IOException {
+        final long startTB = startTimeBucket != null ? startTimeBucket : 0;
+        final long endTB = endTimeBucket != null ? endTimeBucket : Long.MAX_VALUE;
+
+        final List<ProfileTask> tasks = new ArrayList<>();
+        localStore.model(ProfileTaskRecord.INDEX_NAME).scan(
+            startTimeBucket != null ? LocalStore.dayOf(startTimeBucket) : Long.MIN_VALUE,
+            endTimeBucket != null ? LocalStore.dayOf(endTimeBucket) : Long.MAX_VALUE,
+            (id, row) -> {
+                if (between(row, ProfileTaskRecord.TIME_BUCKET, startTB, endTB)
+                    && (StringUtil.isEmpty(serviceId)
+                    || Objects.equals(serviceId, row.get(ProfileTaskRecord.SERVICE_ID)))
+                    && (StringUtil.isEmpty(endpointName)
+                    || Objects.equals(endpointName, row.get(ProfileTaskRecord.ENDPOINT_NAME)))) {
+                    tasks.add(parseTask(id, row));
+                }
+                return true;
+            }
+        );
+        tasks.sort(Comparator.comparingLong(ProfileTask::getStartTime).reversed());
+        return limit != null ? new ArrayList<>(page(tasks, 0, limit)) : tasks;
+    }
+
+    @Override
+    public ProfileTask getById(String id) throws IOException {
+        if (StringUtil.isEmpty(id)) {
+            return null;
+        }
+
+        final ProfileTask[] found = new ProfileTask[1];
+        localStore.model(ProfileTaskRecord.INDEX_NAME).scan((rowId, row) -> {
+            if (id.equals(rowId)) {
+                found[0] = parseTask(rowId, row);
+                return false;
+            }
+            return true;
+        });
+        return found[0];
+    }
+
+    /**
+     * parse profile task data
+     */
+    private static ProfileTask parseTask(String id, Map<String, Object> row) {
+        return ProfileTask.builder()
+                          .id(id)
+                          .serviceId(stringValue(row, ProfileTaskRecord.SERVICE_ID))
+                          .endpointName(stringValue(row, ProfileTaskRecord.ENDPOINT_NAME))
+                          .startTime(longValue(row, ProfileTaskRecord.START_TIME))
+                          .createTime(longValue(row, ProfileTaskRecord.CREATE_TIME))
+                          .duration((int) longValue(row, ProfileTaskRecord.DURATION))
+                          .minDurationThreshold((int) longValue(row, ProfileTaskRecord.MIN_DURATION_THRESHOLD))
+                          .dumpPeriod((int) longValue(row, ProfileTaskRecord.DUMP_PERIOD))
+                          .maxSamplingCount((int) longValue(row, ProfileTaskRecord.MAX_SAMPLING_COUNT))
+                          .build();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.profile.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
+import org.apache.skywalking.oap.server.core.storage.profile.IProfileThreadSnapshotQueryDAO;
+import org.apache.skywalking.oap.server.library.util.BooleanUtils;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+public class LocalProfileThreadSnapshotQueryDAO extends LocalDAO implements IProfileThreadSnapshotQueryDAO {
+    private final ProfileThreadSnapshotRecord.Builder snapshotBuilder = new ProfileThreadSnapshotRecord.Builder();
+    private final SegmentRecord.Builder segmentBuilder = new SegmentRecord.Builder();
+
+    public LocalProfileThreadSnapshotQueryDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public List<BasicTrace> queryProfiledSegments(String taskId) throws IOException {
+        // search segment id list
+        final Set<String> segments = new HashSet<>();
+        localStore.model(ProfileThreadSnapshotRecord.INDEX_NAME).scan((id, row) -> {
+            if (Objects.equals(taskId, row.get(ProfileThreadSnapshotRecord.TASK_ID))
+                && longValue(row, ProfileThreadSnapshotRecord.SEQUENCE) == 0) {
+                segments.add(stringValue(row, ProfileThreadSnapshotRecord.SEGMENT_ID));
+            }
+            return true;
+        });
+
+        if (segments.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // search traces
+        final List<BasicTrace> result = new ArrayList<>(segments.size());
+        localStore.model(SegmentRecord.INDEX_NAME).scan((id, row) -> {
+            if (segments.contains(stringValue(row, SegmentRecord.SEGMENT_ID))) {
+                BasicTrace basicTrace = new BasicTrace();
+                basicTrace.setSegmentId(stringValue(row, SegmentRecord.SEGMENT_ID));
+                basicTrace.setStart(stringValue(row, SegmentRecord.START_TIME));
+                basicTrace.getEndpointNames().add(stringValue(row, SegmentRecord.ENDPOINT_NAME));
+                basicTrace.setDuration((int) longValue(row, SegmentRecord.LATENCY));
+                basicTrace.setError(BooleanUtils.valueToBoolean((int) longValue(row, SegmentRecord.IS_ERROR)));
+                basicTrace.getTraceIds().add(stringValue(row, SegmentRecord.TRACE_ID));
+                result.add(basicTrace);
+            }
+            return result.size() < segments.size();
+        });
+        result.sort(Comparator.comparingLong((BasicTrace trace) -> Long.parseLong(trace.getStart())).reversed());
+        return result;
+    }
+
+    @Override
+    public int queryMinSequence(String segmentId, long start, long end) throws IOException {
+        return querySequence(segmentId, start, end, true);
+    }
+
+    @Override
+    public int queryMaxSequence(String segmentId, long start, long end) throws IOException {
+        return querySequence(segmentId, start, end, false);
+    }
+
+    @Override
+    public List<ProfileThreadSnapshotRecord> queryRecords(String segmentId,
+                                                          int minSequence,
+                                                          int maxSequence) throws IOException {
+        final List<ProfileThreadSnapshotRecord> result = new ArrayList<>(Math.max(0, maxSequence - minSequence));
+        localStore.model(ProfileThreadSnapshotRecord.INDEX_NAME).scan((id, row) -> {
+            final long sequence = longValue(row, ProfileThreadSnapshotRecord.SEQUENCE);
+            if (Objects.equals(segmentId, row.get(ProfileThreadSnapshotRecord.SEGMENT_ID))
+                && sequence >= minSequence && sequence < maxSequence) {
+                result.add(snapshotBuilder.map2Data(row));
+            }
+            return true;
+        });
+        return result;
+    }
+
+    @Override
+    public SegmentRecord getProfiledSegment(String segmentId) throws IOException {
+        final SegmentRecord[] found = new SegmentRecord[1];
+        localStore.model(SegmentRecord.INDEX_NAME).scan((id, row) -> {
+            if (Objects.equals(segmentId, row.get(SegmentRecord.SEGMENT_ID))) {
+                found[0] = segmentBuilder.map2Data(row);
+                return false;
+            }
+            return true;
+        });
+        return found[0];
+    }
+
+    private int querySequence(String segmentId, long start, long end, boolean min) throws IOException {
+        final long[] sequence = {-1};
+        localStore.model(ProfileThreadSnapshotRecord.INDEX_NAME).scan((id, row) -> {
+            if (Objects.equals(segmentId, row.get(ProfileThreadSnapshotRecord.SEGMENT_ID))
+                && between(row, ProfileThreadSnapshotRecord.DUMP_TIME, start, end)) {
+                final long current = longValue(row, ProfileThreadSnapshotRecord.SEQUENCE);
+                if (sequence[0] == -1 || (min ? current < sequence[0] : current > sequence[0])) {
+                    sequence[0] = current;
+                }
+            }
+            return true;
+        });
+        return (int) sequence[0];
+    }
+}
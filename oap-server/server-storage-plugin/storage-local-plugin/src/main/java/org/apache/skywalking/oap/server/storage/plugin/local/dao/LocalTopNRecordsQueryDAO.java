@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.apache.skywalking.oap.server.core.analysis.IDManager;
+import org.apache.skywalking.oap.server.core.analysis.topn.TopN;
+import org.apache.skywalking.oap.server.core.query.enumeration.Order;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.TopNCondition;
+import org.apache.skywalking.oap.server.core.query.type.SelectedRecord;
+import org.apache.skywalking.oap.server.core.storage.query.ITopNRecordsQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+public class LocalTopNRecordsQueryDAO extends LocalDAO implements ITopNRecordsQueryDAO {
+
+    public LocalTopNRecordsQueryDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public List<SelectedRecord> readSampledRecords(final TopNCondition condition,
+                                                   final String valueColumnName,
+                                                   final Duration duration) throws IOException {
+        final String serviceId = StringUtil.isNotEmpty(condition.getParentService())
+            ? IDManager.ServiceID.buildId(condition.getParentService(), condition.isNormal()) : null;
+        final long startTB = duration.getStartTimeBucketInSec();
+        final long endTB = duration.getEndTimeBucketInSec();
+
+        List<SelectedRecord> results = new ArrayList<>();
+        scan(condition.getName(), startTB, endTB, (id, row) -> {
+            if (between(row, TopN.TIME_BUCKET, startTB, endTB)
+                && (serviceId == null || Objects.equals(serviceId, row.get(TopN.SERVICE_ID)))) {
+                SelectedRecord record = new SelectedRecord();
+                record.setName(stringValue(row, TopN.STATEMENT));
+                record.setRefId(stringValue(row, TopN.TRACE_ID));
+                record.setId(record.getRefId());
+                record.setValue(stringValue(row, valueColumnName));
+                results.add(record);
+            }
+            return true;
+        });
+
+        Comparator<SelectedRecord> comparator = Comparator.comparingLong(record -> Long.parseLong(record.getValue()));
+        results.sort(condition.getOrder().equals(Order.DES) ? comparator.reversed() : comparator);
+        return page(results, 0, condition.getTopN());
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.endpoint.EndpointRelationServerSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.instance.ServiceInstanceRelationClientSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.instance.ServiceInstanceRelationServerSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationClientSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationServerSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.query.type.Call;
+import org.apache.skywalking.oap.server.core.source.DetectPoint;
+import org.apache.skywalking.oap.server.core.storage.query.ITopologyQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+
+public class LocalTopologyQueryDAO extends LocalDAO implements ITopologyQueryDAO {
+
+    public LocalTopologyQueryDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public List<Call.CallDetail> loadServiceRelationsDetectedAtServerSide(long startTB,
+                                                                          long endTB,
+                                                                          List<String> serviceIds) throws IOException {
+        return loadServiceCalls(
+            ServiceRelationServerSideMetrics.INDEX_NAME, startTB, endTB,
+            ServiceRelationServerSideMetrics.SOURCE_SERVICE_ID,
+            ServiceRelationServerSideMetrics.DEST_SERVICE_ID, serviceIds, DetectPoint.SERVER
+        );
+    }
+
+    @Override
+    public List<Call.CallDetail> loadServiceRelationDetectedAtClientSide(long startTB,
+                                                                         long endTB,
+                                                                         List<String> serviceIds) throws IOException {
+        return loadServiceCalls(
+            ServiceRelationClientSideMetrics.INDEX_NAME, startTB, endTB,
+            ServiceRelationClientSideMetrics.SOURCE_SERVICE_ID,
+            ServiceRelationClientSideMetrics.DEST_SERVICE_ID, serviceIds, DetectPoint.CLIENT
+        );
+    }
+
+    @Override
+    public List<Call.CallDetail> loadServiceRelationsDetectedAtServerSide(long startTB,
+                                                                          long endTB) throws IOException {
+        return loadServiceCalls(
+            ServiceRelationServerSideMetrics.INDEX_NAME, startTB, endTB,
+            ServiceRelationServerSideMetrics.SOURCE_SERVICE_ID,
+            ServiceRelationServerSideMetrics.DEST_SERVICE_ID, new ArrayList<>(0), DetectPoint.SERVER
+        );
+    }
+
+    @Override
+    public List<Call.CallDetail> loadServiceRelationDetectedAtClientSide(long startTB,
+                                                                         long endTB) throws IOException {
+        return loadServiceCalls(
+            ServiceRelationClientSideMetrics.INDEX_NAME, startTB, endTB,
+            ServiceRelationClientSideMetrics.SOURCE_SERVICE_ID,
+            ServiceRelationClientSideMetrics.DEST_SERVICE_ID, new ArrayList<>(0), DetectPoint.CLIENT
+        );
+    }
+
+    @Override
+    public List<Call.CallDetail> loadInstanceRelationDetectedAtServerSide(String clientServiceId,
+                                                                          String serverServiceId,
+                                                                          long startTB,
+                                                                          long endTB) throws IOException {
+        return loadServiceInstanceCalls(
+            ServiceInstanceRelationServerSideMetrics.INDEX_NAME, startTB, endTB,
+            ServiceInstanceRelationServerSideMetrics.SOURCE_SERVICE_ID,
+            ServiceInstanceRelationServerSideMetrics.DEST_SERVICE_ID, clientServiceId, serverServiceId,
+            DetectPoint.SERVER
+        );
+    }
+
+    @Override
+    public List<Call.CallDetail> loadInstanceRelationDetectedAtClientSide(String clientServiceId,
+                                                                          String serverServiceId,
+                                                                          long startTB,
+                                                                          long endTB) throws IOException {
+        return loadServiceInstanceCalls(
+            ServiceInstanceRelationClientSideMetrics.INDEX_NAME, startTB, endTB,
+            ServiceInstanceRelationClientSideMetrics.SOURCE_SERVICE_ID,
+            ServiceInstanceRelationClientSideMetrics.DEST_SERVICE_ID, clientServiceId, serverServiceId,
+            DetectPoint.CLIENT
+        );
+    }
+
+    @Override
+    public List<Call.CallDetail> loadEndpointRelation(long startTB,
+                                                      long endTB,
+                                                      String destEndpointId) throws IOException {
+        Map<String, Integer> relations = loadRelations(
+            EndpointRelationServerSideMetrics.INDEX_NAME, startTB, endTB,
+            row -> Objects.equals(destEndpointId, row.get(EndpointRelationServerSideMetrics.DEST_ENDPOINT))
+                || Objects.equals(destEndpointId, row.get(EndpointRelationServerSideMetrics.SOURCE_ENDPOINT))
+        );
+        List<Call.CallDetail> calls = new ArrayList<>(relations.size());
+        relations.keySet().forEach(entityId -> {
+            Call.CallDetail call = new Call.CallDetail();
+            call.buildFromEndpointRelation(entityId, DetectPoint.SERVER);
+            calls.add(call);
+        });
+        return calls;
+    }
+
+    private List<Call.CallDetail> loadServiceCalls(String modelName,
+                                                   long startTB,
+                                                   long endTB,
+                                                   String sourceCName,
+                                                   String destCName,
+                                                   List<String> serviceIds,
+                                                   DetectPoint detectPoint) throws IOException {
+        Map<String, Integer> relations = loadRelations(
+            modelName, startTB, endTB,
+            row -> serviceIds.isEmpty()
+                || serviceIds.contains(stringValue(row, sourceCName))
+                || serviceIds.contains(stringValue(row, destCName))
+        );
+        List<Call.CallDetail> calls = new ArrayList<>(relations.size());
+        relations.forEach((entityId, componentId) -> {
+            Call.CallDetail call = new Call.CallDetail();
+            call.buildFromServiceRelation(entityId, componentId, detectPoint);
+            calls.add(call);
+        });
+        return calls;
+    }
+
+    private List<Call.CallDetail> loadServiceInstanceCalls(String modelName,
+                                                           long startTB,
+                                                           long endTB,
+                                                           String sourceCName,
+                                                           String descCName,
+                                                           String sourceServiceId,
+                                                           String destServiceId,
+                                                           DetectPoint detectPoint) throws IOException {
+        Map<String, Integer> relations = loadRelations(modelName, startTB, endTB, row -> {
+            final Object source = row.get(sourceCName);
+            final Object dest = row.get(descCName);
+            return Objects.equals(sourceServiceId, source) && Objects.equals(destServiceId, dest)
+                || Objects.equals(destServiceId, source) && Objects.equals(sourceServiceId, dest);
+        });
+        List<Call.CallDetail> calls = new ArrayList<>(relations.size());
+        relations.forEach((entityId, componentId) -> {
+            Call.CallDetail call = new Call.CallDetail();
+            call.buildFromInstanceRelation(entityId, componentId, detectPoint);
+            calls.add(call);
+        });
+        return calls;
+    }
+
+    /**
+     * @return the distinct entity ids of the relations in the time buckets, with their component ids.
+     */
+    private Map<String, Integer> loadRelations(String modelName,
+                                               long startTB,
+                                               long endTB,
+                                               Predicate<Map<String, Object>> filter) throws IOException {
+        Map<String, Integer> relations = new LinkedHashMap<>();
+        scan(modelName, startTB, endTB, (id, row) -> {
+            if (between(row, Metrics.TIME_BUCKET, startTB, endTB) && filter.test(row)) {
+                relations.putIfAbsent(
+                    stringValue(row, Metrics.ENTITY_ID),
+                    (int) longValue(row, ServiceRelationServerSideMetrics.COMPONENT_ID)
+                );
+            }
+            return true;
+        });
+        return relations;
+    }
+}
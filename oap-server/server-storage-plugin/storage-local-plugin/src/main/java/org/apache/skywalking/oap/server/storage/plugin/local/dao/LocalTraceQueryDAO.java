@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SpanTag;
+import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
+import org.apache.skywalking.oap.server.core.query.type.QueryOrder;
+import org.apache.skywalking.oap.server.core.query.type.Span;
+import org.apache.skywalking.oap.server.core.query.type.TraceBrief;
+import org.apache.skywalking.oap.server.core.query.type.TraceState;
+import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
+import org.apache.skywalking.oap.server.library.util.BooleanUtils;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.ModelStore;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.RowVisitor;
+
+public class LocalTraceQueryDAO extends LocalDAO implements ITraceQueryDAO {
+    private final SegmentRecord.Builder builder = new SegmentRecord.Builder();
+
+    public LocalTraceQueryDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public TraceBrief queryBasicTraces(long startSecondTB,
+                                       long endSecondTB,
+                                       long minDuration,
+                                       long maxDuration,
+                                       String endpointName,
+                                       String serviceId,
+                                       String serviceInstanceId,
+                                       String endpointId,
+                                       String traceId,
+                                       int limit,
+                                       int from,
+                                       TraceState traceState,
+                                       QueryOrder queryOrder,
+                                       final List<SpanTag> tags) throws IOException {
+        final boolean inDuration = startSecondTB != 0 && endSecondTB != 0;
+        final List<String> expectedTags = SpanTag.Util.toStringList(tags);
+
+        List<BasicTrace> traces = new ArrayList<>();
+        final RowVisitor visitor = (id, row) -> {
+            if (inDuration && !between(row, SegmentRecord.TIME_BUCKET, startSecondTB, endSecondTB)) {
+                return true;
+            }
+            final long latency = longValue(row, SegmentRecord.LATENCY);
+            if (minDuration != 0 && latency < minDuration || maxDuration != 0 && latency > maxDuration) {
+                return true;
+            }
+            final String rowEndpointName = stringValue(row, SegmentRecord.ENDPOINT_NAME);
+            if (StringUtil.isNotEmpty(endpointName)
+                && (rowEndpointName == null || !rowEndpointName.contains(endpointName))) {
+                return true;
+            }
+            if (!matches(row, SegmentRecord.SERVICE_ID, serviceId)
+                || !matches(row, SegmentRecord.SERVICE_INSTANCE_ID, serviceInstanceId)
+                || !matches(row, SegmentRecord.ENDPOINT_ID, endpointId)
+                || !matches(row, SegmentRecord.TRACE_ID, traceId)) {
+                return true;
+            }
+            if (!expectedTags.isEmpty()) {
+                Object rowTags = row.get(SegmentRecord.TAGS);
+                if (!(rowTags instanceof Collection) || !((Collection<?>) rowTags).containsAll(expectedTags)) {
+                    return true;
+                }
+            }
+            final int isError = (int) longValue(row, SegmentRecord.IS_ERROR);
+            if (traceState == TraceState.ERROR && isError != BooleanUtils.TRUE
+                || traceState == TraceState.SUCCESS && isError != BooleanUtils.FALSE) {
+                return true;
+            }
+
+            BasicTrace basicTrace = new BasicTrace();
+            basicTrace.setSegmentId(stringValue(row, SegmentRecord.SEGMENT_ID));
+            basicTrace.setStart(stringValue(row, SegmentRecord.START_TIME));
+            basicTrace.getEndpointNames().add(rowEndpointName);
+            basicTrace.setDuration((int) latency);
+            basicTrace.setError(BooleanUtils.valueToBoolean(isError));
+            basicTrace.getTraceIds().add(stringValue(row, SegmentRecord.TRACE_ID));
+            traces.add(basicTrace);
+            return true;
+        };
+        final ModelStore segments = localStore.model(SegmentRecord.INDEX_NAME);
+        if (StringUtil.isNotEmpty(traceId)) {
+            segments.lookup(traceId, visitor);
+        } else {
+            segments.scan(
+                inDuration ? LocalStore.dayOf(startSecondTB) : Long.MIN_VALUE,
+                inDuration ? LocalStore.dayOf(endSecondTB) : Long.MAX_VALUE,
+                visitor
+            );
+        }
+
+        if (queryOrder == QueryOrder.BY_DURATION) {
+            traces.sort(Comparator.comparingInt(BasicTrace::getDuration).reversed());
+        } else {
+            traces.sort(Comparator.comparingLong((BasicTrace trace) -> Long.parseLong(trace.getStart())).reversed());
+        }
+
+        TraceBrief traceBrief = new TraceBrief();
+        traceBrief.setTotal(traces.size());
+        traceBrief.getTraces().addAll(page(traces, from, limit));
+        return traceBrief;
+    }
+
+    @Override
+    public List<SegmentRecord> queryByTraceId(String traceId) throws IOException {
+        List<SegmentRecord> segmentRecords = new ArrayList<>();
+        localStore.model(SegmentRecord.INDEX_NAME).lookup(traceId, (id, row) -> {
+            segmentRecords.add(builder.map2Data(row));
+            return true;
+        });
+        return segmentRecords;
+    }
+
+    @Override
+    public List<Span> doFlexibleTraceQuery(String traceId) {
+        return Collections.emptyList();
+    }
+
+    private static boolean matches(Map<String, Object> row, String column, String expected) {
+        return StringUtil.isEmpty(expected) || Objects.equals(expected, row.get(column));
+    }
+}
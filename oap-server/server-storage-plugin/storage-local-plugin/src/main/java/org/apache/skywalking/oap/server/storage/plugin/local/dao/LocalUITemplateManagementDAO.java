@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.management.ui.template.UITemplate;
+import org.apache.skywalking.oap.server.core.query.input.DashboardSetting;
+import org.apache.skywalking.oap.server.core.query.type.DashboardConfiguration;
+import org.apache.skywalking.oap.server.core.query.type.TemplateChangeStatus;
+import org.apache.skywalking.oap.server.core.storage.management.UITemplateManagementDAO;
+import org.apache.skywalking.oap.server.library.util.BooleanUtils;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.ModelStore;
+
+@Slf4j
+public class LocalUITemplateManagementDAO extends LocalDAO implements UITemplateManagementDAO {
+    private final UITemplate.Builder builder = new UITemplate.Builder();
+
+    public LocalUITemplateManagementDAO(LocalStore localStore) {
+        super(localStore);
+    }
+
+    @Override
+    public List<DashboardConfiguration> getAllTemplates(final Boolean includingDisabled) throws IOException {
+        final List<DashboardConfiguration> configs = new ArrayList<>();
+        localStore.model(UITemplate.INDEX_NAME).scan((id, row) -> {
+            if (includingDisabled || longValue(row, UITemplate.DISABLED) == BooleanUtils.FALSE) {
+                configs.add(new DashboardConfiguration().fromEntity(builder.map2Data(row)));
+            }
+            return true;
+        });
+        return configs;
+    }
+
+    @Override
+    public TemplateChangeStatus addTemplate(final DashboardSetting setting) throws IOException {
+        final UITemplate uiTemplate = setting.toEntity();
+        final ModelStore store = localStore.model(UITemplate.INDEX_NAME);
+        synchronized (store) {
+            if (store.get(uiTemplate.id()) != null) {
+                return TemplateChangeStatus.builder().status(false).message("Can't add a new template").build();
+            }
+            return write(store, uiTemplate);
+        }
+    }
+
+    @Override
+    public TemplateChangeStatus changeTemplate(final DashboardSetting setting) throws IOException {
+        final UITemplate uiTemplate = setting.toEntity();
+        final ModelStore store = localStore.model(UITemplate.INDEX_NAME);
+        synchronized (store) {
+            if (store.get(uiTemplate.id()) == null) {
+                return TemplateChangeStatus.builder().status(false).message("Can't find the template").build();
+            }
+            return write(store, uiTemplate);
+        }
+    }
+
+    @Override
+    public TemplateChangeStatus disableTemplate(final String name) throws IOException {
+        final ModelStore store = localStore.model(UITemplate.INDEX_NAME);
+        synchronized (store) {
+            final Map<String, Object> row = store.get(name);
+            if (row == null) {
+                return TemplateChangeStatus.builder().status(false).message("Can't find the template").build();
+            }
+            final UITemplate uiTemplate = builder.map2Data(row);
+            uiTemplate.setDisabled(BooleanUtils.TRUE);
+            return write(store, uiTemplate);
+        }
+    }
+
+    private TemplateChangeStatus write(final ModelStore store, final UITemplate uiTemplate) {
+        try {
+            store.write(LocalManagementDAO.NO_DAY, uiTemplate.id(), toRow(builder.data2Map(uiTemplate)));
+            store.force();
+            return TemplateChangeStatus.builder().status(true).build();
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            return TemplateChangeStatus.builder().status(false).message("Can't add/update the template").build();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.oap.server.library.client.Client;
+
+/**
+ * LocalStore is the client of the local storage. Every model is stored in its own directory, as the day partitioned
+ * append-only files.
+ */
+public class LocalStore implements Client {
+    private final File directory;
+    private final int maxSegmentBytes;
+    private final Map<String, ModelStore> models = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxSegmentBytes the max size of one file of the partition, should be less than 2GB as the rows are
+     *                        located by the int offsets in the file.
+     */
+    public LocalStore(String directory, int maxSegmentBytes) {
+        this.directory = new File(directory);
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    @Override
+    public void connect() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Failed to create the directory " + directory);
+        }
+    }
+
+    @Override
+    public void shutdown() throws IOException {
+        for (ModelStore model : models.values()) {
+            model.force();
+            model.close();
+        }
+    }
+
+    public boolean isOpened(String modelName) {
+        return models.containsKey(modelName);
+    }
+
+    /**
+     * Open the store of the model, the existing files are loaded.
+     */
+    public ModelStore open(String modelName, boolean keyed) throws IOException {
+        return open(modelName, keyed, null);
+    }
+
+    /**
+     * Open the store of the model, the existing files are loaded.
+     *
+     * @param indexedColumn the column to look up the rows by, see {@link ModelStore#lookup(String, RowVisitor)}, or
+     *                      null if the rows are not looked up by column.
+     */
+    public synchronized ModelStore open(String modelName, boolean keyed, String indexedColumn) throws IOException {
+        ModelStore model = models.get(modelName);
+        if (model == null) {
+            model = new ModelStore(
+                new File(directory, modelName), modelName, keyed, indexedColumn, maxSegmentBytes);
+            models.put(modelName, model);
+        }
+        return model;
+    }
+
+    /**
+     * @return the opened store of the model.
+     * @throws IllegalStateException if the model is unknown.
+     */
+    public ModelStore model(String modelName) {
+        ModelStore model = models.get(modelName);
+        if (model == null) {
+            throw new IllegalStateException("Unknown model: " + modelName);
+        }
+        return model;
+    }
+
+    /**
+     * Flush the appended rows of all models to the disk.
+     */
+    public void force() throws IOException {
+        for (ModelStore model : models.values()) {
+            model.force();
+        }
+    }
+
+    /**
+     * @return the day of the time bucket in any down sampling, yyyyMMdd.
+     */
+    public static long dayOf(long timeBucket) {
+        if (timeBucket > 10000000000000L) {
+            return timeBucket / 1000000;
+        } else if (timeBucket > 100000000000L) {
+            return timeBucket / 10000;
+        } else if (timeBucket > 1000000000L) {
+            return timeBucket / 100;
+        }
+        return timeBucket;
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ModelStore holds the rows of one model, partitioned by day.
+ * <p>
+ * The rows of the keyed store, such as metrics, could be updated. Every update is appended as a new version of the
+ * row, and the location of the latest version is indexed in memory by the id. The older versions are skipped in the
+ * scans, and removed by the compaction of the partition or along with the partition. The rows of the non-keyed store,
+ * such as records, are never updated, so they are not indexed by id, but could be indexed by one column, such as the
+ * trace id of the segments, to be looked up without scanning.
+ */
+@Slf4j
+public class ModelStore implements Closeable {
+    @Getter
+    private final String name;
+    @Getter
+    private final boolean keyed;
+    private final String indexedColumn;
+    private final File directory;
+    private final int maxSegmentBytes;
+    private final ConcurrentSkipListMap<Long, Partition> partitions = new ConcurrentSkipListMap<>();
+    private final Map<String, RowLocation> index;
+
+    /**
+     * @param indexedColumn the column to look up the rows by, or null. Only supported by the non-keyed store.
+     */
+    ModelStore(File directory, String name, boolean keyed, String indexedColumn,
+               int maxSegmentBytes) throws IOException {
+        if (keyed && indexedColumn != null) {
+            throw new IllegalArgumentException("The keyed store " + name + " can't be indexed by column.");
+        }
+        this.directory = directory;
+        this.name = name;
+        this.keyed = keyed;
+        this.indexedColumn = indexedColumn;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.index = keyed ? new ConcurrentHashMap<>() : null;
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Failed to create the directory " + directory);
+        }
+        load();
+    }
+
+    private void load() throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            long day = Partition.dayOf(file.getName());
+            if (day < 0) {
+                continue;
+            }
+            Segment segment = new Segment(file);
+            Partition partition = partitions.computeIfAbsent(
+                day, d -> new Partition(directory, d, maxSegmentBytes));
+            partition.addSegment(segment);
+            int[] offsets = segment.recover();
+            if (!keyed && indexedColumn == null) {
+                continue;
+            }
+            for (int offset : offsets) {
+                ByteBuffer row = segment.readRow(offset);
+                RowLocation location = new RowLocation(partition, segment, offset, row.limit());
+                if (keyed) {
+                    putLatest(Segment.idOf(row), location);
+                } else {
+                    indexColumn(RowCodec.decode(Segment.columnsOf(row)), location);
+                }
+            }
+        }
+        log.info("Model store {} is loaded, partitions: {}.", name, partitions.size());
+    }
+
+    /**
+     * Append the row into the partition of the day, as the latest version of the row if the store is keyed.
+     */
+    public void write(long day, String id, Map<String, Object> row) throws IOException {
+        byte[] columns = RowCodec.encode(row);
+        Partition partition = partitions.computeIfAbsent(day, d -> new Partition(directory, d, maxSegmentBytes));
+        // Index the row under the lock of the partition, which the compaction holds, or the location in the replaced
+        // segment could be indexed after the compaction.
+        synchronized (partition) {
+            RowLocation location = partition.append(id.getBytes(StandardCharsets.UTF_8), columns);
+            if (keyed) {
+                putLatest(id, location);
+            } else if (indexedColumn != null) {
+                indexColumn(row, location);
+            }
+        }
+    }
+
+    private void putLatest(String id, RowLocation location) {
+        RowLocation previous = index.put(id, location);
+        if (previous != null) {
+            previous.partition.addDeadBytes(previous.size);
+        }
+    }
+
+    private void indexColumn(Map<String, Object> row, RowLocation location) {
+        Object value = row.get(indexedColumn);
+        if (value != null) {
+            location.partition.index(value.toString(), location);
+        }
+    }
+
+    /**
+     * @return the latest version of the row, or null if the row doesn't exist. Only supported by the keyed store.
+     */
+    public Map<String, Object> get(String id) throws IOException {
+        if (!keyed) {
+            throw new UnsupportedOperationException("The rows of " + name + " are not indexed.");
+        }
+        RowLocation location = index.get(id);
+        if (location == null) {
+            return null;
+        }
+        return RowCodec.decode(Segment.columnsOf(location.segment.read(location.offset, location.size)));
+    }
+
+    /**
+     * Visit the rows whose indexed column is the value, in the order they are written. Only supported by the store
+     * with the indexed column.
+     */
+    public void lookup(String value, RowVisitor visitor) throws IOException {
+        if (indexedColumn == null) {
+            throw new UnsupportedOperationException("The rows of " + name + " are not indexed by column.");
+        }
+        for (Partition partition : partitions.values()) {
+            for (RowLocation location : partition.lookup(value)) {
+                ByteBuffer row = location.segment.read(location.offset, location.size);
+                if (!visitor.visit(Segment.idOf(row), RowCodec.decode(Segment.columnsOf(row)))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit the latest versions of the rows in the partitions of the days, both the start and end days are included.
+     */
+    public void scan(long startDay, long endDay, RowVisitor visitor) throws IOException {
+        for (Partition partition : partitions.subMap(startDay, true, endDay, true).values()) {
+            for (Segment segment : partition.segments()) {
+                if (!scan(segment, visitor)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit the latest versions of the rows in all partitions.
+     */
+    public void scan(RowVisitor visitor) throws IOException {
+        scan(Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+    }
+
+    private boolean scan(Segment segment, RowVisitor visitor) throws IOException {
+        final int end = segment.size();
+        int offset = 0;
+        while (offset < end) {
+            ByteBuffer row = segment.readRow(offset);
+            String id = Segment.idOf(row);
+            if (!keyed || isLatest(id, segment, offset)) {
+                if (!visitor.visit(id, RowCodec.decode(Segment.columnsOf(row)))) {
+                    return false;
+                }
+            }
+            offset += row.limit();
+        }
+        return true;
+    }
+
+    private boolean isLatest(String id, Segment segment, int offset) {
+        RowLocation location = index.get(id);
+        return location != null && location.at(segment, offset);
+    }
+
+    /**
+     * Compact the partitions of the keyed store, whose most bytes are the older versions of the rows. The latest
+     * versions are copied into the new segment files, and the replaced files are deleted in the next run, after the
+     * running readers finished. The scans running across the compaction could miss the moved rows.
+     *
+     * @return the days of the compacted partitions.
+     */
+    public List<Long> compact() throws IOException {
+        if (!keyed) {
+            return Collections.emptyList();
+        }
+        List<Long> compacted = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            partition.deleteRetired();
+            if (!partition.needsCompaction()) {
+                continue;
+            }
+            partition.compact((segment, writer) -> {
+                final int end = segment.size();
+                int offset = 0;
+                while (offset < end) {
+                    ByteBuffer row = segment.readRow(offset);
+                    String id = Segment.idOf(row);
+                    RowLocation location = index.get(id);
+                    if (location != null && location.at(segment, offset)) {
+                        RowLocation copy = writer.write(id.getBytes(StandardCharsets.UTF_8), copyColumns(row));
+                        // The row could be updated in the other partition meanwhile, the copy is an older version.
+                        if (!index.replace(id, location, copy)) {
+                            partition.addDeadBytes(copy.size);
+                        }
+                    }
+                    offset += row.limit();
+                }
+            });
+            compacted.add(partition.getDay());
+        }
+        return compacted;
+    }
+
+    private static byte[] copyColumns(ByteBuffer row) {
+        ByteBuffer columns = Segment.columnsOf(row);
+        byte[] bytes = new byte[columns.remaining()];
+        columns.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Delete the partitions before the day.
+     *
+     * @return the days of the deleted partitions.
+     */
+    public List<Long> deleteBefore(long day) throws IOException {
+        NavigableMap<Long, Partition> expired = partitions.headMap(day, false);
+        List<Long> deleted = new ArrayList<>(expired.size());
+        for (Iterator<Partition> iterator = expired.values().iterator(); iterator.hasNext(); ) {
+            Partition partition = iterator.next();
+            iterator.remove();
+            if (keyed) {
+                index.values().removeIf(location -> location.partition == partition);
+            }
+            try {
+                partition.delete();
+            } catch (IOException e) {
+                log.error("Failed to delete the partition {} of {}.", partition.getDay(), name, e);
+            }
+            deleted.add(partition.getDay());
+        }
+        return deleted;
+    }
+
+    /**
+     * Flush the appended rows to the disk.
+     */
+    public void force() throws IOException {
+        for (Partition partition : partitions.values()) {
+            partition.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Partition partition : partitions.values()) {
+            partition.close();
+        }
+    }
+}
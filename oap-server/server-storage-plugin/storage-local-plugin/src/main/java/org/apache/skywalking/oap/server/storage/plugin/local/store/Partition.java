@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+
+/**
+ * Partition holds the rows of one model in one day, in one or more segment files. A new segment file is started when
+ * the current one is full. The partitions expired are deleted as a whole.
+ * <p>
+ * The partition of the keyed store tracks the bytes of the older versions of the rows, and is compacted by rewriting
+ * the latest versions into the new segment files, see {@link ModelStore#compact()}.
+ */
+class Partition implements Closeable {
+    private static final String SUFFIX = ".dat";
+
+    @Getter
+    private final long day;
+    private final File directory;
+    private final int maxSegmentBytes;
+    private volatile List<Segment> segments = Collections.emptyList();
+    /**
+     * The segments replaced by the compaction, which are kept open for the running readers, and deleted in the next
+     * compaction run.
+     */
+    private List<Segment> retired = Collections.emptyList();
+    private int nextSequence;
+    /**
+     * The estimated bytes of the older versions of the rows.
+     */
+    private final AtomicLong deadBytes = new AtomicLong();
+    /**
+     * The locations of the rows by the value of the indexed column, only for the store with the indexed column.
+     */
+    private final Map<String, List<RowLocation>> columnIndex = new ConcurrentHashMap<>();
+
+    Partition(File directory, long day, int maxSegmentBytes) {
+        this.directory = directory;
+        this.day = day;
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    static String fileName(long day, int sequence) {
+        return String.format("%d-%06d%s", day, sequence, SUFFIX);
+    }
+
+    /**
+     * @return the day of the segment file, or -1 if it is not a segment file.
+     */
+    static long dayOf(String fileName) {
+        int separator = fileName.indexOf('-');
+        if (separator <= 0 || !fileName.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the sequence of the segment file in the partition, or -1 if it is not a segment file.
+     */
+    static int sequenceOf(String fileName) {
+        int separator = fileName.indexOf('-');
+        if (separator <= 0 || !fileName.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(fileName.substring(separator + 1, fileName.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Add the existing segment file, the files should be added in the order of their sequences.
+     */
+    synchronized void addSegment(Segment segment) {
+        segments = concat(segments, Collections.singletonList(segment));
+        nextSequence = Math.max(nextSequence, sequenceOf(segment.getFile().getName()) + 1);
+    }
+
+    List<Segment> segments() {
+        return segments;
+    }
+
+    synchronized RowLocation append(byte[] id, byte[] columns) throws IOException {
+        final int rowSize = Segment.rowSize(id, columns);
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || (segment.size() > 0 && (long) segment.size() + rowSize > maxSegmentBytes)) {
+            segment = newSegment();
+            segments = concat(segments, Collections.singletonList(segment));
+        }
+        return new RowLocation(this, segment, segment.append(id, columns), rowSize);
+    }
+
+    private Segment newSegment() throws IOException {
+        return new Segment(new File(directory, fileName(day, nextSequence++)));
+    }
+
+    void index(String value, RowLocation location) {
+        columnIndex.computeIfAbsent(value, v -> new CopyOnWriteArrayList<>()).add(location);
+    }
+
+    List<RowLocation> lookup(String value) {
+        List<RowLocation> locations = columnIndex.get(value);
+        return locations == null ? Collections.emptyList() : locations;
+    }
+
+    void addDeadBytes(int bytes) {
+        deadBytes.addAndGet(bytes);
+    }
+
+    /**
+     * The partition is worth compacting when the older versions take more than half of the partition, and a quarter
+     * of one segment file at least.
+     */
+    boolean needsCompaction() {
+        long dead = deadBytes.get();
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.size();
+        }
+        return dead >= maxSegmentBytes / 4 && dead * 2 > total;
+    }
+
+    /**
+     * Rewrite the rows of the current segments into the new segment files, the appending is blocked meanwhile. The
+     * new files have the higher sequences, so they override the current ones when the partition is loaded, even if
+     * the OAP crashed before the current ones are deleted.
+     *
+     * @param copier copies the latest versions of the rows of the segment by the given writer.
+     */
+    synchronized void compact(SegmentCopier copier) throws IOException {
+        deleteRetired();
+        final List<Segment> current = segments;
+        final List<Segment> compacted = new ArrayList<>();
+        final RowWriter writer = (id, columns) -> {
+            final int rowSize = Segment.rowSize(id, columns);
+            Segment segment = compacted.isEmpty() ? null : compacted.get(compacted.size() - 1);
+            if (segment == null || (segment.size() > 0 && (long) segment.size() + rowSize > maxSegmentBytes)) {
+                segment = newSegment();
+                compacted.add(segment);
+            }
+            return new RowLocation(this, segment, segment.append(id, columns), rowSize);
+        };
+        deadBytes.set(0);
+        for (Segment segment : current) {
+            copier.copy(segment, writer);
+        }
+        for (Segment segment : compacted) {
+            segment.force();
+        }
+        segments = Collections.unmodifiableList(compacted);
+        retired = current;
+    }
+
+    /**
+     * Delete the segments retired by the last compaction, the readers should have finished with them.
+     */
+    synchronized void deleteRetired() throws IOException {
+        for (Segment segment : retired) {
+            segment.close();
+            if (!segment.getFile().delete() && segment.getFile().exists()) {
+                throw new IOException("Failed to delete " + segment.getFile());
+            }
+        }
+        retired = Collections.emptyList();
+    }
+
+    void force() throws IOException {
+        final List<Segment> current = segments;
+        if (!current.isEmpty()) {
+            current.get(current.size() - 1).force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        for (Segment segment : retired) {
+            segment.close();
+        }
+    }
+
+    synchronized void delete() throws IOException {
+        deleteRetired();
+        close();
+        for (Segment segment : segments) {
+            if (!segment.getFile().delete() && segment.getFile().exists()) {
+                throw new IOException("Failed to delete " + segment.getFile());
+            }
+        }
+    }
+
+    private static List<Segment> concat(List<Segment> first, List<Segment> second) {
+        List<Segment> result = new ArrayList<>(first.size() + second.size());
+        result.addAll(first);
+        result.addAll(second);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Append the row into the new segment files of the compaction.
+     */
+    @FunctionalInterface
+    interface RowWriter {
+        RowLocation write(byte[] id, byte[] columns) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface SegmentCopier {
+        void copy(Segment segment, RowWriter writer) throws IOException;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.store;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RowCodec serializes the column map of one row, which is generated by the storage builders. The values are typed by
+ * one byte tag, the values of unknown types are stored as their string form.
+ */
+final class RowCodec {
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte BYTES = 6;
+    private static final byte LIST = 7;
+
+    private RowCodec() {
+    }
+
+    static byte[] encode(Map<String, Object> row) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeShort(row.size());
+        for (Map.Entry<String, Object> column : row.entrySet()) {
+            byte[] name = column.getKey().getBytes(StandardCharsets.UTF_8);
+            output.writeShort(name.length);
+            output.write(name);
+            writeValue(output, column.getValue());
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    static Map<String, Object> decode(ByteBuffer buffer) {
+        int columns = buffer.getShort() & 0xFFFF;
+        Map<String, Object> row = new HashMap<>(columns * 2);
+        for (int i = 0; i < columns; i++) {
+            byte[] name = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(name);
+            row.put(new String(name, StandardCharsets.UTF_8), readValue(buffer));
+        }
+        return row;
+    }
+
+    private static void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            output.writeByte(INT);
+            output.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            output.writeByte(DOUBLE);
+            output.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof byte[]) {
+            output.writeByte(BYTES);
+            output.writeInt(((byte[]) value).length);
+            output.write((byte[]) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            output.writeByte(LIST);
+            output.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(output, element);
+            }
+        } else {
+            byte[] string = value.toString().getBytes(StandardCharsets.UTF_8);
+            output.writeByte(STRING);
+            output.writeInt(string.length);
+            output.write(string);
+        }
+    }
+
+    private static Object readValue(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                byte[] string = new byte[buffer.getInt()];
+                buffer.get(string);
+                return new String(string, StandardCharsets.UTF_8);
+            case INT:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case DOUBLE:
+                return buffer.getDouble();
+            case BOOLEAN:
+                return buffer.get() != 0;
+            case BYTES:
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                return bytes;
+            case LIST:
+                int size = buffer.getInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(buffer));
+                }
+                return list;
+            default:
+                throw new IllegalStateException("Unknown value type: " + type);
+        }
+    }
+}
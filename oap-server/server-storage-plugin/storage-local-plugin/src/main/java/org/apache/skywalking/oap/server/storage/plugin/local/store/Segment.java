@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Segment is one append-only file of the partition. The rows are appended through the file channel, and read through
+ * the memory mappings of the file in fixed size chunks. The full chunks are mapped once, only the chunk at the end of
+ * the file is re-mapped when the rows beyond it are read, and its previous mapping is dropped to be released by GC.
+ * The mappings are not unmapped explicitly, as the concurrent readers may still hold them.
+ * <p>
+ * Every row is written as [int length][short id length][id][columns], the length doesn't include itself.
+ */
+@Slf4j
+class Segment implements Closeable {
+    static final int DEFAULT_CHUNK_BYTES = 16 * 1024 * 1024;
+    private static final int LENGTH_BYTES = 4;
+    private static final int HEADER_BYTES = LENGTH_BYTES + 2;
+    private static final MappedByteBuffer[] NO_CHUNKS = new MappedByteBuffer[0];
+
+    @Getter
+    private final File file;
+    private final FileChannel channel;
+    private final int chunkBytes;
+    private volatile int size;
+    private volatile MappedByteBuffer[] chunks = NO_CHUNKS;
+
+    Segment(File file) throws IOException {
+        this(file, DEFAULT_CHUNK_BYTES);
+    }
+
+    Segment(File file, int chunkBytes) throws IOException {
+        this.file = file;
+        this.chunkBytes = chunkBytes;
+        this.channel = FileChannel.open(
+            file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.size = (int) Math.min(channel.size(), Integer.MAX_VALUE);
+    }
+
+    int size() {
+        return size;
+    }
+
+    static int rowSize(byte[] id, byte[] columns) {
+        return HEADER_BYTES + id.length + columns.length;
+    }
+
+    /**
+     * @return the offset of the appended row.
+     */
+    synchronized int append(byte[] id, byte[] columns) throws IOException {
+        final int offset = size;
+        ByteBuffer row = ByteBuffer.allocate(rowSize(id, columns));
+        row.putInt(row.capacity() - LENGTH_BYTES).putShort((short) id.length).put(id).put(columns).flip();
+        long position = offset;
+        while (row.hasRemaining()) {
+            position += channel.write(row, position);
+        }
+        size = (int) position;
+        return offset;
+    }
+
+    /**
+     * @return the whole row at the offset, whose limit is the size of the row.
+     */
+    ByteBuffer readRow(int offset) throws IOException {
+        return read(offset, LENGTH_BYTES + read(offset, LENGTH_BYTES).getInt(0));
+    }
+
+    static String idOf(ByteBuffer row) {
+        byte[] id = new byte[row.getShort(LENGTH_BYTES) & 0xFFFF];
+        ByteBuffer duplicate = row.duplicate();
+        duplicate.position(HEADER_BYTES);
+        duplicate.get(id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    static ByteBuffer columnsOf(ByteBuffer row) {
+        ByteBuffer duplicate = row.duplicate();
+        duplicate.position(HEADER_BYTES + (row.getShort(LENGTH_BYTES) & 0xFFFF));
+        return duplicate.slice();
+    }
+
+    /**
+     * @return the bytes in the range, which are the slice of the mapping, or the copy if the range spans the chunks.
+     */
+    ByteBuffer read(int offset, int length) throws IOException {
+        final int end = offset + length;
+        final MappedByteBuffer[] current = chunks(end);
+        final int first = offset / chunkBytes;
+        final int last = (end - 1) / chunkBytes;
+        if (first == last) {
+            ByteBuffer duplicate = current[first].duplicate();
+            duplicate.limit(end - first * chunkBytes).position(offset - first * chunkBytes);
+            return duplicate.slice();
+        }
+        ByteBuffer copy = ByteBuffer.allocate(length);
+        for (int i = first; i <= last; i++) {
+            final int chunkStart = i * chunkBytes;
+            ByteBuffer duplicate = current[i].duplicate();
+            duplicate.limit(Math.min(end - chunkStart, duplicate.capacity()))
+                     .position(Math.max(offset - chunkStart, 0));
+            copy.put(duplicate);
+        }
+        copy.flip();
+        return copy;
+    }
+
+    /**
+     * @return the mapped chunks covering the bytes before the end.
+     */
+    private MappedByteBuffer[] chunks(int end) throws IOException {
+        MappedByteBuffer[] current = chunks;
+        if (mappedBytes(current) < end) {
+            synchronized (this) {
+                current = chunks;
+                if (mappedBytes(current) < end) {
+                    final int mappedSize = size;
+                    final int count = (mappedSize + chunkBytes - 1) / chunkBytes;
+                    MappedByteBuffer[] remapped = Arrays.copyOf(current, count);
+                    // The full chunks are kept, only the partial last one and the new ones are mapped.
+                    int from = current.length;
+                    if (from > 0 && current[from - 1].capacity() < chunkBytes) {
+                        from--;
+                    }
+                    for (int i = from; i < count; i++) {
+                        final long chunkStart = (long) i * chunkBytes;
+                        remapped[i] = channel.map(
+                            FileChannel.MapMode.READ_ONLY, chunkStart, Math.min(chunkBytes, mappedSize - chunkStart));
+                    }
+                    current = remapped;
+                    chunks = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private int mappedBytes(MappedByteBuffer[] current) {
+        return current.length == 0 ? 0 : (current.length - 1) * chunkBytes + current[current.length - 1].capacity();
+    }
+
+    /**
+     * Check the rows from the beginning, the incomplete row at the end, written partially when the OAP crashed, is
+     * truncated.
+     *
+     * @return the offsets of the complete rows.
+     */
+    synchronized int[] recover() throws IOException {
+        int[] offsets = new int[16];
+        int count = 0;
+        int offset = 0;
+        while (offset + HEADER_BYTES <= size) {
+            int length = read(offset, LENGTH_BYTES).getInt(0);
+            if (length < 2 || (long) offset + LENGTH_BYTES + length > size) {
+                break;
+            }
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[count++] = offset;
+            offset += LENGTH_BYTES + length;
+        }
+        if (offset < size) {
+            log.warn("Truncate the incomplete rows of {} from {} to {}.", file, size, offset);
+            channel.truncate(offset);
+            size = offset;
+            chunks = NO_CHUNKS;
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        chunks = NO_CHUNKS;
+        channel.close();
+    }
+}
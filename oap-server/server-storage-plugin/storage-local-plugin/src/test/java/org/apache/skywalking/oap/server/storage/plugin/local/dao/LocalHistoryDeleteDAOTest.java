@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.ModelStore;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LocalHistoryDeleteDAOTest {
+    private final Model model = new Model(
+        "metrics", new ArrayList<>(), new ArrayList<>(), 0, DownSampling.Minute, false, false);
+    private File directory;
+    private LocalStore localStore;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("local-history").toFile();
+        localStore = new LocalStore(directory.getAbsolutePath(), 1024);
+        localStore.connect();
+        new LocalModelInstaller(localStore).whenCreating(model);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        localStore.shutdown();
+        delete(directory);
+    }
+
+    @Test
+    public void testDeleteExpiredAndCompact() throws IOException {
+        ModelStore metrics = localStore.model(model.getName());
+        metrics.write(20200101, "expired", row("expired", 0));
+        for (int i = 0; i < 50; i++) {
+            metrics.write(20991231, "updated", row("updated", i));
+        }
+        File modelDirectory = new File(directory, model.getName());
+        final int files = modelDirectory.list().length;
+
+        Assert.assertEquals(1, new LocalHistoryDeleteDAO(localStore).deleteHistory(model, Metrics.TIME_BUCKET, 3));
+        Assert.assertNull(metrics.get("expired"));
+        Assert.assertEquals(49, metrics.get("updated").get("value"));
+
+        // The compacted files are added, the replaced ones are deleted in the next run.
+        new LocalHistoryDeleteDAO(localStore).deleteHistory(model, Metrics.TIME_BUCKET, 3);
+        Assert.assertTrue(modelDirectory.list().length < files);
+        Assert.assertEquals(49, metrics.get("updated").get("value"));
+    }
+
+    private static Map<String, Object> row(String id, int value) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("value", value);
+        return row;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
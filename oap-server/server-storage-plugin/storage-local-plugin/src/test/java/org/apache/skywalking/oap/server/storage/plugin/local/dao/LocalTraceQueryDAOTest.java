@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.dao;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.analysis.record.Record;
+import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
+import org.apache.skywalking.oap.server.core.query.type.QueryOrder;
+import org.apache.skywalking.oap.server.core.query.type.TraceBrief;
+import org.apache.skywalking.oap.server.core.query.type.TraceState;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.storage.plugin.local.store.LocalStore;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LocalTraceQueryDAOTest {
+    private final Model model = new Model(
+        SegmentRecord.INDEX_NAME, new ArrayList<>(), new ArrayList<>(), 0, DownSampling.Second, true, true);
+    private File directory;
+    private LocalStore localStore;
+    private LocalTraceQueryDAO traceQueryDAO;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("local-trace").toFile();
+        open();
+
+        List<PrepareRequest> requests = new ArrayList<>();
+        LocalRecordDAO recordDAO = new LocalRecordDAO((StorageBuilder) new SegmentRecord.Builder());
+        requests.add(recordDAO.prepareBatchInsert(model, segment("s1", "t1", 20200808235959L, 10)));
+        requests.add(recordDAO.prepareBatchInsert(model, segment("s2", "t2", 20200809000001L, 20)));
+        requests.add(recordDAO.prepareBatchInsert(model, segment("s3", "t1", 20200809000002L, 30)));
+        new LocalBatchDAO(localStore).synchronous(requests);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        localStore.shutdown();
+        delete(directory);
+    }
+
+    @Test
+    public void testQueryByTraceId() throws Exception {
+        Assert.assertEquals(Arrays.asList("s1", "s3"), segmentIds(traceQueryDAO.queryByTraceId("t1")));
+        Assert.assertEquals(Collections.singletonList("s2"), segmentIds(traceQueryDAO.queryByTraceId("t2")));
+        Assert.assertTrue(traceQueryDAO.queryByTraceId("t3").isEmpty());
+
+        // The trace id index is rebuilt from the data files.
+        localStore.shutdown();
+        open();
+        Assert.assertEquals(Arrays.asList("s1", "s3"), segmentIds(traceQueryDAO.queryByTraceId("t1")));
+    }
+
+    @Test
+    public void testQueryBasicTraces() throws Exception {
+        TraceBrief traceBrief = traceQueryDAO.queryBasicTraces(
+            0, 0, 0, 0, null, null, null, null, "t1", 10, 0, TraceState.ALL, QueryOrder.BY_DURATION, null);
+        Assert.assertEquals(2, traceBrief.getTotal());
+        Assert.assertEquals(
+            Arrays.asList("s3", "s1"),
+            traceBrief.getTraces().stream().map(BasicTrace::getSegmentId).collect(Collectors.toList())
+        );
+
+        traceBrief = traceQueryDAO.queryBasicTraces(
+            20200809000000L, 20200809235959L, 0, 0, null, null, null, null, null, 10, 0, TraceState.ALL,
+            QueryOrder.BY_START_TIME, null
+        );
+        Assert.assertEquals(2, traceBrief.getTotal());
+        Assert.assertEquals(
+            Arrays.asList("s3", "s2"),
+            traceBrief.getTraces().stream().map(BasicTrace::getSegmentId).collect(Collectors.toList())
+        );
+    }
+
+    private void open() throws Exception {
+        localStore = new LocalStore(directory.getAbsolutePath(), 1024);
+        localStore.connect();
+        new LocalModelInstaller(localStore).whenCreating(model);
+        traceQueryDAO = new LocalTraceQueryDAO(localStore);
+    }
+
+    private static Record segment(String segmentId, String traceId, long timeBucket, int latency) {
+        SegmentRecord segment = new SegmentRecord();
+        segment.setSegmentId(segmentId);
+        segment.setTraceId(traceId);
+        segment.setEndpointName("/" + segmentId);
+        segment.setStartTime(timeBucket);
+        segment.setEndTime(timeBucket + latency);
+        segment.setLatency(latency);
+        segment.setTimeBucket(timeBucket);
+        return segment;
+    }
+
+    private static List<String> segmentIds(List<SegmentRecord> segments) {
+        return segments.stream().map(SegmentRecord::getSegmentId).collect(Collectors.toList());
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LocalStoreTest {
+    private File directory;
+    private LocalStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("local-store").toFile();
+        store = new LocalStore(directory.getAbsolutePath(), 1024);
+        store.connect();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.shutdown();
+        delete(directory);
+    }
+
+    @Test
+    public void testRowCodec() throws IOException {
+        Map<String, Object> row = row("id", 1);
+        row.put("long", 20200809L);
+        row.put("double", 1.5D);
+        row.put("boolean", true);
+        row.put("null", null);
+        row.put("tags", Arrays.asList("a=b", "c=d"));
+        row.put("bytes", new byte[] {1, 2});
+        Map<String, Object> decoded = RowCodec.decode(java.nio.ByteBuffer.wrap(RowCodec.encode(row)));
+        Assert.assertArrayEquals(new byte[] {1, 2}, (byte[]) decoded.remove("bytes"));
+        row.remove("bytes");
+        Assert.assertEquals(row, decoded);
+    }
+
+    @Test
+    public void testKeyedStore() throws IOException {
+        ModelStore metrics = store.open("metrics", true);
+        metrics.write(20200809, "a", row("a", 1));
+        metrics.write(20200809, "b", row("b", 1));
+        metrics.write(20200810, "a", row("a", 2));
+
+        Assert.assertEquals(2, metrics.get("a").get("value"));
+        Assert.assertNull(metrics.get("c"));
+        Assert.assertEquals(Arrays.asList("b=1", "a=2"), scan(metrics, Long.MIN_VALUE, Long.MAX_VALUE));
+        Assert.assertEquals(Collections.singletonList("b=1"), scan(metrics, 20200809, 20200809));
+
+        store.shutdown();
+        store = new LocalStore(directory.getAbsolutePath(), 1024);
+        metrics = store.open("metrics", true);
+        Assert.assertEquals(2, metrics.get("a").get("value"));
+        Assert.assertEquals(Arrays.asList("b=1", "a=2"), scan(metrics, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testRecordStoreRollsSegments() throws IOException {
+        ModelStore records = store.open("records", false);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            records.write(20200809, "r" + i, row("r" + i, i));
+            expected.add("r" + i + "=" + i);
+        }
+        Assert.assertTrue(new File(directory, "records").list().length > 1);
+        Assert.assertEquals(expected, scan(records, 20200809, 20200809));
+
+        List<String> first = new ArrayList<>();
+        records.scan((id, row) -> first.add(id) && first.size() < 3);
+        Assert.assertEquals(Arrays.asList("r0", "r1", "r2"), first);
+    }
+
+    @Test
+    public void testDeleteBefore() throws IOException {
+        ModelStore metrics = store.open("metrics", true);
+        metrics.write(20200808, "a", row("a", 1));
+        metrics.write(20200809, "b", row("b", 1));
+        metrics.write(20200810, "c", row("c", 1));
+
+        Assert.assertEquals(Arrays.asList(20200808L, 20200809L), metrics.deleteBefore(20200810));
+        Assert.assertNull(metrics.get("a"));
+        Assert.assertEquals(Collections.singletonList("c=1"), scan(metrics, Long.MIN_VALUE, Long.MAX_VALUE));
+        Assert.assertEquals(1, new File(directory, "metrics").list().length);
+    }
+
+    @Test
+    public void testRecoverIncompleteRow() throws IOException {
+        ModelStore records = store.open("records", false);
+        records.write(20200809, "a", row("a", 1));
+        store.shutdown();
+
+        File file = new File(new File(directory, "records"), Partition.fileName(20200809, 0));
+        long length = file.length();
+        try (RandomAccessFile output = new RandomAccessFile(file, "rw")) {
+            output.seek(length);
+            output.writeInt(100);
+            output.writeShort(1);
+        }
+
+        store = new LocalStore(directory.getAbsolutePath(), 1024);
+        records = store.open("records", false);
+        Assert.assertEquals(length, file.length());
+        records.write(20200809, "b", row("b", 2));
+        Assert.assertEquals(Arrays.asList("a=1", "b=2"), scan(records, 20200809, 20200809));
+    }
+
+    @Test
+    public void testReadAcrossChunks() throws IOException {
+        File file = new File(directory, "chunks.dat");
+        try (Segment segment = new Segment(file, 16)) {
+            List<Integer> offsets = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                offsets.add(segment.append(("r" + i).getBytes(), RowCodec.encode(row("r" + i, i))));
+                // Read after every append, the chunk at the end is re-mapped.
+                for (int j = 0; j <= i; j++) {
+                    java.nio.ByteBuffer read = segment.readRow(offsets.get(j));
+                    Assert.assertEquals("r" + j, Segment.idOf(read));
+                    Assert.assertEquals(j, RowCodec.decode(Segment.columnsOf(read)).get("value"));
+                }
+            }
+            Assert.assertEquals(offsets, toList(segment.recover()));
+        }
+    }
+
+    @Test
+    public void testLookupByColumn() throws IOException {
+        ModelStore records = store.open("records", false, "trace");
+        for (int i = 0; i < 30; i++) {
+            Map<String, Object> row = row("r" + i, i);
+            row.put("trace", "t" + i % 3);
+            records.write(20200808 + i % 2, "r" + i, row);
+        }
+        Assert.assertEquals(Arrays.asList("r0=0", "r6=6", "r12=12", "r18=18", "r24=24", "r3=3", "r9=9", "r15=15"),
+                            lookup(records, "t0").subList(0, 8));
+        Assert.assertEquals(10, lookup(records, "t1").size());
+        Assert.assertTrue(lookup(records, "t3").isEmpty());
+
+        store.shutdown();
+        store = new LocalStore(directory.getAbsolutePath(), 1024);
+        records = store.open("records", false, "trace");
+        Assert.assertEquals(10, lookup(records, "t2").size());
+
+        records.deleteBefore(20200809);
+        Assert.assertEquals(Arrays.asList("r3=3", "r9=9", "r15=15", "r21=21", "r27=27"), lookup(records, "t0"));
+    }
+
+    @Test
+    public void testCompact() throws IOException {
+        ModelStore metrics = store.open("metrics", true);
+        metrics.write(20200809, "b", row("b", 0));
+        for (int i = 0; i < 50; i++) {
+            metrics.write(20200809, "a", row("a", i));
+        }
+        metrics.write(20200810, "c", row("c", 0));
+        File modelDirectory = new File(directory, "metrics");
+        final int files = modelDirectory.list().length;
+
+        Assert.assertEquals(Collections.singletonList(20200809L), metrics.compact());
+        Assert.assertEquals(49, metrics.get("a").get("value"));
+        Assert.assertEquals(Arrays.asList("b=0", "a=49", "c=0"), scan(metrics, Long.MIN_VALUE, Long.MAX_VALUE));
+        // The replaced files are kept until the next run.
+        Assert.assertEquals(files + 1, modelDirectory.list().length);
+
+        metrics.write(20200809, "a", row("a", 50));
+        Assert.assertTrue(metrics.compact().isEmpty());
+        Assert.assertEquals(2, modelDirectory.list().length);
+        Assert.assertEquals(Arrays.asList("b=0", "a=50", "c=0"), scan(metrics, Long.MIN_VALUE, Long.MAX_VALUE));
+
+        store.shutdown();
+        store = new LocalStore(directory.getAbsolutePath(), 1024);
+        metrics = store.open("metrics", true);
+        Assert.assertEquals(50, metrics.get("a").get("value"));
+        Assert.assertEquals(Arrays.asList("b=0", "a=50", "c=0"), scan(metrics, Long.MIN_VALUE, Long.MAX_VALUE));
+        metrics.write(20200809, "b", row("b", 1));
+        Assert.assertEquals(Arrays.asList("a=50", "b=1", "c=0"), scan(metrics, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testCompactAfterCrash() throws IOException {
+        ModelStore metrics = store.open("metrics", true);
+        for (int i = 0; i < 50; i++) {
+            metrics.write(20200809, "a", row("a", i));
+        }
+        metrics.compact();
+        // The replaced files are not deleted before the crash, the compacted ones override them.
+        store.shutdown();
+        store = new LocalStore(directory.getAbsolutePath(), 1024);
+        metrics = store.open("metrics", true);
+        Assert.assertEquals(49, metrics.get("a").get("value"));
+        Assert.assertEquals(Collections.singletonList("a=49"), scan(metrics, 20200809, 20200809));
+    }
+
+    @Test
+    public void testWriteWhileCompacting() throws Exception {
+        final ModelStore metrics = store.open("metrics", true);
+        final int rounds = 2000;
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            final String id = "w" + w;
+            Thread writer = new Thread(() -> {
+                try {
+                    for (int i = 0; i < rounds; i++) {
+                        metrics.write(20200809, id, row(id, i));
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        int compacted = 0;
+        while (writers.get(0).isAlive() || writers.get(1).isAlive()) {
+            compacted += metrics.compact().size();
+            Assert.assertNotNull(metrics.get("w0"));
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        Assert.assertTrue(errors.isEmpty());
+        Assert.assertTrue(compacted > 0);
+        // The replaced files are deleted, the latest versions must not be in them.
+        metrics.compact();
+        metrics.compact();
+        Assert.assertEquals(rounds - 1, metrics.get("w0").get("value"));
+        Assert.assertEquals(rounds - 1, metrics.get("w1").get("value"));
+
+        store.shutdown();
+        store = new LocalStore(directory.getAbsolutePath(), 1024);
+        store.open("metrics", true);
+        Assert.assertEquals(rounds - 1, store.model("metrics").get("w0").get("value"));
+        Assert.assertEquals(rounds - 1, store.model("metrics").get("w1").get("value"));
+    }
+
+    @Test
+    public void testDayOf() {
+        Assert.assertEquals(20200809, LocalStore.dayOf(20200809101059L));
+        Assert.assertEquals(20200809, LocalStore.dayOf(202008091010L));
+        Assert.assertEquals(20200809, LocalStore.dayOf(2020080910L));
+        Assert.assertEquals(20200809, LocalStore.dayOf(20200809L));
+    }
+
+    private static Map<String, Object> row(String id, int value) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("value", value);
+        return row;
+    }
+
+    private static List<String> scan(ModelStore model, long startDay, long endDay) throws IOException {
+        List<String> rows = new ArrayList<>();
+        model.scan(startDay, endDay, (id, row) -> rows.add(id + "=" + row.get("value")));
+        return rows;
+    }
+
+    private static List<String> lookup(ModelStore model, String value) throws IOException {
+        List<String> rows = new ArrayList<>();
+        model.lookup(value, (id, row) -> rows.add(id + "=" + row.get("value")));
+        return rows;
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}